@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Measures the CPU cost of compressing a typical JSON response with each {@link StandardCompressionEncoding} and
+ * level. The {@code inputBytes} and {@code outputBytes} counters give the compression ratio. Brotli and Zstandard
+ * need brotli4j and zstd-jni on the classpath.
+ */
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+    @Param({"gzip", "deflate", "br", "zstd"})
+    String encoding;
+
+    @Param({"1", "4", "6", "9"})
+    int level;
+
+    StandardCompressionEncoding compressionEncoding;
+    ByteBuf payload;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        compressionEncoding = StandardCompressionEncoding.of(encoding);
+        if (compressionEncoding == null || !compressionEncoding.isAvailable()) {
+            throw new IllegalStateException("Encoding " + encoding + " is not available");
+        }
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"title\":\"Book ").append(i)
+                    .append("\",\"author\":{\"name\":\"Author ").append(i % 17)
+                    .append("\"},\"pages\":").append(100 + i * 7 % 900)
+                    .append(",\"available\":").append(i % 3 == 0)
+                    .append(",\"tags\":[\"fiction\",\"classic\"]}");
+        }
+        json.append(']');
+        payload = Unpooled.unreleasableBuffer(Unpooled.directBuffer().writeBytes(json.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        payload.unwrap().release();
+    }
+
+    @Benchmark
+    public long compress(Counters counters) {
+        EmbeddedChannel channel = new EmbeddedChannel(compressionEncoding.newEncoder(level));
+        channel.writeOutbound(payload.duplicate());
+        channel.finish();
+        long compressed = 0;
+        ByteBuf buf;
+        while ((buf = channel.readOutbound()) != null) {
+            compressed += buf.readableBytes();
+            buf.release();
+        }
+        counters.inputBytes += payload.readableBytes();
+        counters.outputBytes += compressed;
+        return compressed;
+    }
+
+    /**
+     * The number of bytes before and after compression.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long inputBytes;
+        public long outputBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            inputBytes = 0;
+            outputBytes = 0;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + CompressionBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
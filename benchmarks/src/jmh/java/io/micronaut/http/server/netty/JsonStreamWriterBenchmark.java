@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.buffer.netty.NettyByteBufferFactory;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.netty.stream.JsonSubscriber;
+import io.micronaut.jackson.databind.JacksonDatabindMapper;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.json.codec.JsonMediaTypeCodec;
+import io.micronaut.json.codec.MapperMediaTypeCodec;
+import io.micronaut.runtime.ApplicationConfiguration;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a publisher response body as a JSON array with one chunk per element, as
+ * {@link RoutingInBoundHandler} does by default, with serializing the elements into coalesced chunks with
+ * {@link JsonStreamWriter}. Every chunk is released as a channel write would. Run with the GC profiler to compare the
+ * allocation rates.
+ */
+@State(Scope.Benchmark)
+public class JsonStreamWriterBenchmark {
+
+    private static final Argument<Book> BOOK = Argument.of(Book.class);
+
+    @Param({"10", "1000", "100000"})
+    int elementCount;
+
+    MapperMediaTypeCodec codec;
+    JsonMapper jsonMapper;
+    ByteBufAllocator allocator;
+    NettyByteBufferFactory byteBufferFactory;
+    DefaultEventLoop eventLoop;
+    List<Book> books;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jsonMapper = new JacksonDatabindMapper();
+        codec = new JsonMediaTypeCodec(jsonMapper, new ApplicationConfiguration(), null);
+        allocator = PooledByteBufAllocator.DEFAULT;
+        byteBufferFactory = new NettyByteBufferFactory(allocator);
+        eventLoop = new DefaultEventLoop();
+        books = new ArrayList<>(elementCount);
+        for (int i = 0; i < elementCount; i++) {
+            Book book = new Book();
+            book.id = i;
+            book.title = "Book " + i;
+            book.pages = 100 + i * 7 % 900;
+            books.add(book);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        eventLoop.shutdownGracefully();
+    }
+
+    @Benchmark
+    public long perElement() {
+        Flux<HttpContent> contents = Flux.fromIterable(books)
+                .map(book -> (HttpContent) new DefaultHttpContent(codec.encode(BOOK, book, byteBufferFactory).asNativeBuffer()));
+        return write(JsonSubscriber.lift(contents));
+    }
+
+    @Benchmark
+    public long coalesced() {
+        return write(JsonStreamWriter.lift(
+                Flux.fromIterable(books),
+                jsonMapper,
+                BOOK,
+                true,
+                allocator,
+                eventLoop,
+                8192,
+                TimeUnit.MILLISECONDS.toNanos(10),
+                256
+        ));
+    }
+
+    private long write(Flux<HttpContent> contents) {
+        return contents.map(content -> {
+            int length = content.content().readableBytes();
+            content.release();
+            return (long) length;
+        }).reduce(0L, Long::sum).block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + JsonStreamWriterBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * An element of the response body.
+     */
+    public static class Book {
+        public int id;
+        public String title;
+        public int pages;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.jackson;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.jackson.databind.JacksonDatabindMapper;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.json.tree.JsonNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares binding a JSON request body to a POJO through an intermediate {@link JsonNode} tree, as
+ * {@link JsonContentProcessor} does, with deserializing the accumulated chunks directly, as
+ * {@link JsonBodyContentProcessor} does. The body arrives in chunks of 8KB like the chunks of the HTTP decoder.
+ * Run with the GC profiler to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+public class JsonBodyBindingBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final Argument<Library> LIBRARY = Argument.of(Library.class);
+
+    @Param({"1024", "65536", "1048576"})
+    int payloadSize;
+
+    JsonMapper jsonMapper;
+    ByteBufAllocator allocator;
+    List<ByteBuf> chunks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jsonMapper = new JacksonDatabindMapper();
+        allocator = PooledByteBufAllocator.DEFAULT;
+        StringBuilder json = new StringBuilder("{\"books\":[");
+        for (int i = 0; json.length() < payloadSize - 100; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"title\":\"Book ").append(i)
+                    .append("\",\"pages\":").append(100 + i * 7 % 900)
+                    .append(",\"available\":").append(i % 3 == 0)
+                    .append(",\"tags\":[\"fiction\",\"classic\"]}");
+        }
+        json.append("]}");
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, bytes.length - offset);
+            chunks.add(allocator.directBuffer(length).writeBytes(bytes, offset, length));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        chunks.forEach(ByteBuf::release);
+    }
+
+    @Benchmark
+    public Library tree() throws IOException {
+        Processor<byte[], JsonNode> parser = jsonMapper.createReactiveParser(p -> {
+        }, false);
+        TreeSubscriber subscriber = new TreeSubscriber();
+        parser.subscribe(subscriber);
+        parser.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        for (ByteBuf chunk : chunks) {
+            // copies each chunk like JsonContentProcessor.onData
+            parser.onNext(ByteBufUtil.getBytes(chunk));
+        }
+        parser.onComplete();
+        return jsonMapper.readValueFromTree(subscriber.tree, LIBRARY);
+    }
+
+    @Benchmark
+    public Library direct() throws IOException {
+        CompositeByteBuf body = allocator.compositeBuffer(1024);
+        try {
+            for (ByteBuf chunk : chunks) {
+                body.addComponent(true, chunk.retainedSlice());
+            }
+            return jsonMapper.readValue(new ByteBufInputStream(body), LIBRARY);
+        } finally {
+            body.release();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + JsonBodyBindingBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * The bound type.
+     */
+    public static class Library {
+        public List<Book> books;
+    }
+
+    /**
+     * An element of the bound type.
+     */
+    public static class Book {
+        public int id;
+        public String title;
+        public int pages;
+        public boolean available;
+        public List<String> tags;
+    }
+
+    /**
+     * Collects the tree emitted by the parser.
+     */
+    private static final class TreeSubscriber implements Subscriber<JsonNode> {
+        JsonNode tree;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(JsonNode node) {
+            tree = node;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            throw new IllegalStateException(t);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.multipart;
+
+import io.micronaut.http.multipart.PartData;
+import io.micronaut.http.server.HttpServerConfiguration;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.multipart.MemoryFileUpload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput and allocation rate of transferring a 1GB streaming upload to disk, either by writing the
+ * Netty buffers to a file channel or by copying every chunk to a byte array first. Run with the GC profiler, as
+ * {@link #main(String[])} does, to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StreamingFileUploadBenchmark {
+
+    private static final long UPLOAD_SIZE = 1024L * 1024 * 1024;
+
+    @Param({"8192", "65536"})
+    int chunkSize;
+
+    @Param({"true", "false"})
+    boolean direct;
+
+    ExecutorService ioExecutor;
+    HttpServerConfiguration.MultipartConfiguration configuration;
+    ByteBuf chunk;
+    File destination;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ioExecutor = Executors.newSingleThreadExecutor();
+        configuration = new HttpServerConfiguration.MultipartConfiguration();
+        byte[] bytes = new byte[chunkSize];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        chunk = Unpooled.unreleasableBuffer(direct ? Unpooled.directBuffer(chunkSize).writeBytes(bytes) : Unpooled.wrappedBuffer(bytes));
+        destination = Files.createTempFile("upload", ".bin").toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ioExecutor.shutdown();
+        chunk.unwrap().release();
+        destination.delete();
+    }
+
+    @Benchmark
+    public Boolean fileChannel() {
+        return Mono.from(upload().transferTo(destination)).block();
+    }
+
+    @Benchmark
+    public Boolean copyToHeap() {
+        // the transfer as it was done before chunks were written from the Netty buffers
+        return Mono.fromCallable(() -> {
+            try (OutputStream outputStream = Files.newOutputStream(destination.toPath())) {
+                for (PartData partData : chunks().toIterable(1)) {
+                    outputStream.write(partData.getBytes());
+                }
+            }
+            return true;
+        }).subscribeOn(Schedulers.fromExecutorService(ioExecutor)).block();
+    }
+
+    private NettyStreamingFileUpload upload() {
+        return new NettyStreamingFileUpload(
+                new MemoryFileUpload("file", "upload.bin", "application/octet-stream", null, StandardCharsets.UTF_8, UPLOAD_SIZE),
+                configuration,
+                ioExecutor,
+                chunks());
+    }
+
+    private Flux<PartData> chunks() {
+        return Flux.range(0, (int) (UPLOAD_SIZE / chunkSize))
+                .map(i -> new NettyPartData(Optional::empty, () -> chunk.duplicate()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + StreamingFileUploadBenchmark.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(2)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.scheduling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Compares the {@link TimingWheelTaskScheduler} with the {@link ScheduledExecutorTaskScheduler} for timeouts that are
+ * scheduled and almost always cancelled before they fire, like per request timeouts.
+ */
+@State(Scope.Benchmark)
+public class TaskSchedulerBenchmark {
+
+    private static final Runnable NOOP = () -> { };
+
+    @Param({"executor", "timing-wheel"})
+    String scheduler;
+
+    ScheduledExecutorService executorService;
+    TaskScheduler taskScheduler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executorService = Executors.newScheduledThreadPool(2);
+        if ("timing-wheel".equals(scheduler)) {
+            taskScheduler = new TimingWheelTaskScheduler(executorService, Duration.ofMillis(1), 512);
+        } else {
+            taskScheduler = new ScheduledExecutorTaskScheduler(executorService);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (taskScheduler instanceof TimingWheelTaskScheduler) {
+            ((TimingWheelTaskScheduler) taskScheduler).close();
+        }
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean scheduleAndCancel() {
+        ScheduledFuture<?> future = taskScheduler.schedule(Duration.ofSeconds(30), NOOP);
+        return future.cancel(false);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + TaskSchedulerBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.scheduling.cron;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Measures {@link CronExpression#nextTimeAfter(ZonedDateTime)} for common expressions, starting both from an
+ * ordinary time and from just before the daylight saving transitions of the zone.
+ */
+@State(Scope.Benchmark)
+public class CronExpressionBenchmark {
+
+    @Param({
+            "0 */5 * * * *",
+            "0 0 12 * * ?",
+            "15 10 9 ? * MON-FRI",
+            "0 30 2 * * *",
+            "0 0 10 ? * 5L",
+            "0 0 0 29 2 ?"
+    })
+    String expression;
+
+    @Param({"ordinary", "dst-gap", "dst-overlap"})
+    String start;
+
+    CronExpression cronExpression;
+    ZonedDateTime after;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cronExpression = CronExpression.create(expression);
+        ZoneId zone = ZoneId.of("Europe/Berlin");
+        switch (start) {
+            case "dst-gap":
+                after = ZonedDateTime.of(2022, 3, 27, 1, 59, 0, 0, zone);
+                break;
+            case "dst-overlap":
+                after = ZonedDateTime.of(2022, 10, 30, 2, 59, 0, 0, zone).withEarlierOffsetAtOverlap();
+                break;
+            default:
+                after = ZonedDateTime.of(2022, 6, 15, 13, 37, 0, 0, zone);
+                break;
+        }
+    }
+
+    @Benchmark
+    public ZonedDateTime nextTimeAfter() {
+        return cronExpression.nextTimeAfter(after);
+    }
+
+    @Benchmark
+    public List<ZonedDateTime> nextTenTimesAfter() {
+        return cronExpression.nextTimesAfter(after, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + CronExpressionBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
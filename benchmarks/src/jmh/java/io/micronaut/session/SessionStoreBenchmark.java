@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.session;
+
+import io.micronaut.context.event.ApplicationEventPublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the create, read and touch throughput of the {@link CompactSessionStore} with the Caffeine based
+ * {@link InMemorySessionStore} under 32 threads. Run with the GC profiler, as {@link #main(String[])} does, to compare
+ * the allocation rates.
+ */
+@State(Scope.Benchmark)
+@Threads(32)
+public class SessionStoreBenchmark {
+
+    @Param({"caffeine", "compact"})
+    String store;
+
+    @Param({"1000000"})
+    int sessionCount;
+
+    SessionStore<InMemorySession> sessionStore;
+    String[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() throws ExecutionException, InterruptedException {
+        SessionConfiguration sessionConfiguration = new SessionConfiguration();
+        // bound both stores so that the sessions created by the create benchmark do not exhaust the heap
+        sessionConfiguration.setMaxActiveSessions(sessionCount * 2);
+        CompactSessionStoreConfiguration configuration = new CompactSessionStoreConfiguration();
+        configuration.setMaxMemory(Long.MAX_VALUE);
+        DefaultSessionIdGenerator idGenerator = new DefaultSessionIdGenerator();
+        if ("compact".equals(store)) {
+            sessionStore = new CompactSessionStore(idGenerator, sessionConfiguration, configuration, ApplicationEventPublisher.noOp());
+        } else {
+            sessionStore = new InMemorySessionStore(idGenerator, sessionConfiguration, ApplicationEventPublisher.noOp());
+        }
+        ids = new String[sessionCount];
+        for (int i = 0; i < sessionCount; i++) {
+            ids[i] = create().getId();
+        }
+    }
+
+    @Benchmark
+    public InMemorySession create() throws ExecutionException, InterruptedException {
+        InMemorySession session = sessionStore.newSession();
+        session.put("user", "user" + ThreadLocalRandom.current().nextInt());
+        session.put("visits", 1);
+        return sessionStore.save(session).get();
+    }
+
+    @Benchmark
+    public Optional<Object> read() throws ExecutionException, InterruptedException {
+        return sessionStore.findSession(randomId()).get().flatMap(session -> session.get("user"));
+    }
+
+    @Benchmark
+    public Optional<InMemorySession> touch() throws ExecutionException, InterruptedException {
+        return sessionStore.findSession(randomId()).get();
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + SessionStoreBenchmark.class.getSimpleName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
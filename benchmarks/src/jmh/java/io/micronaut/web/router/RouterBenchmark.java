@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.server.binding.TestController;
+import io.micronaut.inject.BeanDefinition;
+import io.micronaut.inject.ExecutableMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compares the indexed lookup of {@link DefaultRouter} with a linear scan over every route.
+ */
+@State(Scope.Benchmark)
+public class RouterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int routeCount;
+
+    ApplicationContext applicationContext;
+    Router router;
+    List<UriRoute> routes;
+    String[] uris;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        applicationContext = ApplicationContext.run();
+        BeanDefinition<TestController> beanDefinition = applicationContext.getBeanDefinition(TestController.class);
+        ExecutableMethod<TestController, Object> method = beanDefinition.findMethod("show", String.class, int.class).get();
+        DefaultRouteBuilder builder = new DefaultRouteBuilder(applicationContext) { };
+        for (int i = 0; i < routeCount; i++) {
+            builder.GET("/resource" + i, beanDefinition, method);
+            builder.GET("/resource" + i + "/{name}", beanDefinition, method);
+            builder.GET("/resource" + i + "/{name}/children/{age}", beanDefinition, method);
+            builder.GET("/resource" + i + "/{name}/children/{age:[0-9]+}/summary", beanDefinition, method);
+        }
+        router = new DefaultRouter(builder);
+        routes = new ArrayList<>(builder.getUriRoutes());
+        Collections.sort(routes);
+        uris = new String[] {
+            "/resource0",
+            "/resource" + (routeCount / 2) + "/fred",
+            "/resource" + (routeCount - 1) + "/fred/children/10",
+            "/resource" + (routeCount - 1) + "/fred/children/10/summary",
+            "/unknown/fred"
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public Object indexed() {
+        return router.route(HttpMethod.GET, nextUri()).orElse(null);
+    }
+
+    @Benchmark
+    public Object linear() {
+        String uri = nextUri();
+        for (UriRoute route : routes) {
+            Optional<UriRouteMatch> match = route.match(uri);
+            if (match.isPresent()) {
+                return match.get();
+            }
+        }
+        return null;
+    }
+
+    private String nextUri() {
+        String uri = uris[next];
+        next = (next + 1) % uris.length;
+        return uri;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + RouterBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -20,13 +20,13 @@ import io.micronaut.aop.MethodInvocationContext;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.context.env.Environment;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.inject.BeanDefinition;
 import jakarta.inject.Singleton;
 
-import java.util.concurrent.locks.Lock;
-
 /**
- * <p>A {@link MethodInterceptor} that will lock the bean preventing it from being destroyed by a
- * {@link RefreshEvent} until the method completes.</p>
+ * <p>A {@link MethodInterceptor} that prevents the bean from being destroyed by a {@link RefreshEvent} until the
+ * method completes. Calls are tracked with a striped counter instead of a lock, see {@link RefreshableBean}. A call
+ * whose bean is being destroyed runs on the current bean instead.</p>
  *
  * @author Graeme Rocher
  * @since 1.0
@@ -48,12 +48,31 @@ public class RefreshInterceptor implements MethodInterceptor {
     @Override
     public Object intercept(MethodInvocationContext context) {
         Object target = context.getTarget();
-        Lock lock = refreshScope.getLock(target).readLock();
-        try {
-            lock.lock();
-            return context.proceed();
-        } finally {
-            lock.unlock();
+        RefreshableBean refreshableBean = refreshScope.findRefreshableBean(target);
+        if (refreshableBean != null) {
+            int stripe = refreshableBean.enter();
+            if (stripe >= 0) {
+                try {
+                    return context.proceed();
+                } finally {
+                    refreshableBean.exit(stripe);
+                }
+            }
+            return proceedOnCurrent(context, refreshableBean.getCreatedBean().definition());
+        }
+        BeanDefinition<?> destroyed = refreshScope.findDestroyedDefinition(target);
+        if (destroyed != null) {
+            return proceedOnCurrent(context, destroyed);
         }
+        return context.proceed();
+    }
+
+    /**
+     * The proxy resolved the bean before a refresh closed it, so call the method again through the proxy, which runs
+     * the whole interceptor chain on the current generation of the bean.
+     */
+    @SuppressWarnings("unchecked")
+    private Object proceedOnCurrent(MethodInvocationContext context, BeanDefinition<?> definition) {
+        return context.invoke(refreshScope.getProxy(definition), context.getParameterValues());
     }
 }
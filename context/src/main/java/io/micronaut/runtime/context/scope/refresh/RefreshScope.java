@@ -27,6 +27,7 @@ import io.micronaut.context.event.ApplicationEventListener;
 import io.micronaut.context.scope.BeanCreationContext;
 import io.micronaut.context.scope.CreatedBean;
 import io.micronaut.context.scope.CustomScope;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.order.Ordered;
 import io.micronaut.core.util.ArrayUtils;
 import io.micronaut.inject.BeanDefinition;
@@ -39,15 +40,16 @@ import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.WeakHashMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Implementation of {@link Refreshable}.
@@ -63,8 +65,17 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
 
     public static final int POSITION = RefreshEventListener.DEFAULT_POSITION - 100;
 
-    private final Map<BeanIdentifier, CreatedBean<?>> refreshableBeans = new ConcurrentHashMap<>(10);
-    private final ConcurrentMap<Object, ReadWriteLock> locks = new ConcurrentHashMap<>();
+    private final Map<BeanIdentifier, RefreshableBean> refreshableBeans = new ConcurrentHashMap<>(10);
+    private final ConcurrentMap<Object, RefreshableBean> targets = new ConcurrentHashMap<>();
+    // the latest generation of each bean type, so calls find their generation without a map lookup
+    private final ClassValue<AtomicReference<RefreshableBean>> currentGenerations = new ClassValue<AtomicReference<RefreshableBean>>() {
+        @Override
+        protected AtomicReference<RefreshableBean> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+    // destroyed beans that calls may still have resolved, kept until they are no longer referenced
+    private final Map<Object, BeanDefinition<?>> destroyedTargets = Collections.synchronizedMap(new WeakHashMap<>());
     private final BeanContext beanContext;
 
     /**
@@ -98,26 +109,30 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
     @Override
     public <T> T getOrCreate(BeanCreationContext<T> creationContext) {
         final BeanIdentifier id = creationContext.id();
-        CreatedBean<?> created = refreshableBeans.computeIfAbsent(id, key -> {
+        RefreshableBean refreshableBean = refreshableBeans.computeIfAbsent(id, key -> {
             CreatedBean<T> createdBean = creationContext.create();
-            locks.putIfAbsent(createdBean.bean(), new ReentrantReadWriteLock());
-            return createdBean;
+            RefreshableBean created = new RefreshableBean(createdBean);
+            T bean = createdBean.bean();
+            targets.putIfAbsent(bean, created);
+            currentGenerations.get(bean.getClass()).set(created);
+            return created;
         });
-        return (T) created.bean();
+        return (T) refreshableBean.getCreatedBean().bean();
     }
 
     @Override
     public RefreshScope stop() {
         disposeOfAllBeans();
-        locks.clear();
+        targets.clear();
         return this;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> Optional<T> remove(BeanIdentifier identifier) {
-        CreatedBean<?> createdBean = refreshableBeans.get(identifier);
-        if (createdBean != null) {
+        RefreshableBean refreshableBean = refreshableBeans.get(identifier);
+        if (refreshableBean != null) {
+            CreatedBean<?> createdBean = refreshableBean.getCreatedBean();
             createdBean.close();
             //noinspection ConstantConditions
             return Optional.ofNullable((T) createdBean.bean());
@@ -158,7 +173,8 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
         if (bean instanceof InterceptedProxy) {
             bean = ((InterceptedProxy<T>) bean).interceptedTarget();
         }
-        for (CreatedBean<?> created : refreshableBeans.values()) {
+        for (RefreshableBean refreshableBean : refreshableBeans.values()) {
+            CreatedBean<?> created = refreshableBean.getCreatedBean();
             if (created.bean() == bean) {
                 //noinspection unchecked
                 return Optional.of(BeanRegistration.of(
@@ -173,15 +189,62 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
     }
 
     /**
+     * Returns a lock whose write lock is held while the bean is destroyed by a refresh. Method calls to refreshable
+     * beans no longer take this lock, see {@link RefreshInterceptor}.
+     *
      * @param object The bean
      * @return The lock on the object
+     * @deprecated Calls to refreshable beans are tracked without locking
      */
+    @Deprecated
     protected ReadWriteLock getLock(Object object) {
-        ReadWriteLock readWriteLock = locks.get(object);
-        if (readWriteLock == null) {
-            throw new IllegalStateException("No lock present for object: " + object);
+        return getRefreshableBean(object).getLock();
+    }
+
+    /**
+     * @param object The bean
+     * @return The generation of the refreshable bean the object belongs to
+     */
+    RefreshableBean getRefreshableBean(Object object) {
+        RefreshableBean refreshableBean = findRefreshableBean(object);
+        if (refreshableBean == null) {
+            throw new IllegalStateException("No refreshable bean present for object: " + object);
+        }
+        return refreshableBean;
+    }
+
+    /**
+     * @param object The bean
+     * @return The generation of the refreshable bean the object belongs to, or {@code null} if it was destroyed
+     */
+    @Nullable
+    RefreshableBean findRefreshableBean(Object object) {
+        RefreshableBean refreshableBean = currentGenerations.get(object.getClass()).get();
+        if (refreshableBean != null && refreshableBean.getCreatedBean().bean() == object) {
+            return refreshableBean;
         }
-        return readWriteLock;
+        // several beans of the same type are refreshable
+        return targets.get(object);
+    }
+
+    /**
+     * @param object The bean
+     * @return The definition of the bean if the object was destroyed by a refresh, otherwise {@code null}
+     */
+    @Nullable
+    BeanDefinition<?> findDestroyedDefinition(Object object) {
+        return destroyedTargets.get(object);
+    }
+
+    /**
+     * Resolves the proxy of a refreshable bean, whose calls run on the current generation of the bean.
+     *
+     * @param definition The definition of the bean
+     * @param <T> The bean type
+     * @return The proxy
+     */
+    <T> T getProxy(BeanDefinition<T> definition) {
+        return beanContext.getBean(definition.getBeanType(), definition.getDeclaredQualifier());
     }
 
     private void refreshSubsetOfConfigurationProperties(Set<String> keySet) {
@@ -208,8 +271,8 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
     }
 
     private void disposeOfBeanSubset(Collection<String> keys) {
-        for (Map.Entry<BeanIdentifier, CreatedBean<?>> entry : refreshableBeans.entrySet()) {
-            BeanDefinition<?> definition = entry.getValue().definition();
+        for (Map.Entry<BeanIdentifier, RefreshableBean> entry : refreshableBeans.entrySet()) {
+            BeanDefinition<?> definition = entry.getValue().getCreatedBean().definition();
             String[] strings = definition.stringValues(Refreshable.class);
             if (!ArrayUtils.isEmpty(strings)) {
                 for (String prefix : strings) {
@@ -232,16 +295,17 @@ public class RefreshScope implements CustomScope<Refreshable>, LifeCycle<Refresh
     }
 
     private void disposeOfBean(BeanIdentifier key) {
-        CreatedBean<?> createdBean = refreshableBeans.remove(key);
-        if (createdBean != null) {
+        // new calls resolve the next generation while the calls in flight complete on this one
+        RefreshableBean refreshableBean = refreshableBeans.remove(key);
+        if (refreshableBean != null) {
+            CreatedBean<?> createdBean = refreshableBean.getCreatedBean();
             Object bean = createdBean.bean();
-            Lock lock = getLock(bean).writeLock();
+            currentGenerations.get(bean.getClass()).compareAndSet(refreshableBean, null);
             try {
-                lock.lock();
-                createdBean.close();
-                locks.remove(bean);
+                refreshableBean.destroy();
             } finally {
-                lock.unlock();
+                destroyedTargets.put(bean, createdBean.definition());
+                targets.remove(bean);
             }
         }
     }
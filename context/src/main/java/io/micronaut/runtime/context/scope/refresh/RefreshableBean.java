@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.runtime.context.scope.refresh;
+
+import io.micronaut.context.scope.CreatedBean;
+import io.micronaut.core.annotation.Internal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A generation of a refreshable bean. Method calls register themselves in a striped counter instead of taking a
+ * lock, so calls from different threads update different cache lines. A refresh closes the generation, waits for the
+ * calls in flight to complete and only then destroys the bean.
+ *
+ * <p>A call increments its stripe and then checks whether the generation is closed, while a refresh closes the
+ * generation and then sums the stripes. Both sides use volatile accesses, so either the refresh sees the call or the
+ * call sees the generation closed, backs out and runs on the next generation instead.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+final class RefreshableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshableBean.class);
+    // each stripe takes a cache line of 8 longs
+    private static final int STRIPE_SHIFT = 3;
+    private static final int MAX_STRIPES = 64;
+    private static final int STRIPES = stripes();
+    private static final long WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long DESTROY_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final CreatedBean<?> createdBean;
+    private final AtomicLongArray calls = new AtomicLongArray(STRIPES << STRIPE_SHIFT);
+    private volatile boolean closed;
+    private volatile Thread destroyer;
+    private volatile ReadWriteLock lock;
+
+    /**
+     * @param createdBean The created bean
+     */
+    RefreshableBean(CreatedBean<?> createdBean) {
+        this.createdBean = createdBean;
+    }
+
+    /**
+     * @return The created bean
+     */
+    CreatedBean<?> getCreatedBean() {
+        return createdBean;
+    }
+
+    /**
+     * Registers a call.
+     *
+     * @return The stripe to pass to {@link #exit(int)}, or {@code -1} if the generation is closed and the call has to
+     * run on the next generation
+     */
+    int enter() {
+        int stripe = stripe();
+        calls.incrementAndGet(stripe);
+        if (closed) {
+            exit(stripe);
+            return -1;
+        }
+        return stripe;
+    }
+
+    /**
+     * Completes a call registered with {@link #enter()}.
+     *
+     * @param stripe The stripe returned by {@link #enter()}
+     */
+    void exit(int stripe) {
+        if (calls.decrementAndGet(stripe) == 0 && closed) {
+            Thread destroyer = this.destroyer;
+            if (destroyer != null) {
+                LockSupport.unpark(destroyer);
+            }
+        }
+    }
+
+    /**
+     * @return A lock whose write lock is held while the bean is destroyed
+     */
+    ReadWriteLock getLock() {
+        ReadWriteLock lock = this.lock;
+        if (lock == null) {
+            synchronized (this) {
+                lock = this.lock;
+                if (lock == null) {
+                    lock = new ReentrantReadWriteLock();
+                    this.lock = lock;
+                }
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Closes the generation, waits for the calls in flight to complete and destroys the bean. If the calls do not
+     * complete within 30 seconds the bean is destroyed anyway.
+     */
+    void destroy() {
+        destroyer = Thread.currentThread();
+        closed = true;
+        long deadline = System.nanoTime() + DESTROY_TIMEOUT_NANOS;
+        while (true) {
+            long inFlight = inFlight();
+            if (inFlight == 0) {
+                break;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("Destroying refreshable bean [{}] with {} calls still in flight after waiting for {} seconds",
+                            createdBean.definition().getBeanType().getName(), inFlight,
+                            TimeUnit.NANOSECONDS.toSeconds(DESTROY_TIMEOUT_NANOS));
+                }
+                break;
+            }
+            LockSupport.parkNanos(this, Math.min(remaining, WAIT_NANOS));
+        }
+        ReadWriteLock lock;
+        synchronized (this) {
+            lock = this.lock;
+        }
+        if (lock != null) {
+            Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                createdBean.close();
+            } finally {
+                writeLock.unlock();
+            }
+        } else {
+            createdBean.close();
+        }
+    }
+
+    private long inFlight() {
+        long inFlight = 0;
+        for (int i = 0; i < calls.length(); i += 1 << STRIPE_SHIFT) {
+            inFlight += calls.get(i);
+        }
+        return inFlight;
+    }
+
+    private static int stripe() {
+        // a call exits on the stripe it entered, even if it completes on another thread
+        int hash = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+        return ((hash >>> 16) & (STRIPES - 1)) << STRIPE_SHIFT;
+    }
+
+    private static int stripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+        while (stripes < processors && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+}
@@ -38,5 +38,12 @@ public interface TaskExecutors {
      */
     String MESSAGE_CONSUMER = "consumer";
 
+    /**
+     * The name of the {@link java.util.concurrent.ExecutorService} that runs each task on a new virtual thread.
+     *
+     * @since 4.0.0
+     */
+    String VIRTUAL = "virtual";
+
 
 }
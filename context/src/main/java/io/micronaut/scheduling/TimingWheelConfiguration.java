@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.scheduling;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link TimingWheelTaskScheduler}.
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+@ConfigurationProperties(TimingWheelConfiguration.PREFIX)
+public class TimingWheelConfiguration {
+
+    /**
+     * The prefix of the configuration.
+     */
+    public static final String PREFIX = "micronaut.scheduler.timing-wheel";
+
+    /**
+     * The default tick duration.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(1);
+
+    /**
+     * The default number of buckets of each wheel.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private boolean enabled;
+    private Duration tickDuration = DEFAULT_TICK_DURATION;
+    private int wheelSize = DEFAULT_WHEEL_SIZE;
+
+    /**
+     * @return Whether the timing wheel replaces the default task scheduler
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the timing wheel replaces the default task scheduler. Default value (false).
+     *
+     * @param enabled True if it is enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The resolution of the timing wheel
+     */
+    public @NonNull Duration getTickDuration() {
+        return tickDuration;
+    }
+
+    /**
+     * Sets the resolution of the timing wheel. Tasks run at the first tick at or after their deadline. Default value
+     * (1ms).
+     *
+     * @param tickDuration The tick duration
+     */
+    public void setTickDuration(@NonNull Duration tickDuration) {
+        if (tickDuration != null) {
+            this.tickDuration = tickDuration;
+        }
+    }
+
+    /**
+     * @return The number of buckets of each wheel
+     */
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    /**
+     * Sets the number of buckets of each wheel, rounded up to a power of two. Default value (512).
+     *
+     * @param wheelSize The wheel size
+     */
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+}
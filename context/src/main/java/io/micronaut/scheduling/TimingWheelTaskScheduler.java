@@ -0,0 +1,404 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.scheduling;
+
+import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.StringUtils;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.micronaut.core.util.ArgumentUtils.check;
+
+/**
+ * A {@link TaskScheduler} backed by a hierarchical hashed timing wheel, for applications that schedule large numbers
+ * of short lived timers such as per request timeouts and retry delays.
+ *
+ * <p>Scheduling and cancelling a task only adds it to a lock-free queue, which is O(1) and free of the lock of the
+ * binary heap of a {@link java.util.concurrent.ScheduledThreadPoolExecutor}. A single worker thread moves the queued
+ * tasks into the buckets of the wheels, advances the wheels every tick and hands expired tasks to the scheduled
+ * executor. Each wheel covers {@code wheelSize} times the range of the wheel below it; tasks cascade down to the finer
+ * wheels as their deadline approaches. Tasks run at the first tick at or after their deadline, so the delay is
+ * rounded up to the tick duration.</p>
+ *
+ * <p>Enabled with {@code micronaut.scheduler.timing-wheel.enabled=true}. Cron expressions are evaluated as in
+ * {@link ScheduledExecutorTaskScheduler}.</p>
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+@Named(TaskExecutors.SCHEDULED)
+@Primary
+@Singleton
+@Replaces(ScheduledExecutorTaskScheduler.class)
+@Requires(property = TimingWheelConfiguration.PREFIX + ".enabled", value = StringUtils.TRUE)
+public class TimingWheelTaskScheduler extends ScheduledExecutorTaskScheduler implements Closeable {
+
+    private final ExecutorService executorService;
+    private final long tickNanos;
+    private final int bits;
+    private final int mask;
+    private final Bucket[][] wheels;
+    private final Queue<WheelTask<?>> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTask<?>> cancelled = new ConcurrentLinkedQueue<>();
+    private final long startTime = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean running = true;
+    // only accessed by the worker thread
+    private long tick;
+
+    /**
+     * @param executorService The executor service that runs the expired tasks
+     * @param configuration   The timing wheel configuration
+     */
+    @Inject
+    public TimingWheelTaskScheduler(@Named(TaskExecutors.SCHEDULED) ExecutorService executorService,
+                                    TimingWheelConfiguration configuration) {
+        this(executorService, configuration.getTickDuration(), configuration.getWheelSize());
+    }
+
+    /**
+     * @param executorService The executor service that runs the expired tasks
+     * @param tickDuration    The resolution of the wheel
+     * @param wheelSize       The number of buckets of each wheel, rounded up to a power of two
+     */
+    public TimingWheelTaskScheduler(@NonNull ExecutorService executorService, @NonNull Duration tickDuration, int wheelSize) {
+        super(executorService);
+        if (tickDuration.isZero() || tickDuration.isNegative()) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize < 2 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size must be between 2 and 2^30");
+        }
+        this.executorService = executorService;
+        this.tickNanos = tickDuration.toNanos();
+        this.bits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1);
+        this.mask = (1 << bits) - 1;
+        // enough wheels to cover any deadline representable in ticks
+        this.wheels = new Bucket[(Long.SIZE - 1 + bits - 1) / bits][];
+        this.worker = new Thread(this::workerLoop, "timing-wheel");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Duration delay, Runnable command) {
+        check("delay", delay).notNull();
+        check("command", command).notNull();
+        return enqueue(new WheelTask<>(command, deadline(delay), 0));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Duration delay, Callable<V> callable) {
+        check("delay", delay).notNull();
+        check("callable", callable).notNull();
+        return enqueue(new WheelTask<>(callable, deadline(delay)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Duration initialDelay, Duration period, Runnable command) {
+        check("period", period).notNull();
+        check("command", command).notNull();
+        if (period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        return enqueue(new WheelTask<>(command, deadline(initialDelay), period.toNanos()));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Duration initialDelay, Duration delay, Runnable command) {
+        check("delay", delay).notNull();
+        check("command", command).notNull();
+        if (delay.isZero() || delay.isNegative()) {
+            throw new IllegalArgumentException("Delay must be positive");
+        }
+        return enqueue(new WheelTask<>(command, deadline(initialDelay), -delay.toNanos()));
+    }
+
+    /**
+     * Stops the worker thread and cancels the tasks that have not run yet.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long deadline(Duration delay) {
+        long delayNanos = delay != null ? Math.max(0, delay.toNanos()) : 0;
+        return now() + delayNanos;
+    }
+
+    private long now() {
+        return System.nanoTime() - startTime;
+    }
+
+    private <V> WheelTask<V> enqueue(WheelTask<V> task) {
+        if (!running) {
+            throw new RejectedExecutionException("Timing wheel task scheduler is closed");
+        }
+        pending.add(task);
+        return task;
+    }
+
+    private void workerLoop() {
+        while (running) {
+            long wait = tick * tickNanos - now();
+            while (wait > 0 && running) {
+                LockSupport.parkNanos(this, wait);
+                wait = tick * tickNanos - now();
+            }
+            if (!running) {
+                break;
+            }
+            transferPending();
+            removeCancelled();
+            cascade();
+            expire(wheel(0)[(int) (tick & mask)]);
+            tick++;
+        }
+        cancelRemaining();
+    }
+
+    private void transferPending() {
+        WheelTask<?> task;
+        while ((task = pending.poll()) != null) {
+            if (!task.isCancelled()) {
+                place(task);
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        WheelTask<?> task;
+        while ((task = cancelled.poll()) != null) {
+            if (task.bucket != null) {
+                task.bucket.remove(task);
+            }
+        }
+    }
+
+    /**
+     * Moves the tasks of the coarser wheels whose range starts at the current tick down to the finer wheels.
+     */
+    private void cascade() {
+        long position = tick;
+        for (int level = 1; level < wheels.length && (position & mask) == 0; level++) {
+            position >>>= bits;
+            Bucket[] wheel = wheels[level];
+            if (wheel == null) {
+                break;
+            }
+            Bucket bucket = wheel[(int) (position & mask)];
+            WheelTask<?> task;
+            while ((task = bucket.poll()) != null) {
+                place(task);
+            }
+        }
+    }
+
+    private void place(WheelTask<?> task) {
+        // the first tick at or after the deadline
+        long deadlineTick = (task.deadline + tickNanos - 1) / tickNanos;
+        long remaining = deadlineTick - tick;
+        if (remaining <= 0) {
+            wheel(0)[(int) (tick & mask)].add(task);
+            return;
+        }
+        for (int level = 0; level < wheels.length; level++) {
+            int shift = bits * (level + 1);
+            if (level == wheels.length - 1 || shift >= Long.SIZE - 1 || remaining < (1L << shift)) {
+                wheel(level)[(int) ((deadlineTick >>> (bits * level)) & mask)].add(task);
+                return;
+            }
+        }
+    }
+
+    private Bucket[] wheel(int level) {
+        Bucket[] wheel = wheels[level];
+        if (wheel == null) {
+            wheel = new Bucket[mask + 1];
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Bucket();
+            }
+            wheels[level] = wheel;
+        }
+        return wheel;
+    }
+
+    private void expire(Bucket bucket) {
+        WheelTask<?> task;
+        while ((task = bucket.poll()) != null) {
+            if (!task.isCancelled()) {
+                try {
+                    executorService.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.cancel(false);
+                }
+            }
+        }
+    }
+
+    private void cancelRemaining() {
+        WheelTask<?> task;
+        while ((task = pending.poll()) != null) {
+            task.cancel(false);
+        }
+        for (Bucket[] wheel : wheels) {
+            if (wheel != null) {
+                for (Bucket bucket : wheel) {
+                    while ((task = bucket.poll()) != null) {
+                        task.cancel(false);
+                    }
+                }
+            }
+        }
+        cancelled.clear();
+    }
+
+    /**
+     * A task scheduled on the wheel. A positive period repeats the task at a fixed rate, a negative period with a
+     * fixed delay.
+     *
+     * @param <V> The result type
+     */
+    private final class WheelTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+        private final long period;
+        private volatile long deadline;
+        // only accessed by the worker thread
+        private Bucket bucket;
+        private WheelTask<?> previous;
+        private WheelTask<?> next;
+
+        WheelTask(Callable<V> callable, long deadline) {
+            super(callable);
+            this.deadline = deadline;
+            this.period = 0;
+        }
+
+        WheelTask(Runnable runnable, long deadline, long period) {
+            super(runnable, null);
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            if (period == 0) {
+                super.run();
+            } else if (runAndReset()) {
+                deadline = period > 0 ? deadline + period : now() - period;
+                if (running) {
+                    pending.add(this);
+                } else {
+                    cancel(false);
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean result = super.cancel(mayInterruptIfRunning);
+            if (result) {
+                cancelled.add(this);
+            }
+            return result;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - now(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * A doubly linked list of tasks, only accessed by the worker thread.
+     */
+    private static final class Bucket {
+        private WheelTask<?> head;
+        private WheelTask<?> tail;
+
+        void add(WheelTask<?> task) {
+            task.bucket = this;
+            task.previous = tail;
+            task.next = null;
+            if (tail == null) {
+                head = task;
+            } else {
+                tail.next = task;
+            }
+            tail = task;
+        }
+
+        void remove(WheelTask<?> task) {
+            if (task.previous == null) {
+                head = task.next;
+            } else {
+                task.previous.next = task.next;
+            }
+            if (task.next == null) {
+                tail = task.previous;
+            } else {
+                task.next.previous = task.previous;
+            }
+            task.bucket = null;
+            task.previous = null;
+            task.next = null;
+        }
+
+        WheelTask<?> poll() {
+            WheelTask<?> task = head;
+            if (task != null) {
+                remove(task);
+            }
+            return task;
+        }
+    }
+}
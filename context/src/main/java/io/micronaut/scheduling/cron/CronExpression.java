@@ -19,11 +19,16 @@
 
 package io.micronaut.scheduling.cron;
 
-import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDate;
-import java.time.YearMonth;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -175,6 +180,8 @@ public final class CronExpression {
     private static final int CRON_EXPRESSION_LENGTH_WITH_SEC = 6;
     private static final int CRON_EXPRESSION_LENGTH_WITHOUT_SEC = 5;
     private static final int FOUR = 4;
+    private static final int DAYS_IN_DECEMBER = 31;
+    private static final int[] MONTH_OFFSETS = {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
 
     private final String expr;
     private final SimpleField secondField;
@@ -183,6 +190,11 @@ public final class CronExpression {
     private final DayOfWeekField dayOfWeekField;
     private final SimpleField monthField;
     private final DayOfMonthField dayOfMonthField;
+    // the fields compiled to bits, where bit n is set if the value n matches
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long months;
 
     private CronExpression(final String expr) {
         if (expr == null) {
@@ -204,6 +216,10 @@ public final class CronExpression {
         this.dayOfMonthField = new DayOfMonthField(parts[ix++]);
         this.monthField = new SimpleField(CronFieldType.MONTH, parts[ix++]);
         this.dayOfWeekField = new DayOfWeekField(parts[ix++]);
+        this.seconds = secondField.toBits();
+        this.minutes = minuteField.toBits();
+        this.hours = hourField.toBits();
+        this.months = monthField.toBits();
     }
 
     /**
@@ -249,53 +265,207 @@ public final class CronExpression {
      * @return The next time within given barrier
      */
     public ZonedDateTime nextTimeAfter(ZonedDateTime afterTime, ZonedDateTime dateTimeBarrier) {
-        ZonedDateTime nextTime = ZonedDateTime.from(afterTime).withNano(0).plusSeconds(1).withNano(0);
-
-        while (true) { // day of week
-            while (true) { // month
-                while (true) { // day of month
-                    while (true) { // hour
-                        while (true) { // minute
-                            while (true) { // second
-                                if (secondField.matches(nextTime.getSecond())) {
-                                    break;
-                                }
-                                nextTime = nextTime.plusSeconds(1).withNano(0);
-                            }
-                            if (minuteField.matches(nextTime.getMinute())) {
-                                break;
-                            }
-                            nextTime = nextTime.plusMinutes(1).withSecond(0).withNano(0);
-                        }
-                        if (hourField.matches(nextTime.getHour())) {
-                            break;
-                        }
-                        nextTime = nextTime.plusHours(1).withMinute(0).withSecond(0).withNano(0);
-                    }
-                    if (dayOfMonthField.matches(nextTime.toLocalDate())) {
-                        break;
-                    }
-                    nextTime = nextTime.plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
-                    checkIfDateTimeBarrierIsReached(nextTime, dateTimeBarrier);
-                }
-                if (monthField.matches(nextTime.getMonth().getValue())) {
-                    break;
-                }
-                nextTime = nextTime.plusMonths(1).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
-                checkIfDateTimeBarrierIsReached(nextTime, dateTimeBarrier);
+        ZoneId zone = afterTime.getZone();
+        ZoneRules rules = zone.getRules();
+        LocalDateTime local = afterTime.toLocalDateTime().withNano(0);
+        LocalDateTime limit = dateTimeBarrier.withZoneSameInstant(zone).toLocalDateTime();
+        ZoneOffsetTransition transition = rules.getTransition(local);
+        if (transition != null && transition.isOverlap() && afterTime.getOffset().equals(transition.getOffsetBefore())) {
+            // the wall clock is about to be set back, the local times of the overlap occur a second time
+            LocalDateTime next = nextLocalTimeAfter(local, limit, dateTimeBarrier);
+            if (next.isBefore(transition.getDateTimeBefore())) {
+                return ZonedDateTime.ofLocal(next, zone, transition.getOffsetBefore());
+            }
+            next = nextLocalTimeAfter(transition.getDateTimeAfter().minusSeconds(1), limit, dateTimeBarrier);
+            if (next.isBefore(transition.getDateTimeBefore())) {
+                return ZonedDateTime.ofLocal(next, zone, transition.getOffsetAfter());
+            }
+            local = transition.getDateTimeBefore().minusSeconds(1);
+        }
+        long after = afterTime.toEpochSecond();
+        while (true) {
+            local = nextLocalTimeAfter(local, limit, dateTimeBarrier);
+            List<ZoneOffset> offsets = rules.getValidOffsets(local);
+            if (offsets.isEmpty()) {
+                // the local time is skipped by a gap in the time-line
+                continue;
             }
-            if (dayOfWeekField.matches(nextTime.toLocalDate())) {
-                break;
+            ZoneOffset offset = offsets.get(0);
+            if (offsets.size() > 1 && local.toEpochSecond(offset) <= after) {
+                offset = offsets.get(1);
             }
-            nextTime = nextTime.plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
-            checkIfDateTimeBarrierIsReached(nextTime, dateTimeBarrier);
+            return ZonedDateTime.ofLocal(local, zone, offset);
         }
+    }
 
-        return nextTime;
+    /**
+     * Computes the next {@code count} times after the given time, for example to display the upcoming executions of
+     * a task.
+     *
+     * @param afterTime A date-time with a time-zone in the ISO-8601 calendar system
+     * @param count     The number of times to compute
+     * @return The next times, each within 4 years of the previous one
+     * @since 4.0.0
+     */
+    public List<ZonedDateTime> nextTimesAfter(ZonedDateTime afterTime, int count) {
+        List<ZonedDateTime> times = new ArrayList<>(count);
+        ZonedDateTime time = afterTime;
+        for (int i = 0; i < count; i++) {
+            time = nextTimeAfter(time);
+            times.add(time);
+        }
+        return times;
     }
 
-    private static void checkIfDateTimeBarrierIsReached(ZonedDateTime nextTime, ZonedDateTime dateTimeBarrier) {
-        if (nextTime.isAfter(dateTimeBarrier)) {
+    /**
+     * Finds the first local date-time strictly after the given one that matches every field, by scanning the bits
+     * of the compiled fields from the month down to the second.
+     *
+     * @param from            The local date-time to start after
+     * @param limit           The local date-time of the barrier
+     * @param dateTimeBarrier The barrier, for the error message
+     * @return The next matching local date-time
+     */
+    private LocalDateTime nextLocalTimeAfter(LocalDateTime from, LocalDateTime limit, ZonedDateTime dateTimeBarrier) {
+        int year = from.getYear();
+        int month = from.getMonthValue();
+        int day = from.getDayOfMonth();
+        int hour = from.getHour();
+        int minute = from.getMinute();
+        int second = from.getSecond() + 1;
+        long limitDate = dateKey(limit.getYear(), limit.getMonthValue(), limit.getDayOfMonth());
+        int daysYear = 0;
+        int daysMonth = 0;
+        long days = 0;
+        while (true) {
+            int nextMonth = nextBit(months, month);
+            if (nextMonth < 0) {
+                year++;
+                month = 1;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                checkIfDateTimeBarrierIsReached(dateKey(year, month, day), limitDate, dateTimeBarrier);
+                continue;
+            }
+            if (nextMonth != month) {
+                month = nextMonth;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                checkIfDateTimeBarrierIsReached(dateKey(year, month, day), limitDate, dateTimeBarrier);
+            }
+            if (daysYear != year || daysMonth != month) {
+                days = matchingDays(year, month);
+                daysYear = year;
+                daysMonth = month;
+            }
+            int nextDay = nextBit(days, day);
+            if (nextDay < 0) {
+                month++;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                checkIfDateTimeBarrierIsReached(dateKey(year, month, day), limitDate, dateTimeBarrier);
+                continue;
+            }
+            if (nextDay != day) {
+                day = nextDay;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                checkIfDateTimeBarrierIsReached(dateKey(year, month, day), limitDate, dateTimeBarrier);
+            }
+            int nextHour = nextBit(hours, hour);
+            if (nextHour < 0) {
+                day++;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = 0;
+                second = 0;
+            }
+            int nextMinute = nextBit(minutes, minute);
+            if (nextMinute < 0) {
+                hour++;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+            int nextSecond = nextBit(seconds, second);
+            if (nextSecond < 0) {
+                minute++;
+                second = 0;
+                continue;
+            }
+            return LocalDateTime.of(year, month, day, hour, minute, nextSecond);
+        }
+    }
+
+    /**
+     * @param year  The year
+     * @param month The month
+     * @return The bits of the days of the month that match both the day of month and the day of week fields
+     */
+    private long matchingDays(int year, int month) {
+        boolean leapYear = Year.isLeap(year);
+        int length = Month.of(month).length(leapYear);
+        int previousLength = month == 1 ? DAYS_IN_DECEMBER : Month.of(month - 1).length(leapYear);
+        int dayOfWeek = dayOfWeek(year, month, 1);
+        long days = 0;
+        for (int day = 1; day <= length; day++) {
+            if (dayOfMonthField.matches(day, dayOfWeek, length, previousLength) && dayOfWeekField.matches(day, dayOfWeek, length)) {
+                days |= 1L << day;
+            }
+            dayOfWeek = dayOfWeek == DayOfWeekField.DAYS_IN_WEEK ? 1 : dayOfWeek + 1;
+        }
+        return days;
+    }
+
+    /**
+     * @param bits The bits
+     * @param from The index to start from, inclusive
+     * @return The index of the first set bit at or after the given index, or -1 if there is none
+     */
+    private static int nextBit(long bits, int from) {
+        if (from >= Long.SIZE) {
+            return -1;
+        }
+        long remaining = bits & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Computes the ISO day of week without creating a date, using the method of Tomohiko Sakamoto.
+     *
+     * @param year  The year
+     * @param month The month
+     * @param day   The day of month
+     * @return The day of week, 1 for monday to 7 for sunday
+     */
+    private static int dayOfWeek(int year, int month, int day) {
+        int y = month < 3 ? year - 1 : year;
+        int dayOfWeek = Math.floorMod(y + Math.floorDiv(y, 4) - Math.floorDiv(y, 100) + Math.floorDiv(y, 400) + MONTH_OFFSETS[month - 1] + day, 7);
+        return dayOfWeek == 0 ? DayOfWeekField.DAYS_IN_WEEK : dayOfWeek;
+    }
+
+    private static long dateKey(int year, int month, int day) {
+        return ((long) year << 9) | (month << 5) | day;
+    }
+
+    private static void checkIfDateTimeBarrierIsReached(long dateKey, long limitDateKey, ZonedDateTime dateTimeBarrier) {
+        if (dateKey > limitDateKey) {
             throw new IllegalArgumentException("No next execution time could be determined that is before the limit of " + dateTimeBarrier);
         }
     }
@@ -500,6 +670,19 @@ public final class CronExpression {
             }
             return false;
         }
+
+        /**
+         * @return The bits of the matching values, where bit n is set if the value n matches
+         */
+        long toBits() {
+            long bits = 0;
+            for (int val = fieldType.from; val <= fieldType.to; val++) {
+                if (matches(val)) {
+                    bits |= 1L << val;
+                }
+            }
+            return bits;
+        }
     }
 
     /**
@@ -525,17 +708,29 @@ public final class CronExpression {
          * @return Whether the date matches the day of the field
          */
         boolean matches(LocalDate date) {
-            for (FieldPart part : parts) {
+            return matches(date.getDayOfMonth(), date.getDayOfWeek().getValue(), date.lengthOfMonth());
+        }
+
+        /**
+         * Check if a day matches the day of the week.
+         *
+         * @param dayOfMonth  The day of month
+         * @param dayOfWeek   The day of week, 1 for monday to 7 for sunday
+         * @param monthLength The number of days of the month
+         * @return Whether the day matches the day of the field
+         */
+        boolean matches(int dayOfMonth, int dayOfWeek, int monthLength) {
+            for (int i = 0; i < parts.size(); i++) {
+                FieldPart part = parts.get(i);
                 if ("L".equals(part.modifier)) {
-                    YearMonth ym = YearMonth.of(date.getYear(), date.getMonth().getValue());
-                    return date.getDayOfWeek() == DayOfWeek.of(part.from) && date.getDayOfMonth() > (ym.lengthOfMonth() - DAYS_IN_WEEK);
+                    return dayOfWeek == part.from && dayOfMonth > (monthLength - DAYS_IN_WEEK);
                 } else if ("#".equals(part.incrementModifier)) {
-                    if (date.getDayOfWeek() == DayOfWeek.of(part.from)) {
-                        int num = date.getDayOfMonth() / DAYS_IN_WEEK;
-                        return part.increment == (date.getDayOfMonth() % DAYS_IN_WEEK == 0 ? num : num + 1);
+                    if (dayOfWeek == part.from) {
+                        int num = dayOfMonth / DAYS_IN_WEEK;
+                        return part.increment == (dayOfMonth % DAYS_IN_WEEK == 0 ? num : num + 1);
                     }
                     return false;
-                } else if (matches(date.getDayOfWeek().getValue(), part)) {
+                } else if (matches(dayOfWeek, part)) {
                     return true;
                 }
             }
@@ -588,21 +783,35 @@ public final class CronExpression {
          * @return Whether the date matches the day in the month
          */
         boolean matches(LocalDate date) {
-            for (FieldPart part : parts) {
+            int previousMonthLength = date.minusMonths(1).lengthOfMonth();
+            return matches(date.getDayOfMonth(), date.getDayOfWeek().getValue(), date.lengthOfMonth(), previousMonthLength);
+        }
+
+        /**
+         * Check if a day matches the day in the month.
+         *
+         * @param dayOfMonth          The day of month
+         * @param dayOfWeek           The day of week, 1 for monday to 7 for sunday
+         * @param monthLength         The number of days of the month
+         * @param previousMonthLength The number of days of the previous month
+         * @return Whether the day matches the day in the month
+         */
+        boolean matches(int dayOfMonth, int dayOfWeek, int monthLength, int previousMonthLength) {
+            for (int i = 0; i < parts.size(); i++) {
+                FieldPart part = parts.get(i);
                 if ("L".equals(part.modifier)) {
-                    YearMonth ym = YearMonth.of(date.getYear(), date.getMonth().getValue());
-                    return date.getDayOfMonth() == (ym.lengthOfMonth() - (part.from == null ? 0 : part.from));
+                    return dayOfMonth == (monthLength - (part.from == null ? 0 : part.from));
                 } else if ("W".equals(part.modifier)) {
-                    if (date.getDayOfWeek().getValue() <= WEEK_DAYS) {
-                        if (date.getDayOfMonth() == part.from) {
+                    if (dayOfWeek <= WEEK_DAYS) {
+                        if (dayOfMonth == part.from) {
                             return true;
-                        } else if (date.getDayOfWeek().getValue() == WEEK_DAYS) {
-                            return date.plusDays(ONE_DAY).getDayOfMonth() == part.from;
-                        } else if (date.getDayOfWeek().getValue() == FIRST_DAY) {
-                            return date.minusDays(ONE_DAY).getDayOfMonth() == part.from;
+                        } else if (dayOfWeek == WEEK_DAYS) {
+                            return (dayOfMonth == monthLength ? FIRST_DAY : dayOfMonth + ONE_DAY) == part.from;
+                        } else if (dayOfWeek == FIRST_DAY) {
+                            return (dayOfMonth == FIRST_DAY ? previousMonthLength : dayOfMonth - ONE_DAY) == part.from;
                         }
                     }
-                } else if (matches(date.getDayOfMonth(), part)) {
+                } else if (matches(dayOfMonth, part)) {
                     return true;
                 }
             }
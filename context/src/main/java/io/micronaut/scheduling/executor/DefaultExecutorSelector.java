@@ -47,6 +47,7 @@ public class DefaultExecutorSelector implements ExecutorSelector {
     private static final String EXECUTE_ON = ExecuteOn.class.getName();
     private final BeanLocator beanLocator;
     private final Supplier<ExecutorService> ioExecutor;
+    private final Supplier<ExecutorService> virtualExecutor;
 
     /**
      * Default constructor.
@@ -57,6 +58,9 @@ public class DefaultExecutorSelector implements ExecutorSelector {
     protected DefaultExecutorSelector(BeanLocator beanLocator, @jakarta.inject.Named(TaskExecutors.IO) BeanProvider<ExecutorService> ioExecutor) {
         this.beanLocator = beanLocator;
         this.ioExecutor = SupplierUtil.memoized(ioExecutor::get);
+        this.virtualExecutor = SupplierUtil.memoized(() ->
+                beanLocator.getBean(ExecutorService.class, Qualifiers.byName(TaskExecutors.VIRTUAL))
+        );
     }
 
     @Override
@@ -73,11 +77,12 @@ public class DefaultExecutorSelector implements ExecutorSelector {
                         "No executor configured for name: " + name
                 );
             }
-        } else if (threadSelection == ThreadSelection.AUTO) {
+        } else if (threadSelection == ThreadSelection.AUTO || threadSelection == ThreadSelection.VIRTUAL) {
+            Supplier<ExecutorService> blockingExecutor = threadSelection == ThreadSelection.VIRTUAL ? virtualExecutor : ioExecutor;
             if (method.hasStereotype(NonBlocking.class)) {
                 return Optional.empty();
             } else if (method.hasStereotype(Blocking.class)) {
-                return Optional.of(ioExecutor.get());
+                return Optional.of(blockingExecutor.get());
             } else {
                 TypeInformation<?> returnType = method.getReturnType();
                 if (returnType.isWrapperType()) {
@@ -89,7 +94,7 @@ public class DefaultExecutorSelector implements ExecutorSelector {
                 if (returnType.isAsyncOrReactive()) {
                     return Optional.empty();
                 } else {
-                    return Optional.of(ioExecutor.get());
+                    return Optional.of(blockingExecutor.get());
                 }
             }
         } else if (threadSelection == ThreadSelection.IO) {
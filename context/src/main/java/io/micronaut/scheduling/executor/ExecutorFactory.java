@@ -22,6 +22,8 @@ import io.micronaut.context.annotation.Factory;
 import io.micronaut.core.reflect.InstantiationUtils;
 import io.micronaut.inject.qualifiers.Qualifiers;
 import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.*;
 
@@ -34,6 +36,8 @@ import java.util.concurrent.*;
 @Factory
 public class ExecutorFactory {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorFactory.class);
+
     private final BeanLocator beanLocator;
     private final ThreadFactory threadFactory;
 
@@ -79,6 +83,15 @@ public class ExecutorFactory {
                 return Executors.newScheduledThreadPool(executorConfiguration.getCorePoolSize(), getThreadFactory(executorConfiguration));
             case WORK_STEALING:
                 return Executors.newWorkStealingPool(executorConfiguration.getParallelism());
+            case VIRTUAL:
+                if (VirtualThreadSupport.isSupported()) {
+                    String name = executorConfiguration.getName();
+                    return VirtualThreadSupport.newVirtualThreadPerTaskExecutor(name == null ? null : name + "-executor-thread-");
+                }
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("Virtual threads are not supported by the current JDK. Falling back to a cached thread pool for executor: {}", executorConfiguration.getName());
+                }
+                return Executors.newCachedThreadPool(getThreadFactory(executorConfiguration));
 
             default:
                 throw new IllegalStateException("Could not create Executor service for enum value: " + executorType);
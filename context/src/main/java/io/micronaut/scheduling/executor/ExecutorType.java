@@ -42,5 +42,13 @@ public enum ExecutorType {
     /**
      * @see java.util.concurrent.Executors#newWorkStealingPool()
      */
-    WORK_STEALING
+    WORK_STEALING,
+
+    /**
+     * An executor that starts a new virtual thread for each task. On JDKs without virtual thread support a
+     * {@link #CACHED} executor is used instead.
+     *
+     * @since 4.0.0
+     */
+    VIRTUAL
 }
@@ -39,5 +39,13 @@ public enum ThreadSelection {
     /**
      * I/O selection will run all operations regardless of return type and annotations on the I/O thread pool and will never schedule an operation on the server event loop thread.
      */
-    IO
+    IO,
+    /**
+     * Selects the thread in the same way as {@link #AUTO}, but operations that would be run on the I/O thread pool
+     * are instead run on a new virtual thread each, using the {@link io.micronaut.scheduling.TaskExecutors#VIRTUAL}
+     * executor. On JDKs without virtual thread support the executor falls back to a cached thread pool.
+     *
+     * @since 4.0.0
+     */
+    VIRTUAL
 }
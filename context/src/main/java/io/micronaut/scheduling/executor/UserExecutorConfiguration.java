@@ -129,6 +129,8 @@ public class UserExecutorConfiguration implements ExecutorConfiguration {
 
     /**
      * Sets the executor type. Default value ({@link io.micronaut.scheduling.executor.ExecutorType#SCHEDULED}).
+     * The thread factory and pool sizing settings do not apply to {@link io.micronaut.scheduling.executor.ExecutorType#VIRTUAL}
+     * executors.
      *
      * @param type The type
      */
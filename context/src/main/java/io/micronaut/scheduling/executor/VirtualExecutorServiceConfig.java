@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.scheduling.executor;
+
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+/**
+ * Configures the default virtual thread executor if none is configured by the user.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Requires(missingProperty = ExecutorConfiguration.PREFIX_VIRTUAL)
+@Factory
+public class VirtualExecutorServiceConfig {
+
+    /**
+     * @return The default virtual thread executor configuration
+     */
+    @Singleton
+    @Named(TaskExecutors.VIRTUAL)
+    ExecutorConfiguration configuration() {
+        return UserExecutorConfiguration.of(TaskExecutors.VIRTUAL, ExecutorType.VIRTUAL);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.scheduling.executor;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Reflective access to the virtual thread API of JDKs that support it, so that the rest of the framework can
+ * use virtual threads while still running on older JDKs.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+public final class VirtualThreadSupport {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builderName = builderType.getMethod("name", String.class, long.class);
+            builderFactory = builderType.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            // virtual threads may be a preview feature that is not enabled
+            ofVirtual.invoke(null);
+        } catch (Throwable e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private VirtualThreadSupport() {
+    }
+
+    /**
+     * @return Whether the current JDK supports virtual threads
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a factory of virtual threads.
+     *
+     * @param namePrefix The thread name prefix, or {@code null} for unnamed threads
+     * @return The thread factory
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    @NonNull
+    public static ThreadFactory newVirtualThreadFactory(@Nullable String namePrefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JDK");
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            if (namePrefix != null) {
+                builder = BUILDER_NAME.invoke(builder, namePrefix, 1L);
+            }
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JDK", e);
+        }
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task.
+     *
+     * @param namePrefix The thread name prefix, or {@code null} for unnamed threads
+     * @return The executor
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    @NonNull
+    public static ExecutorService newVirtualThreadPerTaskExecutor(@Nullable String namePrefix) {
+        ThreadFactory threadFactory = newVirtualThreadFactory(namePrefix);
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JDK", e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.micronaut.scheduling
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.inject.qualifiers.Qualifiers
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class TimingWheelTaskSchedulerSpec extends Specification {
+
+    @AutoCleanup('shutdownNow')
+    ScheduledExecutorService executor = Executors.newScheduledThreadPool(2)
+
+    @AutoCleanup
+    TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler(executor, Duration.ofMillis(1), 8)
+
+    void "test tasks run in deadline order after their delay"() {
+        given:
+        List<Integer> order = new CopyOnWriteArrayList<>()
+        long start = System.nanoTime()
+
+        when:
+        ScheduledFuture<?> last = scheduler.schedule(Duration.ofMillis(60), { order << 3 } as Runnable)
+        scheduler.schedule(Duration.ofMillis(5), { order << 1 } as Runnable)
+        scheduler.schedule(Duration.ofMillis(30), { order << 2 } as Runnable)
+        last.get(5, TimeUnit.SECONDS)
+
+        then:
+        order == [1, 2, 3]
+        System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(60)
+    }
+
+    void "test callables return their result"() {
+        expect:
+        scheduler.schedule(Duration.ofMillis(10), { 'done' } as java.util.concurrent.Callable<String>).get(5, TimeUnit.SECONDS) == 'done'
+    }
+
+    void "test cancelled tasks do not run"() {
+        given:
+        AtomicInteger runs = new AtomicInteger()
+
+        when:
+        ScheduledFuture<?> future = scheduler.schedule(Duration.ofMillis(50), { runs.incrementAndGet() } as Runnable)
+        boolean cancelled = future.cancel(false)
+        scheduler.schedule(Duration.ofMillis(100), {} as Runnable).get(5, TimeUnit.SECONDS)
+
+        then:
+        cancelled
+        future.isCancelled()
+        runs.get() == 0
+    }
+
+    void "test tasks beyond the range of the first wheel cascade down"() {
+        given:
+        // 8 buckets of 1ms, so 300ms is on the third wheel
+        List<Long> delays = [3L, 9L, 70L, 300L]
+        List<Long> completed = new CopyOnWriteArrayList<>()
+        long start = System.nanoTime()
+
+        when:
+        List<ScheduledFuture<?>> futures = delays.reverse().collect { long delay ->
+            scheduler.schedule(Duration.ofMillis(delay), {
+                assert System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(delay)
+                completed << delay
+            } as Runnable)
+        }
+        futures*.get(5, TimeUnit.SECONDS)
+
+        then:
+        completed == delays
+    }
+
+    void "test fixed rate and fixed delay tasks repeat until cancelled"() {
+        given:
+        AtomicInteger rate = new AtomicInteger()
+        AtomicInteger delay = new AtomicInteger()
+
+        when:
+        ScheduledFuture<?> rateFuture = scheduler.scheduleAtFixedRate(Duration.ZERO, Duration.ofMillis(10), { rate.incrementAndGet() } as Runnable)
+        ScheduledFuture<?> delayFuture = scheduler.scheduleWithFixedDelay(Duration.ZERO, Duration.ofMillis(10), { delay.incrementAndGet() } as Runnable)
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            rate.get() >= 3
+            delay.get() >= 3
+        }
+
+        when:
+        rateFuture.cancel(false)
+        delayFuture.cancel(false)
+        int rateRuns = rate.get()
+        int delayRuns = delay.get()
+        Thread.sleep(50)
+
+        then:
+        rate.get() <= rateRuns + 1
+        delay.get() <= delayRuns + 1
+    }
+
+    void "test cron tasks are scheduled on the wheel"() {
+        given:
+        AtomicInteger runs = new AtomicInteger()
+
+        when:
+        ScheduledFuture<?> future = scheduler.schedule('* * * * * *', { runs.incrementAndGet() } as Runnable)
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            runs.get() >= 1
+        }
+
+        cleanup:
+        future.cancel(false)
+    }
+
+    void "test tasks are rejected after close"() {
+        given:
+        ScheduledFuture<?> future = scheduler.schedule(Duration.ofMinutes(5), {} as Runnable)
+
+        when:
+        scheduler.close()
+        scheduler.schedule(Duration.ofMillis(1), {} as Runnable)
+
+        then:
+        thrown(java.util.concurrent.RejectedExecutionException)
+        new PollingConditions(timeout: 5).eventually {
+            future.isCancelled()
+        }
+    }
+
+    void "test the timing wheel replaces the default scheduler when enabled"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run('micronaut.scheduler.timing-wheel.enabled': true)
+
+        expect:
+        ctx.getBean(TaskScheduler, Qualifiers.byName(TaskExecutors.SCHEDULED)) instanceof TimingWheelTaskScheduler
+
+        cleanup:
+        ctx.close()
+    }
+}
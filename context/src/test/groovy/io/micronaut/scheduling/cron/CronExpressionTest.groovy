@@ -1,6 +1,11 @@
 package io.micronaut.scheduling.cron
 
 import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.ZonedDateTime
 
 class CronExpressionTest extends Specification {
     void "test toString gives the cron expression as string"() {
@@ -10,4 +15,68 @@ class CronExpressionTest extends Specification {
         then:
         cronExpression.getExpression() == "0 0 12 * * ?"
     }
+
+    @Unroll
+    void "test next time after #after for #expression"() {
+        given:
+        ZoneId zone = ZoneId.of('UTC')
+
+        expect:
+        CronExpression.create(expression).nextTimeAfter(ZonedDateTime.of(after, zone)) == ZonedDateTime.of(next, zone)
+
+        where:
+        expression            | after                                       | next
+        '* * * * * *'         | LocalDateTime.of(2022, 1, 1, 10, 0, 0)      | LocalDateTime.of(2022, 1, 1, 10, 0, 1)
+        '0 */15 * * * *'      | LocalDateTime.of(2022, 1, 1, 23, 50, 0)     | LocalDateTime.of(2022, 1, 2, 0, 0, 0)
+        '15 10 9 ? * MON-FRI' | LocalDateTime.of(2022, 1, 7, 10, 0, 0)      | LocalDateTime.of(2022, 1, 10, 9, 10, 15)
+        '0 0 0 L * ?'         | LocalDateTime.of(2024, 2, 1, 0, 0, 0)       | LocalDateTime.of(2024, 2, 29, 0, 0, 0)
+        '0 0 9 15W * ?'       | LocalDateTime.of(2022, 1, 1, 0, 0, 0)       | LocalDateTime.of(2022, 1, 14, 9, 0, 0)
+        '0 0 10 ? * 6#3'      | LocalDateTime.of(2022, 1, 1, 0, 0, 0)       | LocalDateTime.of(2022, 1, 15, 10, 0, 0)
+        '0 0 10 ? * 5L'       | LocalDateTime.of(2022, 1, 1, 0, 0, 0)       | LocalDateTime.of(2022, 1, 28, 10, 0, 0)
+        '0 0 0 29 2 ?'        | LocalDateTime.of(2022, 3, 1, 0, 0, 0)       | LocalDateTime.of(2024, 2, 29, 0, 0, 0)
+    }
+
+    void "test times in a daylight saving gap are skipped"() {
+        given:
+        ZoneId zone = ZoneId.of('America/New_York')
+        CronExpression cron = CronExpression.create('0 30 2 * * *')
+
+        expect:
+        cron.nextTimeAfter(ZonedDateTime.of(2022, 3, 12, 3, 0, 0, 0, zone)) == ZonedDateTime.of(2022, 3, 14, 2, 30, 0, 0, zone)
+    }
+
+    void "test times in a daylight saving overlap fire for both offsets"() {
+        given:
+        ZoneId zone = ZoneId.of('America/New_York')
+        CronExpression cron = CronExpression.create('0 30 1 * * *')
+        ZonedDateTime first = cron.nextTimeAfter(ZonedDateTime.of(2022, 11, 6, 0, 0, 0, 0, zone))
+        ZonedDateTime second = cron.nextTimeAfter(first)
+
+        expect:
+        first.toLocalDateTime() == second.toLocalDateTime()
+        first.offset.totalSeconds == -4 * 3600
+        second.offset.totalSeconds == -5 * 3600
+        cron.nextTimeAfter(second) == ZonedDateTime.of(2022, 11, 7, 1, 30, 0, 0, zone)
+    }
+
+    void "test the next times are computed in batch"() {
+        given:
+        ZoneId zone = ZoneId.of('UTC')
+        CronExpression cron = CronExpression.create('0 0 12 * * ?')
+
+        expect:
+        cron.nextTimesAfter(ZonedDateTime.of(2022, 1, 1, 0, 0, 0, 0, zone), 3) == [
+                ZonedDateTime.of(2022, 1, 1, 12, 0, 0, 0, zone),
+                ZonedDateTime.of(2022, 1, 2, 12, 0, 0, 0, zone),
+                ZonedDateTime.of(2022, 1, 3, 12, 0, 0, 0, zone)
+        ]
+    }
+
+    void "test an expression that never matches reaches the barrier"() {
+        when:
+        CronExpression.create('0 0 0 30 2 *').nextTimeAfter(ZonedDateTime.now())
+
+        then:
+        thrown(IllegalArgumentException)
+    }
 }
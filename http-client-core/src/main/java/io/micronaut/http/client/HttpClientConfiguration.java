@@ -658,8 +658,16 @@ public abstract class HttpClientConfiguration {
         @SuppressWarnings("WeakerAccess")
         public static final int DEFAULT_MAXCONNECTIONS = -1;
 
+        /**
+         * The default maximum number of concurrent streams per HTTP/2 connection; the limit of the server applies.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MAX_CONCURRENT_HTTP2_STREAMS = -1;
+
         private int maxConnections = DEFAULT_MAXCONNECTIONS;
 
+        private int maxConcurrentHttp2Streams = DEFAULT_MAX_CONCURRENT_HTTP2_STREAMS;
+
         private int maxPendingAcquires = Integer.MAX_VALUE;
 
         private Duration acquireTimeout;
@@ -703,6 +711,30 @@ public abstract class HttpClientConfiguration {
             this.maxConnections = maxConnections;
         }
 
+        /**
+         * The maximum number of concurrent requests multiplexed over a single HTTP/2 connection. Defaults to
+         * ({@value io.micronaut.http.client.HttpClientConfiguration.ConnectionPoolConfiguration#DEFAULT_MAX_CONCURRENT_HTTP2_STREAMS});
+         * only the {@code SETTINGS_MAX_CONCURRENT_STREAMS} limit of the server applies.
+         *
+         * @return The max concurrent streams per connection
+         * @since 4.0.0
+         */
+        public int getMaxConcurrentHttp2Streams() {
+            return maxConcurrentHttp2Streams;
+        }
+
+        /**
+         * Sets the maximum number of concurrent requests multiplexed over a single HTTP/2 connection. A new
+         * connection is opened once all connections are at this limit or at the limit of the server, up to
+         * {@link #getMaxConnections()}.
+         *
+         * @param maxConcurrentHttp2Streams The max concurrent streams per connection
+         * @since 4.0.0
+         */
+        public void setMaxConcurrentHttp2Streams(int maxConcurrentHttp2Streams) {
+            this.maxConcurrentHttp2Streams = maxConcurrentHttp2Streams;
+        }
+
         /**
          * Maximum number of futures awaiting connection acquisition. Defaults to no maximum.
          *
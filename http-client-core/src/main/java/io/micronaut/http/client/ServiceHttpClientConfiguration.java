@@ -20,6 +20,7 @@ import io.micronaut.context.annotation.EachProperty;
 import io.micronaut.context.annotation.Parameter;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.util.CollectionUtils;
+import io.micronaut.http.client.loadbalance.LoadBalancerStrategy;
 import io.micronaut.http.context.ClientContextPathProvider;
 import io.micronaut.http.ssl.AbstractClientSslConfiguration;
 import io.micronaut.http.ssl.SslConfiguration;
@@ -66,6 +67,12 @@ public class ServiceHttpClientConfiguration extends HttpClientConfiguration impl
     @SuppressWarnings("WeakerAccess")
     public static final long DEFAULT_HEALTHCHECKINTERVAL_SECONDS = 30;
 
+    /**
+     * The default load balancer strategy.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final LoadBalancerStrategy DEFAULT_LOAD_BALANCER_STRATEGY = LoadBalancerStrategy.ROUND_ROBIN;
+
     private final String serviceId;
     private final ServiceConnectionPoolConfiguration connectionPoolConfiguration;
     private List<URI> urls = Collections.emptyList();
@@ -73,6 +80,7 @@ public class ServiceHttpClientConfiguration extends HttpClientConfiguration impl
     private boolean healthCheck = DEFAULT_HEALTHCHECK;
     private Duration healthCheckInterval = Duration.ofSeconds(DEFAULT_HEALTHCHECKINTERVAL_SECONDS);
     private String path;
+    private LoadBalancerStrategy loadBalancerStrategy = DEFAULT_LOAD_BALANCER_STRATEGY;
 
     /**
      * Creates a new client configuration for the given service ID.
@@ -243,6 +251,28 @@ public class ServiceHttpClientConfiguration extends HttpClientConfiguration impl
         }
     }
 
+    /**
+     * The strategy used to select an instance of the service.
+     *
+     * @return The load balancer strategy
+     * @since 4.0.0
+     */
+    public LoadBalancerStrategy getLoadBalancerStrategy() {
+        return loadBalancerStrategy;
+    }
+
+    /**
+     * Sets the strategy used to select an instance of the service. Default value (round-robin).
+     *
+     * @param loadBalancerStrategy The load balancer strategy
+     * @since 4.0.0
+     */
+    public void setLoadBalancerStrategy(LoadBalancerStrategy loadBalancerStrategy) {
+        if (loadBalancerStrategy != null) {
+            this.loadBalancerStrategy = loadBalancerStrategy;
+        }
+    }
+
     @Override
     public ConnectionPoolConfiguration getConnectionPoolConfiguration() {
         return connectionPoolConfiguration;
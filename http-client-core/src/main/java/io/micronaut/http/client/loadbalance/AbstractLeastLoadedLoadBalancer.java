@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.discovery.ServiceInstance;
+import io.micronaut.discovery.exceptions.NoAvailableServiceException;
+import io.micronaut.health.HealthStatus;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A load balancer that picks two random available instances and selects the one with the lower load
+ * ("power of two choices"). The load of an instance is its peak-sensitive exponentially weighted moving average
+ * (peak EWMA) of the response latency multiplied by the number of requests in flight, so that instances that
+ * respond slowly or are busy receive fewer requests without herding all clients onto the single best instance.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+public abstract class AbstractLeastLoadedLoadBalancer implements LoadTrackingLoadBalancer {
+
+    /**
+     * The default time after which a latency sample has decayed to roughly a third of its weight.
+     */
+    public static final Duration DEFAULT_DECAY_TIME = Duration.ofSeconds(10);
+
+    // the latency assumed for instances that have requests in flight but no latency sample yet
+    private static final long PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+    private final long decayNanos;
+
+    /**
+     * Default constructor.
+     */
+    protected AbstractLeastLoadedLoadBalancer() {
+        this(DEFAULT_DECAY_TIME);
+    }
+
+    /**
+     * @param decayTime The time after which a latency sample has decayed to roughly a third of its weight
+     */
+    protected AbstractLeastLoadedLoadBalancer(@NonNull Duration decayTime) {
+        this.decayNanos = Math.max(1, decayTime.toNanos());
+    }
+
+    /**
+     * @return The service ID
+     */
+    public abstract String getServiceID();
+
+    @NonNull
+    @Override
+    public InFlightRequest requestStarted(@NonNull URI requestURI) {
+        InstanceLoad load = loads.get(originOf(requestURI));
+        if (load == null) {
+            // not an instance selected by this load balancer, e.g. a fully qualified request URI
+            return InFlightRequest.UNTRACKED;
+        }
+        return load.start();
+    }
+
+    /**
+     * Returns the current load of the instance, which is used to compare instances. Exposed for monitoring and
+     * testing.
+     *
+     * @param instance The instance
+     * @return The load, {@code 0} if the instance did not receive any request yet
+     */
+    public double getLoad(@NonNull ServiceInstance instance) {
+        InstanceLoad load = loads.get(originOf(instance.getURI()));
+        return load == null ? 0 : load.cost(System.nanoTime());
+    }
+
+    /**
+     * @param instance The instance
+     * @return The number of requests in flight to the instance
+     */
+    public int getInFlightRequests(@NonNull ServiceInstance instance) {
+        InstanceLoad load = loads.get(originOf(instance.getURI()));
+        return load == null ? 0 : load.inFlight.get();
+    }
+
+    /**
+     * @param serviceInstances A list of service instances
+     * @return The least loaded of two randomly picked available instances or a {@link NoAvailableServiceException} if none
+     */
+    protected ServiceInstance getLeastLoaded(List<ServiceInstance> serviceInstances) {
+        List<ServiceInstance> availableServices = new ArrayList<>(serviceInstances.size());
+        for (ServiceInstance serviceInstance : serviceInstances) {
+            if (serviceInstance.getHealthStatus().equals(HealthStatus.UP)) {
+                availableServices.add(serviceInstance);
+            }
+        }
+        int len = availableServices.size();
+        if (len == 0) {
+            throw new NoAvailableServiceException(getServiceID());
+        }
+        if (loads.size() > len * 2) {
+            evictRemovedInstances(availableServices);
+        }
+        if (len == 1) {
+            ServiceInstance instance = availableServices.get(0);
+            loadOf(instance);
+            return instance;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(len);
+        int second = random.nextInt(len - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = availableServices.get(first);
+        ServiceInstance b = availableServices.get(second);
+        long now = System.nanoTime();
+        return loadOf(a).cost(now) <= loadOf(b).cost(now) ? a : b;
+    }
+
+    private InstanceLoad loadOf(ServiceInstance instance) {
+        return loads.computeIfAbsent(originOf(instance.getURI()), origin -> new InstanceLoad());
+    }
+
+    private void evictRemovedInstances(List<ServiceInstance> availableServices) {
+        Set<String> origins = new HashSet<>(availableServices.size());
+        for (ServiceInstance instance : availableServices) {
+            origins.add(originOf(instance.getURI()));
+        }
+        loads.keySet().retainAll(origins);
+    }
+
+    private static String originOf(URI uri) {
+        String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase(Locale.ENGLISH);
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equals(scheme) || "wss".equals(scheme) ? 443 : 80;
+        }
+        return scheme + "://" + uri.getHost() + ":" + port;
+    }
+
+    /**
+     * The load statistics of a single instance.
+     */
+    private final class InstanceLoad {
+        final AtomicInteger inFlight = new AtomicInteger();
+        // guarded by this
+        private double ewmaNanos;
+        private long lastUpdate = System.nanoTime();
+
+        InFlightRequest start() {
+            inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            AtomicBoolean done = new AtomicBoolean();
+            return success -> {
+                if (done.compareAndSet(false, true)) {
+                    long end = System.nanoTime();
+                    long latency = end - start;
+                    record(end, success ? latency : Math.max(latency, PENALTY_NANOS));
+                    inFlight.decrementAndGet();
+                }
+            };
+        }
+
+        synchronized void record(long now, long latencyNanos) {
+            if (latencyNanos > ewmaNanos) {
+                // peak sensitive: a slow response is taken into account immediately
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(double) Math.max(0, now - lastUpdate) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastUpdate = now;
+        }
+
+        synchronized double cost(long now) {
+            // decay towards zero while idle, so that an instance that was slow once gets probed again
+            double weight = Math.exp(-(double) Math.max(0, now - lastUpdate) / decayNanos);
+            double ewma = ewmaNanos * weight;
+            int pending = inFlight.get();
+            if (ewma == 0 && pending != 0) {
+                return PENALTY_NANOS + pending;
+            }
+            return ewma * (pending + 1);
+        }
+    }
+}
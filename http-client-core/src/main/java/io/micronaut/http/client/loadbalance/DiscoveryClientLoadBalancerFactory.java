@@ -48,6 +48,21 @@ public class DiscoveryClientLoadBalancerFactory {
         return new DiscoveryClientRoundRobinLoadBalancer(serviceID, discoveryClient);
     }
 
+    /**
+     * Creates a {@link LoadBalancer} for the given service ID that uses the given strategy.
+     *
+     * @param serviceID The service ID
+     * @param strategy  The load balancer strategy
+     * @return The {@link LoadBalancer}
+     * @since 4.0.0
+     */
+    public LoadBalancer create(String serviceID, LoadBalancerStrategy strategy) {
+        if (strategy == LoadBalancerStrategy.LEAST_LOADED) {
+            return new DiscoveryClientLeastLoadedLoadBalancer(serviceID, discoveryClient);
+        }
+        return create(serviceID);
+    }
+
     /**
      * @return The {@link DiscoveryClient} being used
      */
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+/**
+ * The strategies to select an instance of a service.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+public enum LoadBalancerStrategy {
+    /**
+     * Select the available instances in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * Select the less loaded of two random available instances, based on the requests in flight and the
+     * response latency of each instance. See {@link AbstractLeastLoadedLoadBalancer}.
+     */
+    LEAST_LOADED
+}
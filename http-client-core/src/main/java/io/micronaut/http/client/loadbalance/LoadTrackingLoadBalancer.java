@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.Experimental;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.http.client.LoadBalancer;
+
+import java.net.URI;
+
+/**
+ * A {@link LoadBalancer} that is notified of the requests sent to the instances it selects, so that it can take
+ * the current load and the response latency of each instance into account.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Experimental
+public interface LoadTrackingLoadBalancer extends LoadBalancer {
+
+    /**
+     * Called by the client when a request is sent to the given URI.
+     *
+     * @param requestURI The resolved request URI
+     * @return The in-flight request that must be completed once the response is received or the request fails
+     */
+    @NonNull
+    InFlightRequest requestStarted(@NonNull URI requestURI);
+
+    /**
+     * A request that was sent to an instance and did not complete yet.
+     */
+    @FunctionalInterface
+    interface InFlightRequest {
+
+        /**
+         * A request that is not tracked.
+         */
+        InFlightRequest UNTRACKED = success -> { };
+
+        /**
+         * Completes the request. Only the first invocation is taken into account.
+         *
+         * @param success Whether the instance handled the request successfully
+         */
+        void completed(boolean success);
+    }
+}
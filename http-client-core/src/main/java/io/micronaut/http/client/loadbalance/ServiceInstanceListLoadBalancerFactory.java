@@ -40,4 +40,19 @@ public class ServiceInstanceListLoadBalancerFactory {
     public LoadBalancer create(ServiceInstanceList serviceInstanceList) {
         return new ServiceInstanceListRoundRobinLoadBalancer(serviceInstanceList);
     }
+
+    /**
+     * Creates a {@link LoadBalancer} from the given {@link ServiceInstanceList} that uses the given strategy.
+     *
+     * @param serviceInstanceList The {@link ServiceInstanceList}
+     * @param strategy            The load balancer strategy
+     * @return The {@link LoadBalancer}
+     * @since 4.0.0
+     */
+    public LoadBalancer create(ServiceInstanceList serviceInstanceList, LoadBalancerStrategy strategy) {
+        if (strategy == LoadBalancerStrategy.LEAST_LOADED) {
+            return new ServiceInstanceListLeastLoadedLoadBalancer(serviceInstanceList);
+        }
+        return create(serviceInstanceList);
+    }
 }
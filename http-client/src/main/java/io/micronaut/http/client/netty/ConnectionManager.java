@@ -31,6 +31,7 @@ import io.micronaut.http.netty.stream.DefaultHttp2Content;
 import io.micronaut.http.netty.stream.Http2Content;
 import io.micronaut.http.netty.stream.HttpStreamsClientHandler;
 import io.micronaut.http.netty.stream.StreamingInboundHttp2ToHttpAdapter;
+import io.micronaut.http.netty.websocket.KeyedWebSocketFrame;
 import io.micronaut.scheduling.instrument.Instrumentation;
 import io.micronaut.scheduling.instrument.InvocationInstrumenter;
 import io.micronaut.websocket.exceptions.WebSocketSessionException;
@@ -77,10 +78,13 @@ import io.netty.handler.codec.http2.DefaultHttp2Connection;
 import io.netty.handler.codec.http2.DelegatingDecompressorFrameListener;
 import io.netty.handler.codec.http2.Http2ClientUpgradeCodec;
 import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
 import io.netty.handler.codec.http2.Http2FrameListener;
 import io.netty.handler.codec.http2.Http2FrameLogger;
 import io.netty.handler.codec.http2.Http2Settings;
 import io.netty.handler.codec.http2.Http2Stream;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
 import io.netty.handler.codec.http2.HttpConversionUtil;
 import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandler;
 import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandlerBuilder;
@@ -114,7 +118,10 @@ import java.net.InetSocketAddress;
 import java.net.Proxy;
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -222,7 +229,7 @@ final class ConnectionManager {
 
                         AbstractChannelPoolHandler channelPoolHandler = newPoolHandler(key);
                         final long acquireTimeoutMillis = connectionPoolConfiguration.getAcquireTimeout().map(Duration::toMillis).orElse(-1L);
-                        return new FixedChannelPool(
+                        return multiplexIfHttp2(key, new FixedChannelPool(
                             newBootstrap,
                             channelPoolHandler,
                             channelHealthChecker,
@@ -231,7 +238,7 @@ final class ConnectionManager {
                             maxConnections,
                             connectionPoolConfiguration.getMaxPendingAcquires()
 
-                        );
+                        ));
                     }
                 };
             } else {
@@ -243,11 +250,11 @@ final class ConnectionManager {
                         newBootstrap.remoteAddress(key.getRemoteAddress());
 
                         AbstractChannelPoolHandler channelPoolHandler = newPoolHandler(key);
-                        return new SimpleChannelPool(
+                        return multiplexIfHttp2(key, new SimpleChannelPool(
                             newBootstrap,
                             channelPoolHandler,
                             channelHealthChecker
-                        );
+                        ));
                     }
                 };
             }
@@ -601,6 +608,7 @@ final class ConnectionManager {
 
                 try {
                     pipeline.addLast(WebSocketClientCompressionHandler.INSTANCE);
+                    pipeline.addLast(ChannelPipelineCustomizer.HANDLER_WEBSOCKET_OUTBOUND, KeyedWebSocketFrame.Unwrapper.INSTANCE);
                     pipeline.addLast(ChannelPipelineCustomizer.HANDLER_MICRONAUT_WEBSOCKET_CLIENT, handler);
                     initial.tryEmitEmpty();
                 } catch (Throwable e) {
@@ -618,6 +626,191 @@ final class ConnectionManager {
         return initial.asMono();
     }
 
+    /**
+     * @return The stream utilisation of the HTTP/2 connections of every origin
+     */
+    List<Http2ConnectionPoolMetrics> getHttp2ConnectionPoolMetrics() {
+        if (!(poolMap instanceof Iterable)) {
+            return Collections.emptyList();
+        }
+        List<Http2ConnectionPoolMetrics> metrics = new ArrayList<>();
+        Iterable<Map.Entry<DefaultHttpClient.RequestKey, ChannelPool>> pools = (Iterable) poolMap;
+        for (Map.Entry<DefaultHttpClient.RequestKey, ChannelPool> entry : pools) {
+            if (entry.getValue() instanceof Http2ConnectionPool) {
+                metrics.add(((Http2ConnectionPool) entry.getValue()).metrics());
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Wraps the pool of an origin in a pool that multiplexes requests as HTTP/2 streams, if HTTP/2 is negotiated
+     * through ALPN. Cleartext HTTP/2 is negotiated through an upgrade request on each connection and keeps using
+     * one connection per request.
+     *
+     * @param key       The origin
+     * @param http1Pool The pool to use if the origin does not support HTTP/2
+     * @return The pool to use for the origin
+     */
+    private ChannelPool multiplexIfHttp2(DefaultHttpClient.RequestKey key, ChannelPool http1Pool) {
+        if (httpVersion != HttpVersion.HTTP_2_0 || !key.isSecure() || sslContext == null) {
+            return http1Pool;
+        }
+        HttpClientConfiguration.ConnectionPoolConfiguration connectionPoolConfiguration = configuration.getConnectionPoolConfiguration();
+        Bootstrap newBootstrap = bootstrap.clone(group);
+        initBootstrapForProxy(newBootstrap, true, key.getHost(), key.getPort());
+        newBootstrap.remoteAddress(key.getRemoteAddress());
+        return new Http2ConnectionPool(
+            newBootstrap,
+            "https://" + key.getHost() + ":" + key.getPort(),
+            http1Pool,
+            connectionPoolConfiguration.getMaxConnections(),
+            connectionPoolConfiguration.getMaxConcurrentHttp2Streams(),
+            connectionPoolConfiguration.getMaxPendingAcquires(),
+            connectionPoolConfiguration.getAcquireTimeout().map(Duration::toMillis).orElse(-1L),
+            configuration.getConnectionPoolIdleTimeout().map(Duration::toMillis).orElse(0L)
+        ) {
+            @Override
+            protected void initConnection(Channel connection) {
+                initHttp2Connection(this, connection, key);
+            }
+
+            @Override
+            protected void initStream(Http2StreamChannel stream) {
+                initHttp2Stream(stream);
+            }
+
+            @Override
+            protected void initHttp1Connection(Channel connection) {
+                ConnectionManager.this.initHttp1Connection(connection, key);
+            }
+
+            @Override
+            protected boolean isReusable(Channel connection) {
+                return super.isReusable(connection) && !ConnectTTLHandler.isChannelExpired(connection);
+            }
+        };
+    }
+
+    /**
+     * Builds the pipeline of a connection of an {@link Http2ConnectionPool}: TLS, protocol negotiation and, if
+     * HTTP/2 is negotiated, the frame codec.
+     *
+     * @param pool The pool
+     * @param ch   The connection channel
+     * @param key  The origin
+     */
+    private void initHttp2Connection(Http2ConnectionPool pool, Channel ch, DefaultHttpClient.RequestKey key) {
+        NettyClientCustomizer channelCustomizer = clientCustomizer.specializeForChannel(ch, NettyClientCustomizer.ChannelRole.CONNECTION);
+        ch.attr(CHANNEL_CUSTOMIZER_KEY).set(channelCustomizer);
+
+        ChannelPipeline pipeline = ch.pipeline();
+        configureProxy(pipeline, true, key.getHost(), key.getPort());
+        SslHandler sslHandler = sslContext.newHandler(ch.alloc(), key.getHost(), key.getPort());
+        sslHandler.setHandshakeTimeoutMillis(configuration.getSslConfiguration().getHandshakeTimeout().toMillis());
+        pipeline.addLast(ChannelPipelineCustomizer.HANDLER_SSL, sslHandler);
+        pipeline.addLast(
+                ChannelPipelineCustomizer.HANDLER_HTTP2_PROTOCOL_NEGOTIATOR,
+                new ApplicationProtocolNegotiationHandler(ApplicationProtocolNames.HTTP_1_1) {
+            @Override
+            protected void configurePipeline(ChannelHandlerContext ctx, String protocol) {
+                if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                    Http2FrameCodecBuilder builder = Http2FrameCodecBuilder.forClient()
+                            .validateHeaders(true)
+                            .initialSettings(Http2Settings.defaultSettings().pushEnabled(false));
+                    configuration.getLogLevel().ifPresent(logLevel -> {
+                        try {
+                            final io.netty.handler.logging.LogLevel nettyLevel = io.netty.handler.logging.LogLevel.valueOf(
+                                    logLevel.name()
+                            );
+                            builder.frameLogger(new Http2FrameLogger(nettyLevel, DefaultHttpClient.class));
+                        } catch (IllegalArgumentException e) {
+                            throw customizeException(new HttpClientException("Unsupported log level: " + logLevel));
+                        }
+                    });
+                    ctx.pipeline().addLast(ChannelPipelineCustomizer.HANDLER_HTTP2_CONNECTION, builder.build());
+                    pool.onHttp2Negotiated(ctx.channel());
+                    channelCustomizer.onStreamPipelineBuilt();
+                } else {
+                    pool.onHttp1Negotiated(ctx.channel());
+                }
+            }
+
+            @Override
+            protected void handshakeFailure(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+                pool.onConnectionFailed(ctx.channel(), cause);
+                super.handshakeFailure(ctx, cause);
+            }
+        });
+        if (connectionTimeAliveMillis != null) {
+            pipeline.addLast(ChannelPipelineCustomizer.HANDLER_CONNECT_TTL, new ConnectTTLHandler(connectionTimeAliveMillis));
+        }
+        channelCustomizer.onInitialPipelineBuilt();
+    }
+
+    /**
+     * Completes the pipeline of a connection of an {@link Http2ConnectionPool} on which the peer negotiated HTTP/1.1,
+     * the same way as the pipeline of a pooled HTTP/1.1 connection.
+     *
+     * @param ch  The connection channel
+     * @param key The origin
+     */
+    private void initHttp1Connection(Channel ch, DefaultHttpClient.RequestKey key) {
+        HttpClientInitializer initializer = new HttpClientInitializer(
+            sslContext,
+            key.getHost(),
+            key.getPort(),
+            false,
+            false,
+            false,
+            null
+        ) {
+            @Override
+            protected void addFinalHandler(ChannelPipeline pipeline) {
+                // no-op, like the connections of the HTTP/1.1 pool
+            }
+        };
+        initializer.addHttp1Handlers(ch.pipeline());
+        NettyClientCustomizer channelCustomizer = ch.attr(CHANNEL_CUSTOMIZER_KEY).get();
+        if (channelCustomizer != null) {
+            channelCustomizer.onStreamPipelineBuilt();
+        }
+    }
+
+    /**
+     * Builds the pipeline of a stream of an {@link Http2ConnectionPool} so that requests can be written to it like
+     * to an HTTP/1.1 connection.
+     *
+     * @param stream The stream channel
+     */
+    private void initHttp2Stream(Http2StreamChannel stream) {
+        NettyClientCustomizer streamCustomizer = stream.parent().attr(CHANNEL_CUSTOMIZER_KEY).get()
+                .specializeForChannel(stream, NettyClientCustomizer.ChannelRole.HTTP2_STREAM);
+        stream.attr(CHANNEL_CUSTOMIZER_KEY).set(streamCustomizer);
+
+        ChannelPipeline pipeline = stream.pipeline();
+        pipeline.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_CLIENT_CODEC, new Http2StreamFrameToHttpObjectCodec(false));
+        pipeline.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_DECODER, new HttpContentDecompressor());
+        pipeline.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_AGGREGATOR, newHttpObjectAggregator());
+        for (ChannelPipelineListener pipelineListener : pipelineListeners) {
+            pipelineListener.onConnect(pipeline);
+        }
+        streamCustomizer.onStreamPipelineBuilt();
+    }
+
+    private HttpObjectAggregator newHttpObjectAggregator() {
+        return new HttpObjectAggregator(configuration.getMaxContentLength()) {
+            @Override
+            protected void finishAggregation(FullHttpMessage aggregated) throws Exception {
+                if (!HttpUtil.isContentLengthSet(aggregated)) {
+                    if (aggregated.content().readableBytes() > 0) {
+                        super.finishAggregation(aggregated);
+                    }
+                }
+            }
+        };
+    }
+
     private AbstractChannelPoolHandler newPoolHandler(DefaultHttpClient.RequestKey key) {
         return new AbstractChannelPoolHandler() {
             @Override
@@ -905,7 +1098,8 @@ final class ConnectionManager {
 
     private void addReadTimeoutHandler(ChannelPipeline pipeline) {
         if (readTimeoutMillis != null) {
-            if (httpVersion == HttpVersion.HTTP_2_0) {
+            // streams of a multiplexed connection are set up like HTTP/1.1 connections
+            if (httpVersion == HttpVersion.HTTP_2_0 && !(pipeline.channel() instanceof Http2StreamChannel)) {
                 pipeline.addBefore(
                     ChannelPipelineCustomizer.HANDLER_HTTP2_CONNECTION,
                     ChannelPipelineCustomizer.HANDLER_READ_TIMEOUT,
@@ -1168,19 +1362,8 @@ final class ConnectionManager {
 
             p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_DECODER, new HttpContentDecompressor());
 
-            int maxContentLength = configuration.getMaxContentLength();
-
             if (!stream) {
-                p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_AGGREGATOR, new HttpObjectAggregator(maxContentLength) {
-                    @Override
-                    protected void finishAggregation(FullHttpMessage aggregated) throws Exception {
-                        if (!HttpUtil.isContentLengthSet(aggregated)) {
-                            if (aggregated.content().readableBytes() > 0) {
-                                super.finishAggregation(aggregated);
-                            }
-                        }
-                    }
-                });
+                p.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_AGGREGATOR, newHttpObjectAggregator());
             }
             addEventStreamHandlerIfNecessary(p);
             addFinalHandler(p);
@@ -18,6 +18,7 @@ package io.micronaut.http.client.netty;
 import io.micronaut.buffer.netty.NettyByteBufferFactory;
 import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.AnnotationMetadataResolver;
+import io.micronaut.core.annotation.Experimental;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
@@ -61,6 +62,7 @@ import io.micronaut.http.client.exceptions.ReadTimeoutException;
 import io.micronaut.http.client.filter.ClientFilterResolutionContext;
 import io.micronaut.http.client.filter.DefaultHttpClientFilterResolver;
 import io.micronaut.http.client.filters.ClientServerContextFilter;
+import io.micronaut.http.client.loadbalance.LoadTrackingLoadBalancer;
 import io.micronaut.http.client.multipart.MultipartBody;
 import io.micronaut.http.client.multipart.MultipartDataFactory;
 import io.micronaut.http.client.netty.ssl.NettyClientSslBuilder;
@@ -447,6 +449,15 @@ public class DefaultHttpClient implements
         return connectionManager.isRunning();
     }
 
+    /**
+     * @return The stream utilisation of the multiplexed HTTP/2 connections of every origin this client connected to
+     * @since 4.0.0
+     */
+    @Experimental
+    public List<Http2ConnectionPoolMetrics> getHttp2ConnectionPoolMetrics() {
+        return connectionManager.getHttp2ConnectionPoolMetrics();
+    }
+
     @Override
     public HttpClient stop() {
         if (isRunning()) {
@@ -749,7 +760,7 @@ public class DefaultHttpClient implements
         final io.micronaut.http.HttpRequest<Object> parentRequest = ServerRequestContext.currentRequest().orElse(null);
         Publisher<URI> uriPublisher = resolveRequestURI(request);
         return Flux.from(uriPublisher)
-                .switchMap(uri -> exchangeImpl(uri, parentRequest, request, bodyType, errorType));
+                .switchMap(uri -> trackLoad(uri, exchangeImpl(uri, parentRequest, request, bodyType, errorType)));
     }
 
     @Override
@@ -1001,7 +1012,7 @@ public class DefaultHttpClient implements
                                     (Publisher) proxyResponsePublisher
                             )
                     );
-                    return proxyResponsePublisher;
+                    return trackLoad(requestURI, proxyResponsePublisher);
                 });
     }
 
@@ -1439,6 +1450,26 @@ public class DefaultHttpClient implements
         );
     }
 
+    /**
+     * Reports the request to the load balancer if it tracks the load of the instances. The request is complete
+     * once the response (or its headers for streamed responses) is received.
+     */
+    private <T> Flux<T> trackLoad(URI requestURI, Publisher<T> responsePublisher) {
+        if (!(loadBalancer instanceof LoadTrackingLoadBalancer)) {
+            return Flux.from(responsePublisher);
+        }
+        LoadTrackingLoadBalancer loadTrackingLoadBalancer = (LoadTrackingLoadBalancer) loadBalancer;
+        return Flux.defer(() -> {
+            LoadTrackingLoadBalancer.InFlightRequest inFlightRequest = loadTrackingLoadBalancer.requestStarted(requestURI);
+            return Flux.from(responsePublisher)
+                    .doOnNext(response -> inFlightRequest.completed(true))
+                    .doOnError(throwable -> inFlightRequest.completed(
+                            throwable instanceof HttpClientResponseException && ((HttpClientResponseException) throwable).getStatus().getCode() < 500
+                    ))
+                    .doFinally(signalType -> inFlightRequest.completed(true));
+        });
+    }
+
     private <I, O, E> void sendRequestThroughChannel(
             io.micronaut.http.HttpRequest<I> finalRequest,
             Argument<O> bodyType,
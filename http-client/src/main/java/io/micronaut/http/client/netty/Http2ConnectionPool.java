@@ -0,0 +1,536 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.http.netty.channel.ChannelPipelineCustomizer;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.handler.codec.http2.Http2GoAwayFrame;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2SettingsFrame;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link ChannelPool} for a single origin that multiplexes requests as streams over a small number of HTTP/2
+ * connections.
+ *
+ * <p>Every acquired channel is a new {@link Http2StreamChannel}; releasing it closes the stream. A connection serves
+ * at most as many concurrent streams as the peer allows through {@code SETTINGS_MAX_CONCURRENT_STREAMS}, and a new
+ * connection is only opened once every open connection is exhausted. If the peer negotiates HTTP/1.1 instead, the
+ * negotiated connection serves one waiting request and all other acquisitions are delegated to the given HTTP/1.1
+ * pool from then on.</p>
+ *
+ * <p>The state of the pool is confined to a single event loop of the bootstrap, like Netty's
+ * {@link io.netty.channel.pool.FixedChannelPool}.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+abstract class Http2ConnectionPool implements ChannelPool {
+
+    private static final ChannelHandler REJECT_PUSH_HANDLER = new RejectPushHandler();
+    private static final AttributeKey<Boolean> HTTP1_CONNECTION = AttributeKey.newInstance("micronaut.http2.pool.http1-connection");
+
+    private final Bootstrap bootstrap;
+    private final EventExecutor executor;
+    private final String origin;
+    private final ChannelPool http1Pool;
+    private final int maxConnections;
+    private final int maxStreamsPerConnection;
+    private final int maxPendingAcquires;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final ChannelHandler streamInitializer = new ChannelInitializer<Http2StreamChannel>() {
+        @Override
+        protected void initChannel(Http2StreamChannel ch) {
+            initStream(ch);
+        }
+    };
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final Deque<PendingAcquire> pendingAcquires = new ArrayDeque<>();
+    private volatile int pendingCount;
+    private volatile boolean http1;
+    private Channel pendingConnection;
+    private boolean closed;
+
+    /**
+     * @param bootstrap               The bootstrap to connect with, the remote address must be set
+     * @param origin                  The origin, used for the metrics
+     * @param http1Pool               The pool to use when the peer does not support HTTP/2
+     * @param maxConnections          The maximum number of connections, or {@code -1} for no limit
+     * @param maxStreamsPerConnection The maximum number of concurrent streams per connection, or {@code -1} to only
+     *                                apply the limit of the peer
+     * @param maxPendingAcquires      The maximum number of requests waiting for a stream
+     * @param acquireTimeoutMillis    The maximum time to wait for a stream, or {@code -1} to wait indefinitely
+     * @param idleTimeoutMillis       The time after which a connection without streams is closed, or {@code 0} to
+     *                                keep it open
+     */
+    Http2ConnectionPool(Bootstrap bootstrap,
+                        String origin,
+                        ChannelPool http1Pool,
+                        int maxConnections,
+                        int maxStreamsPerConnection,
+                        int maxPendingAcquires,
+                        long acquireTimeoutMillis,
+                        long idleTimeoutMillis) {
+        this.bootstrap = bootstrap.clone().handler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) {
+                initConnection(ch);
+            }
+        });
+        this.executor = bootstrap.config().group().next();
+        this.origin = origin;
+        this.http1Pool = http1Pool;
+        this.maxConnections = maxConnections;
+        this.maxStreamsPerConnection = maxStreamsPerConnection;
+        this.maxPendingAcquires = maxPendingAcquires;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Builds the pipeline of a new connection. Once the protocol is known the implementation must call either
+     * {@link #onHttp2Negotiated(Channel)}, after adding the {@link io.netty.handler.codec.http2.Http2FrameCodec},
+     * or {@link #onHttp1Negotiated(Channel)}.
+     *
+     * @param connection The connection channel
+     */
+    protected abstract void initConnection(Channel connection);
+
+    /**
+     * Builds the pipeline of a new stream so that it can be used like an HTTP/1.1 connection.
+     *
+     * @param stream The stream channel
+     */
+    protected abstract void initStream(Http2StreamChannel stream);
+
+    /**
+     * Whether new streams may be opened on the given connection.
+     *
+     * @param connection The connection channel
+     * @return {@code true} if the connection can be reused
+     */
+    protected boolean isReusable(Channel connection) {
+        return connection.isActive();
+    }
+
+    /**
+     * To be called from {@link #initConnection(Channel)} when HTTP/2 was negotiated and the frame codec is in place.
+     *
+     * @param channel The connection channel
+     */
+    final void onHttp2Negotiated(Channel channel) {
+        Connection connection = new Connection(channel);
+        channel.pipeline()
+                .addLast(ChannelPipelineCustomizer.HANDLER_HTTP2_MULTIPLEX, new Http2MultiplexHandler(REJECT_PUSH_HANDLER))
+                .addLast(ChannelPipelineCustomizer.HANDLER_HTTP2_SETTINGS, connection);
+    }
+
+    /**
+     * Builds the HTTP/1.1 pipeline of a connection on which the peer negotiated HTTP/1.1, so that the connection can
+     * serve a request like a connection of the HTTP/1.1 pool.
+     *
+     * @param connection The connection channel, after the TLS handshake
+     */
+    protected abstract void initHttp1Connection(Channel connection);
+
+    /**
+     * To be called from {@link #initConnection(Channel)} when the peer only supports HTTP/1.1. The negotiated
+     * connection serves the first waiting request and is closed once it is released. The other waiting requests and
+     * all future acquisitions are delegated to the HTTP/1.1 pool.
+     *
+     * @param channel The connection channel
+     */
+    final void onHttp1Negotiated(Channel channel) {
+        http1 = true;
+        initHttp1Connection(channel);
+        channel.attr(HTTP1_CONNECTION).set(Boolean.TRUE);
+        execute(() -> {
+            // from now on the close listener of the connection no longer fails the waiting requests
+            pendingConnection = null;
+            PendingAcquire first = pollPending();
+            if (first != null && !first.promise.isDone() && channel.isActive()) {
+                if (!first.promise.trySuccess(channel)) {
+                    channel.close();
+                }
+            } else {
+                channel.close();
+                if (first != null && !first.promise.isDone()) {
+                    http1Pool.acquire(first.promise);
+                }
+            }
+            PendingAcquire pending;
+            while ((pending = pollPending()) != null) {
+                http1Pool.acquire(pending.promise);
+            }
+        });
+    }
+
+    /**
+     * To be called from {@link #initConnection(Channel)} when the connection cannot be established, for example
+     * because the TLS handshake failed.
+     *
+     * @param channel The connection channel
+     * @param cause   The failure
+     */
+    final void onConnectionFailed(Channel channel, Throwable cause) {
+        execute(() -> onConnectFailed(channel, cause));
+    }
+
+    /**
+     * @return The current stream utilisation of this pool
+     */
+    final Http2ConnectionPoolMetrics metrics() {
+        int activeStreams = 0;
+        long maxStreams = 0;
+        for (Connection connection : connections) {
+            activeStreams += connection.activeStreams;
+            if (connection.ready) {
+                int max = connection.maxStreams();
+                maxStreams = max == Integer.MAX_VALUE || maxStreams == Long.MAX_VALUE ? Long.MAX_VALUE : maxStreams + max;
+            }
+        }
+        return new Http2ConnectionPoolMetrics(origin, connections.size(), activeStreams, maxStreams, pendingCount);
+    }
+
+    @Override
+    public final Future<Channel> acquire() {
+        return acquire(executor.newPromise());
+    }
+
+    @Override
+    public final Future<Channel> acquire(Promise<Channel> promise) {
+        if (http1) {
+            return http1Pool.acquire(promise);
+        }
+        execute(() -> acquire0(promise));
+        return promise;
+    }
+
+    @Override
+    public final Future<Void> release(Channel channel) {
+        return release(channel, executor.newPromise());
+    }
+
+    @Override
+    public final Future<Void> release(Channel channel, Promise<Void> promise) {
+        if (channel instanceof Http2StreamChannel) {
+            // streams are never reused, closing the stream frees the slot on the connection
+            channel.close();
+            promise.trySuccess(null);
+            return promise;
+        }
+        if (channel.attr(HTTP1_CONNECTION).get() != null) {
+            // the connection the protocol was negotiated on does not belong to the HTTP/1.1 pool
+            channel.close();
+            promise.trySuccess(null);
+            return promise;
+        }
+        return http1Pool.release(channel, promise);
+    }
+
+    @Override
+    public final void close() {
+        execute(() -> {
+            closed = true;
+            PendingAcquire pending;
+            while ((pending = pollPending()) != null) {
+                pending.promise.tryFailure(new IllegalStateException("Connection pool closed"));
+            }
+            for (Connection connection : connections) {
+                connection.channel.close();
+            }
+            connections.clear();
+        });
+        http1Pool.close();
+    }
+
+    private void acquire0(Promise<Channel> promise) {
+        if (http1) {
+            http1Pool.acquire(promise);
+            return;
+        }
+        if (closed) {
+            promise.tryFailure(new IllegalStateException("Connection pool closed"));
+            return;
+        }
+        if (pendingAcquires.size() >= maxPendingAcquires) {
+            promise.tryFailure(new IllegalStateException("Too many outstanding acquire operations"));
+            return;
+        }
+        PendingAcquire pending = new PendingAcquire(promise);
+        pendingAcquires.add(pending);
+        pendingCount = pendingAcquires.size();
+        if (acquireTimeoutMillis > 0) {
+            pending.timeout = executor.schedule(() -> {
+                if (pendingAcquires.remove(pending)) {
+                    pendingCount = pendingAcquires.size();
+                    promise.tryFailure(new TimeoutException("Acquire operation took longer than configured maximum time"));
+                }
+            }, acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        dispatch();
+    }
+
+    /**
+     * Hands out streams to waiting requests and opens a new connection if the open ones are exhausted.
+     */
+    private void dispatch() {
+        while (!pendingAcquires.isEmpty()) {
+            Connection connection = findAvailableConnection();
+            if (connection == null) {
+                break;
+            }
+            PendingAcquire pending = pollPending();
+            if (!pending.promise.isDone()) {
+                connection.openStream(pending.promise);
+            }
+        }
+        if (!pendingAcquires.isEmpty() && pendingConnection == null && !closed && !http1
+                && (maxConnections < 0 || connections.size() < maxConnections)) {
+            openConnection();
+        }
+    }
+
+    private Connection findAvailableConnection() {
+        for (Connection connection : connections) {
+            if (connection.ready && !connection.goAway && connection.activeStreams < connection.maxStreams()
+                    && isReusable(connection.channel)) {
+                return connection;
+            }
+        }
+        return null;
+    }
+
+    private void openConnection() {
+        ChannelFuture connectFuture = bootstrap.connect();
+        Channel channel = connectFuture.channel();
+        pendingConnection = channel;
+        connectFuture.addListener(future -> {
+            if (!future.isSuccess()) {
+                execute(() -> onConnectFailed(channel, future.cause()));
+            }
+        });
+        channel.closeFuture().addListener(future -> execute(() ->
+                // closed before the settings of the peer were received
+                onConnectFailed(channel, new IllegalStateException("Connection closed before the HTTP/2 settings were received"))
+        ));
+    }
+
+    private void onConnectFailed(Channel channel, Throwable cause) {
+        if (pendingConnection != channel) {
+            return;
+        }
+        pendingConnection = null;
+        if (connections.isEmpty()) {
+            // nothing will ever serve the waiting requests
+            PendingAcquire pending;
+            while ((pending = pollPending()) != null) {
+                pending.promise.tryFailure(cause);
+            }
+        }
+        // otherwise the waiting requests are served once streams of the open connections are released
+    }
+
+    private PendingAcquire pollPending() {
+        PendingAcquire pending = pendingAcquires.poll();
+        pendingCount = pendingAcquires.size();
+        if (pending != null && pending.timeout != null) {
+            pending.timeout.cancel(false);
+        }
+        return pending;
+    }
+
+    private void execute(Runnable task) {
+        if (executor.inEventLoop()) {
+            task.run();
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * A request waiting for a stream.
+     */
+    private static final class PendingAcquire {
+        final Promise<Channel> promise;
+        ScheduledFuture<?> timeout;
+
+        PendingAcquire(Promise<Channel> promise) {
+            this.promise = promise;
+        }
+    }
+
+    /**
+     * Rejects streams opened by the server, which can only be push promises.
+     */
+    @ChannelHandler.Sharable
+    private static final class RejectPushHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ReferenceCountUtil.release(msg);
+            ctx.close();
+        }
+    }
+
+    /**
+     * The state of an HTTP/2 connection, updated from the frames that the multiplex handler passes on.
+     */
+    private final class Connection extends ChannelInboundHandlerAdapter {
+        final Channel channel;
+        volatile int activeStreams;
+        volatile boolean ready;
+        volatile boolean goAway;
+        volatile int peerMaxStreams = Integer.MAX_VALUE;
+        ScheduledFuture<?> idleClose;
+
+        Connection(Channel channel) {
+            this.channel = channel;
+        }
+
+        int maxStreams() {
+            if (maxStreamsPerConnection > 0) {
+                return Math.min(maxStreamsPerConnection, peerMaxStreams);
+            }
+            return peerMaxStreams;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            try {
+                if (msg instanceof Http2SettingsFrame) {
+                    Long maxConcurrentStreams = ((Http2SettingsFrame) msg).settings().maxConcurrentStreams();
+                    execute(() -> onSettings(maxConcurrentStreams));
+                } else if (msg instanceof Http2GoAwayFrame) {
+                    execute(() -> {
+                        goAway = true;
+                        closeIfUnused();
+                    });
+                }
+            } finally {
+                ReferenceCountUtil.release(msg);
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            execute(() -> {
+                connections.remove(this);
+                dispatch();
+            });
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            ctx.close();
+        }
+
+        private void onSettings(Long maxConcurrentStreams) {
+            if (maxConcurrentStreams != null) {
+                peerMaxStreams = (int) Math.min(Integer.MAX_VALUE, maxConcurrentStreams);
+            }
+            if (!ready) {
+                ready = true;
+                if (pendingConnection == channel) {
+                    pendingConnection = null;
+                }
+                if (closed) {
+                    channel.close();
+                    return;
+                }
+                connections.add(this);
+                scheduleIdleClose();
+            }
+            dispatch();
+        }
+
+        private void openStream(Promise<Channel> promise) {
+            activeStreams++;
+            if (idleClose != null) {
+                idleClose.cancel(false);
+                idleClose = null;
+            }
+            new Http2StreamChannelBootstrap(channel).handler(streamInitializer).open().addListener(future -> {
+                if (future.isSuccess()) {
+                    Http2StreamChannel stream = (Http2StreamChannel) future.getNow();
+                    stream.closeFuture().addListener(f -> execute(this::onStreamClosed));
+                    if (!promise.trySuccess(stream)) {
+                        // the acquisition was cancelled or timed out in the meantime
+                        stream.close();
+                    }
+                } else {
+                    promise.tryFailure(future.cause());
+                    execute(this::onStreamClosed);
+                }
+            });
+        }
+
+        private void onStreamClosed() {
+            activeStreams--;
+            if (!closeIfUnused()) {
+                if (activeStreams == 0) {
+                    scheduleIdleClose();
+                }
+                dispatch();
+            }
+        }
+
+        private boolean closeIfUnused() {
+            if (activeStreams == 0 && (goAway || !isReusable(channel))) {
+                connections.remove(this);
+                channel.close();
+                dispatch();
+                return true;
+            }
+            return false;
+        }
+
+        private void scheduleIdleClose() {
+            if (idleTimeoutMillis > 0) {
+                idleClose = executor.schedule(() -> {
+                    if (activeStreams == 0) {
+                        connections.remove(this);
+                        channel.close();
+                    }
+                }, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.netty;
+
+import io.micronaut.core.annotation.Experimental;
+import io.micronaut.core.annotation.NonNull;
+
+/**
+ * A snapshot of the stream utilisation of the HTTP/2 connections the client keeps open to one origin.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Experimental
+public final class Http2ConnectionPoolMetrics {
+
+    private final String origin;
+    private final int connections;
+    private final int activeStreams;
+    private final long maxStreams;
+    private final int pendingAcquires;
+
+    /**
+     * @param origin          The origin, for example {@code https://example.com:443}
+     * @param connections     The number of open connections
+     * @param activeStreams   The number of streams in use across all connections
+     * @param maxStreams      The number of streams that can be open at the same time across all connections
+     * @param pendingAcquires The number of requests waiting for a stream
+     */
+    Http2ConnectionPoolMetrics(String origin, int connections, int activeStreams, long maxStreams, int pendingAcquires) {
+        this.origin = origin;
+        this.connections = connections;
+        this.activeStreams = activeStreams;
+        this.maxStreams = maxStreams;
+        this.pendingAcquires = pendingAcquires;
+    }
+
+    /**
+     * @return The origin, for example {@code https://example.com:443}
+     */
+    @NonNull
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return The number of open connections
+     */
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * @return The number of streams in use across all connections
+     */
+    public int getActiveStreams() {
+        return activeStreams;
+    }
+
+    /**
+     * @return The number of streams that can be open at the same time across all connections, bounded by the
+     * {@code SETTINGS_MAX_CONCURRENT_STREAMS} of the peer. {@link Long#MAX_VALUE} if the peer sets no limit.
+     */
+    public long getMaxStreams() {
+        return maxStreams;
+    }
+
+    /**
+     * @return The number of requests waiting for a stream
+     */
+    public int getPendingAcquires() {
+        return pendingAcquires;
+    }
+
+    /**
+     * @return The fraction of the available streams that are in use, between {@code 0} and {@code 1}
+     */
+    public double getUtilisation() {
+        if (maxStreams <= 0) {
+            return 0;
+        }
+        return Math.min(1, (double) activeStreams / maxStreams);
+    }
+
+    @Override
+    public String toString() {
+        return "Http2ConnectionPoolMetrics{" +
+                "origin='" + origin + '\'' +
+                ", connections=" + connections +
+                ", activeStreams=" + activeStreams +
+                ", maxStreams=" + maxStreams +
+                ", pendingAcquires=" + pendingAcquires +
+                '}';
+    }
+}
@@ -79,6 +79,13 @@ public interface NettyClientCustomizer {
          * {@link io.netty.channel.socket.SocketChannel}, representing an HTTP connection.
          */
         CONNECTION,
+        /**
+         * The channel is a {@link io.netty.handler.codec.http2.Http2StreamChannel} of a multiplexed HTTP/2
+         * connection, representing a single request. Its parent is the {@link #CONNECTION} channel.
+         *
+         * @since 4.0.0
+         */
+        HTTP2_STREAM,
     }
 
     /**
@@ -0,0 +1,85 @@
+package io.micronaut.http.client.loadbalance
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.discovery.ServiceInstance
+import io.micronaut.discovery.StaticServiceInstanceList
+import io.micronaut.http.client.LoadBalancer
+import io.micronaut.http.client.LoadBalancerResolver
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+class ServiceInstanceListLeastLoadedLoadBalancerSpec extends Specification {
+
+    URI one = URI.create('http://one:8080')
+    URI two = URI.create('http://two:8080')
+    ServiceInstanceListLeastLoadedLoadBalancer balancer = new ServiceInstanceListLeastLoadedLoadBalancer(
+            new StaticServiceInstanceList('test', [one, two]))
+
+    void "test the instance with fewer requests in flight is selected"() {
+        given:
+        select()
+        select()
+        List<LoadTrackingLoadBalancer.InFlightRequest> requests = (1..3).collect { balancer.requestStarted(one.resolve('/books')) }
+
+        expect:
+        (1..20).every { select().URI == two }
+
+        when:
+        requests*.completed(true)
+
+        then:
+        balancer.getInFlightRequests(ServiceInstance.of('test', one)) == 0
+    }
+
+    void "test the instance that responds slowly is avoided"() {
+        given:
+        select()
+        select()
+        balancer.requestStarted(one.resolve('/books')).completed(false)
+        balancer.requestStarted(two.resolve('/books')).completed(true)
+
+        expect:
+        balancer.getLoad(ServiceInstance.of('test', one)) > balancer.getLoad(ServiceInstance.of('test', two))
+        (1..20).every { select().URI == two }
+    }
+
+    void "test a request is only completed once"() {
+        given:
+        select()
+        select()
+        LoadTrackingLoadBalancer.InFlightRequest request = balancer.requestStarted(one.resolve('/books'))
+
+        when:
+        request.completed(true)
+        request.completed(true)
+
+        then:
+        balancer.getInFlightRequests(ServiceInstance.of('test', one)) == 0
+    }
+
+    void "test requests to unknown instances are not tracked"() {
+        expect:
+        balancer.requestStarted(URI.create('http://other:8080/books')).is(LoadTrackingLoadBalancer.InFlightRequest.UNTRACKED)
+    }
+
+    void "test the strategy can be configured per service"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run([
+                'micronaut.http.services.foo.urls': ['http://one:8080', 'http://two:8080'],
+                'micronaut.http.services.foo.load-balancer-strategy': 'least-loaded',
+                'micronaut.http.services.bar.urls': ['http://one:8080', 'http://two:8080']
+        ])
+        LoadBalancerResolver resolver = ctx.getBean(LoadBalancerResolver)
+
+        expect:
+        resolver.resolve('foo').get() instanceof ServiceInstanceListLeastLoadedLoadBalancer
+        resolver.resolve('bar').get() instanceof ServiceInstanceListRoundRobinLoadBalancer
+
+        cleanup:
+        ctx.close()
+    }
+
+    private ServiceInstance select() {
+        Mono.from(((LoadBalancer) balancer).select()).block()
+    }
+}
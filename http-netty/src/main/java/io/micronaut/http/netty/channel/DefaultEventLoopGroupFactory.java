@@ -46,6 +46,7 @@ import java.util.concurrent.ThreadFactory;
 public class DefaultEventLoopGroupFactory implements EventLoopGroupFactory {
 
     private final EventLoopGroupFactory nativeFactory;
+    private final EventLoopGroupFactory ioUringFactory;
     private final EventLoopGroupFactory defaultFactory;
 
     /**
@@ -65,13 +66,30 @@ public class DefaultEventLoopGroupFactory implements EventLoopGroupFactory {
      * @param nativeFactory The native factory if available
      * @param nettyGlobalConfiguration The netty global configuration
      */
+    public DefaultEventLoopGroupFactory(
+            NioEventLoopGroupFactory nioEventLoopGroupFactory,
+            @Nullable @Named(EventLoopGroupFactory.NATIVE) EventLoopGroupFactory nativeFactory,
+            @Nullable NettyGlobalConfiguration nettyGlobalConfiguration) {
+        this(nioEventLoopGroupFactory, nativeFactory, null, nettyGlobalConfiguration);
+    }
+
+    /**
+     * Default constructor.
+     * @param nioEventLoopGroupFactory The NIO factory
+     * @param nativeFactory The native factory if available
+     * @param ioUringFactory The io_uring factory if available
+     * @param nettyGlobalConfiguration The netty global configuration
+     * @since 4.0.0
+     */
     @Inject
     public DefaultEventLoopGroupFactory(
             NioEventLoopGroupFactory nioEventLoopGroupFactory,
             @Nullable @Named(EventLoopGroupFactory.NATIVE) EventLoopGroupFactory nativeFactory,
+            @Nullable @Named(EventLoopGroupFactory.IO_URING) EventLoopGroupFactory ioUringFactory,
             @Nullable NettyGlobalConfiguration nettyGlobalConfiguration) {
         this.defaultFactory = nioEventLoopGroupFactory;
         this.nativeFactory = nativeFactory != null ? nativeFactory : defaultFactory;
+        this.ioUringFactory = ioUringFactory != null ? ioUringFactory : this.nativeFactory;
         if (nettyGlobalConfiguration != null && nettyGlobalConfiguration.getResourceLeakDetectorLevel() != null) {
             ResourceLeakDetector.setLevel(nettyGlobalConfiguration.getResourceLeakDetectorLevel());
         }
@@ -85,6 +103,14 @@ public class DefaultEventLoopGroupFactory implements EventLoopGroupFactory {
         return getFactory(configuration).createEventLoopGroup(configuration, threadFactory);
     }
 
+    @Override
+    public EventLoopGroup createEventLoopGroup(EventLoopGroupConfiguration configuration, Executor executor) {
+        ArgumentUtils.requireNonNull("configuration", configuration);
+        ArgumentUtils.requireNonNull("executor", executor);
+
+        return getFactory(configuration).createEventLoopGroup(configuration, executor);
+    }
+
     @Override
     public EventLoopGroup createEventLoopGroup(int threads, Executor executor, @Nullable Integer ioRatio) {
         return nativeFactory.createEventLoopGroup(threads, executor, ioRatio);
@@ -135,6 +161,9 @@ public class DefaultEventLoopGroupFactory implements EventLoopGroupFactory {
 
     private EventLoopGroupFactory getFactory(@Nullable EventLoopGroupConfiguration configuration) {
         if (configuration != null && configuration.isPreferNativeTransport()) {
+            if (configuration.getNativeTransport() == NativeTransport.IO_URING) {
+                return this.ioUringFactory;
+            }
             return this.nativeFactory;
         } else {
             return this.defaultFactory;
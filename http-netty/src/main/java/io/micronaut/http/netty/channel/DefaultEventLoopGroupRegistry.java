@@ -104,11 +104,8 @@ public class DefaultEventLoopGroupRegistry implements EventLoopGroupRegistry {
         EventLoopGroup eventLoopGroup;
         if (executor != null) {
             eventLoopGroup = beanLocator.findBean(Executor.class, Qualifiers.byName(executor))
-                .map(executorService -> eventLoopGroupFactory.createEventLoopGroup(
-                    configuration.getNumThreads(),
-                    executorService,
-                    configuration.getIoRatio().orElse(null)
-                )).orElseThrow(() -> new ConfigurationException("No executor service configured for name: " + executor));
+                .map(executorService -> eventLoopGroupFactory.createEventLoopGroup(configuration, executorService))
+                .orElseThrow(() -> new ConfigurationException("No executor service configured for name: " + executor));
         } else {
             ThreadFactory threadFactory = beanLocator.findBean(ThreadFactory.class, Qualifiers.byName(configuration.getName()))
                     .orElseGet(() ->  new DefaultThreadFactory(configuration.getName() + "-" + DefaultThreadFactory.toPoolName(NioEventLoopGroup.class)));
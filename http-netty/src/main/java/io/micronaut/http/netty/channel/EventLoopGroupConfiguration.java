@@ -74,6 +74,14 @@ public interface EventLoopGroupConfiguration extends Named {
      */
     boolean isPreferNativeTransport();
 
+    /**
+     * @return The native transport to use when {@link #isPreferNativeTransport()} is {@code true}
+     * @since 4.0.0
+     */
+    default NativeTransport getNativeTransport() {
+        return NativeTransport.AUTO;
+    }
+
     /**
      * @return The shutdown quiet period
      */
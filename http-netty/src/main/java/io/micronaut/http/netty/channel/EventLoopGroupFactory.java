@@ -40,6 +40,11 @@ public interface EventLoopGroupFactory {
      */
     String NATIVE = "native";
 
+    /**
+     * Qualifier used to resolve the io_uring factory.
+     */
+    String IO_URING = "io_uring";
+
     /**
      * @return Is this a native factory.
      */
@@ -78,6 +83,24 @@ public interface EventLoopGroupFactory {
         );
     }
 
+    /**
+     * Create an event loop group for the given configuration and executor.
+     * @param configuration The configuration
+     * @param executor The executor
+     * @return The event loop group
+     * @since 4.0.0
+     */
+    default EventLoopGroup createEventLoopGroup(
+            EventLoopGroupConfiguration configuration, Executor executor) {
+        ArgumentUtils.requireNonNull("configuration", configuration);
+        ArgumentUtils.requireNonNull("executor", executor);
+        return createEventLoopGroup(
+                configuration.getNumThreads(),
+                executor,
+                configuration.getIoRatio().orElse(null)
+        );
+    }
+
     /**
      * Creates an EventLoopGroup.
      *
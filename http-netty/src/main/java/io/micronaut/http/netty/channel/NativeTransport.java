@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.netty.channel;
+
+/**
+ * The native transport to use when an event loop group prefers native transports.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ * @see EventLoopGroupConfiguration#isPreferNativeTransport()
+ */
+public enum NativeTransport {
+    /**
+     * The native transport of the platform: epoll on Linux and kqueue on macOS.
+     */
+    AUTO,
+    /**
+     * The io_uring transport, available on Linux 5.9 and above. Falls back to {@link #AUTO} when io_uring is not
+     * available.
+     */
+    IO_URING
+}
@@ -35,6 +35,7 @@ public class HttpContentUtil {
     public static final byte[] OPEN_BRACKET = "[".getBytes(StandardCharsets.UTF_8);
     public static final byte[] CLOSE_BRACKET = "]".getBytes(StandardCharsets.UTF_8);
     public static final byte[] COMMA = ",".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
 
     /**
      * @return Produces HTTP content for {@code ]}
@@ -66,4 +67,16 @@ public class HttpContentUtil {
         compositeByteBuf.addComponent(true, httpContent.content());
         return httpContent.replace(compositeByteBuf);
     }
+
+    /**
+     * @param httpContent The http content to suffix
+     * @return Produces HTTP content followed by a new line
+     * @since 4.0.0
+     */
+    public static HttpContent suffixNewLine(HttpContent httpContent) {
+        CompositeByteBuf compositeByteBuf = Unpooled.compositeBuffer(2);
+        compositeByteBuf.addComponent(true, httpContent.content());
+        compositeByteBuf.addComponent(true, Unpooled.wrappedBuffer(NEW_LINE));
+        return httpContent.replace(compositeByteBuf);
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.netty.websocket;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+
+import java.util.Objects;
+
+/**
+ * A {@link WebSocketFrame} with a conflation key. When the outbound queue of a slow session uses the
+ * {@link WebSocketOutboundHandler.Policy#CONFLATE} policy, a queued frame is replaced by a later frame with the same
+ * key, so the session only receives the latest value once it catches up.
+ *
+ * <p>The frame shares the content of the wrapped frame. It is unwrapped before it is encoded, either by the outbound
+ * queue or, if the queue is disabled, by {@link Unwrapper}, so it can be sent to any session. The key is ignored for
+ * fragmented messages.</p>
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+public final class KeyedWebSocketFrame extends WebSocketFrame {
+
+    private final Object key;
+    private final WebSocketFrame frame;
+
+    /**
+     * @param key The conflation key
+     * @param frame The frame to send
+     */
+    public KeyedWebSocketFrame(@NonNull Object key, @NonNull WebSocketFrame frame) {
+        super(frame.isFinalFragment(), frame.rsv(), frame.content());
+        this.key = Objects.requireNonNull(key, "key");
+        this.frame = frame;
+    }
+
+    /**
+     * @return The conflation key
+     */
+    @NonNull
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * @return The frame to send
+     */
+    @NonNull
+    public WebSocketFrame getFrame() {
+        return frame;
+    }
+
+    @Override
+    public KeyedWebSocketFrame copy() {
+        return new KeyedWebSocketFrame(key, frame.copy());
+    }
+
+    @Override
+    public KeyedWebSocketFrame duplicate() {
+        return new KeyedWebSocketFrame(key, frame.duplicate());
+    }
+
+    @Override
+    public KeyedWebSocketFrame retainedDuplicate() {
+        return new KeyedWebSocketFrame(key, frame.retainedDuplicate());
+    }
+
+    @Override
+    public KeyedWebSocketFrame replace(ByteBuf content) {
+        return new KeyedWebSocketFrame(key, frame.replace(content));
+    }
+
+    @Override
+    public KeyedWebSocketFrame retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public KeyedWebSocketFrame retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public KeyedWebSocketFrame touch() {
+        super.touch();
+        return this;
+    }
+
+    @Override
+    public KeyedWebSocketFrame touch(Object hint) {
+        super.touch(hint);
+        return this;
+    }
+
+    /**
+     * Unwraps keyed frames on channels without an outbound queue, so that they reach the WebSocket encoder as plain
+     * frames.
+     */
+    @Internal
+    @ChannelHandler.Sharable
+    public static final class Unwrapper extends ChannelOutboundHandlerAdapter {
+
+        /**
+         * The shared instance.
+         */
+        public static final Unwrapper INSTANCE = new Unwrapper();
+
+        private Unwrapper() {
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            if (msg instanceof KeyedWebSocketFrame) {
+                // the wrapper shares the content of the frame, so the reference count is unchanged
+                ctx.write(((KeyedWebSocketFrame) msg).getFrame(), promise);
+            } else {
+                ctx.write(msg, promise);
+            }
+        }
+    }
+}
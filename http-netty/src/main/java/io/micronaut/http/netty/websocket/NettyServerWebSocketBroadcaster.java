@@ -32,6 +32,7 @@ import reactor.core.publisher.FluxSink;
 
 import java.nio.channels.ClosedChannelException;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Predicate;
 
 /**
@@ -98,6 +99,31 @@ public class NettyServerWebSocketBroadcaster implements WebSocketBroadcaster {
         }, FluxSink.OverflowStrategy.BUFFER);
     }
 
+    @Override
+    public <T> Publisher<T> broadcastToTopic(String topic, T message, MediaType mediaType) {
+        WebSocketTopicRegistry topicRegistry = webSocketSessionRepository.getTopicRegistry();
+        if (topicRegistry == null) {
+            return WebSocketBroadcaster.super.broadcastToTopic(topic, message, mediaType);
+        }
+        Objects.requireNonNull(topic, "The topic cannot be null");
+        return Flux.create(emitter -> {
+            try {
+                WebSocketFrame frame = webSocketMessageEncoder.encodeMessage(message, mediaType);
+                topicRegistry.broadcast(topic, frame).addListener(future -> {
+                    if (future.isSuccess()) {
+                        emitter.next(message);
+                        emitter.complete();
+                    } else {
+                        Throwable cause = future.cause();
+                        emitter.error(new WebSocketSessionException("Broadcast Failure: " + cause.getMessage(), cause));
+                    }
+                });
+            } catch (Throwable e) {
+                emitter.error(new WebSocketSessionException("Broadcast Failure: " + e.getMessage(), e));
+            }
+        }, FluxSink.OverflowStrategy.BUFFER);
+    }
+
     /**
      * Attempt to extract a single failure from a failure of {@link io.netty.channel.group.ChannelGroup#write}
      * exception. {@link io.netty.channel.group.ChannelGroup} aggregates exceptions into a {@link ChannelGroupException}
@@ -44,6 +44,7 @@ import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -67,6 +68,8 @@ public class NettyWebSocketSession implements WebSocketSession {
     private final MediaTypeCodecRegistry codecRegistry;
     private final MutableConvertibleValues<Object> attributes;
     private final WebSocketMessageEncoder messageEncoder;
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    private volatile boolean unsubscribeOnClose;
 
     /**
      * Creates a new netty web socket session.
@@ -140,6 +143,50 @@ public class NettyWebSocketSession implements WebSocketSession {
         return protocolVersion;
     }
 
+    @Override
+    public void subscribe(@NonNull String topic) {
+        WebSocketTopicRegistry topicRegistry = getTopicRegistry();
+        if (topicRegistry == null) {
+            throw new UnsupportedOperationException("Topics not supported by this session");
+        }
+        if (subscriptions.add(topic)) {
+            topicRegistry.subscribe(topic, channel);
+            if (!unsubscribeOnClose) {
+                synchronized (subscriptions) {
+                    if (!unsubscribeOnClose) {
+                        unsubscribeOnClose = true;
+                        channel.closeFuture().addListener(future -> {
+                            for (String t : subscriptions) {
+                                topicRegistry.unsubscribe(t, channel);
+                            }
+                        });
+                    }
+                }
+            }
+            if (!channel.isOpen()) {
+                // closed concurrently, the close listener may already have run
+                topicRegistry.unsubscribe(topic, channel);
+            }
+        }
+    }
+
+    @Override
+    public void unsubscribe(@NonNull String topic) {
+        WebSocketTopicRegistry topicRegistry = getTopicRegistry();
+        if (topicRegistry == null) {
+            throw new UnsupportedOperationException("Topics not supported by this session");
+        }
+        if (subscriptions.remove(topic)) {
+            topicRegistry.unsubscribe(topic, channel);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Set<String> getSubscriptions() {
+        return Collections.unmodifiableSet(subscriptions);
+    }
+
     @Override
     public <T> CompletableFuture<T> sendAsync(T message, MediaType mediaType) {
         if (isOpen()) {
@@ -259,6 +306,23 @@ public class NettyWebSocketSession implements WebSocketSession {
         return "WebSocket Session: " + getId();
     }
 
+    /**
+     * @return The queue that protects the server from this session if it is a slow consumer, with its metrics
+     * @since 4.0.0
+     */
+    public Optional<WebSocketOutboundHandler> getOutboundHandler() {
+        return Optional.ofNullable(channel.pipeline().get(WebSocketOutboundHandler.class));
+    }
+
+    /**
+     * @return The registry that tracks the topic subscriptions, or {@code null} if this session does not support topics
+     * @since 4.0.0
+     */
+    @Nullable
+    protected WebSocketTopicRegistry getTopicRegistry() {
+        return null;
+    }
+
     @Override
     public MutableConvertibleValues<Object> put(CharSequence key, @Nullable Object value) {
         return attributes.put(key, value);
@@ -57,7 +57,10 @@ public class WebSocketMessageEncoder {
      * @return The encoded frame
      */
     public WebSocketFrame encodeMessage(Object message, MediaType mediaType) {
-        if (message instanceof byte[]) {
+        if (message instanceof WebSocketFrame) {
+            // already encoded, e.g. a KeyedWebSocketFrame that the outbound queue may conflate
+            return (WebSocketFrame) message;
+        } else if (message instanceof byte[]) {
             return new BinaryWebSocketFrame(Unpooled.wrappedBuffer((byte[]) message));
         } else if (ClassUtils.isJavaLangType(message.getClass()) || message instanceof CharSequence) {
             String s = message.toString();
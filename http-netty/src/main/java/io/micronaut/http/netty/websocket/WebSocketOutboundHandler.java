@@ -0,0 +1,308 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.netty.websocket;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Protects the server from slow WebSocket consumers. While the channel is writable, frames pass straight through.
+ * Once Netty reports that the outbound buffer is above its high water mark, frames are held in a bounded queue that
+ * is drained when the channel becomes writable again. When the queue is full the configured {@link Policy} decides
+ * whether old frames are dropped, queued frames are conflated by key or the session is disconnected.
+ *
+ * <p>Control frames are never dropped or conflated and do not count towards the limits. The frames of a fragmented
+ * message are only dropped together, once the whole message is queued, and are never conflated. All state is only
+ * modified on the event loop, the metrics may be read from any thread.</p>
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+@Internal
+public final class WebSocketOutboundHandler extends ChannelDuplexHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebSocketOutboundHandler.class);
+
+    private final Policy policy;
+    private final long maxQueuedBytes;
+    private final int maxQueuedMessages;
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final Map<Object, Pending> conflated = new HashMap<>();
+    private long messageId;
+    private boolean fragmented;
+    private volatile long queuedBytes;
+    private volatile int queuedMessages;
+    private volatile long droppedCount;
+
+    /**
+     * @param policy The policy applied when the queue is full
+     * @param maxQueuedBytes The maximum number of bytes of the queued data frames
+     * @param maxQueuedMessages The maximum number of queued data frames
+     */
+    public WebSocketOutboundHandler(@NonNull Policy policy, long maxQueuedBytes, int maxQueuedMessages) {
+        this.policy = policy;
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.maxQueuedMessages = maxQueuedMessages;
+    }
+
+    /**
+     * @return The number of bytes of the data frames waiting for the channel to become writable
+     */
+    public long getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    /**
+     * @return The number of data frames waiting for the channel to become writable
+     */
+    public int getQueuedMessages() {
+        return queuedMessages;
+    }
+
+    /**
+     * @return The number of frames that were dropped or replaced by a later frame with the same key
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (!(msg instanceof WebSocketFrame)) {
+            ctx.write(msg, promise);
+            return;
+        }
+        Object key = null;
+        WebSocketFrame frame = (WebSocketFrame) msg;
+        if (frame instanceof KeyedWebSocketFrame) {
+            key = ((KeyedWebSocketFrame) frame).getKey();
+            frame = ((KeyedWebSocketFrame) frame).getFrame();
+        }
+        boolean start = false;
+        if (!isControlFrame(frame)) {
+            start = !(frame instanceof ContinuationWebSocketFrame);
+            if (start) {
+                messageId++;
+            }
+            if (start != frame.isFinalFragment() || fragmented) {
+                // a fragment can only be replaced together with the rest of its message
+                key = null;
+            }
+            fragmented = !frame.isFinalFragment();
+        }
+        if ((queue.isEmpty() && ctx.channel().isWritable()) || !ctx.channel().isActive()) {
+            // a closed channel fails the write further down the pipeline
+            ctx.write(frame, promise);
+            return;
+        }
+        enqueue(ctx, key, frame, promise, start);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        drain(ctx);
+        ctx.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable() && drain(ctx)) {
+            ctx.flush();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        discardAll();
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        discardAll();
+    }
+
+    private void enqueue(ChannelHandlerContext ctx, Object key, WebSocketFrame frame, ChannelPromise promise, boolean start) {
+        boolean control = isControlFrame(frame);
+        if (!control && key != null && policy == Policy.CONFLATE) {
+            Pending existing = conflated.get(key);
+            if (existing != null) {
+                queuedBytes += frame.content().readableBytes() - existing.size();
+                existing.replace(frame, promise);
+                droppedCount++;
+                return;
+            }
+        }
+        Pending pending = new Pending(key, frame, promise, control, messageId, start);
+        queue.add(pending);
+        if (control) {
+            return;
+        }
+        if (key != null && policy == Policy.CONFLATE) {
+            conflated.put(key, pending);
+        }
+        queuedBytes += pending.size();
+        queuedMessages++;
+        if (queuedBytes > maxQueuedBytes || queuedMessages > maxQueuedMessages) {
+            if (policy == Policy.DISCONNECT) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Closing slow WebSocket consumer {} with {} queued messages", ctx.channel(), queuedMessages);
+                }
+                droppedCount += queuedMessages;
+                discardAll();
+                ctx.close();
+            } else {
+                dropOldest();
+            }
+        }
+    }
+
+    private void dropOldest() {
+        Iterator<Pending> i = queue.iterator();
+        long dropping = -1;
+        while (i.hasNext()) {
+            Pending pending = i.next();
+            if (pending.control) {
+                continue;
+            }
+            if (pending.message != dropping) {
+                if (queuedBytes <= maxQueuedBytes && queuedMessages <= maxQueuedMessages) {
+                    break;
+                }
+                if (!pending.start || (fragmented && pending.message == messageId)) {
+                    // part of the message was already written, or the rest of it is still to come
+                    continue;
+                }
+                dropping = pending.message;
+            }
+            i.remove();
+            dequeued(pending);
+            pending.frame.release();
+            // the frame was deliberately discarded by the policy, so it must not fail the sender
+            pending.promise.trySuccess();
+            droppedCount++;
+        }
+    }
+
+    /**
+     * @param ctx The context
+     * @return Whether any frame was written
+     */
+    private boolean drain(ChannelHandlerContext ctx) {
+        boolean written = false;
+        while (!queue.isEmpty() && ctx.channel().isWritable()) {
+            Pending pending = queue.poll();
+            if (!pending.control) {
+                dequeued(pending);
+            }
+            ctx.write(pending.frame, pending.promise);
+            written = true;
+        }
+        return written;
+    }
+
+    private void dequeued(Pending pending) {
+        queuedBytes -= pending.size();
+        queuedMessages--;
+        if (pending.key != null) {
+            conflated.remove(pending.key, pending);
+        }
+    }
+
+    private void discardAll() {
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.frame.release();
+            pending.promise.tryFailure(new ClosedChannelException());
+        }
+        conflated.clear();
+        queuedBytes = 0;
+        queuedMessages = 0;
+    }
+
+    private static boolean isControlFrame(WebSocketFrame frame) {
+        return frame instanceof CloseWebSocketFrame || frame instanceof PingWebSocketFrame || frame instanceof PongWebSocketFrame;
+    }
+
+    /**
+     * What to do when the queue of a slow consumer is full.
+     */
+    public enum Policy {
+        /**
+         * Drop the oldest queued frames.
+         */
+        DROP_OLDEST,
+        /**
+         * Replace a queued {@link KeyedWebSocketFrame} by a later frame with the same key, and drop the oldest
+         * queued frames if the queue is still full.
+         */
+        CONFLATE,
+        /**
+         * Close the connection.
+         */
+        DISCONNECT
+    }
+
+    /**
+     * A queued frame.
+     */
+    private static final class Pending {
+        final Object key;
+        final boolean control;
+        final long message;
+        final boolean start;
+        WebSocketFrame frame;
+        ChannelPromise promise;
+
+        Pending(Object key, WebSocketFrame frame, ChannelPromise promise, boolean control, long message, boolean start) {
+            this.key = key;
+            this.frame = frame;
+            this.promise = promise;
+            this.control = control;
+            this.message = message;
+            this.start = start;
+        }
+
+        int size() {
+            return frame.content().readableBytes();
+        }
+
+        void replace(WebSocketFrame newFrame, ChannelPromise newPromise) {
+            frame.release();
+            // superseded by a later value, the sender is not at fault
+            promise.trySuccess();
+            frame = newFrame;
+            promise = newPromise;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package io.micronaut.http.netty.websocket;
 
+import io.micronaut.core.annotation.Nullable;
 import io.netty.channel.Channel;
 import io.netty.channel.group.ChannelGroup;
 
@@ -43,4 +44,14 @@ public interface WebSocketSessionRepository {
      * @return A {@link io.netty.channel.group.ChannelGroup}
      */
     ChannelGroup getChannelGroup();
+
+    /**
+     * Returns the registry of the topics the WebSocket sessions are subscribed to.
+     * @return The topic registry, or {@code null} if topics are not supported
+     * @since 4.0.0
+     */
+    @Nullable
+    default WebSocketTopicRegistry getTopicRegistry() {
+        return null;
+    }
 }
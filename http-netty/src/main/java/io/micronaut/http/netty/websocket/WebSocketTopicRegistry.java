@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.netty.websocket;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps track of the channels subscribed to each topic so that a broadcast only visits the subscribers of its topic
+ * instead of testing every open WebSocket connection.
+ *
+ * <p>The subscribers of a topic are grouped by the event loop of their channel. A broadcast hands a retained duplicate
+ * of the encoded frame to each of those event loops, which then writes it to its own channels without any further
+ * thread hops.</p>
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+@Internal
+public final class WebSocketTopicRegistry {
+
+    private final ConcurrentMap<String, Topic> topics = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribes the channel to the topic.
+     *
+     * @param topic The topic
+     * @param channel The channel
+     */
+    public void subscribe(@NonNull String topic, @NonNull Channel channel) {
+        topics.compute(topic, (name, existing) -> {
+            Topic t = existing != null ? existing : new Topic();
+            t.add(channel);
+            return t;
+        });
+    }
+
+    /**
+     * Unsubscribes the channel from the topic. The topic is removed once it has no subscribers.
+     *
+     * @param topic The topic
+     * @param channel The channel
+     */
+    public void unsubscribe(@NonNull String topic, @NonNull Channel channel) {
+        topics.computeIfPresent(topic, (name, existing) -> existing.remove(channel) ? null : existing);
+    }
+
+    /**
+     * @param topic The topic
+     * @return The number of channels subscribed to the topic
+     */
+    public int getSubscriberCount(@NonNull String topic) {
+        Topic t = topics.get(topic);
+        if (t == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Set<Channel> channels : t.channelsByEventLoop.values()) {
+            count += channels.size();
+        }
+        return count;
+    }
+
+    /**
+     * Writes the frame to every active channel subscribed to the topic. Failures caused by channels that were closed
+     * concurrently are ignored.
+     *
+     * @param topic The topic
+     * @param frame The encoded frame. It is released by this method.
+     * @return A future that completes once the frame has been written to every subscriber
+     */
+    @NonNull
+    public Future<Void> broadcast(@NonNull String topic, @NonNull WebSocketFrame frame) {
+        Topic t = topics.get(topic);
+        if (t == null) {
+            frame.release();
+            return ImmediateEventExecutor.INSTANCE.newSucceededFuture(null);
+        }
+        BroadcastTracker tracker = new BroadcastTracker();
+        try {
+            for (Map.Entry<EventLoop, Set<Channel>> entry : t.channelsByEventLoop.entrySet()) {
+                EventLoop eventLoop = entry.getKey();
+                Set<Channel> channels = entry.getValue();
+                WebSocketFrame eventLoopFrame = frame.retainedDuplicate();
+                tracker.add();
+                try {
+                    eventLoop.execute(() -> write(channels, eventLoopFrame, tracker));
+                } catch (RejectedExecutionException e) {
+                    // the event loop is shutting down and so are its channels
+                    eventLoopFrame.release();
+                    tracker.done();
+                }
+            }
+        } finally {
+            frame.release();
+            tracker.done();
+        }
+        return tracker.promise;
+    }
+
+    private static void write(Set<Channel> channels, WebSocketFrame frame, BroadcastTracker tracker) {
+        try {
+            for (Channel channel : channels) {
+                if (channel.isActive()) {
+                    tracker.add();
+                    channel.writeAndFlush(frame.retainedDuplicate()).addListener(tracker);
+                }
+            }
+        } finally {
+            frame.release();
+            tracker.done();
+        }
+    }
+
+    /**
+     * The subscribers of a topic. It is only modified within {@link ConcurrentMap#compute} of its topic.
+     */
+    private static final class Topic {
+        final ConcurrentMap<EventLoop, Set<Channel>> channelsByEventLoop = new ConcurrentHashMap<>();
+
+        void add(Channel channel) {
+            channelsByEventLoop.computeIfAbsent(channel.eventLoop(), eventLoop -> ConcurrentHashMap.newKeySet()).add(channel);
+        }
+
+        /**
+         * @param channel The channel
+         * @return Whether the topic has no subscribers left
+         */
+        boolean remove(Channel channel) {
+            EventLoop eventLoop = channel.eventLoop();
+            Set<Channel> channels = channelsByEventLoop.get(eventLoop);
+            if (channels != null && channels.remove(channel) && channels.isEmpty()) {
+                channelsByEventLoop.remove(eventLoop);
+            }
+            return channelsByEventLoop.isEmpty();
+        }
+    }
+
+    /**
+     * Completes the future of a broadcast once every pending write is done.
+     */
+    private static final class BroadcastTracker implements GenericFutureListener<Future<? super Void>> {
+        final Promise<Void> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        final AtomicInteger pending = new AtomicInteger(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        void add() {
+            pending.incrementAndGet();
+        }
+
+        void done() {
+            if (pending.decrementAndGet() == 0) {
+                Throwable cause = failure.get();
+                if (cause == null) {
+                    promise.trySuccess(null);
+                } else {
+                    promise.tryFailure(cause);
+                }
+            }
+        }
+
+        @Override
+        public void operationComplete(Future<? super Void> future) {
+            Throwable cause = future.cause();
+            // a channel closed between the subscription check and the write would have been skipped anyway
+            if (cause != null && !(cause instanceof ClosedChannelException)) {
+                failure.compareAndSet(null, cause);
+            }
+            done();
+        }
+    }
+}
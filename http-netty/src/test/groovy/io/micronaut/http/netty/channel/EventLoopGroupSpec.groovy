@@ -145,4 +145,31 @@ class EventLoopGroupSpec extends Specification {
         config.shutdownQuietPeriod == Duration.ofMillis(10)
         config.shutdownTimeout == Duration.ofMillis(500)
     }
+
+    void "test configure the io_uring native transport"() {
+        given:
+        def context = ApplicationContext.run(
+                'micronaut.netty.event-loops.default.prefer-native-transport': true,
+                'micronaut.netty.event-loops.default.native-transport': 'io_uring'
+        )
+
+        when:
+        DefaultEventLoopGroupConfiguration config = context.getBean(DefaultEventLoopGroupConfiguration)
+
+        then:
+        config.preferNativeTransport
+        config.nativeTransport == NativeTransport.IO_URING
+
+        when:"io_uring is not available"
+        EventLoopGroupFactory factory = context.getBean(EventLoopGroupFactory)
+
+        then:"the factory falls back to the default native transport"
+        !context.findBean(EventLoopGroupFactory, Qualifiers.byName(EventLoopGroupFactory.IO_URING)).isPresent()
+        factory.clientSocketChannelClass(config) == factory.clientSocketChannelClass(new DefaultEventLoopGroupConfiguration(
+                'default', 0, null, true, null, null, null
+        ))
+
+        cleanup:
+        context.close()
+    }
 }
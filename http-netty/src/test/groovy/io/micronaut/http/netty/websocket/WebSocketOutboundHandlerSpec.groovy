@@ -0,0 +1,251 @@
+package io.micronaut.http.netty.websocket
+
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.Unpooled
+import io.netty.channel.ChannelFuture
+import io.netty.channel.WriteBufferWaterMark
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame
+import io.netty.handler.codec.http.websocketx.WebSocket08FrameEncoder
+import io.netty.handler.codec.http.websocketx.WebSocketFrame
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class WebSocketOutboundHandlerSpec extends Specification {
+
+    void "test frames pass through while the channel is writable"() {
+        given:
+        WebSocketOutboundHandler handler = new WebSocketOutboundHandler(WebSocketOutboundHandler.Policy.DROP_OLDEST, 1024, 16)
+        EmbeddedChannel channel = new EmbeddedChannel(handler)
+
+        when:
+        channel.writeAndFlush(frame('one'))
+        channel.writeAndFlush(new KeyedWebSocketFrame('key', frame('two')))
+
+        then:
+        readAll(channel) == ['one', 'two']
+        handler.queuedMessages == 0
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    void "test the oldest frames are dropped when the queue of a slow consumer is full"() {
+        given:
+        WebSocketOutboundHandler handler = new WebSocketOutboundHandler(WebSocketOutboundHandler.Policy.DROP_OLDEST, 1024, 2)
+        EmbeddedChannel channel = slowChannel(handler)
+
+        when:
+        List<ChannelFuture> futures = ['f1', 'f2', 'f3', 'f4', 'f5'].collect { channel.write(frame(it)) }
+
+        then:
+        !channel.writable
+        handler.queuedMessages == 2
+        handler.queuedBytes == 4
+        handler.droppedCount == 2
+        futures[1].success
+        futures[2].success
+        !futures[3].done
+
+        when:
+        channel.flush()
+        channel.runPendingTasks()
+
+        then:
+        readAll(channel) == ['f1', 'f4', 'f5']
+        handler.queuedMessages == 0
+        handler.queuedBytes == 0
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    void "test queued frames with the same key are conflated"() {
+        given:
+        WebSocketOutboundHandler handler = new WebSocketOutboundHandler(WebSocketOutboundHandler.Policy.CONFLATE, 1024, 16)
+        EmbeddedChannel channel = slowChannel(handler)
+
+        when:
+        channel.write(frame('f1'))
+        channel.write(frame('f2'))
+        channel.write(new KeyedWebSocketFrame('price', frame('p1')))
+        channel.write(frame('f3'))
+        channel.write(new KeyedWebSocketFrame('price', frame('p2')))
+        channel.write(new KeyedWebSocketFrame('price', frame('p3')))
+
+        then:
+        handler.queuedMessages == 3
+        handler.droppedCount == 2
+
+        when:
+        channel.flush()
+        channel.runPendingTasks()
+
+        then:
+        readAll(channel) == ['f1', 'f2', 'p3', 'f3']
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    void "test a slow consumer is disconnected"() {
+        given:
+        WebSocketOutboundHandler handler = new WebSocketOutboundHandler(WebSocketOutboundHandler.Policy.DISCONNECT, 1024, 1)
+        EmbeddedChannel channel = slowChannel(handler)
+
+        when:
+        channel.write(frame('f1'))
+        ChannelFuture queued = channel.write(frame('f2'))
+        channel.write(frame('f3'))
+        ChannelFuture afterClose = channel.write(frame('f4'))
+        channel.runPendingTasks()
+
+        then:
+        !channel.open
+        queued.done
+        !queued.success
+        afterClose.done
+        !afterClose.success
+        handler.droppedCount == 2
+        handler.queuedMessages == 0
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    void "test control frames are never dropped"() {
+        given:
+        WebSocketOutboundHandler handler = new WebSocketOutboundHandler(WebSocketOutboundHandler.Policy.DROP_OLDEST, 1024, 1)
+        EmbeddedChannel channel = slowChannel(handler)
+
+        when:
+        channel.write(frame('f1'))
+        channel.write(frame('f2'))
+        channel.write(new PingWebSocketFrame(Unpooled.copiedBuffer('ping'.bytes)))
+        channel.write(frame('f3'))
+        channel.write(frame('f4'))
+        channel.flush()
+        channel.runPendingTasks()
+        List<WebSocketFrame> frames = []
+        WebSocketFrame f
+        while ((f = channel.readOutbound()) != null) {
+            frames << f
+        }
+
+        then:
+        frames*.getClass()*.simpleName == ['TextWebSocketFrame', 'PingWebSocketFrame', 'TextWebSocketFrame']
+        frames[2].text() == 'f4'
+        handler.droppedCount == 2
+
+        cleanup:
+        frames*.release()
+        channel.finishAndReleaseAll()
+    }
+
+    void "test the frames of a fragmented message are dropped together"() {
+        given:
+        WebSocketOutboundHandler handler = new WebSocketOutboundHandler(WebSocketOutboundHandler.Policy.DROP_OLDEST, 1024, 2)
+        EmbeddedChannel channel = slowChannel(handler)
+
+        when:
+        channel.write(frame('f1'))
+        channel.write(new TextWebSocketFrame(false, 0, 'a1'))
+        channel.write(new ContinuationWebSocketFrame(false, 0, 'a2'))
+        channel.write(new ContinuationWebSocketFrame(true, 0, 'a3'))
+        channel.write(frame('f2'))
+        channel.write(frame('f3'))
+
+        then:
+        handler.droppedCount == 3
+        handler.queuedMessages == 2
+
+        when:
+        channel.flush()
+        channel.runPendingTasks()
+
+        then:
+        readContents(channel) == ['f1', 'f2', 'f3']
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    void "test the rest of a partially written message is never dropped"() {
+        given:
+        WebSocketOutboundHandler handler = new WebSocketOutboundHandler(WebSocketOutboundHandler.Policy.CONFLATE, 1024, 2)
+        EmbeddedChannel channel = slowChannel(handler)
+
+        when:
+        channel.write(new TextWebSocketFrame(false, 0, 'a1'))
+        channel.write(new ContinuationWebSocketFrame(false, 0, 'a2'))
+        channel.write(new KeyedWebSocketFrame('price', new ContinuationWebSocketFrame(true, 0, 'a3')))
+        channel.write(new KeyedWebSocketFrame('price', frame('p1')))
+        channel.write(new KeyedWebSocketFrame('price', frame('p2')))
+
+        then:
+        handler.droppedCount == 2
+        handler.queuedMessages == 2
+
+        when:
+        channel.flush()
+        channel.runPendingTasks()
+
+        then:
+        readContents(channel) == ['a1', 'a2', 'a3']
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    void "test keyed frames can be encoded without an outbound queue"() {
+        given:
+        EmbeddedChannel channel = new EmbeddedChannel(new WebSocket08FrameEncoder(false), KeyedWebSocketFrame.Unwrapper.INSTANCE)
+
+        when:
+        ChannelFuture future = channel.writeAndFlush(new KeyedWebSocketFrame('key', frame('one')))
+        ByteBuf encoded = channel.readOutbound()
+
+        then:
+        future.success
+        encoded.readableBytes() == 2 + 'one'.length()
+
+        cleanup:
+        encoded?.release()
+        channel.finishAndReleaseAll()
+    }
+
+    private static EmbeddedChannel slowChannel(WebSocketOutboundHandler handler) {
+        EmbeddedChannel channel = new EmbeddedChannel()
+        // a single pending frame makes the channel unwritable until it is flushed
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(1, 1))
+        channel.pipeline().addLast(handler)
+        return channel
+    }
+
+    private static TextWebSocketFrame frame(String text) {
+        new TextWebSocketFrame(text)
+    }
+
+    private static List<String> readAll(EmbeddedChannel channel) {
+        List<String> texts = []
+        TextWebSocketFrame frame
+        while ((frame = channel.readOutbound()) != null) {
+            texts << frame.text()
+            frame.release()
+        }
+        return texts
+    }
+
+    private static List<String> readContents(EmbeddedChannel channel) {
+        List<String> contents = []
+        WebSocketFrame frame
+        while ((frame = channel.readOutbound()) != null) {
+            contents << frame.content().toString(StandardCharsets.UTF_8)
+            frame.release()
+        }
+        return contents
+    }
+}
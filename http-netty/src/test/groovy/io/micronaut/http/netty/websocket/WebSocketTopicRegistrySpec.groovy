@@ -0,0 +1,88 @@
+package io.micronaut.http.netty.websocket
+
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame
+import io.netty.util.concurrent.Future
+import spock.lang.Specification
+
+class WebSocketTopicRegistrySpec extends Specification {
+
+    WebSocketTopicRegistry registry = new WebSocketTopicRegistry()
+
+    void "test a broadcast is only written to the subscribers of the topic"() {
+        given:
+        EmbeddedChannel first = new EmbeddedChannel()
+        EmbeddedChannel second = new EmbeddedChannel()
+        EmbeddedChannel other = new EmbeddedChannel()
+        registry.subscribe('news', first)
+        registry.subscribe('news', second)
+        registry.subscribe('sports', other)
+        TextWebSocketFrame frame = new TextWebSocketFrame('hello')
+
+        when:
+        Future<Void> future = registry.broadcast('news', frame)
+        [first, second, other]*.runPendingTasks()
+
+        then:
+        future.success
+        registry.getSubscriberCount('news') == 2
+        [first, second].every { channel ->
+            TextWebSocketFrame written = channel.readOutbound()
+            try {
+                written.text() == 'hello'
+            } finally {
+                written.release()
+            }
+        }
+        other.readOutbound() == null
+        frame.refCnt() == 0
+
+        cleanup:
+        [first, second, other]*.finishAndReleaseAll()
+    }
+
+    void "test unsubscribed channels no longer receive broadcasts"() {
+        given:
+        EmbeddedChannel channel = new EmbeddedChannel()
+        registry.subscribe('news', channel)
+
+        when:
+        registry.unsubscribe('news', channel)
+        TextWebSocketFrame frame = new TextWebSocketFrame('hello')
+        Future<Void> future = registry.broadcast('news', frame)
+        channel.runPendingTasks()
+
+        then:
+        future.success
+        registry.getSubscriberCount('news') == 0
+        channel.readOutbound() == null
+        frame.refCnt() == 0
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    void "test inactive channels are skipped"() {
+        given:
+        EmbeddedChannel open = new EmbeddedChannel()
+        EmbeddedChannel closed = new EmbeddedChannel()
+        registry.subscribe('news', open)
+        registry.subscribe('news', closed)
+        closed.close()
+        TextWebSocketFrame frame = new TextWebSocketFrame('hello')
+
+        when:
+        Future<Void> future = registry.broadcast('news', frame)
+        [open, closed]*.runPendingTasks()
+        TextWebSocketFrame written = open.readOutbound()
+
+        then:
+        future.success
+        written.text() == 'hello'
+        closed.readOutbound() == null
+
+        cleanup:
+        written?.release()
+        open.finishAndReleaseAll()
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when the bodies of requests to non streaming routes are moved from memory to temporary files, and keeps
+ * track of the memory used by the bodies of all the connections of a server.
+ *
+ * <p>A body is spilled to disk once it exceeds the per request threshold, or as soon as buffering it in memory would
+ * exceed the memory budget shared by all the requests. The temporary files are written on the I/O executor, never on
+ * the event loop.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+public final class BodySpillManager {
+
+    private final long threshold;
+    private final long maxInMemory;
+    private final Path directory;
+    private final Executor ioExecutor;
+    private final AtomicLong inMemory = new AtomicLong();
+    private final LongAdder spilledBytes = new LongAdder();
+    private final LongAdder spilledRequests = new LongAdder();
+
+    /**
+     * @param threshold   The size above which the body of a request is spilled to disk
+     * @param maxInMemory The maximum size of the bodies buffered in memory across all requests
+     * @param directory   The directory of the temporary files, or {@code null} for the default temporary directory
+     * @param ioExecutor  The executor that writes the temporary files
+     */
+    public BodySpillManager(long threshold, long maxInMemory, @Nullable Path directory, @NonNull Executor ioExecutor) {
+        this.threshold = threshold;
+        this.maxInMemory = maxInMemory;
+        this.directory = directory;
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * @return The number of bytes of the bodies currently buffered in memory
+     */
+    public long getInMemoryBytes() {
+        return inMemory.get();
+    }
+
+    /**
+     * @return The total number of bytes written to temporary files
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.sum();
+    }
+
+    /**
+     * @return The number of requests whose body was spilled to a temporary file
+     */
+    public long getSpilledRequestCount() {
+        return spilledRequests.sum();
+    }
+
+    /**
+     * Reserves memory for a chunk of a body.
+     *
+     * @param bufferedLength The number of bytes of the body already buffered in memory
+     * @param length         The length of the chunk
+     * @return Whether the chunk may be buffered in memory, otherwise the body must be spilled
+     */
+    boolean reserve(long bufferedLength, long length) {
+        if (bufferedLength + length > threshold) {
+            return false;
+        }
+        while (true) {
+            long current = inMemory.get();
+            if (current + length > maxInMemory) {
+                return false;
+            }
+            if (inMemory.compareAndSet(current, current + length)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases memory reserved with {@link #reserve(long, long)}.
+     *
+     * @param length The number of bytes to release
+     */
+    void release(long length) {
+        if (length > 0) {
+            inMemory.addAndGet(-length);
+        }
+    }
+
+    /**
+     * @return The executor that writes the temporary files
+     */
+    Executor getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * @return A new temporary file for a body
+     * @throws IOException If the file cannot be created
+     */
+    @NonNull
+    SpilledBody createSpilledBody() throws IOException {
+        Path file = directory != null ? Files.createTempFile(directory, "micronaut-body-", ".tmp") : Files.createTempFile("micronaut-body-", ".tmp");
+        spilledRequests.increment();
+        return new SpilledBody(file, spilledBytes);
+    }
+}
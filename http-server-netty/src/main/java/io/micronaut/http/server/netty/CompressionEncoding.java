@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.core.annotation.NonNull;
+import io.netty.channel.ChannelHandler;
+
+/**
+ * A content encoding the server can compress responses with, for example {@code gzip} or {@code br}. Beans of this
+ * type are picked up by the default {@link HttpCompressionStrategy} in addition to the
+ * {@link StandardCompressionEncoding standard encodings}.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+public interface CompressionEncoding {
+
+    /**
+     * @return The name of the encoding as used by the {@code Accept-Encoding} and {@code Content-Encoding} headers
+     */
+    @NonNull
+    String getName();
+
+    /**
+     * @return Whether the encoding can be used, for example because its native library is on the classpath
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * @return The compression level used when none is configured
+     */
+    int getDefaultLevel();
+
+    /**
+     * Creates a new encoder. The encoder receives the {@link io.netty.buffer.ByteBuf} content of a single response and
+     * writes the compressed bytes.
+     *
+     * @param level The compression level
+     * @return The encoder
+     */
+    @NonNull
+    ChannelHandler newEncoder(int level);
+}
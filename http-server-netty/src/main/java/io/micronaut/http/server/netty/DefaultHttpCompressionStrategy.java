@@ -16,6 +16,7 @@
 package io.micronaut.http.server.netty;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -23,6 +24,15 @@ import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponse;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Default implementation of {@link HttpCompressionStrategy}.
@@ -34,16 +44,23 @@ import jakarta.inject.Singleton;
 @Singleton
 class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
 
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultHttpCompressionStrategy.class);
+    private static final int MAX_CACHED_CONTENT_TYPES = 256;
+
     private final int compressionThreshold;
     private final int compressionLevel;
+    private final List<CompressionEncoding> encodings;
+    private final NettyHttpServerConfiguration.Compression compression;
+    private final List<MediaTypeLevels> mediaTypeLevels;
+    private final Map<String, int[]> levelsByContentType = new ConcurrentHashMap<>();
 
     /**
      * @param serverConfiguration The netty server configuration
+     * @param customEncodings The encodings registered as beans
      */
     @Inject
-    DefaultHttpCompressionStrategy(NettyHttpServerConfiguration serverConfiguration) {
-        this.compressionThreshold = serverConfiguration.getCompressionThreshold();
-        this.compressionLevel = serverConfiguration.getCompressionLevel();
+    DefaultHttpCompressionStrategy(NettyHttpServerConfiguration serverConfiguration, List<CompressionEncoding> customEncodings) {
+        this(serverConfiguration.getCompressionThreshold(), serverConfiguration.getCompressionLevel(), serverConfiguration.getCompression(), customEncodings);
     }
 
     /**
@@ -53,6 +70,34 @@ class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
     DefaultHttpCompressionStrategy(int compressionThreshold, int compressionLevel) {
         this.compressionThreshold = compressionThreshold;
         this.compressionLevel = compressionLevel;
+        this.encodings = Arrays.asList(StandardCompressionEncoding.GZIP, StandardCompressionEncoding.DEFLATE);
+        this.compression = new NettyHttpServerConfiguration.Compression();
+        this.mediaTypeLevels = Collections.emptyList();
+    }
+
+    /**
+     * @param compressionThreshold The compression threshold
+     * @param compressionLevel The compression level (0-9) of gzip and deflate
+     * @param compression The compression configuration
+     * @param customEncodings The encodings registered as beans
+     */
+    DefaultHttpCompressionStrategy(int compressionThreshold,
+                                   int compressionLevel,
+                                   NettyHttpServerConfiguration.Compression compression,
+                                   List<CompressionEncoding> customEncodings) {
+        this.compressionThreshold = compressionThreshold;
+        this.compressionLevel = compressionLevel;
+        this.compression = compression;
+        this.encodings = resolveEncodings(compression.getEncodings(), customEncodings);
+        List<MediaTypeLevels> mediaTypeLevels = new ArrayList<>(compression.getMediaTypes().size());
+        for (NettyHttpServerConfiguration.Compression.MediaTypeCompression mediaType : compression.getMediaTypes()) {
+            List<MediaType> types = new ArrayList<>(mediaType.getTypes().size());
+            for (String type : mediaType.getTypes()) {
+                types.add(MediaType.of(type));
+            }
+            mediaTypeLevels.add(new MediaTypeLevels(types, mediaType.getLevels()));
+        }
+        this.mediaTypeLevels = mediaTypeLevels;
     }
 
     @Override
@@ -70,4 +115,106 @@ class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
     public int getCompressionLevel() {
         return compressionLevel;
     }
+
+    @NonNull
+    @Override
+    public List<CompressionEncoding> getEncodings() {
+        return encodings;
+    }
+
+    @Override
+    public int getCompressionLevel(@NonNull HttpResponse response, @NonNull CompressionEncoding encoding) {
+        int index = encodings.indexOf(encoding);
+        String contentType = response.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        if (index < 0 || contentType == null) {
+            return resolveLevel(null, encoding);
+        }
+        int[] levels = levelsByContentType.get(contentType);
+        if (levels == null) {
+            MediaType mediaType = MediaType.of(contentType);
+            levels = new int[encodings.size()];
+            for (int i = 0; i < levels.length; i++) {
+                levels[i] = resolveLevel(mediaType, encodings.get(i));
+            }
+            // content types may carry arbitrary parameters, so bound the cache
+            if (levelsByContentType.size() < MAX_CACHED_CONTENT_TYPES) {
+                levelsByContentType.put(contentType, levels);
+            }
+        }
+        return levels[index];
+    }
+
+    private int resolveLevel(MediaType mediaType, CompressionEncoding encoding) {
+        String name = encoding.getName();
+        if (mediaType != null) {
+            for (MediaTypeLevels mediaTypeLevel : mediaTypeLevels) {
+                Integer level = mediaTypeLevel.levelFor(mediaType, name);
+                if (level != null) {
+                    return level;
+                }
+            }
+        }
+        Integer level = compression.getLevels().get(name);
+        if (level != null) {
+            return level;
+        }
+        if (encoding == StandardCompressionEncoding.GZIP || encoding == StandardCompressionEncoding.DEFLATE) {
+            return compressionLevel;
+        }
+        return encoding.getDefaultLevel();
+    }
+
+    private static List<CompressionEncoding> resolveEncodings(List<String> names, List<CompressionEncoding> customEncodings) {
+        List<CompressionEncoding> encodings = new ArrayList<>(names.size());
+        for (String name : names) {
+            CompressionEncoding encoding = null;
+            for (CompressionEncoding customEncoding : customEncodings) {
+                if (customEncoding.getName().equalsIgnoreCase(name.trim())) {
+                    encoding = customEncoding;
+                    break;
+                }
+            }
+            if (encoding == null) {
+                encoding = StandardCompressionEncoding.of(name);
+            }
+            if (encoding == null) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("Ignoring unknown compression encoding [{}]", name);
+                }
+            } else if (!encoding.isAvailable()) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Compression encoding [{}] is not available and will not be used", name);
+                }
+            } else if (!encodings.contains(encoding)) {
+                encodings.add(encoding);
+            }
+        }
+        return Collections.unmodifiableList(encodings);
+    }
+
+    /**
+     * The configured levels of a set of media types.
+     */
+    private static final class MediaTypeLevels {
+        private final List<MediaType> types;
+        private final Map<String, Integer> levels;
+
+        MediaTypeLevels(List<MediaType> types, Map<String, Integer> levels) {
+            this.types = types;
+            this.levels = levels;
+        }
+
+        Integer levelFor(MediaType mediaType, String encoding) {
+            Integer level = levels.get(encoding);
+            if (level == null) {
+                return null;
+            }
+            for (MediaType type : types) {
+                if (type.matches(mediaType)) {
+                    return level;
+                }
+            }
+            return null;
+        }
+    }
 }
@@ -97,6 +97,12 @@ class DefaultHttpContentProcessorResolver implements HttpContentProcessorResolve
                     }
                     return Argument.OBJECT_ARGUMENT;
                 });
+        if (!isOnlyUnsatisfiedArgument(route, bodyType)) {
+            // other arguments may still be bound from parts of the body, so the processor
+            // must not bind the whole body to a single type
+            Argument<?> rawType = bodyType.getType() == HttpRequest.class ? bodyType.getFirstTypeVariable().orElse(Argument.OBJECT_ARGUMENT) : bodyType;
+            return resolve(request, RAW_BODY_TYPES.contains(rawType.getType()), Argument.OBJECT_ARGUMENT);
+        }
         return resolve(request, bodyType);
     }
 
@@ -104,19 +110,22 @@ class DefaultHttpContentProcessorResolver implements HttpContentProcessorResolve
     @NonNull
     public HttpContentProcessor<?> resolve(@NonNull NettyHttpRequest<?> request, @NonNull Argument<?> bodyType) {
         if (bodyType.getType() == HttpRequest.class) {
-            bodyType = bodyType.getFirstTypeVariable().orElse(Argument.OBJECT_ARGUMENT);
+            Argument<?> typeVariable = bodyType.getFirstTypeVariable().orElse(Argument.OBJECT_ARGUMENT);
+            // the body of an HttpRequest<T> is converted when it is read and is empty if it does not match,
+            // so it must not be bound directly to the type variable
+            return resolve(request, RAW_BODY_TYPES.contains(typeVariable.getType()), Argument.OBJECT_ARGUMENT);
         }
         boolean isRaw = RAW_BODY_TYPES.contains(bodyType.getType());
-        return resolve(request, isRaw);
+        return resolve(request, isRaw, bodyType);
     }
 
     @Override
     @NonNull
     public HttpContentProcessor<?> resolve(@NonNull NettyHttpRequest<?> request) {
-        return resolve(request, false);
+        return resolve(request, false, Argument.OBJECT_ARGUMENT);
     }
 
-    private HttpContentProcessor<?> resolve(NettyHttpRequest<?> request, boolean rawBodyType) {
+    private HttpContentProcessor<?> resolve(NettyHttpRequest<?> request, boolean rawBodyType, Argument<?> bodyType) {
         Supplier<DefaultHttpContentProcessor> defaultHttpContentProcessor = () -> new DefaultHttpContentProcessor(request, getServerConfiguration());
 
         if (rawBodyType) {
@@ -128,11 +137,20 @@ class DefaultHttpContentProcessorResolver implements HttpContentProcessorResolve
                             beanLocator.findBean(HttpContentSubscriberFactory.class,
                                     new ConsumesMediaTypeQualifier<>(type))
                     ).map(factory ->
-                            factory.build(request)
+                            factory.build(request, bodyType)
                     ).orElseGet(defaultHttpContentProcessor);
         }
     }
 
+    private static boolean isOnlyUnsatisfiedArgument(RouteMatch<?> route, Argument<?> bodyType) {
+        for (Argument<?> argument : route.getRequiredArguments()) {
+            if (!argument.getName().equals(bodyType.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private NettyHttpServerConfiguration getServerConfiguration() {
         NettyHttpServerConfiguration nettyHttpServerConfiguration = this.nettyServerConfiguration;
         if (nettyHttpServerConfiguration == null) {
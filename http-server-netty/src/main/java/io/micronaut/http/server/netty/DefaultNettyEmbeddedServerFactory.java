@@ -35,6 +35,7 @@ import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.io.ResourceResolver;
 import io.micronaut.core.order.OrderUtil;
 import io.micronaut.core.util.CollectionUtils;
+import io.micronaut.core.util.SupplierUtil;
 import io.micronaut.http.codec.MediaTypeCodecRegistry;
 import io.micronaut.http.netty.channel.EventLoopGroupConfiguration;
 import io.micronaut.http.netty.channel.EventLoopGroupFactory;
@@ -52,6 +53,7 @@ import io.micronaut.http.server.netty.types.DefaultCustomizableResponseTypeHandl
 import io.micronaut.http.server.netty.types.NettyCustomizableResponseTypeHandler;
 import io.micronaut.http.server.netty.types.files.FileTypeHandler;
 import io.micronaut.http.ssl.ServerSslConfiguration;
+import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.executor.ExecutorSelector;
 import io.micronaut.web.router.resource.StaticResourceResolver;
 import io.micronaut.websocket.context.WebSocketBeanRegistry;
@@ -154,7 +156,10 @@ public class DefaultNettyEmbeddedServerFactory
                                               @Nullable ServerSslConfiguration sslConfiguration) {
         Objects.requireNonNull(configuration, "Netty HTTP server configuration cannot be null");
         List<NettyCustomizableResponseTypeHandler<?>> handlers = Arrays.asList(
-                new FileTypeHandler(configuration.getFileTypeHandlerConfiguration()),
+                new FileTypeHandler(
+                        configuration.getFileTypeHandlerConfiguration(),
+                        SupplierUtil.memoized(() -> executorSelector.select(TaskExecutors.IO).orElse(null))
+                ),
                 new StreamTypeHandler()
         );
 
@@ -308,6 +313,12 @@ public class DefaultNettyEmbeddedServerFactory
         );
     }
 
+    @Override
+    @NonNull
+    public EventLoopGroup createEventLoopGroup(@NonNull EventLoopGroupConfiguration config, @NonNull ExecutorService executorService) {
+        return eventLoopGroupFactory.createEventLoopGroup(config, executorService);
+    }
+
     /**
      * Configures the channel option factory.
      * @param channelOptionFactory The channel option factory.
@@ -108,6 +108,11 @@ interface DelegateNettyEmbeddedServices extends NettyEmbeddedServices {
         return getDelegate().createEventLoopGroup(numThreads, executorService, ioRatio);
     }
 
+    @Override
+    default EventLoopGroup createEventLoopGroup(EventLoopGroupConfiguration config, ExecutorService executorService) {
+        return getDelegate().createEventLoopGroup(config, executorService);
+    }
+
     @Override
     default ServerSocketChannel getServerSocketChannelInstance(EventLoopGroupConfiguration workerConfig) {
         return getDelegate().getServerSocketChannelInstance(workerConfig);
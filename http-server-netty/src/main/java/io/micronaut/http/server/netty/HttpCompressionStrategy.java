@@ -15,8 +15,12 @@
  */
 package io.micronaut.http.server.netty;
 
+import io.micronaut.core.annotation.NonNull;
 import io.netty.handler.codec.http.HttpResponse;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Determines if a given http message should be compressed. It should
  * be assumed the client allows for compressed responses.
@@ -38,4 +42,26 @@ public interface HttpCompressionStrategy {
     default int getCompressionLevel() {
         return 6;
     }
+
+    /**
+     * @return The encodings responses may be compressed with, in order of preference of the server
+     * @since 4.0.0
+     */
+    @NonNull
+    default List<CompressionEncoding> getEncodings() {
+        return Arrays.asList(StandardCompressionEncoding.GZIP, StandardCompressionEncoding.DEFLATE);
+    }
+
+    /**
+     * @param response The HTTP response
+     * @param encoding The encoding the response is compressed with
+     * @return The compression level to use for the response
+     * @since 4.0.0
+     */
+    default int getCompressionLevel(@NonNull HttpResponse response, @NonNull CompressionEncoding encoding) {
+        if (encoding == StandardCompressionEncoding.GZIP || encoding == StandardCompressionEncoding.DEFLATE) {
+            return getCompressionLevel();
+        }
+        return encoding.getDefaultLevel();
+    }
 }
@@ -15,6 +15,8 @@
  */
 package io.micronaut.http.server.netty;
 
+import io.micronaut.core.type.Argument;
+
 /**
  * Interface that allows plugging into the constructor of the {@link io.netty.handler.codec.http.HttpContent}
  * subscriber.
@@ -32,5 +34,18 @@ public interface HttpContentSubscriberFactory {
      * @return The subscriber
      */
     HttpContentProcessor build(NettyHttpRequest request);
+
+    /**
+     * Build a {@link org.reactivestreams.Subscriber} for the given request and the argument the body is bound to.
+     * Allows the factory to pick a cheaper processor when the target type is known up front.
+     *
+     * @param request  The request
+     * @param bodyType The body argument, {@link Argument#OBJECT_ARGUMENT} if unknown
+     * @return The subscriber
+     * @since 4.0.0
+     */
+    default HttpContentProcessor build(NettyHttpRequest request, Argument<?> bodyType) {
+        return build(request);
+    }
 }
 
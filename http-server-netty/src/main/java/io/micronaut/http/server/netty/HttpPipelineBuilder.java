@@ -24,6 +24,8 @@ import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration
 import io.micronaut.http.server.netty.decoders.HttpRequestDecoder;
 import io.micronaut.http.server.netty.encoders.HttpResponseEncoder;
 import io.micronaut.http.server.netty.handler.accesslog.HttpAccessLogHandler;
+import io.micronaut.http.server.netty.handler.limit.ConcurrencyLimitHandler;
+import io.micronaut.http.server.netty.handler.limit.ConcurrencyLimiter;
 import io.micronaut.http.server.netty.ssl.HttpRequestCertificateHandler;
 import io.micronaut.http.server.netty.websocket.NettyServerWebSocketUpgradeHandler;
 import io.micronaut.http.server.util.HttpHostResolver;
@@ -74,6 +76,7 @@ import java.nio.channels.ClosedChannelException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
 /**
  * Helper class that manages the {@link ChannelPipeline} of incoming HTTP connections.
@@ -100,6 +103,9 @@ final class HttpPipelineBuilder {
     private final HttpAccessLogHandler accessLogHandler;
     private final HttpRequestDecoder requestDecoder;
     private final HttpResponseEncoder responseEncoder;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Function<String, ConcurrencyLimiter.Priority> priorityResolver;
+    private final BodySpillManager bodySpillManager;
 
     private final HttpRequestCertificateHandler requestCertificateHandler = new HttpRequestCertificateHandler();
 
@@ -118,7 +124,17 @@ final class HttpPipelineBuilder {
 
         NettyHttpServerConfiguration.AccessLogger accessLogger = server.getServerConfiguration().getAccessLogger();
         if (accessLogger != null && accessLogger.isEnabled()) {
-            accessLogHandler = new HttpAccessLogHandler(accessLogger.getLoggerName(), accessLogger.getLogFormat(), NettyHttpServer.inclusionPredicate(accessLogger));
+            if (accessLogger.isAsync()) {
+                String loggerName = accessLogger.getLoggerName();
+                accessLogHandler = new HttpAccessLogHandler(
+                        loggerName == null || loggerName.isEmpty() ? null : LoggerFactory.getLogger(loggerName),
+                        accessLogger.getLogFormat(),
+                        NettyHttpServer.inclusionPredicate(accessLogger),
+                        server.getAccessLogWriter(accessLogger)
+                );
+            } else {
+                accessLogHandler = new HttpAccessLogHandler(accessLogger.getLoggerName(), accessLogger.getLogFormat(), NettyHttpServer.inclusionPredicate(accessLogger));
+            }
         } else {
             accessLogHandler = null;
         }
@@ -131,6 +147,9 @@ final class HttpPipelineBuilder {
                 embeddedServices.getMediaTypeCodecRegistry(),
                 server.getServerConfiguration()
         );
+        concurrencyLimiter = server.getConcurrencyLimiter().orElse(null);
+        priorityResolver = concurrencyLimiter != null ? NettyHttpServer.priorityResolver(server.getServerConfiguration().getConcurrencyLimit()) : null;
+        bodySpillManager = server.getBodySpillManager().orElse(null);
     }
 
     boolean supportsSsl() {
@@ -432,6 +451,13 @@ final class HttpPipelineBuilder {
             this.streamCustomizer = streamCustomizer;
         }
 
+        /**
+         * @return The manager of the request bodies spilled to disk, or {@code null} if spilling is disabled
+         */
+        BodySpillManager getBodySpillManager() {
+            return bodySpillManager;
+        }
+
         void initializeChildPipelineForPushPromise(Channel childChannel) {
             StreamPipeline promisePipeline = new StreamPipeline(childChannel, ssl, streamCustomizer.specializeForChannel(childChannel, NettyServerCustomizer.ChannelRole.PUSH_PROMISE_STREAM));
             promisePipeline.insertHttp2FrameHandlers();
@@ -466,6 +492,15 @@ final class HttpPipelineBuilder {
         private void insertMicronautHandlers() {
             channel.attr(STREAM_PIPELINE_ATTRIBUTE).set(this);
 
+            if (concurrencyLimiter != null) {
+                // before any body handling, so that rejected requests are cheap
+                pipeline.addLast(ChannelPipelineCustomizer.HANDLER_CONCURRENCY_LIMIT, new ConcurrencyLimitHandler(
+                        concurrencyLimiter,
+                        priorityResolver,
+                        server.getServerConfiguration().getConcurrencyLimit().getRetryAfter().getSeconds()
+                ));
+            }
+
             pipeline.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_COMPRESSOR, new SmartHttpContentCompressor(embeddedServices.getHttpCompressionStrategy()));
             pipeline.addLast(ChannelPipelineCustomizer.HANDLER_HTTP_DECOMPRESSOR, new HttpContentDecompressor());
 
@@ -482,7 +517,8 @@ final class HttpPipelineBuilder {
             pipeline.addLast(HttpResponseEncoder.ID, responseEncoder);
             pipeline.addLast(NettyServerWebSocketUpgradeHandler.ID, new NettyServerWebSocketUpgradeHandler(
                     embeddedServices,
-                    server.getWebSocketSessionRepository()));
+                    server.getWebSocketSessionRepository(),
+                    server.getServerConfiguration().getWebSocketOutbound()));
             pipeline.addLast(ChannelPipelineCustomizer.HANDLER_MICRONAUT_INBOUND, routingInBoundHandler);
         }
 
@@ -0,0 +1,399 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.buffer.netty.NettyByteBufferFactory;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.io.buffer.ByteBuffer;
+import io.micronaut.core.type.Argument;
+import io.micronaut.json.JsonMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the elements of a streamed response body as JSON, either as a JSON array, one after the other or delimited
+ * by new lines, and coalesces them into chunks.
+ *
+ * <p>The elements are serialized directly into the buffer of the current chunk. A chunk is emitted once it reaches
+ * the maximum chunk size or once the maximum delay has elapsed since its first element was written, but only when
+ * the downstream has requested one. Upstream elements are requested while the downstream has demand or the current
+ * chunk is not full, so at most one chunk and the prefetched elements are buffered for a slow client.</p>
+ *
+ * <p>The state is guarded by the monitor of the writer, but signals to the downstream and requests to the upstream
+ * are only made by the thread that drains the writer, after it has released the monitor. A subscriber that calls
+ * back into the writer from another thread, such as the handler that writes the chunks to the channel, can therefore
+ * not deadlock with it. Elements are serialized without holding the monitor either: the upstream thread claims the
+ * current chunk while it writes to it, and the chunk is neither emitted nor released until it is done.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+final class JsonStreamWriter implements CoreSubscriber<Object>, Subscription {
+
+    private static final byte OPEN_BRACKET = '[';
+    private static final byte COMMA = ',';
+    private static final byte CLOSE_BRACKET = ']';
+    private static final byte NEW_LINE = '\n';
+
+    private final CoreSubscriber<? super HttpContent> downstream;
+    private final JsonMapper jsonMapper;
+    private final Argument<Object> elementType;
+    private final Format format;
+    private final ByteBufAllocator allocator;
+    private final EventExecutor executor;
+    private final int maxChunkSize;
+    private final long maxDelayNanos;
+    private final int prefetch;
+    private final int replenishLimit;
+
+    // all state below is guarded by this
+    private Subscription upstream;
+    private ByteBuf chunk;
+    private ByteBuffer<ByteBuf> chunkBuffer;
+    private ScheduledFuture<?> flushTask;
+    private long demand;
+    private long outstanding;
+    private boolean empty = true;
+    private boolean writing;
+    private boolean flushDue;
+    private boolean done;
+    private Throwable error;
+    private boolean terminated;
+    private boolean draining;
+
+    private JsonStreamWriter(CoreSubscriber<? super HttpContent> downstream,
+                             JsonMapper jsonMapper,
+                             Argument<Object> elementType,
+                             Format format,
+                             ByteBufAllocator allocator,
+                             EventExecutor executor,
+                             int maxChunkSize,
+                             long maxDelayNanos,
+                             int prefetch) {
+        this.downstream = downstream;
+        this.jsonMapper = jsonMapper;
+        this.elementType = elementType;
+        this.format = format;
+        this.allocator = allocator;
+        this.executor = executor;
+        this.maxChunkSize = maxChunkSize;
+        this.maxDelayNanos = maxDelayNanos;
+        this.prefetch = prefetch;
+        this.replenishLimit = prefetch / 2;
+    }
+
+    /**
+     * Writes the elements of the given publisher as JSON.
+     *
+     * @param body The publisher of the elements
+     * @param jsonMapper The mapper used to serialize the elements
+     * @param elementType The type of the elements
+     * @param format How the elements are delimited
+     * @param allocator The allocator of the chunks
+     * @param executor The executor that emits the chunks once the maximum delay has elapsed
+     * @param maxChunkSize The size in bytes from which a chunk is emitted
+     * @param maxDelayNanos The maximum time in nanoseconds the first element of a chunk is held back
+     * @param prefetch The number of elements requested from the upstream at once
+     * @return The publisher of the chunks
+     */
+    @SuppressWarnings("unchecked")
+    static Flux<HttpContent> lift(Publisher<?> body,
+                                  JsonMapper jsonMapper,
+                                  Argument<?> elementType,
+                                  Format format,
+                                  ByteBufAllocator allocator,
+                                  EventExecutor executor,
+                                  int maxChunkSize,
+                                  long maxDelayNanos,
+                                  int prefetch) {
+        return (Flux<HttpContent>) Operators.<Object, HttpContent>lift(
+                (scannable, subscriber) -> new JsonStreamWriter(
+                        subscriber,
+                        jsonMapper,
+                        (Argument<Object>) elementType,
+                        format,
+                        allocator,
+                        executor,
+                        Math.max(1, maxChunkSize),
+                        Math.max(0, maxDelayNanos),
+                        Math.max(1, prefetch)
+                )
+        ).apply((Publisher<Object>) body);
+    }
+
+    @Override
+    public Context currentContext() {
+        return downstream.currentContext();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        synchronized (this) {
+            upstream = s;
+        }
+        downstream.onSubscribe(this);
+        // start filling the first chunk before the downstream requests it
+        drain();
+    }
+
+    @Override
+    public void onNext(Object element) {
+        ByteBuf chunk;
+        ByteBuffer<ByteBuf> chunkBuffer;
+        boolean first;
+        synchronized (this) {
+            if (terminated || error != null) {
+                return;
+            }
+            outstanding--;
+            if (this.chunk == null) {
+                this.chunk = allocator.ioBuffer(maxChunkSize);
+                this.chunkBuffer = NettyByteBufferFactory.DEFAULT.wrap(this.chunk);
+            }
+            // onNext is serial, so only the flush task and the downstream can touch the chunk meanwhile
+            chunk = this.chunk;
+            chunkBuffer = this.chunkBuffer;
+            first = empty;
+            empty = false;
+            writing = true;
+        }
+        Throwable failure = null;
+        try {
+            if (format == Format.ARRAY) {
+                chunk.writeByte(first ? OPEN_BRACKET : COMMA);
+            }
+            if (elementType.isInstance(element)) {
+                jsonMapper.writeValue(chunkBuffer, elementType, element);
+            } else {
+                jsonMapper.writeValue(chunkBuffer, element);
+            }
+            if (format == Format.NEW_LINE_DELIMITED) {
+                chunk.writeByte(NEW_LINE);
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        }
+        synchronized (this) {
+            writing = false;
+            if (terminated) {
+                // cancelled while the element was written, the chunk was left to this thread to release
+                discard();
+                return;
+            }
+            if (failure != null) {
+                if (error == null) {
+                    error = failure;
+                }
+            } else if (chunk.readableBytes() < maxChunkSize && flushTask == null && !flushDue) {
+                if (maxDelayNanos == 0) {
+                    flushDue = true;
+                } else {
+                    flushTask = executor.schedule(this::onFlushDue, maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        if (failure != null) {
+            upstream.cancel();
+        }
+        // emit right away, a synchronous upstream may deliver many elements within a single request
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        synchronized (this) {
+            if (terminated || error != null || done) {
+                return;
+            }
+            error = t;
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            if (terminated || error != null || done) {
+                return;
+            }
+            done = true;
+            if (format == Format.ARRAY) {
+                if (chunk == null) {
+                    chunk = allocator.ioBuffer(2);
+                }
+                if (empty) {
+                    chunk.writeByte(OPEN_BRACKET);
+                }
+                chunk.writeByte(CLOSE_BRACKET);
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            upstream.cancel();
+            synchronized (this) {
+                if (error == null) {
+                    error = new IllegalArgumentException("Spec. Rule 3.9 - Cannot request a non strictly positive number: " + n);
+                }
+            }
+        } else {
+            synchronized (this) {
+                demand = Operators.addCap(demand, n);
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            discard();
+        }
+        upstream.cancel();
+    }
+
+    private void onFlushDue() {
+        synchronized (this) {
+            flushTask = null;
+            flushDue = true;
+        }
+        drain();
+    }
+
+    /**
+     * Emits the current chunk and requests upstream elements as permitted by the demand. Only one thread drains at a
+     * time, signals that arrive meanwhile, such as a nested request from the downstream, are handled by its loop
+     * instead of recursively. The signals are made without holding the monitor.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                // the draining thread picks up the change in its next iteration
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            HttpContent content = null;
+            long n = 0;
+            Throwable failure = null;
+            boolean complete = false;
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                if (error != null) {
+                    terminated = true;
+                    failure = error;
+                    discard();
+                } else {
+                    if (chunk != null && !writing && demand > 0 && (flushDue || done || chunk.readableBytes() >= maxChunkSize)) {
+                        content = new DefaultHttpContent(chunk);
+                        chunk = null;
+                        chunkBuffer = null;
+                        flushDue = false;
+                        cancelFlushTask();
+                        demand--;
+                    }
+                    if (done) {
+                        if (chunk == null && content == null) {
+                            terminated = true;
+                            complete = true;
+                        }
+                    } else if (outstanding <= replenishLimit
+                            && (demand > 0 || chunk == null || (!writing && chunk.readableBytes() < maxChunkSize))) {
+                        n = prefetch - outstanding;
+                        outstanding = prefetch;
+                    }
+                    if (content == null && n == 0 && !complete) {
+                        draining = false;
+                        return;
+                    }
+                }
+            }
+            if (failure != null) {
+                downstream.onError(failure);
+                return;
+            }
+            if (complete) {
+                downstream.onComplete();
+                return;
+            }
+            if (content != null) {
+                downstream.onNext(content);
+            }
+            if (n > 0) {
+                upstream.request(n);
+            }
+        }
+    }
+
+    private void discard() {
+        cancelFlushTask();
+        // a chunk that is being written to is released by the writing thread once it is done
+        if (chunk != null && !writing) {
+            chunk.release();
+            chunk = null;
+            chunkBuffer = null;
+        }
+    }
+
+    private void cancelFlushTask() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+    }
+
+    /**
+     * How the elements are delimited.
+     */
+    enum Format {
+        /**
+         * A JSON array, for {@code application/json}.
+         */
+        ARRAY,
+        /**
+         * The elements one after the other, for {@code application/x-json-stream}.
+         */
+        CONCATENATED,
+        /**
+         * Each element followed by a new line, for {@code application/x-ndjson}.
+         */
+        NEW_LINE_DELIMITED
+    }
+}
@@ -151,6 +151,17 @@ public interface NettyEmbeddedServices {
      */
     @NonNull EventLoopGroup createEventLoopGroup(int numThreads, @NonNull ExecutorService executorService, @Nullable  Integer ioRatio);
 
+    /**
+     * Creates the event loop group for the given configuration that runs on the given executor service.
+     * @param config The config
+     * @param executorService The executor service
+     * @return The event loop group
+     * @since 4.0.0
+     */
+    default @NonNull EventLoopGroup createEventLoopGroup(@NonNull EventLoopGroupConfiguration config, @NonNull ExecutorService executorService) {
+        return createEventLoopGroup(config.getNumThreads(), executorService, config.getIoRatio().orElse(null));
+    }
+
     /**
      * Gets the server socket channel instance.
      * @param workerConfig The worker config
@@ -35,6 +35,7 @@ import io.micronaut.http.MutableHttpRequest;
 import io.micronaut.http.PushCapableHttpRequest;
 import io.micronaut.http.cookie.Cookie;
 import io.micronaut.http.cookie.Cookies;
+import io.micronaut.http.exceptions.ContentLengthExceededException;
 import io.micronaut.http.netty.AbstractNettyHttpRequest;
 import io.micronaut.http.netty.NettyHttpHeaders;
 import io.micronaut.http.netty.NettyHttpParameters;
@@ -74,6 +75,7 @@ import io.netty.handler.codec.http2.HttpConversionUtil;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.ReferenceCounted;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import org.slf4j.Logger;
@@ -93,6 +95,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -160,6 +165,11 @@ public class NettyHttpRequest<T> extends AbstractNettyHttpRequest<T> implements
     private NettyCookies nettyCookies;
     private List<ByteBufHolder> receivedContent = new ArrayList<>();
     private Map<IdentityWrapper, HttpData> receivedData = new LinkedHashMap<>();
+    private BodySpillManager bodySpillManager;
+    private long inMemoryContentLength;
+    private SpilledBody spilledBody;
+    private long spilledContentLength;
+    private CompletableFuture<Void> spillWrites = CompletableFuture.completedFuture(null);
 
     private T bodyUnwrapped;
     private Supplier<Optional<T>> body;
@@ -190,6 +200,10 @@ public class NettyHttpRequest<T> extends AbstractNettyHttpRequest<T> implements
         this.serverConfiguration = serverConfiguration;
         this.channelHandlerContext = ctx;
         this.headers = new NettyHttpHeaders(nettyRequest.headers(), conversionService);
+        if (channel != null) {
+            HttpPipelineBuilder.StreamPipeline streamPipeline = channel.attr(HttpPipelineBuilder.STREAM_PIPELINE_ATTRIBUTE).get();
+            this.bodySpillManager = streamPipeline != null ? streamPipeline.getBodySpillManager() : null;
+        }
         this.body = SupplierUtil.memoizedNonEmpty(() -> {
             T built = (T) buildBody();
             this.bodyUnwrapped = built;
@@ -318,6 +332,26 @@ public class NettyHttpRequest<T> extends AbstractNettyHttpRequest<T> implements
                 });
             }
             return body;
+        } else {
+            return buildContent();
+        }
+    }
+
+    /**
+     * Builds a view of the content received so far, which the caller has to release. If the content was spilled to a
+     * temporary file, {@link #contentStored()} has to be complete.
+     *
+     * @return The content or {@code null} if there is none
+     */
+    @Internal
+    @Nullable
+    public ByteBuf buildContent() {
+        if (spilledBody != null) {
+            try {
+                return spilledBody.map();
+            } catch (IOException e) {
+                throw new InternalServerException("Error reading the request body from a temporary file: " + e.getMessage(), e);
+            }
         } else if (!receivedContent.isEmpty()) {
             int size = receivedContent.size();
             CompositeByteBuf byteBufs = channelHandlerContext.alloc().compositeBuffer(size);
@@ -367,6 +401,14 @@ public class NettyHttpRequest<T> extends AbstractNettyHttpRequest<T> implements
         receivedContent.forEach(releaseIfNecessary);
         receivedData.values().forEach(releaseIfNecessary);
         releaseIfNecessary(bodyUnwrapped);
+        if (bodySpillManager != null) {
+            bodySpillManager.release(inMemoryContentLength);
+            inMemoryContentLength = 0;
+        }
+        if (spilledBody != null) {
+            spilledBody.delete();
+            spilledBody = null;
+        }
         if (attributes != null) {
             attributes.values().forEach(releaseIfNecessary);
         }
@@ -410,10 +452,26 @@ public class NettyHttpRequest<T> extends AbstractNettyHttpRequest<T> implements
     }
 
     /**
+     * Adds content to the request. Content that is spilled to a temporary file is written in the background, see
+     * {@link #addContentAsync(ByteBufHolder)}.
+     *
      * @param httpContent The HttpContent as {@link ByteBufHolder}
      */
     @Internal
     public void addContent(ByteBufHolder httpContent) {
+        addContentAsync(httpContent);
+    }
+
+    /**
+     * Adds content to the request. Content spilled to a temporary file is written on the I/O executor rather than the
+     * event loop. The returned stage completes on the event loop once the content is stored, callers request more
+     * content only then, so that the body is not received faster than it is written.
+     *
+     * @param httpContent The HttpContent as {@link ByteBufHolder}
+     * @return A stage completed once the content is stored
+     */
+    @Internal
+    public CompletionStage<Void> addContentAsync(ByteBufHolder httpContent) {
         httpContent.touch();
         if (httpContent instanceof AbstractHttpData || httpContent instanceof MixedAttribute) {
             receivedData.computeIfAbsent(new IdentityWrapper(httpContent), key -> {
@@ -421,10 +479,93 @@ public class NettyHttpRequest<T> extends AbstractNettyHttpRequest<T> implements
                 httpContent.retain();
                 return (HttpData) httpContent;
             });
-        } else {
+        } else if (bodySpillManager == null || destroyed) {
+            // released in release()
+            receivedContent.add(httpContent.retain());
+        } else if (spilledBody == null && bodySpillManager.reserve(inMemoryContentLength, httpContent.content().readableBytes())) {
+            inMemoryContentLength += httpContent.content().readableBytes();
             // released in release()
             receivedContent.add(httpContent.retain());
+        } else {
+            return spillContent(httpContent);
         }
+        return spillWrites;
+    }
+
+    /**
+     * @return A stage completed on the event loop once the content added so far is stored
+     */
+    @Internal
+    public CompletionStage<Void> contentStored() {
+        return spillWrites;
+    }
+
+    /**
+     * Writes the content, preceded by the content buffered so far if the body was not spilled yet, to the temporary
+     * file. The writes of a request run one after the other.
+     */
+    private CompletionStage<Void> spillContent(ByteBufHolder httpContent) {
+        long length = spilledContentLength + (spilledBody == null ? inMemoryContentLength : 0) + httpContent.content().readableBytes();
+        if (length > SpilledBody.MAX_SIZE) {
+            // a spilled body is bound from a single buffer, answered with 413 like other bodies that are too large
+            CompletableFuture<Void> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new ContentLengthExceededException(SpilledBody.MAX_SIZE, length));
+            return rejected;
+        }
+        spilledContentLength = length;
+        List<ByteBufHolder> chunks;
+        if (spilledBody == null) {
+            try {
+                spilledBody = bodySpillManager.createSpilledBody();
+            } catch (IOException e) {
+                throw new InternalServerException("Error creating a temporary file for the request body: " + e.getMessage(), e);
+            }
+            chunks = new ArrayList<>(receivedContent.size() + 1);
+            chunks.addAll(receivedContent);
+            receivedContent.clear();
+            bodySpillManager.release(inMemoryContentLength);
+            inMemoryContentLength = 0;
+        } else {
+            chunks = new ArrayList<>(1);
+        }
+        chunks.add(httpContent.retain());
+        SpilledBody target = spilledBody;
+        EventExecutor eventLoop = channelHandlerContext.executor();
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        spillWrites.whenComplete((ignored, previousError) -> {
+            if (previousError != null) {
+                chunks.forEach(ReferenceCountUtil::release);
+                written.completeExceptionally(previousError);
+                return;
+            }
+            try {
+                bodySpillManager.getIoExecutor().execute(() -> {
+                    Throwable error = null;
+                    try {
+                        for (ByteBufHolder chunk : chunks) {
+                            target.write(chunk.content());
+                        }
+                    } catch (IOException e) {
+                        error = new InternalServerException("Error writing the request body to a temporary file: " + e.getMessage(), e);
+                    } finally {
+                        chunks.forEach(ReferenceCountUtil::release);
+                    }
+                    Throwable failure = error;
+                    eventLoop.execute(() -> {
+                        if (failure != null) {
+                            written.completeExceptionally(failure);
+                        } else {
+                            written.complete(null);
+                        }
+                    });
+                });
+            } catch (RejectedExecutionException e) {
+                chunks.forEach(ReferenceCountUtil::release);
+                written.completeExceptionally(e);
+            }
+        });
+        spillWrites = written;
+        return written;
     }
 
     /**
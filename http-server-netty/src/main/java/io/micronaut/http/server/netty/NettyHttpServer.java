@@ -36,9 +36,13 @@ import io.micronaut.http.netty.channel.DefaultEventLoopGroupConfiguration;
 import io.micronaut.http.netty.channel.EventLoopGroupConfiguration;
 import io.micronaut.http.netty.channel.converters.ChannelOptionFactory;
 import io.micronaut.http.netty.websocket.WebSocketSessionRepository;
+import io.micronaut.http.netty.websocket.WebSocketTopicRegistry;
 import io.micronaut.http.server.HttpServerConfiguration;
 import io.micronaut.http.server.exceptions.ServerStartupException;
 import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
+import io.micronaut.http.server.netty.handler.accesslog.AsyncAccessLogWriter;
+import io.micronaut.http.server.netty.handler.limit.ConcurrencyLimiter;
+import io.micronaut.http.server.netty.handler.accesslog.HttpAccessLogHandler;
 import io.micronaut.http.server.netty.ssl.ServerSslBuilder;
 import io.micronaut.http.server.netty.types.NettyCustomizableResponseTypeHandlerRegistry;
 import io.micronaut.http.server.util.DefaultHttpHostResolver;
@@ -62,6 +66,7 @@ import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.unix.DomainSocketAddress;
+import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.handler.codec.http.multipart.DiskFileUpload;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GlobalEventExecutor;
@@ -69,6 +74,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.BindException;
 import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
@@ -76,6 +82,7 @@ import java.net.SocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -89,6 +96,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
@@ -122,6 +130,7 @@ public class NettyHttpServer implements NettyEmbeddedServer {
     private final ApplicationContext applicationContext;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final ChannelGroup webSocketSessions = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final WebSocketTopicRegistry webSocketTopicRegistry = new WebSocketTopicRegistry();
     private final HttpHostResolver hostResolver;
     private boolean shutdownWorker = false;
     private boolean shutdownParent = false;
@@ -133,6 +142,12 @@ public class NettyHttpServer implements NettyEmbeddedServer {
     private volatile List<Listener> activeListeners = null;
     private final List<NettyHttpServerConfiguration.NettyListenerConfiguration> listenerConfigurations;
     private final CompositeNettyServerCustomizer rootCustomizer = new CompositeNettyServerCustomizer();
+    private AsyncAccessLogWriter accessLogWriter;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private BodySpillManager bodySpillManager;
+    @Nullable
+    private final NettyResponseCache responseCache;
+    private final Supplier<ExecutorService> ioExecutor;
 
     /**
      * @param serverConfiguration                     The Netty HTTP server configuration
@@ -162,7 +177,7 @@ public class NettyHttpServer implements NettyEmbeddedServer {
         }
         ApplicationEventPublisher<HttpRequestTerminatedEvent> httpRequestTerminatedEventPublisher = nettyEmbeddedServices
                 .getEventPublisher(HttpRequestTerminatedEvent.class);
-        final Supplier<ExecutorService> ioExecutor = SupplierUtil.memoized(() ->
+        this.ioExecutor = SupplierUtil.memoized(() ->
                 nettyEmbeddedServices.getExecutorSelector()
                         .select(TaskExecutors.IO).orElse(null)
         );
@@ -170,13 +185,16 @@ public class NettyHttpServer implements NettyEmbeddedServer {
                 nettyEmbeddedServices.getApplicationContext(),
                 () -> serverConfiguration
         );
+        NettyHttpServerConfiguration.ResponseCache responseCacheConfiguration = serverConfiguration.getResponseCache();
+        this.responseCache = responseCacheConfiguration.isEnabled() ? new NettyResponseCache(responseCacheConfiguration) : null;
         this.routingHandler = new RoutingInBoundHandler(
                 serverConfiguration,
                 handlerRegistry,
                 nettyEmbeddedServices,
                 ioExecutor,
                 httpContentProcessorResolver,
-                httpRequestTerminatedEventPublisher
+                httpRequestTerminatedEventPublisher,
+                responseCache
         );
         this.hostResolver = new DefaultHttpHostResolver(serverConfiguration, () -> NettyHttpServer.this);
 
@@ -616,6 +634,10 @@ public class NettyHttpServer implements NettyEmbeddedServer {
                         .addListener(this::logShutdownErrorIfNecessary);
             }
             webSocketSessions.close();
+            closeAccessLogWriter();
+            if (responseCache != null) {
+                responseCache.invalidateAll();
+            }
             applicationContext.getEventPublisher(ServerShutdownEvent.class).publishEvent(new ServerShutdownEvent(this));
             if (serviceInstance != null) {
                 applicationContext.getEventPublisher(ServiceStoppedEvent.class)
@@ -638,11 +660,7 @@ public class NettyHttpServer implements NettyEmbeddedServer {
             ExecutorService executorService = config.getExecutorName()
                     .flatMap(name -> applicationContext.findBean(ExecutorService.class, Qualifiers.byName(name))).orElse(null);
             if (executorService != null) {
-                return nettyEmbeddedServices.createEventLoopGroup(
-                        config.getNumThreads(),
-                        executorService,
-                        config.getIoRatio().orElse(null)
-                );
+                return nettyEmbeddedServices.createEventLoopGroup(config, executorService);
             } else {
                 return nettyEmbeddedServices.createEventLoopGroup(
                         config
@@ -676,6 +694,11 @@ public class NettyHttpServer implements NettyEmbeddedServer {
         return this.webSocketSessions;
     }
 
+    @Override
+    public WebSocketTopicRegistry getTopicRegistry() {
+        return this.webSocketTopicRegistry;
+    }
+
     /**
      * @return {@link io.micronaut.http.server.netty.NettyHttpServer} which implements {@link WebSocketSessionRepository}
      */
@@ -718,6 +741,87 @@ public class NettyHttpServer implements NettyEmbeddedServer {
         }
     }
 
+    /**
+     * Returns the writer shared by all the access log handlers of this server, creating it if necessary.
+     *
+     * @param config The access logger configuration
+     * @return The writer
+     */
+    synchronized AsyncAccessLogWriter getAccessLogWriter(NettyHttpServerConfiguration.AccessLogger config) {
+        if (accessLogWriter == null) {
+            Optional<String> file = config.getFile();
+            if (file.isPresent()) {
+                try {
+                    accessLogWriter = new AsyncAccessLogWriter(Paths.get(file.get()), config.getBufferSize(), config.getOverflowPolicy());
+                } catch (IOException e) {
+                    throw new ConfigurationException("Unable to open access log file [" + file.get() + "]: " + e.getMessage(), e);
+                }
+            } else {
+                String loggerName = config.getLoggerName();
+                accessLogWriter = new AsyncAccessLogWriter(
+                        LoggerFactory.getLogger(loggerName == null || loggerName.isEmpty() ? HttpAccessLogHandler.HTTP_ACCESS_LOGGER : loggerName),
+                        config.getBufferSize(),
+                        config.getOverflowPolicy()
+                );
+            }
+        }
+        return accessLogWriter;
+    }
+
+    /**
+     * Returns the limiter shared by all the connections of this server, which exposes the current limit and the
+     * number of rejected requests.
+     *
+     * @return The concurrency limiter, if {@code micronaut.server.netty.concurrency-limit.enabled} is set
+     * @since 4.0.0
+     */
+    public synchronized Optional<ConcurrencyLimiter> getConcurrencyLimiter() {
+        NettyHttpServerConfiguration.ConcurrencyLimit config = serverConfiguration.getConcurrencyLimit();
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        if (concurrencyLimiter == null) {
+            concurrencyLimiter = new ConcurrencyLimiter(
+                    config.getAlgorithm(),
+                    config.getInitialLimit(),
+                    config.getMinLimit(),
+                    config.getMaxLimit(),
+                    config.getLatencyThreshold()
+            );
+        }
+        return Optional.of(concurrencyLimiter);
+    }
+
+    /**
+     * Returns the manager of the request bodies spilled to disk, which exposes the memory used by buffered bodies and
+     * the number of spilled bytes.
+     *
+     * @return The body spill manager, if {@code micronaut.server.netty.body-spill.enabled} is set
+     * @since 4.0.0
+     */
+    public synchronized Optional<BodySpillManager> getBodySpillManager() {
+        NettyHttpServerConfiguration.BodySpill config = serverConfiguration.getBodySpill();
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        if (bodySpillManager == null) {
+            bodySpillManager = new BodySpillManager(
+                    config.getThreshold(),
+                    config.getMaxInMemory(),
+                    config.getDirectory().map(Paths::get).orElse(null),
+                    ioExecutor.get()
+            );
+        }
+        return Optional.of(bodySpillManager);
+    }
+
+    private synchronized void closeAccessLogWriter() {
+        if (accessLogWriter != null) {
+            accessLogWriter.close();
+            accessLogWriter = null;
+        }
+    }
+
     private HttpPipelineBuilder createPipelineBuilder(NettyServerCustomizer customizer) {
         Objects.requireNonNull(customizer, "customizer");
         return new HttpPipelineBuilder(NettyHttpServer.this, nettyEmbeddedServices, sslConfiguration, routingHandler, hostResolver, customizer);
@@ -758,6 +862,24 @@ public class NettyHttpServer implements NettyEmbeddedServer {
         }
     }
 
+    static Function<String, ConcurrencyLimiter.Priority> priorityResolver(NettyHttpServerConfiguration.ConcurrencyLimit config) {
+        List<Pattern> critical = config.getCriticalPaths().stream().map(Pattern::compile).collect(Collectors.toList());
+        List<Pattern> sheddable = config.getSheddablePaths().stream().map(Pattern::compile).collect(Collectors.toList());
+        if (critical.isEmpty() && sheddable.isEmpty()) {
+            return uri -> ConcurrencyLimiter.Priority.NORMAL;
+        }
+        return uri -> {
+            // match the decoded path, so that neither the query string nor percent-encoding changes the priority
+            String path = new QueryStringDecoder(uri).path();
+            if (critical.stream().anyMatch(pattern -> pattern.matcher(path).matches())) {
+                return ConcurrencyLimiter.Priority.CRITICAL;
+            } else if (sheddable.stream().anyMatch(pattern -> pattern.matcher(path).matches())) {
+                return ConcurrencyLimiter.Priority.SHEDDABLE;
+            }
+            return ConcurrencyLimiter.Priority.NORMAL;
+        };
+    }
+
     private class Listener extends ChannelInitializer<Channel> {
         Channel serverChannel;
         NettyServerCustomizer listenerCustomizer;
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.core.annotation.AnnotationMetadata;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpHeaders;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.server.cache.CachedResponse;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
+import io.micronaut.web.router.UriRoute;
+import io.micronaut.web.router.UriRouteMatch;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the encoded bodies of responses of routes annotated with {@link CachedResponse}.
+ *
+ * <p>The bodies are copied into unpooled direct buffers so that they do not count against the heap and so that the
+ * memory is returned as soon as an entry is evicted. The cache is bounded by the total size of the bodies and evicts
+ * the least recently used entries first. Every entry has a weak {@code ETag} computed from its body, since the body is
+ * cached before the content encoding of the response is applied.</p>
+ *
+ * <p>Requests carrying credentials, an {@code Authorization} or a {@code Cookie} header, are neither answered from nor
+ * stored in the cache unless the header is listed in {@link CachedResponse#vary()}, so that the response of one user
+ * is never served to another.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+final class NettyResponseCache {
+
+    /**
+     * The request attribute holding the {@link Key} of a response that should be stored once it is encoded.
+     */
+    static final String KEY_ATTRIBUTE = "micronaut.http.server.response-cache.key";
+
+    private static final String[] DEFAULT_VARY = {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING};
+    private static final String[] STORED_HEADERS = {
+        HttpHeaders.CONTENT_TYPE,
+        HttpHeaders.CONTENT_LANGUAGE,
+        HttpHeaders.CACHE_CONTROL,
+        HttpHeaders.EXPIRES,
+        HttpHeaders.LAST_MODIFIED
+    };
+    private static final String[] CREDENTIAL_HEADERS = {HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE};
+    private static final Policy NOT_CACHED = new Policy(new String[0], new String[0], 0);
+    private static final int ETAG_BYTES = 16;
+
+    private final long maxSize;
+    private final long defaultTtlNanos;
+    private final Map<UriRoute, Policy> policies = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long size;
+
+    /**
+     * @param configuration The response cache configuration
+     */
+    NettyResponseCache(@NonNull NettyHttpServerConfiguration.ResponseCache configuration) {
+        this.maxSize = configuration.getMaxSize();
+        this.defaultTtlNanos = configuration.getDefaultTtl().toNanos();
+    }
+
+    /**
+     * Computes the cache key of a request.
+     *
+     * @param request The request
+     * @param routeMatch The matched route
+     * @return The key, or {@code null} if the response of the route or to this request is not cached
+     */
+    @Nullable
+    Key keyFor(@NonNull HttpRequest<?> request, @NonNull UriRouteMatch<?, ?> routeMatch) {
+        Policy policy = policies.computeIfAbsent(routeMatch.getRoute(), route -> policyFor(routeMatch.getAnnotationMetadata()));
+        if (policy == NOT_CACHED) {
+            return null;
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (String name : policy.unvariedCredentials) {
+            if (headers.contains(name)) {
+                return null;
+            }
+        }
+        StringBuilder key = new StringBuilder(64)
+                .append(routeMatch.getRoute().getUriMatchTemplate())
+                .append(' ')
+                .append(request.getUri());
+        for (String name : policy.vary) {
+            key.append('\n');
+            for (String value : headers.getAll(name)) {
+                key.append(value).append(',');
+            }
+        }
+        return new Key(key.toString(), policy);
+    }
+
+    /**
+     * Looks up the response for the given key. When the {@code If-None-Match} header of the request matches the
+     * {@code ETag} of the cached response a {@code 304} response is returned.
+     *
+     * @param key The key
+     * @param request The request
+     * @return The response, or {@code null} if there is no fresh entry for the key
+     */
+    @Nullable
+    MutableHttpResponse<?> lookup(@NonNull Key key, @NonNull HttpRequest<?> request) {
+        Entry entry;
+        ByteBuf body = null;
+        synchronized (this) {
+            entry = entries.get(key.value);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                remove(key.value);
+                entry = null;
+            }
+            if (entry != null && !matches(request.getHeaders().getAll(HttpHeaders.IF_NONE_MATCH), entry.etag)) {
+                // retain while holding the lock so that the entry cannot be evicted and released in between
+                body = entry.content.retainedDuplicate();
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        MutableHttpResponse<?> response = body == null ? HttpResponse.notModified() : HttpResponse.ok(body);
+        MutableHttpHeaders headers = response.getHeaders();
+        if (body != null) {
+            for (Map.Entry<String, String> header : entry.headers) {
+                headers.add(header.getKey(), header.getValue());
+            }
+        }
+        headers.set(HttpHeaders.ETAG, entry.etag);
+        setVary(headers, key.policy);
+        return response;
+    }
+
+    /**
+     * Stores the encoded body of a response, if it is cacheable, and sets its {@code ETag}.
+     *
+     * @param key The key
+     * @param response The response
+     * @param body The encoded body
+     */
+    void store(@NonNull Key key, @NonNull MutableHttpResponse<?> response, @NonNull ByteBuf body) {
+        MutableHttpHeaders headers = response.getHeaders();
+        setVary(headers, key.policy);
+        if (headers.contains(HttpHeaders.SET_COOKIE) || headers.contains(HttpHeaders.ETAG) || isPrivate(headers)) {
+            return;
+        }
+        int length = body.readableBytes();
+        if (length > maxSize) {
+            return;
+        }
+        ByteBuf content = Unpooled.directBuffer(length, length);
+        content.writeBytes(body, body.readerIndex(), length);
+        List<Map.Entry<String, String>> storedHeaders = new ArrayList<>(STORED_HEADERS.length);
+        for (String name : STORED_HEADERS) {
+            for (String value : headers.getAll(name)) {
+                storedHeaders.add(new AbstractMap.SimpleImmutableEntry<>(name, value));
+            }
+        }
+        Entry entry = new Entry(content, etag(content), storedHeaders, System.nanoTime() + key.policy.ttlNanos);
+        headers.set(HttpHeaders.ETAG, entry.etag);
+        synchronized (this) {
+            remove(key.value);
+            entries.put(key.value, entry);
+            size += length;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (size > maxSize && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                size -= evicted.content.readableBytes();
+                evicted.content.release();
+            }
+        }
+    }
+
+    /**
+     * Removes all entries and releases their bodies.
+     */
+    synchronized void invalidateAll() {
+        for (Entry entry : entries.values()) {
+            entry.content.release();
+        }
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * @return The total size in bytes of the cached bodies
+     */
+    synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * @return The number of requests that were answered from the cache
+     */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups that did not find a fresh entry
+     */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    private Policy policyFor(AnnotationMetadata annotationMetadata) {
+        if (!annotationMetadata.hasAnnotation(CachedResponse.class)) {
+            return NOT_CACHED;
+        }
+        String[] vary = annotationMetadata.isPresent(CachedResponse.class, "vary") ?
+                annotationMetadata.stringValues(CachedResponse.class, "vary") : DEFAULT_VARY;
+        long ttlNanos = annotationMetadata.stringValue(CachedResponse.class, "ttl")
+                .flatMap(ttl -> ConversionService.SHARED.convert(ttl, Duration.class))
+                .map(Duration::toNanos)
+                .orElse(defaultTtlNanos);
+        List<String> unvariedCredentials = new ArrayList<>(CREDENTIAL_HEADERS.length);
+        for (String credential : CREDENTIAL_HEADERS) {
+            boolean varied = false;
+            for (String name : vary) {
+                if (name.equalsIgnoreCase(credential)) {
+                    varied = true;
+                    break;
+                }
+            }
+            if (!varied) {
+                unvariedCredentials.add(credential);
+            }
+        }
+        return new Policy(vary, unvariedCredentials.toArray(new String[0]), ttlNanos);
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            size -= entry.content.readableBytes();
+            entry.content.release();
+        }
+    }
+
+    private static void setVary(MutableHttpHeaders headers, Policy policy) {
+        if (policy.vary.length > 0 && !headers.contains(HttpHeaders.VARY)) {
+            headers.set(HttpHeaders.VARY, String.join(", ", policy.vary));
+        }
+    }
+
+    private static boolean isPrivate(HttpHeaders headers) {
+        Optional<String> cacheControl = headers.findFirst(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl.isPresent()) {
+            String value = cacheControl.get().toLowerCase(Locale.ENGLISH);
+            return value.contains("no-store") || value.contains("private");
+        }
+        return false;
+    }
+
+    /**
+     * Compares the entity tags of {@code If-None-Match} headers with the tag of a cached response, using the weak
+     * comparison RFC 7232 requires for this header.
+     */
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaqueTag = opaqueTag(etag);
+        for (String header : ifNoneMatch) {
+            for (String tag : header.split(",")) {
+                tag = opaqueTag(tag.trim());
+                if (tag.equals("*") || tag.equals(opaqueTag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String etag(ByteBuf content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        digest.update(content.nioBuffer());
+        byte[] hash = digest.digest();
+        byte[] prefix = new byte[ETAG_BYTES];
+        System.arraycopy(hash, 0, prefix, 0, ETAG_BYTES);
+        return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(prefix) + '"';
+    }
+
+    /**
+     * The cache key of a request together with the caching policy of its route.
+     */
+    static final class Key {
+        final String value;
+        final Policy policy;
+
+        Key(String value, Policy policy) {
+            this.value = value;
+            this.policy = policy;
+        }
+    }
+
+    /**
+     * How the responses of a route are cached.
+     */
+    private static final class Policy {
+        final String[] vary;
+        final String[] unvariedCredentials;
+        final long ttlNanos;
+
+        Policy(String[] vary, String[] unvariedCredentials, long ttlNanos) {
+            this.vary = vary;
+            this.unvariedCredentials = unvariedCredentials;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+
+    /**
+     * A cached response.
+     */
+    private static final class Entry {
+        final ByteBuf content;
+        final String etag;
+        final List<Map.Entry<String, String>> headers;
+        final long expiresAt;
+
+        Entry(ByteBuf content, String etag, List<Map.Entry<String, String>> headers, long expiresAt) {
+            this.content = content;
+            this.etag = etag;
+            this.headers = headers;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
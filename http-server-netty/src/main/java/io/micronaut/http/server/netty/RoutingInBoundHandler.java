@@ -47,6 +47,7 @@ import io.micronaut.http.multipart.PartData;
 import io.micronaut.http.multipart.StreamingFileUpload;
 import io.micronaut.http.netty.NettyHttpResponseBuilder;
 import io.micronaut.http.netty.NettyMutableHttpResponse;
+import io.micronaut.http.netty.content.HttpContentUtil;
 import io.micronaut.http.netty.stream.JsonSubscriber;
 import io.micronaut.http.netty.stream.StreamedHttpRequest;
 import io.micronaut.http.server.RouteExecutor;
@@ -62,7 +63,9 @@ import io.micronaut.http.server.netty.types.NettyCustomizableResponseTypeHandler
 import io.micronaut.http.server.netty.types.NettyCustomizableResponseTypeHandlerRegistry;
 import io.micronaut.http.server.netty.types.files.NettyStreamedFileCustomizableResponseType;
 import io.micronaut.http.server.netty.types.files.NettySystemFileCustomizableResponseType;
+import io.micronaut.http.server.netty.types.files.PrecompressedFileResolver;
 import io.micronaut.http.server.types.files.FileCustomizableResponseType;
+import io.micronaut.json.codec.MapperMediaTypeCodec;
 import io.micronaut.runtime.http.codec.TextPlainCodec;
 import io.micronaut.web.router.MethodBasedRouteMatch;
 import io.micronaut.web.router.RouteInfo;
@@ -168,6 +171,10 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
     private ExecutorService ioExecutor;
     private final ApplicationEventPublisher<HttpRequestTerminatedEvent> terminateEventPublisher;
     private final RouteExecutor routeExecutor;
+    @Nullable
+    private final NettyResponseCache responseCache;
+    @Nullable
+    private final PrecompressedFileResolver precompressedFileResolver;
 
     /**
      * @param customizableResponseTypeHandlerRegistry The customizable response type handler registry
@@ -176,6 +183,7 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
      * @param ioExecutor                              The IO executor
      * @param httpContentProcessorResolver            The http content processor resolver
      * @param terminateEventPublisher                 The terminate event publisher
+     * @param responseCache                           The response cache, if enabled
      */
     RoutingInBoundHandler(
             NettyHttpServerConfiguration serverConfiguration,
@@ -183,7 +191,8 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
             NettyEmbeddedServices embeddedServerContext,
             Supplier<ExecutorService> ioExecutor,
             HttpContentProcessorResolver httpContentProcessorResolver,
-            ApplicationEventPublisher<HttpRequestTerminatedEvent> terminateEventPublisher) {
+            ApplicationEventPublisher<HttpRequestTerminatedEvent> terminateEventPublisher,
+            @Nullable NettyResponseCache responseCache) {
         this.mediaTypeCodecRegistry = embeddedServerContext.getMediaTypeCodecRegistry();
         this.customizableResponseTypeHandlerRegistry = customizableResponseTypeHandlerRegistry;
         this.staticResourceResolver = embeddedServerContext.getStaticResourceResolver();
@@ -197,6 +206,10 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
         Optional<Boolean> multipartEnabled = serverConfiguration.getMultipart().getEnabled();
         this.multipartEnabled = !multipartEnabled.isPresent() || multipartEnabled.get();
         this.routeExecutor = embeddedServerContext.getRouteExecutor();
+        this.responseCache = responseCache;
+        NettyHttpServerConfiguration.FileTypeHandlerConfiguration.PrecompressedConfiguration precompressed =
+                serverConfiguration.getFileTypeHandlerConfiguration().getPrecompressed();
+        this.precompressedFileResolver = precompressed.isEnabled() ? new PrecompressedFileResolver(precompressed) : null;
     }
 
     @Override
@@ -355,10 +368,10 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
         if (routeMatch == null) {
 
             //Check if there is a file for the route before returning route not found
-            Optional<? extends FileCustomizableResponseType> optionalFile = matchFile(requestPath);
+            Optional<MutableHttpResponse<?>> optionalFile = matchFile(request, requestPath);
 
             if (optionalFile.isPresent()) {
-                filterAndEncodeResponse(ctx, nettyHttpRequest, Flux.just(HttpResponse.ok(optionalFile.get())));
+                filterAndEncodeResponse(ctx, nettyHttpRequest, Flux.just(optionalFile.get()));
                 return;
             }
 
@@ -542,28 +555,44 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
                 });
     }
 
-    private Optional<? extends FileCustomizableResponseType> matchFile(String path) {
+    private Optional<MutableHttpResponse<?>> matchFile(HttpRequest<?> request, String path) {
         Optional<URL> optionalUrl = staticResourceResolver.resolve(path);
 
         if (optionalUrl.isPresent()) {
-            try {
-                URL url = optionalUrl.get();
-                if (url.getProtocol().equals("file")) {
-                    File file = Paths.get(url.toURI()).toFile();
-                    if (file.exists() && !file.isDirectory() && file.canRead()) {
-                        return Optional.of(new NettySystemFileCustomizableResponseType(file));
-                    }
+            URL url = optionalUrl.get();
+            if (precompressedFileResolver != null) {
+                PrecompressedFileResolver.Variant variant = precompressedFileResolver.resolve(url, request);
+                Optional<FileCustomizableResponseType> variantFile = variant != null ? toFileType(variant.getUrl()) : Optional.empty();
+                if (variantFile.isPresent()) {
+                    return Optional.of(HttpResponse.ok(variantFile.get())
+                            .contentType(MediaType.forFilename(url.getPath()))
+                            .header(HttpHeaders.CONTENT_ENCODING, variant.getEncoding())
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
                 }
-
-                return Optional.of(new NettyStreamedFileCustomizableResponseType(url));
-            } catch (URISyntaxException e) {
-                //no-op
+                return toFileType(url).<MutableHttpResponse<?>>map(file -> HttpResponse.ok(file).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
             }
+            return toFileType(url).<MutableHttpResponse<?>>map(HttpResponse::ok);
         }
 
         return Optional.empty();
     }
 
+    private Optional<FileCustomizableResponseType> toFileType(URL url) {
+        try {
+            if (url.getProtocol().equals("file")) {
+                File file = Paths.get(url.toURI()).toFile();
+                if (file.exists() && !file.isDirectory() && file.canRead()) {
+                    return Optional.of(new NettySystemFileCustomizableResponseType(file));
+                }
+            }
+
+            return Optional.of(new NettyStreamedFileCustomizableResponseType(url));
+        } catch (URISyntaxException e) {
+            //no-op
+        }
+        return Optional.empty();
+    }
+
     private void handleRouteMatch(
             RouteMatch<?> originalRoute,
             NettyHttpRequest<?> request,
@@ -590,11 +619,27 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
             routeMatchPublisher = Flux.just(route);
         }
 
-        final Flux<MutableHttpResponse<?>> routeResponse = routeExecutor.executeRoute(
-                request,
-                true,
-                routeMatchPublisher
-        );
+        final Flux<MutableHttpResponse<?>> routeResponse;
+        NettyResponseCache.Key cacheKey = responseCache != null && request.getMethod() == HttpMethod.GET && originalRoute instanceof UriRouteMatch ?
+                responseCache.keyFor(request, (UriRouteMatch<?, ?>) originalRoute) : null;
+        if (cacheKey != null) {
+            // look up the cache after the filters so that they also apply to cached responses
+            AtomicReference<HttpRequest<?>> requestReference = new AtomicReference<>(request);
+            routeResponse = Flux.from(routeExecutor.filterPublisher(requestReference, Flux.defer(() -> {
+                MutableHttpResponse<?> cachedResponse = responseCache.lookup(cacheKey, requestReference.get());
+                if (cachedResponse != null) {
+                    return Flux.just(cachedResponse);
+                }
+                request.setAttribute(NettyResponseCache.KEY_ATTRIBUTE, cacheKey);
+                return routeExecutor.executeRoute(requestReference.get(), false, routeMatchPublisher);
+            })));
+        } else {
+            routeResponse = routeExecutor.executeRoute(
+                    request,
+                    true,
+                    routeMatchPublisher
+            );
+        }
         routeResponse
                 .contextWrite(ctx -> ctx.put(ServerRequestContext.KEY, request))
                 .subscribe(new CompletionAwareSubscriber<HttpResponse<?>>() {
@@ -913,7 +958,13 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
                         // subjects will ignore the onComplete if they're already done
                         subject.tryEmitComplete();
                     }
-                    executeRoute();
+                    request.contentStored().whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            emitter.error(error);
+                        } else {
+                            executeRoute();
+                        }
+                    });
                 }
 
                 private Sinks.Many<Object> makeDownstreamUnicastProcessor() {
@@ -943,8 +994,14 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
                 @Override
                 protected void doOnNext(Object message) {
                     if (message instanceof ByteBufHolder) {
-                        request.addContent((ByteBufHolder) message);
-                        s.request(1);
+                        // request the next chunk once this one is stored, spilled bodies are written off the event loop
+                        request.addContentAsync((ByteBufHolder) message).whenComplete((ignored, error) -> {
+                            if (error != null) {
+                                onError(error);
+                            } else {
+                                s.request(1);
+                            }
+                        });
                     } else {
                         ((NettyHttpRequest) request).setBody(message);
                         s.request(1);
@@ -960,9 +1017,13 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
 
                 @Override
                 protected void doOnComplete() {
-                    if (executed.compareAndSet(false, true)) {
-                        emitter.success(routeMatch);
-                    }
+                    request.contentStored().whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            emitter.error(error);
+                        } else if (executed.compareAndSet(false, true)) {
+                            emitter.success(routeMatch);
+                        }
+                    });
                 }
             };
         }
@@ -1067,53 +1128,82 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
 
         Flux<Object> bodyPublisher = Flux.from(Publishers.convertPublisher(body, Publisher.class));
 
-        MediaType finalMediaType = mediaType;
-        Flux<HttpContent> httpContentPublisher = bodyPublisher.map(message -> {
-            HttpContent httpContent;
-            if (message instanceof ByteBuf) {
-                httpContent = new DefaultHttpContent((ByteBuf) message);
-            } else if (message instanceof ByteBuffer) {
-                ByteBuffer<?> byteBuffer = (ByteBuffer<?>) message;
-                Object nativeBuffer = byteBuffer.asNativeBuffer();
-                if (nativeBuffer instanceof ByteBuf) {
-                    httpContent = new DefaultHttpContent((ByteBuf) nativeBuffer);
-                } else {
-                    httpContent = new DefaultHttpContent(Unpooled.copiedBuffer(byteBuffer.asNioBuffer()));
-                }
-            } else if (message instanceof byte[]) {
-                httpContent = new DefaultHttpContent(Unpooled.copiedBuffer((byte[]) message));
-            } else if (message instanceof HttpContent) {
-                httpContent = (HttpContent) message;
+        Flux<HttpContent> httpContentPublisher;
+        MapperMediaTypeCodec jsonStreamCodec = findJsonStreamCodec(mediaType, isJson, hasRouteInfo ? routeInfo.getBodyType() : null);
+        if (jsonStreamCodec != null) {
+            // serialize the elements directly into coalesced chunks, delimited as the per-element path below does
+            NettyHttpServerConfiguration.JsonStreaming jsonStreaming = serverConfiguration.getJsonStreaming();
+            JsonStreamWriter.Format format;
+            if (isJson) {
+                format = JsonStreamWriter.Format.ARRAY;
+            } else if (MediaType.APPLICATION_NDJSON_TYPE.equals(mediaType)) {
+                format = JsonStreamWriter.Format.NEW_LINE_DELIMITED;
             } else {
+                format = JsonStreamWriter.Format.CONCATENATED;
+            }
+            httpContentPublisher = JsonStreamWriter.lift(
+                    bodyPublisher,
+                    jsonStreamCodec.getJsonMapper(),
+                    routeInfo.getBodyType(),
+                    format,
+                    context.alloc(),
+                    context.executor(),
+                    jsonStreaming.getMaxChunkSize(),
+                    jsonStreaming.getMaxDelay().toNanos(),
+                    jsonStreaming.getPrefetch()
+            );
+        } else {
+            MediaType finalMediaType = mediaType;
+            httpContentPublisher = bodyPublisher.map(message -> {
+                HttpContent httpContent;
+                if (message instanceof ByteBuf) {
+                    httpContent = new DefaultHttpContent((ByteBuf) message);
+                } else if (message instanceof ByteBuffer) {
+                    ByteBuffer<?> byteBuffer = (ByteBuffer<?>) message;
+                    Object nativeBuffer = byteBuffer.asNativeBuffer();
+                    if (nativeBuffer instanceof ByteBuf) {
+                        httpContent = new DefaultHttpContent((ByteBuf) nativeBuffer);
+                    } else {
+                        httpContent = new DefaultHttpContent(Unpooled.copiedBuffer(byteBuffer.asNioBuffer()));
+                    }
+                } else if (message instanceof byte[]) {
+                    httpContent = new DefaultHttpContent(Unpooled.copiedBuffer((byte[]) message));
+                } else if (message instanceof HttpContent) {
+                    httpContent = (HttpContent) message;
+                } else {
 
-                MediaTypeCodec codec = mediaTypeCodecRegistry.findCodec(finalMediaType, message.getClass()).orElse(
-                        new TextPlainCodec(serverConfiguration.getDefaultCharset()));
+                    MediaTypeCodec codec = mediaTypeCodecRegistry.findCodec(finalMediaType, message.getClass()).orElse(
+                            new TextPlainCodec(serverConfiguration.getDefaultCharset()));
 
-                if (LOG.isTraceEnabled()) {
-                    LOG.trace("Encoding emitted response object [{}] using codec: {}", message, codec);
-                }
-                ByteBuffer<ByteBuf> encoded;
-                if (hasRouteInfo) {
-                    //noinspection unchecked
-                    final Argument<Object> bodyType = (Argument<Object>) routeInfo.getBodyType();
-                    if (bodyType.isInstance(message)) {
-                        encoded = codec.encode(bodyType, message, byteBufferFactory);
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("Encoding emitted response object [{}] using codec: {}", message, codec);
+                    }
+                    ByteBuffer<ByteBuf> encoded;
+                    if (hasRouteInfo) {
+                        //noinspection unchecked
+                        final Argument<Object> bodyType = (Argument<Object>) routeInfo.getBodyType();
+                        if (bodyType.isInstance(message)) {
+                            encoded = codec.encode(bodyType, message, byteBufferFactory);
+                        } else {
+                            encoded = codec.encode(message, byteBufferFactory);
+                        }
                     } else {
                         encoded = codec.encode(message, byteBufferFactory);
                     }
-                } else {
-                    encoded = codec.encode(message, byteBufferFactory);
+                    httpContent = new DefaultHttpContent(encoded.asNativeBuffer());
                 }
-                httpContent = new DefaultHttpContent(encoded.asNativeBuffer());
-            }
-            return httpContent;
-        });
+                return httpContent;
+            });
 
-        if (isJson) {
-            // if the Publisher is returning JSON then in order for it to be valid JSON for each emitted element
-            // we must wrap the JSON in array and delimit the emitted items
+            if (isJson) {
+                // if the Publisher is returning JSON then in order for it to be valid JSON for each emitted element
+                // we must wrap the JSON in array and delimit the emitted items
 
-            httpContentPublisher = JsonSubscriber.lift(httpContentPublisher);
+                httpContentPublisher = JsonSubscriber.lift(httpContentPublisher);
+            } else if (MediaType.APPLICATION_NDJSON_TYPE.equals(mediaType) && isJsonFormattable(hasRouteInfo ? routeInfo.getBodyType() : null)) {
+                // newline delimited JSON requires each emitted element to be followed by a new line
+                httpContentPublisher = httpContentPublisher.map(HttpContentUtil::suffixNewLine);
+            }
         }
 
         httpContentPublisher = httpContentPublisher
@@ -1126,6 +1216,28 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
         return httpContentPublisher;
     }
 
+    @Nullable
+    private MapperMediaTypeCodec findJsonStreamCodec(@Nullable MediaType mediaType, boolean isJson, @Nullable Argument<?> elementType) {
+        if (!serverConfiguration.getJsonStreaming().isEnabled() || mediaType == null || elementType == null) {
+            return null;
+        }
+        if (!isJson && !mediaType.equals(MediaType.APPLICATION_JSON_STREAM_TYPE) && !mediaType.equals(MediaType.APPLICATION_NDJSON_TYPE)) {
+            return null;
+        }
+        Class<?> javaType = elementType.getType();
+        // elements of these types are written as they are or are not known until they are emitted
+        if (javaType == Object.class
+                || javaType == byte[].class
+                || CharSequence.class.isAssignableFrom(javaType)
+                || ByteBuffer.class.isAssignableFrom(javaType)
+                || ByteBuf.class.isAssignableFrom(javaType)
+                || ByteBufHolder.class.isAssignableFrom(javaType)) {
+            return null;
+        }
+        MediaTypeCodec codec = mediaTypeCodecRegistry.findCodec(mediaType, javaType).orElse(null);
+        return codec instanceof MapperMediaTypeCodec ? (MapperMediaTypeCodec) codec : null;
+    }
+
     private boolean isJsonFormattable(Argument<?> argument) {
         if (argument == null) {
             return false;
@@ -1244,6 +1356,12 @@ class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.micronaut.htt
             message.body(null);
             handler.invoke(request, message, context).addListener(requestCompletor);
         } else {
+            if (body instanceof ByteBuf && httpStatus == HttpStatus.OK) {
+                Object cacheKey = request.getAttributes().getValue(NettyResponseCache.KEY_ATTRIBUTE);
+                if (cacheKey instanceof NettyResponseCache.Key && responseCache != null) {
+                    responseCache.store((NettyResponseCache.Key) cacheKey, message, (ByteBuf) body);
+                }
+            }
             io.netty.handler.codec.http.HttpResponse nettyResponse = NettyHttpResponseBuilder.toHttpResponse(message);
             io.netty.handler.codec.http.HttpHeaders nettyHeaders = nettyResponse.headers();
 
@@ -16,16 +16,22 @@
 package io.micronaut.http.server.netty;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * An extension of {@link HttpContentCompressor} that skips encoding if the content type is not compressible or if
- * the content is too small.
+ * the content is too small. The encoding is negotiated from the {@code Accept-Encoding} header of the request, using
+ * the first {@link HttpCompressionStrategy#getEncodings() encoding of the strategy} the client accepts.
  *
  * @author James Kleeh
  * @since 1.0
@@ -35,6 +41,7 @@ public class SmartHttpContentCompressor extends HttpContentCompressor {
 
     private final HttpCompressionStrategy httpCompressionStrategy;
     private boolean skipEncoding = false;
+    private ChannelHandlerContext ctx;
 
     /**
      * Creates a SmartHttpContentCompressor with the given compression logic.
@@ -56,6 +63,12 @@ public class SmartHttpContentCompressor extends HttpContentCompressor {
         return !httpCompressionStrategy.shouldCompress(response);
     }
 
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+        super.handlerAdded(ctx);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception {
         if (msg instanceof HttpResponse) {
@@ -67,9 +80,73 @@ public class SmartHttpContentCompressor extends HttpContentCompressor {
 
     @Override
     protected Result beginEncode(HttpResponse headers, String acceptEncoding) throws Exception {
-        if (skipEncoding) {
+        if (skipEncoding || headers.headers().contains(HttpHeaderNames.CONTENT_ENCODING)) {
+            return null;
+        }
+        CompressionEncoding encoding = selectEncoding(httpCompressionStrategy.getEncodings(), acceptEncoding);
+        if (encoding == null) {
+            return null;
+        }
+        int level = httpCompressionStrategy.getCompressionLevel(headers, encoding);
+        Channel channel = ctx.channel();
+        return new Result(encoding.getName(), new EmbeddedChannel(
+                channel.id(), channel.metadata().hasDisconnect(), channel.config(), encoding.newEncoder(level)));
+    }
+
+    /**
+     * Selects the first of the given encodings that is accepted by the client.
+     *
+     * @param encodings The encodings in order of preference of the server
+     * @param acceptEncoding The value of the {@code Accept-Encoding} header
+     * @return The encoding or {@code null} if the client accepts none of them
+     */
+    @Nullable
+    static CompressionEncoding selectEncoding(List<CompressionEncoding> encodings, @Nullable String acceptEncoding) {
+        if (acceptEncoding == null || encodings.isEmpty()) {
             return null;
         }
-        return super.beginEncode(headers, acceptEncoding);
+        float wildcard = -1;
+        float[] qualities = new float[encodings.size()];
+        Arrays.fill(qualities, -1);
+        int start = 0;
+        int length = acceptEncoding.length();
+        while (start < length) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end == -1) {
+                end = length;
+            }
+            String coding = acceptEncoding.substring(start, end);
+            start = end + 1;
+            float q = 1.0f;
+            int semicolon = coding.indexOf(';');
+            if (semicolon != -1) {
+                int equals = coding.indexOf('=', semicolon);
+                if (equals != -1) {
+                    try {
+                        q = Float.parseFloat(coding.substring(equals + 1).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0.0f;
+                    }
+                }
+                coding = coding.substring(0, semicolon);
+            }
+            coding = coding.trim();
+            if (coding.equals("*")) {
+                wildcard = q;
+                continue;
+            }
+            for (int i = 0; i < qualities.length; i++) {
+                if (encodings.get(i).getName().equalsIgnoreCase(coding)) {
+                    qualities[i] = q;
+                }
+            }
+        }
+        for (int i = 0; i < qualities.length; i++) {
+            float q = qualities[i] == -1 ? wildcard : qualities[i];
+            if (q > 0) {
+                return encodings.get(i);
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A request body written to a temporary file. Once complete the body is read through a memory mapped view, so
+ * binding it works as for a body buffered in memory.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+final class SpilledBody {
+
+    /**
+     * The maximum size of a spilled body, which has to fit into a single {@link ByteBuf} once it is mapped.
+     */
+    static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpilledBody.class);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final LongAdder spilledBytes;
+    private long size;
+
+    /**
+     * @param file         The temporary file
+     * @param spilledBytes The counter of the bytes written to temporary files
+     * @throws IOException If the file cannot be opened
+     */
+    SpilledBody(Path file, LongAdder spilledBytes) throws IOException {
+        this.file = file;
+        this.spilledBytes = spilledBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends the readable bytes of the buffer to the file, without changing the reader index of the buffer.
+     *
+     * @param content The content
+     * @throws IOException If the content cannot be written
+     */
+    void write(ByteBuf content) throws IOException {
+        int index = content.readerIndex();
+        int remaining = content.readableBytes();
+        while (remaining > 0) {
+            int written = content.getBytes(index, channel, size, remaining);
+            index += written;
+            remaining -= written;
+            size += written;
+            spilledBytes.add(written);
+        }
+    }
+
+    /**
+     * @return A read only view of the whole body
+     * @throws IOException If the file cannot be mapped or is larger than {@link #MAX_SIZE}
+     */
+    ByteBuf map() throws IOException {
+        if (size > MAX_SIZE) {
+            // the request rejects larger bodies while they are received, see NettyHttpRequest
+            throw new IOException("A request body of " + size + " bytes cannot be mapped into a single buffer");
+        }
+        return Unpooled.wrappedBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+
+    /**
+     * @return The number of bytes written
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Closes and deletes the file. Mappings are not unmapped explicitly because views of the body may still be
+     * reachable, they are released by the garbage collector.
+     */
+    void delete() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Unable to delete temporary request body file [" + file + "]: " + e.getMessage(), e);
+            }
+            file.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Locale;
+
+/**
+ * The content encodings supported out of the box. Brotli and Zstandard are only available when their native libraries,
+ * {@code com.aayushatharva.brotli4j:brotli4j} and {@code com.github.luben:zstd-jni}, are on the classpath.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+public enum StandardCompressionEncoding implements CompressionEncoding {
+
+    /**
+     * Brotli, with qualities from 0 to 11.
+     */
+    BROTLI("br", 4) {
+        @Override
+        public boolean isAvailable() {
+            return OptionalCodecs.BROTLI_ENCODER != null;
+        }
+
+        @Override
+        public ChannelHandler newEncoder(int level) {
+            return OptionalCodecs.newBrotliEncoder(level);
+        }
+    },
+
+    /**
+     * Zstandard, with levels from 1 to 22.
+     */
+    ZSTD("zstd", 3) {
+        @Override
+        public boolean isAvailable() {
+            return OptionalCodecs.ZSTD_ENCODER != null;
+        }
+
+        @Override
+        public ChannelHandler newEncoder(int level) {
+            return OptionalCodecs.newZstdEncoder(level);
+        }
+    },
+
+    /**
+     * Gzip, with levels from 0 to 9.
+     */
+    GZIP("gzip", 6) {
+        @Override
+        public ChannelHandler newEncoder(int level) {
+            return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.GZIP, level, WINDOW_BITS, MEM_LEVEL);
+        }
+    },
+
+    /**
+     * Deflate, with levels from 0 to 9.
+     */
+    DEFLATE("deflate", 6) {
+        @Override
+        public ChannelHandler newEncoder(int level) {
+            return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.ZLIB, level, WINDOW_BITS, MEM_LEVEL);
+        }
+    };
+
+    private static final int WINDOW_BITS = 15;
+    private static final int MEM_LEVEL = 8;
+
+    private final String name;
+    private final int defaultLevel;
+
+    StandardCompressionEncoding(String name, int defaultLevel) {
+        this.name = name;
+        this.defaultLevel = defaultLevel;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getDefaultLevel() {
+        return defaultLevel;
+    }
+
+    /**
+     * @param name The name of an encoding
+     * @return The standard encoding with the given name, if any
+     */
+    @Nullable
+    public static StandardCompressionEncoding of(@NonNull String name) {
+        String normalized = name.trim().toLowerCase(Locale.ENGLISH);
+        for (StandardCompressionEncoding encoding : values()) {
+            if (encoding.name.equals(normalized)) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reflective access to the Brotli and Zstandard encoders of Netty, which need optional native libraries.
+     */
+    private static final class OptionalCodecs {
+        static final Constructor<?> BROTLI_ENCODER;
+        static final Constructor<?> BROTLI_PARAMETERS;
+        static final Method BROTLI_SET_QUALITY;
+        static final Constructor<?> ZSTD_ENCODER;
+
+        static {
+            Constructor<?> brotliEncoder = null;
+            Constructor<?> brotliParameters = null;
+            Method brotliSetQuality = null;
+            try {
+                Class<?> brotli = Class.forName("io.netty.handler.codec.compression.Brotli");
+                if ((Boolean) brotli.getMethod("isAvailable").invoke(null)) {
+                    Class<?> parametersType = Class.forName("com.aayushatharva.brotli4j.encoder.Encoder$Parameters");
+                    brotliParameters = parametersType.getConstructor();
+                    brotliSetQuality = parametersType.getMethod("setQuality", int.class);
+                    brotliEncoder = Class.forName("io.netty.handler.codec.compression.BrotliEncoder").getConstructor(parametersType);
+                }
+            } catch (Throwable e) {
+                brotliEncoder = null;
+            }
+            BROTLI_ENCODER = brotliEncoder;
+            BROTLI_PARAMETERS = brotliParameters;
+            BROTLI_SET_QUALITY = brotliSetQuality;
+
+            Constructor<?> zstdEncoder = null;
+            try {
+                Class<?> zstd = Class.forName("io.netty.handler.codec.compression.Zstd");
+                if ((Boolean) zstd.getMethod("isAvailable").invoke(null)) {
+                    zstdEncoder = Class.forName("io.netty.handler.codec.compression.ZstdEncoder").getConstructor(int.class);
+                }
+            } catch (Throwable e) {
+                zstdEncoder = null;
+            }
+            ZSTD_ENCODER = zstdEncoder;
+        }
+
+        private OptionalCodecs() {
+        }
+
+        static ChannelHandler newBrotliEncoder(int quality) {
+            if (BROTLI_ENCODER == null) {
+                throw new UnsupportedOperationException("Brotli is not available, add brotli4j and its native library to the classpath");
+            }
+            try {
+                Object parameters = BROTLI_PARAMETERS.newInstance();
+                BROTLI_SET_QUALITY.invoke(parameters, quality);
+                return (ChannelHandler) BROTLI_ENCODER.newInstance(parameters);
+            } catch (ReflectiveOperationException e) {
+                throw new UnsupportedOperationException("Brotli is not available: " + e.getMessage(), e);
+            }
+        }
+
+        static ChannelHandler newZstdEncoder(int level) {
+            if (ZSTD_ENCODER == null) {
+                throw new UnsupportedOperationException("Zstandard is not available, add zstd-jni to the classpath");
+            }
+            try {
+                return (ChannelHandler) ZSTD_ENCODER.newInstance(level);
+            } catch (ReflectiveOperationException e) {
+                throw new UnsupportedOperationException("Zstandard is not available: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -94,14 +94,20 @@ public class CompletableFutureBodyBinder extends DefaultBodyAnnotationBinder<Com
                     @Override
                     protected void doOnNext(Object message) {
                         if (message instanceof ByteBufHolder) {
-                            nettyHttpRequest.addContent((ByteBufHolder) message);
+                            nettyHttpRequest.addContentAsync((ByteBufHolder) message).whenComplete((ignored, error) -> {
+                                if (error != null) {
+                                    onError((Throwable) error);
+                                } else {
+                                    subscription.request(1);
+                                }
+                            });
                         } else {
                             nettyHttpRequest.setBody(message);
+                            subscription.request(1);
                         }
                         // upstream producer gave us control of the message. release it now, if we still need it,
                         // nettyHttpRequest will have retained it
                         ReferenceCountUtil.release(message);
-                        subscription.request(1);
                     }
 
                     @Override
@@ -111,6 +117,16 @@ public class CompletableFutureBodyBinder extends DefaultBodyAnnotationBinder<Com
 
                     @Override
                     protected void doOnComplete() {
+                        nettyHttpRequest.contentStored().whenComplete((ignored, error) -> {
+                            if (error != null) {
+                                future.completeExceptionally((Throwable) error);
+                            } else {
+                                completeWithBody();
+                            }
+                        });
+                    }
+
+                    private void completeWithBody() {
                         Optional<Argument<?>> firstTypeParameter = context.getFirstTypeVariable();
                         if (firstTypeParameter.isPresent()) {
                             Argument<?> arg = firstTypeParameter.get();
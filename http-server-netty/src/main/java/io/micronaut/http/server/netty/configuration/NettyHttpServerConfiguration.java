@@ -27,7 +27,11 @@ import io.micronaut.core.convert.format.ReadableBytes;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.netty.channel.ChannelPipelineListener;
 import io.micronaut.http.netty.channel.EventLoopGroupConfiguration;
+import io.micronaut.http.netty.channel.NativeTransport;
+import io.micronaut.http.netty.websocket.WebSocketOutboundHandler;
 import io.micronaut.http.server.HttpServerConfiguration;
+import io.micronaut.http.server.netty.handler.accesslog.AsyncAccessLogWriter;
+import io.micronaut.http.server.netty.handler.limit.ConcurrencyLimiter;
 import io.micronaut.runtime.ApplicationConfiguration;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.logging.LogLevel;
@@ -37,6 +41,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -136,6 +141,12 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
     private String fallbackProtocol = ApplicationProtocolNames.HTTP_1_1;
     private AccessLogger accessLogger;
     private Http2Settings http2Settings = new Http2Settings();
+    private ResponseCache responseCache = new ResponseCache();
+    private Compression compression = new Compression();
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    private BodySpill bodySpill = new BodySpill();
+    private WebSocketOutbound webSocketOutbound = new WebSocketOutbound();
+    private JsonStreaming jsonStreaming = new JsonStreaming();
     private boolean keepAliveOnServerError = DEFAULT_KEEP_ALIVE_ON_SERVER_ERROR;
     private String pcapLoggingPathPattern = null;
     private List<NettyListenerConfiguration> listeners = null;
@@ -200,6 +211,126 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
         }
     }
 
+    /**
+     * Returns the compression configuration.
+     * @return The compression configuration.
+     * @since 4.0.0
+     */
+    public @NonNull Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Sets the compression configuration.
+     * @param compression The compression configuration.
+     * @since 4.0.0
+     */
+    public void setCompression(Compression compression) {
+        if (compression != null) {
+            this.compression = compression;
+        }
+    }
+
+    /**
+     * Returns the concurrency limit configuration.
+     * @return The concurrency limit configuration.
+     * @since 4.0.0
+     */
+    public @NonNull ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Sets the concurrency limit configuration.
+     * @param concurrencyLimit The concurrency limit configuration.
+     * @since 4.0.0
+     */
+    public void setConcurrencyLimit(ConcurrencyLimit concurrencyLimit) {
+        if (concurrencyLimit != null) {
+            this.concurrencyLimit = concurrencyLimit;
+        }
+    }
+
+    /**
+     * Returns the configuration of the request bodies spilled to disk.
+     * @return The body spill configuration.
+     * @since 4.0.0
+     */
+    public @NonNull BodySpill getBodySpill() {
+        return bodySpill;
+    }
+
+    /**
+     * Sets the configuration of the request bodies spilled to disk.
+     * @param bodySpill The body spill configuration.
+     * @since 4.0.0
+     */
+    public void setBodySpill(BodySpill bodySpill) {
+        if (bodySpill != null) {
+            this.bodySpill = bodySpill;
+        }
+    }
+
+    /**
+     * Returns the configuration of the outbound queues of WebSocket sessions.
+     * @return The WebSocket outbound configuration.
+     * @since 4.0.0
+     */
+    public @NonNull WebSocketOutbound getWebSocketOutbound() {
+        return webSocketOutbound;
+    }
+
+    /**
+     * Sets the configuration of the outbound queues of WebSocket sessions.
+     * @param webSocketOutbound The WebSocket outbound configuration.
+     * @since 4.0.0
+     */
+    public void setWebSocketOutbound(WebSocketOutbound webSocketOutbound) {
+        if (webSocketOutbound != null) {
+            this.webSocketOutbound = webSocketOutbound;
+        }
+    }
+
+    /**
+     * Returns the configuration of the JSON streaming of publisher response bodies.
+     * @return The JSON streaming configuration.
+     * @since 4.0.0
+     */
+    public @NonNull JsonStreaming getJsonStreaming() {
+        return jsonStreaming;
+    }
+
+    /**
+     * Sets the configuration of the JSON streaming of publisher response bodies.
+     * @param jsonStreaming The JSON streaming configuration.
+     * @since 4.0.0
+     */
+    public void setJsonStreaming(JsonStreaming jsonStreaming) {
+        if (jsonStreaming != null) {
+            this.jsonStreaming = jsonStreaming;
+        }
+    }
+
+    /**
+     * Returns the response cache configuration.
+     * @return The response cache configuration.
+     * @since 4.0.0
+     */
+    public @NonNull ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Sets the response cache configuration.
+     * @param responseCache The response cache configuration.
+     * @since 4.0.0
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        if (responseCache != null) {
+            this.responseCache = responseCache;
+        }
+    }
+
     /**
      * @return The pipeline customizers
      */
@@ -720,6 +851,10 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
         private String loggerName;
         private String logFormat;
         private List<String> exclusions;
+        private boolean async;
+        private String file;
+        private int bufferSize = AsyncAccessLogWriter.DEFAULT_BUFFER_SIZE;
+        private AsyncAccessLogWriter.OverflowPolicy overflowPolicy = AsyncAccessLogWriter.OverflowPolicy.DROP;
 
         /**
          * Returns whether the access logger is enabled.
@@ -786,253 +921,1305 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
         public void setExclusions(List<String> exclusions) {
             this.exclusions = exclusions;
         }
-    }
 
-    /**
-     * Configuration for Netty worker.
-     */
-    @ConfigurationProperties("worker")
-    public static class Worker extends EventLoopConfig {
         /**
-         * Default constructor.
+         * @return Whether access logs are written by a dedicated thread instead of the event loop.
          */
-        Worker() {
-            super(DEFAULT);
+        public boolean isAsync() {
+            return async;
         }
-    }
 
-    /**
-     * Configuration for Netty parent.
-     */
-    @ConfigurationProperties(Parent.NAME)
-    @Requires(missingProperty = EventLoopGroupConfiguration.EVENT_LOOPS + ".parent")
-    public static class Parent extends EventLoopConfig {
+        /**
+         * Sets whether access logs are written by a dedicated thread instead of the event loop. Default value (false).
+         *
+         * @param async Whether to write access logs asynchronously.
+         */
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
 
-        public static final String NAME = "parent";
+        /**
+         * @return The file asynchronous access logs are appended to, if any.
+         */
+        public Optional<String> getFile() {
+            return Optional.ofNullable(file);
+        }
 
         /**
-         * Default constructor.
+         * Sets the file asynchronous access logs are appended to. When not specified the logs are written to the
+         * access logger. Only used when {@link #isAsync()} is true.
+         *
+         * @param file The path of the file.
          */
-        Parent() {
-            super(NAME);
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        /**
+         * @return The number of access log entries buffered for the asynchronous writer.
+         */
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        /**
+         * Sets the number of access log entries buffered for the asynchronous writer. The value is rounded up to a
+         * power of two. Default value ({@value AsyncAccessLogWriter#DEFAULT_BUFFER_SIZE}).
+         *
+         * @param bufferSize The buffer size.
+         */
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        /**
+         * @return What to do when the buffer of the asynchronous writer is full.
+         */
+        public AsyncAccessLogWriter.OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        /**
+         * Sets what to do when the buffer of the asynchronous writer is full. Default value (DROP).
+         *
+         * @param overflowPolicy The overflow policy.
+         */
+        public void setOverflowPolicy(AsyncAccessLogWriter.OverflowPolicy overflowPolicy) {
+            if (overflowPolicy != null) {
+                this.overflowPolicy = overflowPolicy;
+            }
         }
     }
 
     /**
-     * Allows configuration of properties for the {@link io.micronaut.http.server.netty.types.files.FileTypeHandler}.
+     * Configuration of the content encodings responses are compressed with.
      *
-     * @author James Kleeh
-     * @author graemerocher
-     * @since @since 3.1.0
+     * @since 4.0.0
      */
-    @ConfigurationProperties("responses.file")
-    public static class FileTypeHandlerConfiguration {
-
-        /**
-         * The default cache seconds.
-         */
-        @SuppressWarnings("WeakerAccess")
-        public static final int DEFAULT_CACHESECONDS = 60;
+    @ConfigurationProperties("compression")
+    public static class Compression {
 
-        private int cacheSeconds = DEFAULT_CACHESECONDS;
-        private CacheControlConfiguration cacheControl = new CacheControlConfiguration();
+        private List<String> encodings = Arrays.asList("br", "zstd", "gzip", "deflate");
+        private Map<String, Integer> levels = Collections.emptyMap();
+        private List<MediaTypeCompression> mediaTypes = Collections.emptyList();
 
         /**
-         * Default constructor.
+         * @return The encodings in order of preference of the server
          */
-        public FileTypeHandlerConfiguration() {
+        public @NonNull List<String> getEncodings() {
+            return encodings;
         }
 
         /**
-         * Deprecated constructor.
+         * Sets the encodings responses may be compressed with, in order of preference of the server. The first
+         * encoding that is accepted by the client and available at runtime is used. Default value
+         * (br, zstd, gzip, deflate).
          *
-         * @param cacheSeconds Deprecated constructor parameter
-         * @param isPublic Deprecated constructor parameter
+         * @param encodings The encodings
          */
-        @Deprecated
-        @Inject
-        public FileTypeHandlerConfiguration(@Nullable @Property(name = "netty.responses.file.cache-seconds") Integer cacheSeconds,
-                                            @Nullable @Property(name = "netty.responses.file.cache-control.public") Boolean isPublic) {
-            if (cacheSeconds != null) {
-                this.cacheSeconds = cacheSeconds;
-                LOG.warn("The configuration `netty.responses.file.cache-seconds` is deprecated and will be removed in a future release. Use `micronaut.server.netty.responses.file.cache-seconds` instead.");
-            }
-            if (isPublic != null) {
-                this.cacheControl.setPublic(isPublic);
-                LOG.warn("The configuration `netty.responses.file.cache-control.public` is deprecated and will be removed in a future release. Use `micronaut.server.netty.responses.file.cache-control.public` instead.");
+        public void setEncodings(List<String> encodings) {
+            if (encodings != null) {
+                this.encodings = encodings;
             }
         }
 
         /**
-         * @return the cache seconds
+         * @return The compression level by encoding name
          */
-        public int getCacheSeconds() {
-            return cacheSeconds;
+        public @NonNull Map<String, Integer> getLevels() {
+            return levels;
         }
 
         /**
-         * Cache Seconds. Default value ({@value #DEFAULT_CACHESECONDS}).
-         * @param cacheSeconds cache seconds
+         * Sets the compression level by encoding name, for example {@code br: 5}. Encodings without a level use the
+         * {@link #getCompressionLevel() compression level} for gzip and deflate and the default level of the encoding
+         * otherwise.
+         *
+         * @param levels The levels
          */
-        public void setCacheSeconds(int cacheSeconds) {
-            this.cacheSeconds = cacheSeconds;
+        public void setLevels(Map<String, Integer> levels) {
+            if (levels != null) {
+                this.levels = levels;
+            }
         }
 
         /**
-         * @return The cache control configuration
+         * @return The compression levels for specific media types
          */
-        public CacheControlConfiguration getCacheControl() {
-            return cacheControl;
+        public @NonNull List<MediaTypeCompression> getMediaTypes() {
+            return mediaTypes;
         }
 
         /**
-         * Sets the cache control configuration.
+         * Sets the compression levels for specific media types.
          *
-         * @param cacheControl The cache control configuration
+         * @param mediaTypes The media type configurations
          */
-        public void setCacheControl(CacheControlConfiguration cacheControl) {
-            this.cacheControl = cacheControl;
+        public void setMediaTypes(List<MediaTypeCompression> mediaTypes) {
+            if (mediaTypes != null) {
+                this.mediaTypes = mediaTypes;
+            }
         }
 
         /**
-         * Configuration for the Cache-Control header.
+         * Compression levels for responses of specific media types, for example to compress JSON harder than
+         * other responses.
          */
-        @ConfigurationProperties("cache-control")
-        public static class CacheControlConfiguration {
+        @EachProperty("media-types")
+        public static class MediaTypeCompression {
 
-            private static final boolean DEFAULT_PUBLIC_CACHE = false;
+            private List<String> types = Collections.emptyList();
+            private Map<String, Integer> levels = Collections.emptyMap();
 
-            private boolean publicCache = DEFAULT_PUBLIC_CACHE;
+            /**
+             * @return The media types, which may contain wildcards such as {@code text/*}
+             */
+            public @NonNull List<String> getTypes() {
+                return types;
+            }
 
             /**
-             * Sets whether the cache control is public. Default value ({@value #DEFAULT_PUBLIC_CACHE})
+             * Sets the media types the levels apply to. Wildcards such as {@code text/*} are supported.
              *
-             * @param publicCache Public cache value
+             * @param types The media types
              */
-            public void setPublic(boolean publicCache) {
-                this.publicCache = publicCache;
+            public void setTypes(List<String> types) {
+                if (types != null) {
+                    this.types = types;
+                }
             }
 
             /**
-             * @return True if the cache control should be public
+             * @return The compression level by encoding name
              */
-            @NonNull
-            public boolean getPublic() {
-                return publicCache;
+            public @NonNull Map<String, Integer> getLevels() {
+                return levels;
+            }
+
+            /**
+             * Sets the compression level by encoding name for the media types.
+             *
+             * @param levels The levels
+             */
+            public void setLevels(Map<String, Integer> levels) {
+                if (levels != null) {
+                    this.levels = levels;
+                }
             }
         }
     }
 
     /**
-     * Abstract class for configuring the Netty event loop.
+     * Configuration of the cache for responses of routes annotated with
+     * {@link io.micronaut.http.server.cache.CachedResponse}.
      */
-    public abstract static class EventLoopConfig implements EventLoopGroupConfiguration {
-        private int threads;
-        private Integer ioRatio;
-        private String executor;
-        private boolean preferNativeTransport = false;
-        private Duration shutdownQuietPeriod = Duration.ofSeconds(DEFAULT_SHUTDOWN_QUIET_PERIOD);
-        private Duration shutdownTimeout = Duration.ofSeconds(DEFAULT_SHUTDOWN_TIMEOUT);
-        private String name;
+    @ConfigurationProperties("response-cache")
+    public static class ResponseCache {
 
         /**
-         * @param name The name;
+         * The default enable value.
          */
-        EventLoopConfig(String name) {
-            this.name = name;
-        }
+        @SuppressWarnings("WeakerAccess")
+        public static final boolean DEFAULT_ENABLED = true;
 
-        @NonNull
-        @Override
-        public String getName() {
-            return name;
-        }
+        /**
+         * The default maximum size in bytes of the cached bodies.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
 
         /**
-         * Sets the name to use.
-         * @param name The name
+         * The default time to live of cached responses in seconds.
          */
-        public void setEventLoopGroup(String name) {
-            if (StringUtils.isNotEmpty(name)) {
-                this.name = name;
-            }
-        }
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_TTL_SECONDS = 300;
+
+        private boolean enabled = DEFAULT_ENABLED;
+        private long maxSize = DEFAULT_MAX_SIZE;
+        private Duration defaultTtl = Duration.ofSeconds(DEFAULT_TTL_SECONDS);
 
         /**
-         * Sets the number of threads for the event loop group.
-         * @param threads The number of threads
+         * @return Whether responses of annotated routes are cached.
          */
-        public void setThreads(int threads) {
-            this.threads = threads;
+        public boolean isEnabled() {
+            return enabled;
         }
 
         /**
-         * Sets the I/O ratio.
-         * @param ioRatio The I/O ratio
+         * Sets whether responses of annotated routes are cached. Default value ({@value #DEFAULT_ENABLED}).
+         *
+         * @param enabled Whether the response cache is enabled.
          */
-        public void setIoRatio(Integer ioRatio) {
-            this.ioRatio = ioRatio;
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
         }
 
         /**
-         * Sets the name of the executor.
-         * @param executor The executor
+         * @return The maximum size in bytes of the cached bodies.
          */
-        public void setExecutor(String executor) {
-            this.executor = executor;
+        public long getMaxSize() {
+            return maxSize;
         }
 
         /**
-         * @param preferNativeTransport Set whether to prefer the native transport if available
+         * Sets the maximum size in bytes of the cached bodies. The least recently used responses are evicted when
+         * the size is exceeded. Default value ({@value #DEFAULT_MAX_SIZE}).
+         *
+         * @param maxSize The maximum size.
          */
-        public void setPreferNativeTransport(boolean preferNativeTransport) {
-            this.preferNativeTransport = preferNativeTransport;
+        public void setMaxSize(@ReadableBytes long maxSize) {
+            this.maxSize = maxSize;
         }
 
         /**
-         * @param shutdownQuietPeriod Set the shutdown quiet period
+         * @return The time to live of cached responses of routes that do not specify one.
          */
-        public void setShutdownQuietPeriod(Duration shutdownQuietPeriod) {
-            if (shutdownQuietPeriod != null) {
-                this.shutdownQuietPeriod = shutdownQuietPeriod;
-            }
+        public @NonNull Duration getDefaultTtl() {
+            return defaultTtl;
         }
 
         /**
-         * @param shutdownTimeout Set the shutdown timeout (must be >= shutdownQuietPeriod)
+         * Sets the time to live of cached responses of routes that do not specify one. Default value
+         * ({@value #DEFAULT_TTL_SECONDS} seconds).
+         *
+         * @param defaultTtl The default time to live.
          */
-        public void setShutdownTimeout(Duration shutdownTimeout) {
-            if (shutdownTimeout != null) {
-                this.shutdownTimeout = shutdownTimeout;
+        public void setDefaultTtl(Duration defaultTtl) {
+            if (defaultTtl != null) {
+                this.defaultTtl = defaultTtl;
             }
         }
+    }
+
+    /**
+     * Configuration of the adaptive limit of the number of requests the server processes concurrently.
+     *
+     * @since 4.0.0
+     */
+    @ConfigurationProperties("concurrency-limit")
+    public static class ConcurrencyLimit {
 
         /**
-         * @return The number of threads to use
+         * The default enable value.
          */
-        public int getNumOfThreads() {
-            return threads;
-        }
+        @SuppressWarnings("WeakerAccess")
+        public static final boolean DEFAULT_ENABLED = false;
 
         /**
-         * @return The I/O ratio to use
+         * The default initial limit.
          */
-        @Override
-        public Optional<Integer> getIoRatio() {
-            if (ioRatio != null) {
-                return Optional.of(ioRatio);
-            }
-            return Optional.empty();
-        }
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_INITIAL_LIMIT = 100;
 
         /**
-         * @return The name of the configured executor to use
+         * The default minimum limit.
          */
-        @Override
-        public Optional<String> getExecutorName() {
-            if (executor != null) {
-                return Optional.of(executor);
-            }
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MIN_LIMIT = 10;
+
+        /**
+         * The default maximum limit.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MAX_LIMIT = 1000;
+
+        /**
+         * The default latency threshold in milliseconds of the AIMD algorithm.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_LATENCY_THRESHOLD_MILLIS = 1000;
+
+        /**
+         * The default Retry-After value in seconds of rejected requests.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+        private boolean enabled = DEFAULT_ENABLED;
+        private ConcurrencyLimiter.Algorithm algorithm = ConcurrencyLimiter.Algorithm.GRADIENT;
+        private int initialLimit = DEFAULT_INITIAL_LIMIT;
+        private int minLimit = DEFAULT_MIN_LIMIT;
+        private int maxLimit = DEFAULT_MAX_LIMIT;
+        private Duration latencyThreshold = Duration.ofMillis(DEFAULT_LATENCY_THRESHOLD_MILLIS);
+        private Duration retryAfter = Duration.ofSeconds(DEFAULT_RETRY_AFTER_SECONDS);
+        private List<String> criticalPaths = Collections.emptyList();
+        private List<String> sheddablePaths = Collections.emptyList();
+
+        /**
+         * @return Whether requests in excess of the limit are rejected.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether requests in excess of the limit are rejected. Default value ({@value #DEFAULT_ENABLED}).
+         *
+         * @param enabled Whether the concurrency limit is enabled.
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return The algorithm that adjusts the limit.
+         */
+        public @NonNull ConcurrencyLimiter.Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * Sets the algorithm that adjusts the limit to the latency of the requests. Default value (GRADIENT).
+         *
+         * @param algorithm The algorithm.
+         */
+        public void setAlgorithm(ConcurrencyLimiter.Algorithm algorithm) {
+            if (algorithm != null) {
+                this.algorithm = algorithm;
+            }
+        }
+
+        /**
+         * @return The initial limit.
+         */
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        /**
+         * Sets the initial limit. Default value ({@value #DEFAULT_INITIAL_LIMIT}).
+         *
+         * @param initialLimit The initial limit.
+         */
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        /**
+         * @return The minimum limit.
+         */
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        /**
+         * Sets the minimum limit. Default value ({@value #DEFAULT_MIN_LIMIT}).
+         *
+         * @param minLimit The minimum limit.
+         */
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        /**
+         * @return The maximum limit.
+         */
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        /**
+         * Sets the maximum limit. Default value ({@value #DEFAULT_MAX_LIMIT}).
+         *
+         * @param maxLimit The maximum limit.
+         */
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        /**
+         * @return The latency above which the AIMD algorithm decreases the limit.
+         */
+        public @NonNull Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        /**
+         * Sets the latency above which the AIMD algorithm decreases the limit. Default value
+         * ({@value #DEFAULT_LATENCY_THRESHOLD_MILLIS} milliseconds).
+         *
+         * @param latencyThreshold The latency threshold.
+         */
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            if (latencyThreshold != null) {
+                this.latencyThreshold = latencyThreshold;
+            }
+        }
+
+        /**
+         * @return The delay after which rejected clients are asked to retry.
+         */
+        public @NonNull Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        /**
+         * Sets the delay sent in the {@code Retry-After} header of rejected requests. Default value
+         * ({@value #DEFAULT_RETRY_AFTER_SECONDS} second).
+         *
+         * @param retryAfter The retry after delay.
+         */
+        public void setRetryAfter(Duration retryAfter) {
+            if (retryAfter != null) {
+                this.retryAfter = retryAfter;
+            }
+        }
+
+        /**
+         * @return The path patterns of the requests that may use the whole limit.
+         */
+        public @NonNull List<String> getCriticalPaths() {
+            return criticalPaths;
+        }
+
+        /**
+         * Sets the regular expressions of the paths of the requests that may use the whole limit, for example health
+         * checks. Other requests may use 90% of the limit. The patterns are matched against the decoded path of the
+         * request, without the query string.
+         *
+         * @param criticalPaths The path patterns.
+         */
+        public void setCriticalPaths(List<String> criticalPaths) {
+            if (criticalPaths != null) {
+                this.criticalPaths = criticalPaths;
+            }
+        }
+
+        /**
+         * @return The path patterns of the requests that are shed first.
+         */
+        public @NonNull List<String> getSheddablePaths() {
+            return sheddablePaths;
+        }
+
+        /**
+         * Sets the regular expressions of the paths of the requests that may only use half of the limit and are shed
+         * first. The patterns are matched against the decoded path of the request, without the query string.
+         *
+         * @param sheddablePaths The path patterns.
+         */
+        public void setSheddablePaths(List<String> sheddablePaths) {
+            if (sheddablePaths != null) {
+                this.sheddablePaths = sheddablePaths;
+            }
+        }
+    }
+
+    /**
+     * Configuration of the request bodies of non streaming routes that are written to temporary files instead of
+     * being buffered in memory.
+     *
+     * @since 4.0.0
+     */
+    @ConfigurationProperties("body-spill")
+    public static class BodySpill {
+
+        /**
+         * The default enable value.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final boolean DEFAULT_ENABLED = false;
+
+        /**
+         * The default size in bytes above which a body is spilled to disk.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_THRESHOLD = 1024 * 1024;
+
+        /**
+         * The default maximum size in bytes of the bodies buffered in memory across all requests.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_MAX_IN_MEMORY = 64 * 1024 * 1024;
+
+        private boolean enabled = DEFAULT_ENABLED;
+        private long threshold = DEFAULT_THRESHOLD;
+        private long maxInMemory = DEFAULT_MAX_IN_MEMORY;
+        private String directory;
+
+        /**
+         * @return Whether large request bodies are spilled to disk.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether large request bodies are spilled to disk. Default value ({@value #DEFAULT_ENABLED}).
+         *
+         * @param enabled Whether spilling is enabled.
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return The size in bytes above which a body is spilled to disk.
+         */
+        public long getThreshold() {
+            return threshold;
+        }
+
+        /**
+         * Sets the size in bytes above which the body of a request is spilled to disk. Default value
+         * ({@value #DEFAULT_THRESHOLD}).
+         *
+         * @param threshold The threshold.
+         */
+        public void setThreshold(@ReadableBytes long threshold) {
+            this.threshold = threshold;
+        }
+
+        /**
+         * @return The maximum size in bytes of the bodies buffered in memory across all requests.
+         */
+        public long getMaxInMemory() {
+            return maxInMemory;
+        }
+
+        /**
+         * Sets the maximum size in bytes of the bodies buffered in memory across all requests. Bodies that do not
+         * fit are spilled to disk even if they are below the threshold. Default value ({@value #DEFAULT_MAX_IN_MEMORY}).
+         *
+         * @param maxInMemory The maximum size.
+         */
+        public void setMaxInMemory(@ReadableBytes long maxInMemory) {
+            this.maxInMemory = maxInMemory;
+        }
+
+        /**
+         * @return The directory of the temporary files.
+         */
+        public Optional<String> getDirectory() {
+            return Optional.ofNullable(directory);
+        }
+
+        /**
+         * Sets the directory of the temporary files. Defaults to the directory of {@code java.io.tmpdir}.
+         *
+         * @param directory The directory.
+         */
+        public void setDirectory(@Nullable String directory) {
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Configuration of the protection against slow WebSocket consumers and of the batching of WebSocket writes.
+     *
+     * @since 4.0.0
+     */
+    @ConfigurationProperties("websocket-outbound")
+    public static class WebSocketOutbound {
+
+        /**
+         * The default enable value.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final boolean DEFAULT_ENABLED = false;
+
+        /**
+         * The default maximum size in bytes of the queue of a session.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_MAX_QUEUED_BYTES = 1024 * 1024;
+
+        /**
+         * The default maximum number of messages in the queue of a session.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MAX_QUEUED_MESSAGES = 1024;
+
+        /**
+         * The default flush consolidation value.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final boolean DEFAULT_FLUSH_CONSOLIDATION = false;
+
+        /**
+         * The default maximum number of flushes that are consolidated into one.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MAX_CONSOLIDATED_FLUSHES = 256;
+
+        private boolean enabled = DEFAULT_ENABLED;
+        private WebSocketOutboundHandler.Policy policy = WebSocketOutboundHandler.Policy.DROP_OLDEST;
+        private long maxQueuedBytes = DEFAULT_MAX_QUEUED_BYTES;
+        private int maxQueuedMessages = DEFAULT_MAX_QUEUED_MESSAGES;
+        private boolean flushConsolidation = DEFAULT_FLUSH_CONSOLIDATION;
+        private int maxConsolidatedFlushes = DEFAULT_MAX_CONSOLIDATED_FLUSHES;
+
+        /**
+         * @return Whether messages to slow consumers are queued and bounded.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether messages are queued while a WebSocket session is not writable, bounding the memory a slow
+         * consumer can hold. Default value ({@value #DEFAULT_ENABLED}).
+         *
+         * @param enabled Whether the outbound queue is enabled.
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return The policy applied when the queue of a session is full.
+         */
+        public @NonNull WebSocketOutboundHandler.Policy getPolicy() {
+            return policy;
+        }
+
+        /**
+         * Sets the policy applied when the queue of a session is full. Default value (DROP_OLDEST).
+         *
+         * @param policy The policy.
+         */
+        public void setPolicy(WebSocketOutboundHandler.Policy policy) {
+            if (policy != null) {
+                this.policy = policy;
+            }
+        }
+
+        /**
+         * @return The maximum size in bytes of the queue of a session.
+         */
+        public long getMaxQueuedBytes() {
+            return maxQueuedBytes;
+        }
+
+        /**
+         * Sets the maximum size in bytes of the queue of a session. Default value (1MB).
+         *
+         * @param maxQueuedBytes The maximum size.
+         */
+        public void setMaxQueuedBytes(@ReadableBytes long maxQueuedBytes) {
+            this.maxQueuedBytes = maxQueuedBytes;
+        }
+
+        /**
+         * @return The maximum number of messages in the queue of a session.
+         */
+        public int getMaxQueuedMessages() {
+            return maxQueuedMessages;
+        }
+
+        /**
+         * Sets the maximum number of messages in the queue of a session. Default value
+         * ({@value #DEFAULT_MAX_QUEUED_MESSAGES}).
+         *
+         * @param maxQueuedMessages The maximum number of messages.
+         */
+        public void setMaxQueuedMessages(int maxQueuedMessages) {
+            this.maxQueuedMessages = maxQueuedMessages;
+        }
+
+        /**
+         * @return Whether the flushes of a WebSocket session are consolidated.
+         */
+        public boolean isFlushConsolidation() {
+            return flushConsolidation;
+        }
+
+        /**
+         * Sets whether the flushes of a WebSocket session are consolidated, so that the frames written during one
+         * event loop iteration are sent with a single flush. Default value ({@value #DEFAULT_FLUSH_CONSOLIDATION}).
+         *
+         * @param flushConsolidation Whether flushes are consolidated.
+         */
+        public void setFlushConsolidation(boolean flushConsolidation) {
+            this.flushConsolidation = flushConsolidation;
+        }
+
+        /**
+         * @return The maximum number of flushes that are consolidated into one.
+         */
+        public int getMaxConsolidatedFlushes() {
+            return maxConsolidatedFlushes;
+        }
+
+        /**
+         * Sets the maximum number of flushes that are consolidated into one while reading from the channel. Default
+         * value ({@value #DEFAULT_MAX_CONSOLIDATED_FLUSHES}).
+         *
+         * @param maxConsolidatedFlushes The maximum number of flushes.
+         */
+        public void setMaxConsolidatedFlushes(int maxConsolidatedFlushes) {
+            this.maxConsolidatedFlushes = maxConsolidatedFlushes;
+        }
+    }
+
+    /**
+     * Configuration of the JSON streaming of publisher response bodies, which serializes the elements directly into
+     * the response chunks and coalesces them until a size or time threshold is reached.
+     *
+     * @since 4.0.0
+     */
+    @ConfigurationProperties("json-streaming")
+    public static class JsonStreaming {
+
+        /**
+         * The default enable value.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final boolean DEFAULT_ENABLED = false;
+
+        /**
+         * The default size in bytes from which a chunk is written.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MAX_CHUNK_SIZE = 8192;
+
+        /**
+         * The default maximum delay in milliseconds before a chunk is written.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final long DEFAULT_MAX_DELAY_MILLISECONDS = 10;
+
+        /**
+         * The default number of elements requested from the publisher at once.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_PREFETCH = 256;
+
+        private boolean enabled = DEFAULT_ENABLED;
+        private int maxChunkSize = DEFAULT_MAX_CHUNK_SIZE;
+        private Duration maxDelay = Duration.ofMillis(DEFAULT_MAX_DELAY_MILLISECONDS);
+        private int prefetch = DEFAULT_PREFETCH;
+
+        /**
+         * @return Whether the elements of publisher response bodies are coalesced into chunks.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether the elements of publisher response bodies of type {@code application/json},
+         * {@code application/x-json-stream} and {@code application/x-ndjson} are serialized directly into coalesced
+         * chunks instead of one chunk per element. Default value ({@value #DEFAULT_ENABLED}).
+         *
+         * @param enabled Whether JSON streaming is enabled.
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * @return The size in bytes from which a chunk is written.
+         */
+        public int getMaxChunkSize() {
+            return maxChunkSize;
+        }
+
+        /**
+         * Sets the size in bytes from which a chunk is written. Default value ({@value #DEFAULT_MAX_CHUNK_SIZE}).
+         *
+         * @param maxChunkSize The maximum chunk size.
+         */
+        public void setMaxChunkSize(@ReadableBytes int maxChunkSize) {
+            this.maxChunkSize = maxChunkSize;
+        }
+
+        /**
+         * @return The maximum time the first element of a chunk is held back.
+         */
+        public @NonNull Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        /**
+         * Sets the maximum time the first element of a chunk is held back before the chunk is written, bounding the
+         * latency added to slow publishers. A zero delay writes the elements as soon as the client accepts them.
+         * Default value ({@value #DEFAULT_MAX_DELAY_MILLISECONDS} milliseconds).
+         *
+         * @param maxDelay The maximum delay.
+         */
+        public void setMaxDelay(Duration maxDelay) {
+            if (maxDelay != null) {
+                this.maxDelay = maxDelay;
+            }
+        }
+
+        /**
+         * @return The number of elements requested from the publisher at once.
+         */
+        public int getPrefetch() {
+            return prefetch;
+        }
+
+        /**
+         * Sets the number of elements requested from the publisher at once. Default value
+         * ({@value #DEFAULT_PREFETCH}).
+         *
+         * @param prefetch The number of elements.
+         */
+        public void setPrefetch(int prefetch) {
+            this.prefetch = prefetch;
+        }
+    }
+
+    /**
+     * Configuration for Netty worker.
+     */
+    @ConfigurationProperties("worker")
+    public static class Worker extends EventLoopConfig {
+        /**
+         * Default constructor.
+         */
+        Worker() {
+            super(DEFAULT);
+        }
+    }
+
+    /**
+     * Configuration for Netty parent.
+     */
+    @ConfigurationProperties(Parent.NAME)
+    @Requires(missingProperty = EventLoopGroupConfiguration.EVENT_LOOPS + ".parent")
+    public static class Parent extends EventLoopConfig {
+
+        public static final String NAME = "parent";
+
+        /**
+         * Default constructor.
+         */
+        Parent() {
+            super(NAME);
+        }
+    }
+
+    /**
+     * Allows configuration of properties for the {@link io.micronaut.http.server.netty.types.files.FileTypeHandler}.
+     *
+     * @author James Kleeh
+     * @author graemerocher
+     * @since @since 3.1.0
+     */
+    @ConfigurationProperties("responses.file")
+    public static class FileTypeHandlerConfiguration {
+
+        /**
+         * The default cache seconds.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_CACHESECONDS = 60;
+
+        private int cacheSeconds = DEFAULT_CACHESECONDS;
+        private CacheControlConfiguration cacheControl = new CacheControlConfiguration();
+        private PrecompressedConfiguration precompressed = new PrecompressedConfiguration();
+        private CacheConfiguration cache = new CacheConfiguration();
+
+        /**
+         * Default constructor.
+         */
+        public FileTypeHandlerConfiguration() {
+        }
+
+        /**
+         * Deprecated constructor.
+         *
+         * @param cacheSeconds Deprecated constructor parameter
+         * @param isPublic Deprecated constructor parameter
+         */
+        @Deprecated
+        @Inject
+        public FileTypeHandlerConfiguration(@Nullable @Property(name = "netty.responses.file.cache-seconds") Integer cacheSeconds,
+                                            @Nullable @Property(name = "netty.responses.file.cache-control.public") Boolean isPublic) {
+            if (cacheSeconds != null) {
+                this.cacheSeconds = cacheSeconds;
+                LOG.warn("The configuration `netty.responses.file.cache-seconds` is deprecated and will be removed in a future release. Use `micronaut.server.netty.responses.file.cache-seconds` instead.");
+            }
+            if (isPublic != null) {
+                this.cacheControl.setPublic(isPublic);
+                LOG.warn("The configuration `netty.responses.file.cache-control.public` is deprecated and will be removed in a future release. Use `micronaut.server.netty.responses.file.cache-control.public` instead.");
+            }
+        }
+
+        /**
+         * @return the cache seconds
+         */
+        public int getCacheSeconds() {
+            return cacheSeconds;
+        }
+
+        /**
+         * Cache Seconds. Default value ({@value #DEFAULT_CACHESECONDS}).
+         * @param cacheSeconds cache seconds
+         */
+        public void setCacheSeconds(int cacheSeconds) {
+            this.cacheSeconds = cacheSeconds;
+        }
+
+        /**
+         * @return The cache control configuration
+         */
+        public CacheControlConfiguration getCacheControl() {
+            return cacheControl;
+        }
+
+        /**
+         * Sets the cache control configuration.
+         *
+         * @param cacheControl The cache control configuration
+         */
+        public void setCacheControl(CacheControlConfiguration cacheControl) {
+            this.cacheControl = cacheControl;
+        }
+
+        /**
+         * @return The configuration of precompressed variants of files
+         * @since 4.0.0
+         */
+        public @NonNull PrecompressedConfiguration getPrecompressed() {
+            return precompressed;
+        }
+
+        /**
+         * Sets the configuration of precompressed variants of files.
+         *
+         * @param precompressed The precompressed configuration
+         * @since 4.0.0
+         */
+        public void setPrecompressed(PrecompressedConfiguration precompressed) {
+            if (precompressed != null) {
+                this.precompressed = precompressed;
+            }
+        }
+
+        /**
+         * @return The configuration of the in-memory cache of small files
+         * @since 4.0.0
+         */
+        public @NonNull CacheConfiguration getCache() {
+            return cache;
+        }
+
+        /**
+         * Sets the configuration of the in-memory cache of small files.
+         *
+         * @param cache The cache configuration
+         * @since 4.0.0
+         */
+        public void setCache(CacheConfiguration cache) {
+            if (cache != null) {
+                this.cache = cache;
+            }
+        }
+
+        /**
+         * Configuration for serving precompressed variants of static resources, for example {@code app.js.br} or
+         * {@code app.js.gz} next to {@code app.js}.
+         *
+         * @since 4.0.0
+         */
+        @ConfigurationProperties("precompressed")
+        public static class PrecompressedConfiguration {
+
+            /**
+             * The default enable value.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final boolean DEFAULT_ENABLED = false;
+
+            /**
+             * The default generate value.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final boolean DEFAULT_GENERATE = false;
+
+            private boolean enabled = DEFAULT_ENABLED;
+            private boolean generate = DEFAULT_GENERATE;
+            private List<String> encodings = Arrays.asList("br", "gzip");
+
+            /**
+             * @return Whether precompressed variants are served
+             */
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            /**
+             * Sets whether precompressed variants of static resources are served to clients that accept their
+             * encoding. Default value ({@value #DEFAULT_ENABLED}).
+             *
+             * @param enabled Whether precompressed variants are served
+             */
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            /**
+             * @return Whether missing gzip variants are generated at startup
+             */
+            public boolean isGenerate() {
+                return generate;
+            }
+
+            /**
+             * Sets whether gzip variants of the text based static resources on the file system are generated at
+             * startup when they are missing or outdated. Default value ({@value #DEFAULT_GENERATE}).
+             *
+             * @param generate Whether variants are generated
+             */
+            public void setGenerate(boolean generate) {
+                this.generate = generate;
+            }
+
+            /**
+             * @return The encodings of the variants, in order of preference
+             */
+            public @NonNull List<String> getEncodings() {
+                return encodings;
+            }
+
+            /**
+             * Sets the encodings of the variants that are looked up, in order of preference of the server. Supported
+             * values are {@code br} and {@code gzip}. Default value (br, gzip).
+             *
+             * @param encodings The encodings
+             */
+            public void setEncodings(List<String> encodings) {
+                if (encodings != null) {
+                    this.encodings = encodings;
+                }
+            }
+        }
+
+        /**
+         * Configuration for caching the content of small files off-heap so that repeated requests do not read them
+         * from disk.
+         *
+         * @since 4.0.0
+         */
+        @ConfigurationProperties("cache")
+        public static class CacheConfiguration {
+
+            /**
+             * The default enable value.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final boolean DEFAULT_ENABLED = false;
+
+            /**
+             * The default maximum size in bytes of all cached files.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final long DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+
+            /**
+             * The default maximum size in bytes of a single cached file.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final int DEFAULT_MAX_FILE_SIZE = 256 * 1024;
+
+            private boolean enabled = DEFAULT_ENABLED;
+            private long maxSize = DEFAULT_MAX_SIZE;
+            private int maxFileSize = DEFAULT_MAX_FILE_SIZE;
+
+            /**
+             * @return Whether small files are cached
+             */
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            /**
+             * Sets whether small files are cached. Default value ({@value #DEFAULT_ENABLED}).
+             *
+             * @param enabled Whether small files are cached
+             */
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            /**
+             * @return The maximum size in bytes of all cached files
+             */
+            public long getMaxSize() {
+                return maxSize;
+            }
+
+            /**
+             * Sets the maximum size in bytes of all cached files. The least recently used files are evicted when the
+             * size is exceeded. Default value ({@value #DEFAULT_MAX_SIZE}).
+             *
+             * @param maxSize The maximum size
+             */
+            public void setMaxSize(@ReadableBytes long maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            /**
+             * @return The maximum size in bytes of a single cached file
+             */
+            public int getMaxFileSize() {
+                return maxFileSize;
+            }
+
+            /**
+             * Sets the maximum size in bytes of a single cached file. Larger files are always written from disk.
+             * Default value ({@value #DEFAULT_MAX_FILE_SIZE}).
+             *
+             * @param maxFileSize The maximum file size
+             */
+            public void setMaxFileSize(@ReadableBytes int maxFileSize) {
+                this.maxFileSize = maxFileSize;
+            }
+        }
+
+        /**
+         * Configuration for the Cache-Control header.
+         */
+        @ConfigurationProperties("cache-control")
+        public static class CacheControlConfiguration {
+
+            private static final boolean DEFAULT_PUBLIC_CACHE = false;
+
+            private boolean publicCache = DEFAULT_PUBLIC_CACHE;
+
+            /**
+             * Sets whether the cache control is public. Default value ({@value #DEFAULT_PUBLIC_CACHE})
+             *
+             * @param publicCache Public cache value
+             */
+            public void setPublic(boolean publicCache) {
+                this.publicCache = publicCache;
+            }
+
+            /**
+             * @return True if the cache control should be public
+             */
+            @NonNull
+            public boolean getPublic() {
+                return publicCache;
+            }
+        }
+    }
+
+    /**
+     * Abstract class for configuring the Netty event loop.
+     */
+    public abstract static class EventLoopConfig implements EventLoopGroupConfiguration {
+        private int threads;
+        private Integer ioRatio;
+        private String executor;
+        private boolean preferNativeTransport = false;
+        private NativeTransport nativeTransport = NativeTransport.AUTO;
+        private Duration shutdownQuietPeriod = Duration.ofSeconds(DEFAULT_SHUTDOWN_QUIET_PERIOD);
+        private Duration shutdownTimeout = Duration.ofSeconds(DEFAULT_SHUTDOWN_TIMEOUT);
+        private String name;
+
+        /**
+         * @param name The name;
+         */
+        EventLoopConfig(String name) {
+            this.name = name;
+        }
+
+        @NonNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Sets the name to use.
+         * @param name The name
+         */
+        public void setEventLoopGroup(String name) {
+            if (StringUtils.isNotEmpty(name)) {
+                this.name = name;
+            }
+        }
+
+        /**
+         * Sets the number of threads for the event loop group.
+         * @param threads The number of threads
+         */
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        /**
+         * Sets the I/O ratio.
+         * @param ioRatio The I/O ratio
+         */
+        public void setIoRatio(Integer ioRatio) {
+            this.ioRatio = ioRatio;
+        }
+
+        /**
+         * Sets the name of the executor.
+         * @param executor The executor
+         */
+        public void setExecutor(String executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * @param preferNativeTransport Set whether to prefer the native transport if available
+         */
+        public void setPreferNativeTransport(boolean preferNativeTransport) {
+            this.preferNativeTransport = preferNativeTransport;
+        }
+
+        /**
+         * @param nativeTransport Set the native transport to use when native transport is preferred. Default value ({@link NativeTransport#AUTO}).
+         */
+        public void setNativeTransport(@Nullable NativeTransport nativeTransport) {
+            if (nativeTransport != null) {
+                this.nativeTransport = nativeTransport;
+            }
+        }
+
+        /**
+         * @param shutdownQuietPeriod Set the shutdown quiet period
+         */
+        public void setShutdownQuietPeriod(Duration shutdownQuietPeriod) {
+            if (shutdownQuietPeriod != null) {
+                this.shutdownQuietPeriod = shutdownQuietPeriod;
+            }
+        }
+
+        /**
+         * @param shutdownTimeout Set the shutdown timeout (must be >= shutdownQuietPeriod)
+         */
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            if (shutdownTimeout != null) {
+                this.shutdownTimeout = shutdownTimeout;
+            }
+        }
+
+        /**
+         * @return The number of threads to use
+         */
+        public int getNumOfThreads() {
+            return threads;
+        }
+
+        /**
+         * @return The I/O ratio to use
+         */
+        @Override
+        public Optional<Integer> getIoRatio() {
+            if (ioRatio != null) {
+                return Optional.of(ioRatio);
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * @return The name of the configured executor to use
+         */
+        @Override
+        public Optional<String> getExecutorName() {
+            if (executor != null) {
+                return Optional.of(executor);
+            }
             return Optional.empty();
         }
 
@@ -1046,6 +2233,11 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
             return preferNativeTransport;
         }
 
+        @Override
+        public NativeTransport getNativeTransport() {
+            return nativeTransport;
+        }
+
         @Override
         public Duration getShutdownQuietPeriod() {
             return shutdownQuietPeriod;
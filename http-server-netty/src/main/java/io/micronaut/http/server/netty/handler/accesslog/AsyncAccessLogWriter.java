@@ -0,0 +1,348 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.handler.accesslog;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.server.netty.handler.accesslog.element.AccessLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes access log entries from a dedicated thread so that a slow appender or disk never stalls the event loop.
+ *
+ * <p>The event loop only copies the values of an {@link AccessLog} into a pre-allocated slot of a bounded ring
+ * buffer. The writer thread formats the entries and writes them in batches, either to a file through a
+ * {@link FileChannel} or to a SLF4J logger at info level. When the buffer is full the entry is either dropped or
+ * the event loop waits for a free slot, depending on the configured {@link OverflowPolicy}.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+public final class AsyncAccessLogWriter implements Closeable {
+
+    /**
+     * The default number of entries the ring buffer can hold.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncAccessLogWriter.class);
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long CLOSE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final char LINE_SEPARATOR = '\n';
+
+    private final Slot[] slots;
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    private final Logger logger;
+    private final FileChannel fileChannel;
+    private final Thread writerThread;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean running = true;
+    private volatile boolean writerParked;
+    // only accessed by the writer thread
+    private long head;
+    private final StringBuilder lineBuilder = new StringBuilder(256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer fileBuffer;
+
+    /**
+     * Creates a writer that writes to the given logger at info level.
+     *
+     * @param logger The logger
+     * @param bufferSize The number of entries the buffer can hold, rounded up to a power of two
+     * @param overflowPolicy What to do when the buffer is full
+     */
+    public AsyncAccessLogWriter(@NonNull Logger logger, int bufferSize, @NonNull OverflowPolicy overflowPolicy) {
+        this(logger, null, bufferSize, overflowPolicy);
+    }
+
+    /**
+     * Creates a writer that appends to the given file.
+     *
+     * @param file The file to append to. It is created if it does not exist.
+     * @param bufferSize The number of entries the buffer can hold, rounded up to a power of two
+     * @param overflowPolicy What to do when the buffer is full
+     * @throws IOException If the file cannot be opened
+     */
+    public AsyncAccessLogWriter(@NonNull Path file, int bufferSize, @NonNull OverflowPolicy overflowPolicy) throws IOException {
+        this(null, FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND), bufferSize, overflowPolicy);
+    }
+
+    private AsyncAccessLogWriter(@Nullable Logger logger, @Nullable FileChannel fileChannel, int bufferSize, OverflowPolicy overflowPolicy) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Access log buffer size must be greater than zero");
+        }
+        int capacity = Integer.highestOneBit(bufferSize);
+        if (capacity < bufferSize) {
+            capacity <<= 1;
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.mask = capacity - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.logger = logger;
+        this.fileChannel = fileChannel;
+        this.writerThread = new Thread(this::drainLoop, "access-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Captures the current values of the given access log. This method never formats or writes anything itself.
+     *
+     * @param accessLog The access log
+     * @return Whether the entry was accepted, {@code false} if it was dropped
+     */
+    public boolean append(@NonNull AccessLog accessLog) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        long position = tail.get();
+        while (true) {
+            Slot slot = slots[(int) position & mask];
+            long difference = slot.sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slot.values = accessLog.copyValues(slot.values);
+                    slot.sequence = position + 1;
+                    if (writerParked) {
+                        LockSupport.unpark(writerThread);
+                    }
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // the buffer is full, never wait for a writer that is gone
+                if (overflowPolicy == OverflowPolicy.DROP || !running || !writerThread.isAlive()) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return Whether entries will be written, i.e. the writer writes to a file or the logger is enabled at info level
+     */
+    public boolean isEnabled() {
+        return fileChannel != null || logger.isInfoEnabled();
+    }
+
+    /**
+     * @return The number of entries that were dropped because the buffer was full, the writer was closed or the entry
+     * could not be written
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of entries that have been written
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * @return The approximate number of entries waiting to be written
+     */
+    public long getPendingCount() {
+        return Math.max(0, tail.get() - written.get() - failed.get());
+    }
+
+    /**
+     * Stops accepting entries, writes the entries that are still buffered and releases the file, if any.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.NANOSECONDS.toMillis(CLOSE_TIMEOUT_NANOS) + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            while (running) {
+                if (drain() == 0) {
+                    writerParked = true;
+                    if (running && !hasPending()) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    writerParked = false;
+                }
+            }
+            // flush what producers claimed before close, including slots that are still being filled
+            long deadline = System.nanoTime() + CLOSE_TIMEOUT_NANOS;
+            while (head < tail.get() && System.nanoTime() < deadline) {
+                if (drain() == 0) {
+                    Thread.yield();
+                }
+            }
+        } finally {
+            if (fileChannel != null) {
+                try {
+                    fileChannel.close();
+                } catch (IOException e) {
+                    if (LOG.isErrorEnabled()) {
+                        LOG.error("Error closing access log file: " + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean hasPending() {
+        return slots[(int) head & mask].sequence == head + 1;
+    }
+
+    private int drain() {
+        int count = 0;
+        int failures = 0;
+        while (count < MAX_BATCH_SIZE) {
+            Slot slot = slots[(int) head & mask];
+            if (slot.sequence != head + 1) {
+                break;
+            }
+            int length = lineBuilder.length();
+            try {
+                AccessLog.format(slot.values, lineBuilder);
+                if (fileChannel == null) {
+                    logger.info(lineBuilder.toString());
+                    lineBuilder.setLength(0);
+                } else {
+                    lineBuilder.append(LINE_SEPARATOR);
+                }
+            } catch (Throwable e) {
+                // a failing entry must never stop the writer, otherwise blocked producers would wait forever
+                lineBuilder.setLength(length);
+                failures++;
+                if (LOG.isErrorEnabled()) {
+                    LOG.error("Error writing access log entry: " + e.getMessage(), e);
+                }
+            }
+            // release the slot to the producers
+            slot.sequence = head + slots.length;
+            head++;
+            count++;
+        }
+        if (count > 0) {
+            if (fileChannel != null) {
+                writeToFile();
+            }
+            if (failures > 0) {
+                dropped.addAndGet(failures);
+                failed.addAndGet(failures);
+            }
+            written.addAndGet(count - failures);
+        }
+        return count;
+    }
+
+    private void writeToFile() {
+        CharBuffer chars = CharBuffer.wrap(lineBuilder);
+        if (fileBuffer == null) {
+            fileBuffer = ByteBuffer.allocateDirect(64 * 1024);
+        }
+        encoder.reset();
+        try {
+            while (true) {
+                CoderResult result = encoder.encode(chars, fileBuffer, true);
+                if (result.isUnderflow()) {
+                    encoder.flush(fileBuffer);
+                }
+                fileBuffer.flip();
+                while (fileBuffer.hasRemaining()) {
+                    fileChannel.write(fileBuffer);
+                }
+                fileBuffer.clear();
+                if (result.isUnderflow()) {
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            fileBuffer.clear();
+            if (LOG.isErrorEnabled()) {
+                LOG.error("Error writing access log: " + e.getMessage(), e);
+            }
+        } finally {
+            lineBuilder.setLength(0);
+        }
+    }
+
+    /**
+     * What to do when the buffer of the writer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the entry and increment the dropped entries counter.
+         */
+        DROP,
+        /**
+         * Wait on the calling thread until a slot is available.
+         */
+        BLOCK
+    }
+
+    /**
+     * A slot of the ring buffer. The sequence tells producers and the writer who owns the slot.
+     */
+    private static final class Slot {
+        volatile long sequence;
+        String[] values;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -44,7 +44,7 @@ import java.util.function.Predicate;
 
 /**
  * Logging handler for HTTP access logs.
- * Access logs will be logged at info level.
+ * Access logs will be logged at info level, or handed over to an {@link AsyncAccessLogWriter} when one is configured.
  *
  * @author croudet
  * @since 2.0
@@ -62,6 +62,7 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
     private final Logger logger;
     private final AccessLogFormatParser accessLogFormatParser;
     private final Predicate<String> uriInclusion;
+    private final AsyncAccessLogWriter asyncWriter;
 
     /**
      * Creates a HttpAccessLogHandler.
@@ -102,10 +103,37 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
      * @param uriInclusion A filtering Predicate that will be checked per URI.
      */
     public HttpAccessLogHandler(Logger logger, String spec, Predicate<String> uriInclusion) {
+        this(logger, spec, uriInclusion, null);
+    }
+
+    /**
+     * Creates a HttpAccessLogHandler.
+     *
+     * @param logger A logger. Will log at info level.
+     * @param spec The log format specification.
+     * @param uriInclusion A filtering Predicate that will be checked per URI.
+     * @param asyncWriter The writer to hand the access logs over to, or {@code null} to log on the event loop.
+     * @since 4.0.0
+     */
+    public HttpAccessLogHandler(Logger logger, String spec, Predicate<String> uriInclusion, @Nullable AsyncAccessLogWriter asyncWriter) {
         super();
         this.logger = logger == null ? LoggerFactory.getLogger(HTTP_ACCESS_LOGGER) : logger;
         this.accessLogFormatParser = new AccessLogFormatParser(spec);
         this.uriInclusion = uriInclusion;
+        this.asyncWriter = asyncWriter;
+    }
+
+    /**
+     * @return The asynchronous writer, if the access logs are written asynchronously.
+     * @since 4.0.0
+     */
+    @Nullable
+    public AsyncAccessLogWriter getAsyncWriter() {
+        return asyncWriter;
+    }
+
+    private boolean isEnabled() {
+        return asyncWriter != null ? asyncWriter.isEnabled() : logger.isInfoEnabled();
     }
 
     private SocketChannel findSocketChannel(Channel channel) {
@@ -121,7 +149,7 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Http2Exception {
-        if (logger.isInfoEnabled() && msg instanceof HttpRequest) {
+        if (isEnabled() && msg instanceof HttpRequest) {
             final SocketChannel channel = findSocketChannel(ctx.channel());
             final HttpRequest request = (HttpRequest) msg;
             AccessLogHolder accessLogHolder = getAccessLogHolder(ctx, true);
@@ -145,7 +173,7 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
 
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
-        if (logger.isInfoEnabled()) {
+        if (isEnabled()) {
             processWriteEvent(ctx, msg, promise);
         } else {
             super.write(ctx, msg, promise);
@@ -155,7 +183,11 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
     private void log(ChannelHandlerContext ctx, Object msg, ChannelPromise promise, AccessLog accessLog) {
         ctx.write(msg, promise.unvoid()).addListener(future -> {
             if (future.isSuccess()) {
-                accessLog.log(logger);
+                if (asyncWriter != null) {
+                    asyncWriter.append(accessLog);
+                } else {
+                    accessLog.log(logger);
+                }
             }
         });
     }
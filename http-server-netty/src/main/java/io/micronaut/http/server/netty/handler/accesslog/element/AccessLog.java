@@ -15,6 +15,7 @@
  */
 package io.micronaut.http.server.netty.handler.accesslog.element;
 
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.server.netty.handler.accesslog.element.AccessLogFormatParser.IndexedLogElement;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.SocketChannel;
@@ -119,13 +120,38 @@ public class AccessLog {
     public void log(Logger accessLogger) {
         if (accessLogger.isInfoEnabled()) {
             final StringBuilder b = new StringBuilder(elements.length * 5);
-            for (int i = 0; i < elements.length; ++i) {
-                b.append(elements[i] == null ? ConstantElement.UNKNOWN_VALUE : elements[i]);
-            }
+            format(elements, b);
             accessLogger.info(b.toString());
         }
     }
 
+    /**
+     * Copies the accumulated values into the given array so they can be formatted later, for example by another
+     * thread once this instance has been reset.
+     *
+     * @param target The array to copy the values to. A new array is allocated if it is {@code null} or of a different length.
+     * @return The array holding the values
+     */
+    public String[] copyValues(@Nullable String[] target) {
+        if (target == null || target.length != elements.length) {
+            target = new String[elements.length];
+        }
+        System.arraycopy(elements, 0, target, 0, elements.length);
+        return target;
+    }
+
+    /**
+     * Appends the formatted access log line for the given values.
+     *
+     * @param values The values, as captured by {@link #copyValues(String[])}
+     * @param builder The builder to append to
+     */
+    public static void format(String[] values, StringBuilder builder) {
+        for (String value : values) {
+            builder.append(value == null ? ConstantElement.UNKNOWN_VALUE : value);
+        }
+    }
+
     private void resetIndexedLogElement(IndexedLogElement elt) {
         elements[elt.index] = null;
         elt.reset();
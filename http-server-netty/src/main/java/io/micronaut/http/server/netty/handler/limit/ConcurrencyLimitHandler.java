@@ -0,0 +1,178 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.handler.limit;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Function;
+
+/**
+ * Admits or rejects the requests of a connection or HTTP/2 stream with a {@link ConcurrencyLimiter}. It sits in front
+ * of the decompression and body handling, so a rejected request costs no more than parsing its headers: it is
+ * answered with a {@code 503 Service Unavailable} and a {@code Retry-After} header, and its body is discarded.
+ *
+ * <p>An admitted request is released when the last content of its response is written, sampling its latency.
+ * Responses to pipelined HTTP/1 requests are kept in request order.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+public final class ConcurrencyLimitHandler extends ChannelDuplexHandler {
+
+    private final ConcurrencyLimiter limiter;
+    private final Function<String, ConcurrencyLimiter.Priority> priorityResolver;
+    private final String retryAfter;
+    private final Queue<Exchange> exchanges = new ArrayDeque<>(2);
+    private boolean discarding;
+
+    /**
+     * @param limiter           The limiter shared by all the connections of the server
+     * @param priorityResolver  Resolves the priority of a request from its URI
+     * @param retryAfterSeconds The value of the {@code Retry-After} header of rejected requests
+     */
+    public ConcurrencyLimitHandler(@NonNull ConcurrencyLimiter limiter,
+                                   @NonNull Function<String, ConcurrencyLimiter.Priority> priorityResolver,
+                                   long retryAfterSeconds) {
+        this.limiter = limiter;
+        this.priorityResolver = priorityResolver;
+        this.retryAfter = Long.toString(retryAfterSeconds);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = (HttpRequest) msg;
+            if (limiter.tryAcquire(priorityResolver.apply(request.uri()))) {
+                discarding = false;
+                exchanges.add(new Exchange(System.nanoTime(), null));
+                ctx.fireChannelRead(msg);
+            } else {
+                discarding = !(msg instanceof LastHttpContent);
+                ReferenceCountUtil.release(msg);
+                FullHttpResponse rejection = rejection(request.protocolVersion());
+                if (exchanges.isEmpty()) {
+                    ctx.writeAndFlush(rejection);
+                } else {
+                    // answer once the responses of the preceding requests have been written
+                    exchanges.add(new Exchange(0, rejection));
+                }
+            }
+        } else if (discarding && msg instanceof HttpContent) {
+            discarding = !(msg instanceof LastHttpContent);
+            ReferenceCountUtil.release(msg);
+        } else {
+            ctx.fireChannelRead(msg);
+        }
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (msg instanceof LastHttpContent && !isContinue(msg)) {
+            Exchange exchange = exchanges.peek();
+            if (exchange != null && exchange.rejection == null) {
+                exchanges.poll();
+                long start = exchange.start;
+                ctx.write(msg, promise.unvoid()).addListener(future -> {
+                    if (future.isSuccess()) {
+                        limiter.release(System.nanoTime() - start);
+                    } else {
+                        limiter.release();
+                    }
+                });
+                writeRejections(ctx);
+                return;
+            }
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        releaseAll();
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        releaseAll();
+    }
+
+    private void writeRejections(ChannelHandlerContext ctx) {
+        boolean written = false;
+        Exchange exchange;
+        while ((exchange = exchanges.peek()) != null && exchange.rejection != null) {
+            exchanges.poll();
+            ctx.write(exchange.rejection);
+            written = true;
+        }
+        if (written) {
+            ctx.flush();
+        }
+    }
+
+    private void releaseAll() {
+        Exchange exchange;
+        while ((exchange = exchanges.poll()) != null) {
+            if (exchange.rejection == null) {
+                limiter.release();
+            } else {
+                exchange.rejection.release();
+            }
+        }
+    }
+
+    private FullHttpResponse rejection(HttpVersion version) {
+        FullHttpResponse response = new DefaultFullHttpResponse(version, HttpResponseStatus.SERVICE_UNAVAILABLE);
+        response.headers()
+                .set(HttpHeaderNames.RETRY_AFTER, retryAfter)
+                .set(HttpHeaderNames.CONTENT_LENGTH, 0);
+        return response;
+    }
+
+    private static boolean isContinue(Object msg) {
+        return msg instanceof HttpResponse && ((HttpResponse) msg).status().code() == HttpResponseStatus.CONTINUE.code();
+    }
+
+    /**
+     * An admitted request, or the response to a rejected request that waits for the preceding responses.
+     */
+    private static final class Exchange {
+        final long start;
+        final FullHttpResponse rejection;
+
+        Exchange(long start, FullHttpResponse rejection) {
+            this.start = start;
+            this.rejection = rejection;
+        }
+    }
+}
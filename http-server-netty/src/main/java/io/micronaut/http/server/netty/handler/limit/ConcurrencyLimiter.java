@@ -0,0 +1,219 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.handler.limit;
+
+import io.micronaut.core.annotation.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of requests a server processes concurrently, adapting the limit to the latency of the requests.
+ *
+ * <p>A request is admitted if the number of requests in flight is below its share of the current limit, which
+ * depends on its {@link Priority}. When a request completes its latency is sampled and the limit adjusted with the
+ * configured {@link Algorithm}, so that the server sheds excess requests quickly instead of queueing them while
+ * latency climbs.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+public final class ConcurrencyLimiter {
+
+    private static final double AIMD_BACKOFF_RATIO = 0.9;
+    private static final int GRADIENT_LONG_WINDOW = 600;
+    private static final double GRADIENT_TOLERANCE = 1.5;
+    private static final double GRADIENT_SMOOTHING = 0.2;
+    private static final double GRADIENT_MIN = 0.5;
+    private static final double GRADIENT_DRIFT_RATIO = 2;
+    private static final double GRADIENT_DRIFT_DECAY = 0.95;
+
+    private final Algorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder[] rejected = new LongAdder[Priority.values().length];
+    private volatile int limit;
+    // guarded by this
+    private double estimatedLimit;
+    private double longRtt;
+
+    /**
+     * @param algorithm        The algorithm that adjusts the limit
+     * @param initialLimit     The initial limit
+     * @param minLimit         The minimum limit
+     * @param maxLimit         The maximum limit
+     * @param latencyThreshold The latency above which the {@link Algorithm#AIMD} algorithm decreases the limit
+     */
+    public ConcurrencyLimiter(@NonNull Algorithm algorithm, int initialLimit, int minLimit, int maxLimit, @NonNull Duration latencyThreshold) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= min-limit <= max-limit");
+        }
+        this.algorithm = algorithm;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Tries to admit a request.
+     *
+     * @param priority The priority of the request
+     * @return Whether the request is admitted. If so {@link #release(long)} or {@link #release()} must be called when
+     * it completes.
+     */
+    public boolean tryAcquire(@NonNull Priority priority) {
+        int max = Math.max(1, (int) (limit * priority.share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                rejected[priority.ordinal()].increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and adjusts the limit to its latency.
+     *
+     * @param latencyNanos The latency of the request
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos > 0) {
+            update(latencyNanos, current);
+        }
+    }
+
+    /**
+     * Releases an admitted request that did not complete normally, without adjusting the limit.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return The current limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return The number of admitted requests that have not completed
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return The number of rejected requests
+     */
+    public long getRejectedCount() {
+        long count = 0;
+        for (LongAdder adder : rejected) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @param priority The priority
+     * @return The number of rejected requests of the given priority
+     */
+    public long getRejectedCount(@NonNull Priority priority) {
+        return rejected[priority.ordinal()].sum();
+    }
+
+    private synchronized void update(long rtt, int inFlightAtCompletion) {
+        double newLimit;
+        if (algorithm == Algorithm.AIMD) {
+            if (rtt > latencyThresholdNanos) {
+                newLimit = estimatedLimit * AIMD_BACKOFF_RATIO;
+            } else if (inFlightAtCompletion * 2 >= estimatedLimit) {
+                newLimit = estimatedLimit + 1;
+            } else {
+                return;
+            }
+        } else {
+            longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / GRADIENT_LONG_WINDOW;
+            if (longRtt / rtt > GRADIENT_DRIFT_RATIO) {
+                // the long term latency lags behind a recovery, let it catch up
+                longRtt *= GRADIENT_DRIFT_DECAY;
+            }
+            if (inFlightAtCompletion < estimatedLimit / 2) {
+                // the server is not using the limit, so the latency says nothing about it
+                return;
+            }
+            double gradient = Math.max(GRADIENT_MIN, Math.min(1.0, GRADIENT_TOLERANCE * longRtt / rtt));
+            double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - GRADIENT_SMOOTHING) + target * GRADIENT_SMOOTHING;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * The algorithm that adjusts the limit.
+     */
+    public enum Algorithm {
+        /**
+         * Increases the limit by one while requests complete within the latency threshold and the limit is in use,
+         * and decreases it by 10% when a request exceeds the threshold.
+         */
+        AIMD,
+        /**
+         * Compares the latency of each request with the long term average latency and shrinks the limit as the
+         * latency grows, while allowing a small queue of the square root of the limit.
+         */
+        GRADIENT
+    }
+
+    /**
+     * The priority class of a request, which determines the share of the limit the requests of the class may use.
+     * Lower priority requests are shed first as the server approaches the limit.
+     */
+    public enum Priority {
+        /**
+         * May use the whole limit, for example health checks.
+         */
+        CRITICAL(1.0),
+        /**
+         * May use 90% of the limit.
+         */
+        NORMAL(0.9),
+        /**
+         * May use half of the limit, for example batch or prefetch requests.
+         */
+        SHEDDABLE(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+}
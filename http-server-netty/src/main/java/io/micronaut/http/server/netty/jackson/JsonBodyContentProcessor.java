@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.jackson;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.server.HttpServerConfiguration;
+import io.micronaut.http.server.netty.AbstractHttpContentProcessor;
+import io.micronaut.http.server.netty.NettyHttpRequest;
+import io.micronaut.json.JsonMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.util.ReferenceCountUtil;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Binds a complete JSON request body directly to the body argument. The chunks of the body are added to the request,
+ * which buffers them without copying or spills them to disk, and deserialized in a single pass once the body is
+ * complete, instead of building an intermediate {@link io.micronaut.json.tree.JsonNode} tree first. Emits at most one
+ * item, the bound value.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+public final class JsonBodyContentProcessor extends AbstractHttpContentProcessor<Object> {
+
+    private final JsonMapper jsonMapper;
+    private final Argument<?> bodyType;
+
+    /**
+     * @param nettyHttpRequest The Netty Http request
+     * @param configuration    The Http server configuration
+     * @param jsonMapper       The JSON mapper
+     * @param bodyType         The type to bind the body to
+     */
+    public JsonBodyContentProcessor(
+            NettyHttpRequest<?> nettyHttpRequest,
+            HttpServerConfiguration configuration,
+            JsonMapper jsonMapper,
+            Argument<?> bodyType) {
+        super(nettyHttpRequest, configuration);
+        this.jsonMapper = jsonMapper;
+        this.bodyType = bodyType;
+    }
+
+    @Override
+    protected void doOnSubscribe(Subscription subscription, Subscriber<? super Object> subscriber) {
+        if (parentSubscription == null) {
+            return;
+        }
+        subscriber.onSubscribe(new Subscription() {
+            boolean requested;
+
+            @Override
+            public synchronized void request(long n) {
+                // the whole body is needed before the single value can be emitted, so the demand of the
+                // subscriber only starts the upstream, which is then pulled chunk by chunk in onData
+                if (!requested) {
+                    requested = true;
+                    parentSubscription.request(1);
+                }
+            }
+
+            @Override
+            public synchronized void cancel() {
+                parentSubscription.cancel();
+            }
+        });
+    }
+
+    @Override
+    protected void onData(ByteBufHolder message) {
+        CompletionStage<Void> stored;
+        try {
+            if (!message.content().isReadable()) {
+                parentSubscription.request(1);
+                return;
+            }
+            // released with the request
+            stored = nettyHttpRequest.addContentAsync(message);
+        } finally {
+            ReferenceCountUtil.release(message);
+        }
+        stored.whenComplete((ignored, error) -> {
+            if (error != null) {
+                onError(error);
+            } else {
+                parentSubscription.request(1);
+            }
+        });
+    }
+
+    @Override
+    protected void doOnComplete() {
+        nettyHttpRequest.contentStored().whenComplete((ignored, error) -> {
+            if (error != null) {
+                // the subscriber is already marked complete, so signal the error directly
+                doOnError(error);
+            } else {
+                emitBody();
+            }
+        });
+    }
+
+    private void emitBody() {
+        ByteBuf body = nettyHttpRequest.buildContent();
+        if (body != null) {
+            Object value;
+            try {
+                value = jsonMapper.readValue(new ByteBufInputStream(body), bodyType);
+            } catch (IOException e) {
+                doOnError(e);
+                return;
+            } finally {
+                body.release();
+            }
+            if (value != null) {
+                getSubscriber().onNext(value);
+            }
+        }
+        super.doOnComplete();
+    }
+}
@@ -16,6 +16,10 @@
 package io.micronaut.http.server.netty.jackson;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.reflect.ClassUtils;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Consumes;
 import io.micronaut.http.server.HttpServerConfiguration;
@@ -23,8 +27,13 @@ import io.micronaut.http.server.netty.HttpContentProcessor;
 import io.micronaut.http.server.netty.HttpContentSubscriberFactory;
 import io.micronaut.http.server.netty.NettyHttpRequest;
 import io.micronaut.json.JsonMapper;
+import io.micronaut.json.tree.JsonNode;
 import jakarta.inject.Singleton;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Future;
+
 /**
  * Builds the {@link org.reactivestreams.Subscriber} for JSON requests.
  *
@@ -36,6 +45,8 @@ import jakarta.inject.Singleton;
 @Internal
 public class JsonHttpContentSubscriberFactory implements HttpContentSubscriberFactory {
 
+    private static final String JSON_VIEW = "com.fasterxml.jackson.annotation.JsonView";
+
     private final HttpServerConfiguration httpServerConfiguration;
     private final JsonMapper jsonMapper;
 
@@ -54,4 +65,39 @@ public class JsonHttpContentSubscriberFactory implements HttpContentSubscriberFa
     public HttpContentProcessor build(NettyHttpRequest request) {
         return new JsonContentProcessor(request, httpServerConfiguration, jsonMapper);
     }
+
+    @Override
+    public HttpContentProcessor build(NettyHttpRequest request, Argument<?> bodyType) {
+        if (isDirectlyBindable(request, bodyType)) {
+            return new JsonBodyContentProcessor(request, httpServerConfiguration, jsonMapper, bodyType);
+        }
+        return build(request);
+    }
+
+    /**
+     * Whether the body can be deserialized straight to the body argument. Streaming and asynchronous arguments,
+     * optional and request arguments, JSON trees, maps and collections, and arguments with a JSON view keep going
+     * through the tree so that their existing conversion rules apply.
+     */
+    private static boolean isDirectlyBindable(NettyHttpRequest<?> request, Argument<?> bodyType) {
+        Class<?> type = bodyType.getType();
+        if (type == Object.class || type.isArray() || type.isPrimitive() || ClassUtils.isJavaLangType(type)) {
+            return false;
+        }
+        if (JsonNode.class.isAssignableFrom(type) ||
+                Iterable.class.isAssignableFrom(type) ||
+                Map.class.isAssignableFrom(type) ||
+                Optional.class.isAssignableFrom(type) ||
+                HttpRequest.class.isAssignableFrom(type) ||
+                Future.class.isAssignableFrom(type) ||
+                Publishers.isConvertibleToPublisher(type)) {
+            return false;
+        }
+        if (bodyType.getAnnotationMetadata().hasAnnotation(JSON_VIEW)) {
+            return false;
+        }
+        return request.getContentType()
+                .map(mediaType -> !mediaType.equals(MediaType.APPLICATION_JSON_STREAM_TYPE))
+                .orElse(true);
+    }
 }
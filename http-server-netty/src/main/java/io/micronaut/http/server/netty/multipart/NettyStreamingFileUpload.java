@@ -24,6 +24,7 @@ import io.micronaut.http.multipart.MultipartException;
 import io.micronaut.http.multipart.PartData;
 import io.micronaut.http.multipart.StreamingFileUpload;
 import io.micronaut.http.server.HttpServerConfiguration;
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.multipart.DiskFileUpload;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
@@ -34,16 +35,24 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
 /**
  * An implementation of the {@link StreamingFileUpload} interface for Netty.
  *
+ * <p>When transferring to a file the chunks are written from the Netty buffers to a {@link FileChannel} without
+ * being copied to the heap first. The next chunk is only requested once the previous one is on disk, so a slow
+ * disk applies backpressure all the way to the socket.</p>
+ *
  * @author Graeme Rocher
  * @since 1.0
  */
@@ -113,12 +122,16 @@ public class NettyStreamingFileUpload implements StreamingFileUpload {
 
     @Override
     public Publisher<Boolean> transferTo(File destination) {
-        return transferTo(() -> Files.newOutputStream(destination.toPath()));
+        return transferTo(() -> new FileChannelSink(FileChannel.open(
+                destination.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)));
     }
 
     @Override
     public Publisher<Boolean> transferTo(OutputStream outputStream) {
-        return transferTo(() -> outputStream);
+        return transferTo(() -> new OutputStreamSink(outputStream));
     }
 
     @Override
@@ -151,19 +164,19 @@ public class NettyStreamingFileUpload implements StreamingFileUpload {
         fileUpload.release();
     }
 
-    private Publisher<Boolean> transferTo(ThrowingSupplier<OutputStream, IOException> outputStreamSupplier) {
+    private Publisher<Boolean> transferTo(ThrowingSupplier<PartSink, IOException> sinkSupplier) {
         return Mono.<Boolean>create(emitter ->
 
                 subject.subscribeOn(Schedulers.fromExecutorService(ioExecutor))
                         .subscribe(new Subscriber<PartData>() {
                             Subscription subscription;
-                            OutputStream outputStream;
+                            PartSink sink;
                             @Override
                             public void onSubscribe(Subscription s) {
                                 subscription = s;
                                 subscription.request(1);
                                 try {
-                                    outputStream = outputStreamSupplier.get();
+                                    sink = sinkSupplier.get();
                                 } catch (IOException e) {
                                     handleError(e);
                                 }
@@ -172,7 +185,8 @@ public class NettyStreamingFileUpload implements StreamingFileUpload {
                             @Override
                             public void onNext(PartData o) {
                                 try {
-                                    outputStream.write(o.getBytes());
+                                    sink.write(o);
+                                    // only ask for more once the chunk has been written
                                     subscription.request(1);
                                 } catch (IOException e) {
                                     handleError(e);
@@ -183,8 +197,8 @@ public class NettyStreamingFileUpload implements StreamingFileUpload {
                             public void onError(Throwable t) {
                                 emitter.error(t);
                                 try {
-                                    if (outputStream != null) {
-                                        outputStream.close();
+                                    if (sink != null) {
+                                        sink.close();
                                     }
                                 } catch (IOException e) {
                                     if (LOG.isWarnEnabled()) {
@@ -196,7 +210,7 @@ public class NettyStreamingFileUpload implements StreamingFileUpload {
                             @Override
                             public void onComplete() {
                                 try {
-                                    outputStream.close();
+                                    sink.close();
                                     emitter.success(true);
                                 } catch (IOException e) {
                                     if (LOG.isWarnEnabled()) {
@@ -213,4 +227,86 @@ public class NettyStreamingFileUpload implements StreamingFileUpload {
                         })
         ).flux();
     }
+
+    /**
+     * The destination of a transfer.
+     */
+    private interface PartSink extends Closeable {
+
+        /**
+         * Writes the chunk and releases it.
+         *
+         * @param data The chunk
+         * @throws IOException If the chunk cannot be written
+         */
+        void write(PartData data) throws IOException;
+    }
+
+    /**
+     * Writes the Netty buffers of the chunks directly to a file channel. Composite buffers are written with a single
+     * gathering write.
+     */
+    private static final class FileChannelSink implements PartSink {
+
+        private final FileChannel channel;
+
+        FileChannelSink(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(PartData data) throws IOException {
+            if (data instanceof NettyPartData) {
+                ByteBuf byteBuf = ((NettyPartData) data).getByteBuf();
+                try {
+                    while (byteBuf.isReadable()) {
+                        byteBuf.readBytes(channel, byteBuf.readableBytes());
+                    }
+                } finally {
+                    byteBuf.release();
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.wrap(data.getBytes());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the chunks to an output stream. Heap buffers are written without an intermediate copy.
+     */
+    private static final class OutputStreamSink implements PartSink {
+
+        private final OutputStream outputStream;
+
+        OutputStreamSink(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(PartData data) throws IOException {
+            if (data instanceof NettyPartData) {
+                ByteBuf byteBuf = ((NettyPartData) data).getByteBuf();
+                try {
+                    byteBuf.readBytes(outputStream, byteBuf.readableBytes());
+                } finally {
+                    byteBuf.release();
+                }
+            } else {
+                outputStream.write(data.getBytes());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            outputStream.close();
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package io.micronaut.http.server.netty.types.files;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
@@ -28,15 +29,20 @@ import io.micronaut.http.server.netty.types.NettyFileCustomizableResponseType;
 import io.micronaut.http.server.types.CustomizableResponseTypeException;
 import io.micronaut.http.server.types.files.StreamedFile;
 import io.micronaut.http.server.types.files.SystemFile;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.FullHttpResponse;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * Responsible for writing files out to the response in Netty.
@@ -52,12 +58,28 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
     private static final String[] ENTITY_HEADERS = new String[] {HttpHeaders.ALLOW, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_LOCATION, HttpHeaders.CONTENT_MD5, HttpHeaders.CONTENT_RANGE, HttpHeaders.CONTENT_TYPE, HttpHeaders.EXPIRES, HttpHeaders.LAST_MODIFIED};
     private static final Class<?>[] SUPPORTED_TYPES = new Class[]{File.class, StreamedFile.class, NettyFileCustomizableResponseType.class, SystemFile.class};
     private final NettyHttpServerConfiguration.FileTypeHandlerConfiguration configuration;
+    @Nullable
+    private final StaticFileCache fileCache;
+    @Nullable
+    private final Supplier<? extends Executor> ioExecutor;
 
     /**
      * @param configuration The file type handler configuration
      */
     public FileTypeHandler(NettyHttpServerConfiguration.FileTypeHandlerConfiguration configuration) {
+        this(configuration, null);
+    }
+
+    /**
+     * @param configuration The file type handler configuration
+     * @param ioExecutor The executor that reads files into the cache, files are not cached without one
+     * @since 4.0.0
+     */
+    public FileTypeHandler(NettyHttpServerConfiguration.FileTypeHandlerConfiguration configuration,
+                           @Nullable Supplier<? extends Executor> ioExecutor) {
         this.configuration = configuration;
+        this.fileCache = configuration.getCache().isEnabled() && ioExecutor != null ? new StaticFileCache(configuration.getCache()) : null;
+        this.ioExecutor = ioExecutor;
     }
 
     @SuppressWarnings("MagicNumber")
@@ -78,8 +100,25 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
 
         long lastModified = type.getLastModified();
 
-        // Cache Validation
-        ZonedDateTime ifModifiedSince = request.getHeaders().getDate(HttpHeaders.IF_MODIFIED_SINCE);
+        File cacheableFile = null;
+        long length = 0;
+        long fileLastModified = 0;
+        boolean ifNoneMatchPresent = false;
+        if (fileCache != null && type instanceof NettySystemFileCustomizableResponseType) {
+            cacheableFile = ((NettySystemFileCustomizableResponseType) type).getFile();
+            length = cacheableFile.length();
+            fileLastModified = cacheableFile.lastModified();
+            String etag = etag(length, fileLastModified);
+            response.header(HttpHeaders.ETAG, etag);
+            List<String> ifNoneMatch = request.getHeaders().getAll(HttpHeaders.IF_NONE_MATCH);
+            ifNoneMatchPresent = !ifNoneMatch.isEmpty();
+            if (ifNoneMatchPresent && matches(ifNoneMatch, etag)) {
+                return context.writeAndFlush(notModified(response));
+            }
+        }
+
+        // Cache Validation, If-Modified-Since is ignored when If-None-Match is present
+        ZonedDateTime ifModifiedSince = ifNoneMatchPresent ? null : request.getHeaders().getDate(HttpHeaders.IF_MODIFIED_SINCE);
         if (ifModifiedSince != null) {
 
             // Only compare up to the second because the datetime format we send to the client
@@ -98,6 +137,19 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
         setDateAndCacheHeaders(response, lastModified);
 
         type.process(response);
+        if (cacheableFile != null) {
+            ByteBuffer content = fileCache.get(cacheableFile, length, fileLastModified);
+            if (content != null) {
+                NettyMutableHttpResponse<?> nettyResponse = (NettyMutableHttpResponse<?>) response;
+                nettyResponse.body(Unpooled.wrappedBuffer(content));
+                return context.writeAndFlush(nettyResponse.toFullHttpResponse());
+            }
+            // reading the file here would block the event loop, write it from disk and cache it for the next request
+            Executor executor = ioExecutor.get();
+            if (executor != null) {
+                fileCache.load(cacheableFile, length, fileLastModified, executor);
+            }
+        }
         return type.write(request, response, context);
     }
 
@@ -145,6 +197,28 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
         headers.date(now);
     }
 
+    /**
+     * Creates a strong entity tag from the length and the modification time of a file.
+     */
+    private static String etag(long length, long lastModified) {
+        return '"' + Long.toHexString(lastModified) + '-' + Long.toHexString(length) + '"';
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String header : ifNoneMatch) {
+            for (String tag : header.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private static void copyNonEntityHeaders(MutableHttpResponse<?> from, MutableHttpResponse to) {
         from.getHeaders().forEachValue((header, value) -> {
             if (Arrays.binarySearch(ENTITY_HEADERS, header) < 0) {
@@ -33,6 +33,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.HttpChunkedInput;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http2.Http2StreamChannel;
 import io.netty.handler.ssl.SslHandler;
@@ -116,8 +117,10 @@ public class NettySystemFileCustomizableResponseType extends SystemFile implemen
             FileHolder file = new FileHolder(getFile());
 
             // Write the content.
+            // precompressed content is not encoded again by the compressor
             if (context.pipeline().get(SslHandler.class) == null &&
-                    context.pipeline().get(SmartHttpContentCompressor.class).shouldSkip(finalResponse) &&
+                    (finalResponse.headers().contains(HttpHeaderNames.CONTENT_ENCODING) ||
+                            context.pipeline().get(SmartHttpContentCompressor.class).shouldSkip(finalResponse)) &&
                     !(context.channel() instanceof Http2StreamChannel)) {
                 // SSL not enabled - can use zero-copy file transfer.
                 context.write(new DefaultFileRegion(file.raf.getChannel(), 0, getLength()), context.newProgressivePromise())
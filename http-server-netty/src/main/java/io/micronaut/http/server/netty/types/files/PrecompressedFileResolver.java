@@ -0,0 +1,223 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up precompressed variants of static resources, for example {@code app.js.br} or {@code app.js.gz} next to
+ * {@code app.js}, for the encodings accepted by a request.
+ *
+ * <p>Variants on the file system are only used when they are at least as recent as the original file. The lookup of
+ * variants of other resources, for example resources inside a JAR file, is memoized since those cannot change while
+ * the application is running.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+public final class PrecompressedFileResolver {
+
+    private static final String PROTOCOL_FILE = "file";
+
+    private final List<Encoding> encodings;
+    private final Map<String, Optional<URL>> immutableVariants = new ConcurrentHashMap<>();
+
+    /**
+     * @param configuration The precompressed configuration
+     */
+    public PrecompressedFileResolver(@NonNull NettyHttpServerConfiguration.FileTypeHandlerConfiguration.PrecompressedConfiguration configuration) {
+        List<Encoding> encodings = new ArrayList<>(2);
+        for (String name : configuration.getEncodings()) {
+            Encoding encoding = Encoding.of(name);
+            if (encoding == null) {
+                throw new IllegalArgumentException("Unsupported precompressed encoding: " + name);
+            }
+            encodings.add(encoding);
+        }
+        this.encodings = encodings;
+    }
+
+    /**
+     * Resolves the preferred precompressed variant of a resource that is accepted by the request.
+     *
+     * @param resource The resource
+     * @param request The request
+     * @return The variant, or {@code null} if there is none
+     */
+    @Nullable
+    public Variant resolve(@NonNull URL resource, @NonNull HttpRequest<?> request) {
+        List<String> acceptEncoding = request.getHeaders().getAll(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding.isEmpty()) {
+            return null;
+        }
+        for (Encoding encoding : encodings) {
+            if (accepts(acceptEncoding, encoding.name)) {
+                URL variant = findVariant(resource, encoding.extension);
+                if (variant != null) {
+                    return new Variant(variant, encoding.name);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private URL findVariant(URL resource, String extension) {
+        if (PROTOCOL_FILE.equals(resource.getProtocol())) {
+            try {
+                File file = new File(resource.toURI());
+                File variant = new File(file.getPath() + extension);
+                if (variant.isFile() && variant.canRead() && variant.lastModified() >= file.lastModified()) {
+                    return variant.toURI().toURL();
+                }
+            } catch (URISyntaxException | MalformedURLException | IllegalArgumentException e) {
+                // not a hierarchical file URI
+            }
+            return null;
+        }
+        return immutableVariants.computeIfAbsent(resource.toExternalForm() + extension, PrecompressedFileResolver::probe)
+                .orElse(null);
+    }
+
+    private static Optional<URL> probe(String location) {
+        try {
+            URL url = new URL(location);
+            URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                // throws if the entry does not exist
+                ((JarURLConnection) connection).getJarEntry();
+            } else {
+                try (InputStream ignored = connection.getInputStream()) {
+                    // exists
+                }
+            }
+            return Optional.of(url);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the values of the {@code Accept-Encoding} headers accept the given encoding with a quality greater
+     * than zero, either explicitly or through {@code *}.
+     */
+    private static boolean accepts(List<String> acceptEncoding, String encoding) {
+        Boolean wildcard = null;
+        for (String header : acceptEncoding) {
+            for (String token : header.split(",")) {
+                int semicolon = token.indexOf(';');
+                String name = (semicolon == -1 ? token : token.substring(0, semicolon)).trim();
+                boolean accepted = semicolon == -1 || quality(token.substring(semicolon + 1)) > 0;
+                if (name.equalsIgnoreCase(encoding)) {
+                    return accepted;
+                } else if (name.equals("*")) {
+                    wildcard = accepted;
+                }
+            }
+        }
+        return wildcard != null && wildcard;
+    }
+
+    private static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            parameter = parameter.trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * A precompressed variant of a resource.
+     */
+    public static final class Variant {
+        private final URL url;
+        private final String encoding;
+
+        private Variant(URL url, String encoding) {
+            this.url = url;
+            this.encoding = encoding;
+        }
+
+        /**
+         * @return The location of the variant
+         */
+        public URL getUrl() {
+            return url;
+        }
+
+        /**
+         * @return The content encoding of the variant
+         */
+        public String getEncoding() {
+            return encoding;
+        }
+    }
+
+    /**
+     * A supported encoding and the file extension of its variants.
+     */
+    private static final class Encoding {
+        static final Encoding BROTLI = new Encoding("br", ".br");
+        static final Encoding GZIP = new Encoding("gzip", ".gz");
+
+        final String name;
+        final String extension;
+
+        private Encoding(String name, String extension) {
+            this.name = name;
+            this.extension = extension;
+        }
+
+        @Nullable
+        static Encoding of(String name) {
+            switch (name.trim().toLowerCase(Locale.ENGLISH)) {
+                case "br":
+                    return BROTLI;
+                case "gzip":
+                    return GZIP;
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
+import io.micronaut.web.router.resource.StaticResourceConfiguration;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Generates the gzip variants of the text based static resources on the file system at startup, so that they can be
+ * served by {@link PrecompressedFileResolver} without compressing them on every request.
+ *
+ * <p>A variant is only written when it is missing or older than the resource. Resources on the classpath cannot be
+ * written to and must be precompressed by the build.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+@Singleton
+@Requires(property = "micronaut.server.netty.responses.file.precompressed.generate", value = StringUtils.TRUE)
+public final class PrecompressedResourceGenerator implements ApplicationEventListener<StartupEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrecompressedResourceGenerator.class);
+    private static final String FILE_PREFIX = "file:";
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String BROTLI_EXTENSION = ".br";
+
+    private final List<StaticResourceConfiguration> staticResourceConfigurations;
+    private final int compressionThreshold;
+
+    /**
+     * @param staticResourceConfigurations The static resource configurations
+     * @param serverConfiguration The server configuration
+     */
+    PrecompressedResourceGenerator(List<StaticResourceConfiguration> staticResourceConfigurations,
+                                   NettyHttpServerConfiguration serverConfiguration) {
+        this.staticResourceConfigurations = staticResourceConfigurations;
+        this.compressionThreshold = serverConfiguration.getCompressionThreshold();
+    }
+
+    @Override
+    public void onApplicationEvent(StartupEvent event) {
+        for (StaticResourceConfiguration configuration : staticResourceConfigurations) {
+            if (!configuration.isEnabled()) {
+                continue;
+            }
+            for (String path : configuration.getPaths()) {
+                if (path.startsWith(FILE_PREFIX)) {
+                    generate(Paths.get(path.substring(FILE_PREFIX.length())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the missing or outdated gzip variants of the resources in the given directory.
+     *
+     * @param directory The directory
+     * @return The number of variants that were written
+     */
+    int generate(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int count = 0;
+        try (Stream<Path> files = Files.find(directory, Integer.MAX_VALUE, this::isCompressible)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Path variant = file.resolveSibling(file.getFileName() + GZIP_EXTENSION);
+                if (!Files.exists(variant) || Files.getLastModifiedTime(variant).compareTo(Files.getLastModifiedTime(file)) < 0) {
+                    writeGzip(file, variant);
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Error generating precompressed variants of static resources in " + directory + ": " + e.getMessage(), e);
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Generated {} precompressed variants of static resources in {}", count, directory);
+        }
+        return count;
+    }
+
+    private boolean isCompressible(Path file, BasicFileAttributes attributes) {
+        String name = file.getFileName().toString();
+        return attributes.isRegularFile() &&
+                attributes.size() >= compressionThreshold &&
+                !name.endsWith(GZIP_EXTENSION) &&
+                !name.endsWith(BROTLI_EXTENSION) &&
+                MediaType.forFilename(name).isTextBased();
+    }
+
+    private static void writeGzip(Path file, Path variant) throws IOException {
+        // write to a temporary file first so that a partially written variant is never served
+        Path temporary = Files.createTempFile(variant.getParent(), variant.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BestCompressionGzipOutputStream(Files.newOutputStream(temporary))) {
+                Files.copy(file, out);
+            }
+            Files.move(temporary, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * A gzip stream using the best compression, since the variant is written once and served many times.
+     */
+    private static final class BestCompressionGzipOutputStream extends GZIPOutputStream {
+        BestCompressionGzipOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
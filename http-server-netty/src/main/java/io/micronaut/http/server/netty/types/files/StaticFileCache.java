@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Keeps the content of small files in direct memory so that repeated requests for them neither open nor read the
+ * file.
+ *
+ * <p>Files are read into the cache on a separate executor, never by the thread that asks for them, which is usually an
+ * event loop. A request for a file that is not cached yet is written from disk as usual. An entry is only used while
+ * the length and the modification time of the file are unchanged, otherwise the file is read again. The cache is bounded by the total size of the cached files and evicts the least recently used files
+ * first. The buffers are not reference counted, so evicted content is reclaimed by the garbage collector once the
+ * last response using it has been written.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+final class StaticFileCache {
+
+    private final long maxSize;
+    private final int maxFileSize;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> loading = new HashSet<>();
+    private long size;
+
+    /**
+     * @param configuration The cache configuration
+     */
+    StaticFileCache(@NonNull NettyHttpServerConfiguration.FileTypeHandlerConfiguration.CacheConfiguration configuration) {
+        this.maxSize = configuration.getMaxSize();
+        this.maxFileSize = configuration.getMaxFileSize();
+    }
+
+    /**
+     * Returns the cached content of a file.
+     *
+     * @param file The file
+     * @param length The current length of the file
+     * @param lastModified The current modification time of the file
+     * @return A read-only view of the content, or {@code null} if the file is not cached or has changed since
+     */
+    @Nullable
+    synchronized ByteBuffer get(@NonNull File file, long length, long lastModified) {
+        Entry entry = entries.get(file.getPath());
+        if (entry != null && entry.length == length && entry.lastModified == lastModified) {
+            return entry.content.duplicate();
+        }
+        return null;
+    }
+
+    /**
+     * Reads a file into the cache on the given executor, unless it is too large or is already being read.
+     *
+     * @param file The file
+     * @param length The current length of the file
+     * @param lastModified The current modification time of the file
+     * @param executor The executor that reads the file
+     */
+    void load(@NonNull File file, long length, long lastModified, @NonNull Executor executor) {
+        if (length > maxFileSize || length > maxSize) {
+            return;
+        }
+        String key = file.getPath();
+        synchronized (this) {
+            if (!loading.add(key)) {
+                return;
+            }
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    ByteBuffer content = read(file, (int) length);
+                    if (content != null) {
+                        put(key, new Entry(content, length, lastModified));
+                    }
+                } finally {
+                    loaded(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the file is read again by a later request
+            loaded(key);
+        }
+    }
+
+    /**
+     * @return The total size in bytes of the cached files
+     */
+    synchronized long getSize() {
+        return size;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            size -= previous.length;
+        }
+        size += entry.length;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            size -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    private synchronized void loaded(String key) {
+        loading.remove(key);
+    }
+
+    @Nullable
+    private static ByteBuffer read(File file, int length) {
+        ByteBuffer content = ByteBuffer.allocateDirect(length);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (content.hasRemaining()) {
+                if (channel.read(content) < 0) {
+                    // the file was truncated while reading it
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        content.flip();
+        return content.asReadOnlyBuffer();
+    }
+
+    /**
+     * The cached content of a file.
+     */
+    private static final class Entry {
+        final ByteBuffer content;
+        final long length;
+        final long lastModified;
+
+        Entry(ByteBuffer content, long length, long lastModified) {
+            this.content = content;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+    }
+}
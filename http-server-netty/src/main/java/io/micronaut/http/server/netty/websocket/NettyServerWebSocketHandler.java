@@ -30,6 +30,7 @@ import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.http.netty.websocket.AbstractNettyWebSocketHandler;
 import io.micronaut.http.netty.websocket.NettyWebSocketSession;
 import io.micronaut.http.netty.websocket.WebSocketSessionRepository;
+import io.micronaut.http.netty.websocket.WebSocketTopicRegistry;
 import io.micronaut.http.server.CoroutineHelper;
 import io.micronaut.http.server.netty.NettyEmbeddedServices;
 import io.micronaut.inject.ExecutableMethod;
@@ -195,6 +196,11 @@ public class NettyServerWebSocketHandler extends AbstractNettyWebSocketHandler {
                 return uriVars;
             }
 
+            @Override
+            protected WebSocketTopicRegistry getTopicRegistry() {
+                return webSocketSessionRepository.getTopicRegistry();
+            }
+
         };
 
         webSocketSessionRepository.addChannel(channel);
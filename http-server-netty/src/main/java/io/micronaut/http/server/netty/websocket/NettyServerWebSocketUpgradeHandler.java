@@ -17,6 +17,7 @@ package io.micronaut.http.server.netty.websocket;
 
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.HttpAttributes;
 import io.micronaut.http.HttpMethod;
@@ -31,9 +32,12 @@ import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.http.exceptions.HttpStatusException;
 import io.micronaut.http.netty.NettyHttpHeaders;
 import io.micronaut.http.netty.channel.ChannelPipelineCustomizer;
+import io.micronaut.http.netty.websocket.KeyedWebSocketFrame;
+import io.micronaut.http.netty.websocket.WebSocketOutboundHandler;
 import io.micronaut.http.netty.websocket.WebSocketSessionRepository;
 import io.micronaut.http.server.netty.NettyEmbeddedServices;
 import io.micronaut.http.server.netty.NettyHttpRequest;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
 import io.micronaut.http.server.RouteExecutor;
 import io.micronaut.web.router.Router;
 import io.micronaut.web.router.UriRouteMatch;
@@ -56,6 +60,7 @@ import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketServerHandshaker;
 import io.netty.handler.codec.http.websocketx.WebSocketServerHandshakerFactory;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.AsciiString;
 import org.reactivestreams.Publisher;
@@ -97,6 +102,7 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
     private final WebSocketSessionRepository webSocketSessionRepository;
     private final RouteExecutor routeExecutor;
     private final NettyEmbeddedServices nettyEmbeddedServices;
+    private final NettyHttpServerConfiguration.WebSocketOutbound webSocketOutbound;
     private WebSocketServerHandshaker handshaker;
     private boolean cancelUpgrade = false;
 
@@ -109,6 +115,21 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
     public NettyServerWebSocketUpgradeHandler(
             NettyEmbeddedServices embeddedServices,
             WebSocketSessionRepository webSocketSessionRepository) {
+        this(embeddedServices, webSocketSessionRepository, null);
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param embeddedServices The embedded server services
+     * @param webSocketSessionRepository The websocket session repository
+     * @param webSocketOutbound The configuration of the outbound queues of the sessions
+     * @since 4.0.0
+     */
+    public NettyServerWebSocketUpgradeHandler(
+            NettyEmbeddedServices embeddedServices,
+            WebSocketSessionRepository webSocketSessionRepository,
+            @Nullable NettyHttpServerConfiguration.WebSocketOutbound webSocketOutbound) {
         this.router = embeddedServices.getRouter();
         this.binderRegistry = embeddedServices.getRequestArgumentSatisfier().getBinderRegistry();
         this.webSocketBeanRegistry = embeddedServices.getWebSocketBeanRegistry();
@@ -116,6 +137,7 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
         this.webSocketSessionRepository = webSocketSessionRepository;
         this.routeExecutor = embeddedServices.getRouteExecutor();
         this.nettyEmbeddedServices = embeddedServices;
+        this.webSocketOutbound = webSocketOutbound;
     }
 
     @Override
@@ -190,6 +212,7 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
                                     ctx,
                                     routeExecutor.getCoroutineHelper().orElse(null));
                             pipeline.addBefore(ctx.name(), NettyServerWebSocketHandler.ID, webSocketHandler);
+                            addOutboundHandlers(pipeline);
 
                             pipeline.remove(ChannelPipelineCustomizer.HANDLER_HTTP_STREAM);
                             pipeline.remove(NettyServerWebSocketUpgradeHandler.this);
@@ -197,6 +220,10 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
                             if (accessLoggerHandler !=  null) {
                                 pipeline.remove(accessLoggerHandler);
                             }
+                            ChannelHandler concurrencyLimitHandler = pipeline.get(ChannelPipelineCustomizer.HANDLER_CONCURRENCY_LIMIT);
+                            if (concurrencyLimitHandler != null) {
+                                pipeline.remove(concurrencyLimitHandler);
+                            }
 
                         } catch (Throwable e) {
                             if (LOG.isErrorEnabled()) {
@@ -211,6 +238,25 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
 
     }
 
+    private void addOutboundHandlers(ChannelPipeline pipeline) {
+        String next = NettyServerWebSocketHandler.ID;
+        if (webSocketOutbound != null && webSocketOutbound.isEnabled()) {
+            pipeline.addBefore(next, ChannelPipelineCustomizer.HANDLER_WEBSOCKET_OUTBOUND, new WebSocketOutboundHandler(
+                    webSocketOutbound.getPolicy(),
+                    webSocketOutbound.getMaxQueuedBytes(),
+                    webSocketOutbound.getMaxQueuedMessages()));
+        } else {
+            // without the queue, keyed frames still have to be unwrapped before they are encoded
+            pipeline.addBefore(next, ChannelPipelineCustomizer.HANDLER_WEBSOCKET_OUTBOUND, KeyedWebSocketFrame.Unwrapper.INSTANCE);
+        }
+        next = ChannelPipelineCustomizer.HANDLER_WEBSOCKET_OUTBOUND;
+        if (webSocketOutbound != null && webSocketOutbound.isFlushConsolidation()) {
+            // frames queued by the outbound handler are flushed in the same batch
+            pipeline.addBefore(next, ChannelPipelineCustomizer.HANDLER_WEBSOCKET_FLUSH_CONSOLIDATION,
+                    new FlushConsolidationHandler(webSocketOutbound.getMaxConsolidatedFlushes(), true));
+        }
+    }
+
     /**
      * Do the handshaking for WebSocket request.
      *
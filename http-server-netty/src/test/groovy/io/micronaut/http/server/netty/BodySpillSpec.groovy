@@ -0,0 +1,103 @@
+package io.micronaut.http.server.netty
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Introspected
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.HttpClient
+import io.micronaut.runtime.server.EmbeddedServer
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.Executor
+
+class BodySpillSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    void "test bodies above the threshold are spilled to disk and bound as usual"() {
+        given:
+        EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, [
+                'spec.name': 'BodySpillSpec',
+                'micronaut.server.netty.body-spill.enabled': true,
+                'micronaut.server.netty.body-spill.threshold': '1KB',
+                'micronaut.server.netty.body-spill.directory': tempDir.toString()
+        ])
+        HttpClient client = embeddedServer.applicationContext.createBean(HttpClient, embeddedServer.getURL())
+        BodySpillManager manager = ((NettyHttpServer) embeddedServer).bodySpillManager.get()
+        String large = 'a' * 100_000
+        String json = '{"name":"' + large + '"}'
+
+        expect:
+        client.toBlocking().retrieve(HttpRequest.POST('/body-spill/text', 'small').contentType(MediaType.TEXT_PLAIN_TYPE)) == '5'
+        manager.spilledRequestCount == 0
+
+        client.toBlocking().retrieve(HttpRequest.POST('/body-spill/text', large).contentType(MediaType.TEXT_PLAIN_TYPE)) == '100000'
+        client.toBlocking().retrieve(HttpRequest.POST('/body-spill/json', json).contentType(MediaType.APPLICATION_JSON_TYPE)) == '100000'
+        manager.spilledRequestCount == 2
+        manager.spilledBytes >= 200_000
+
+        and:"bodies bound through a JSON tree are not spilled"
+        client.toBlocking().retrieve(HttpRequest.POST('/body-spill/json-tree', json).contentType(MediaType.APPLICATION_JSON_TYPE)) == '100000'
+        manager.spilledRequestCount == 2
+        new PollingConditions(timeout: 5).eventually {
+            manager.inMemoryBytes == 0
+            Files.list(tempDir).withCloseable { it.count() } == 0
+        }
+
+        cleanup:
+        client.close()
+        embeddedServer.close()
+    }
+
+    void "test bodies are spilled when the memory budget is exhausted"() {
+        given:
+        BodySpillManager manager = new BodySpillManager(1000, 1500, null, { Runnable task -> task.run() } as Executor)
+
+        expect:
+        manager.reserve(0, 1000)
+        !manager.reserve(0, 1001)
+        !manager.reserve(0, 600)
+        manager.inMemoryBytes == 1000
+
+        when:
+        manager.release(1000)
+
+        then:
+        manager.reserve(0, 600)
+        manager.inMemoryBytes == 600
+    }
+
+    @Requires(property = 'spec.name', value = 'BodySpillSpec')
+    @Controller('/body-spill')
+    static class BodySpillController {
+
+        @Post(uri = '/text', consumes = MediaType.TEXT_PLAIN)
+        String text(@Body String body) {
+            body.length().toString()
+        }
+
+        @Post(uri = '/json', consumes = MediaType.APPLICATION_JSON)
+        String json(@Body Named body) {
+            body.name.length().toString()
+        }
+
+        @Post(uri = '/json-tree', consumes = MediaType.APPLICATION_JSON)
+        String jsonTree(@Body Map<String, String> body) {
+            body.name.length().toString()
+        }
+    }
+
+    @Introspected
+    static class Named {
+        String name
+    }
+}
@@ -0,0 +1,283 @@
+package io.micronaut.http.server.netty
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.type.Argument
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.HttpClient
+import io.micronaut.json.JsonMapper
+import io.micronaut.runtime.server.EmbeddedServer
+import io.netty.buffer.ByteBufAllocator
+import io.netty.channel.DefaultEventLoop
+import io.netty.handler.codec.http.HttpContent
+import org.reactivestreams.Subscription
+import reactor.core.publisher.BaseSubscriber
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Sinks
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+class JsonStreamWriterSpec extends Specification {
+
+    @Shared @AutoCleanup ApplicationContext applicationContext = ApplicationContext.run()
+    @Shared @AutoCleanup('shutdownGracefully') DefaultEventLoop eventLoop = new DefaultEventLoop()
+    @Shared JsonMapper jsonMapper = applicationContext.getBean(JsonMapper)
+
+    void "test elements are written as a JSON array"() {
+        when:
+        List<String> chunks = collect(Flux.range(0, 100).map { new Book(title: "Book $it") }, JsonStreamWriter.Format.ARRAY, 8192)
+
+        then:
+        chunks.size() == 1
+        jsonMapper.readValue(chunks.join(''), Argument.listOf(Book))*.title == (0..<100).collect { "Book $it".toString() }
+    }
+
+    void "test elements are written as newline delimited JSON"() {
+        when:
+        List<String> chunks = collect(Flux.range(0, 3).map { new Book(title: "Book $it") }, JsonStreamWriter.Format.NEW_LINE_DELIMITED, 8192)
+
+        then:
+        chunks == ['{"title":"Book 0"}\n{"title":"Book 1"}\n{"title":"Book 2"}\n']
+    }
+
+    void "test elements are written one after the other"() {
+        when:
+        List<String> chunks = collect(Flux.range(0, 3).map { new Book(title: "Book $it") }, JsonStreamWriter.Format.CONCATENATED, 8192)
+
+        then:
+        chunks == ['{"title":"Book 0"}{"title":"Book 1"}{"title":"Book 2"}']
+    }
+
+    void "test an empty publisher"() {
+        expect:
+        collect(Flux.empty(), JsonStreamWriter.Format.ARRAY, 8192) == ['[]']
+        collect(Flux.empty(), JsonStreamWriter.Format.NEW_LINE_DELIMITED, 8192) == []
+        collect(Flux.empty(), JsonStreamWriter.Format.CONCATENATED, 8192) == []
+    }
+
+    void "test a chunk is emitted once it reaches the maximum chunk size"() {
+        when:
+        List<String> chunks = collect(Flux.range(0, 4).map { new Book(title: "Book $it") }, JsonStreamWriter.Format.ARRAY, 30)
+
+        then:
+        chunks == ['[{"title":"Book 0"},{"title":"Book 1"}', ',{"title":"Book 2"},{"title":"Book 3"}', ']']
+    }
+
+    void "test a chunk is emitted once the maximum delay has elapsed"() {
+        given:
+        Sinks.Many<Book> sink = Sinks.many().unicast().onBackpressureBuffer()
+        List<String> chunks = new CopyOnWriteArrayList<>()
+        Flux<HttpContent> contents = JsonStreamWriter.lift(sink.asFlux(), jsonMapper, Argument.of(Book), JsonStreamWriter.Format.NEW_LINE_DELIMITED,
+                ByteBufAllocator.DEFAULT, eventLoop, 8192, TimeUnit.MILLISECONDS.toNanos(50), 16)
+        contents.subscribe { HttpContent content -> chunks << read(content) }
+
+        when:
+        sink.tryEmitNext(new Book(title: 'One'))
+        sink.tryEmitNext(new Book(title: 'Two'))
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            chunks == ['{"title":"One"}\n{"title":"Two"}\n']
+        }
+
+        when:
+        sink.tryEmitNext(new Book(title: 'Three'))
+        sink.tryEmitComplete()
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            chunks == ['{"title":"One"}\n{"title":"Two"}\n', '{"title":"Three"}\n']
+        }
+    }
+
+    void "test elements are only requested while there is demand or the chunk is not full"() {
+        given:
+        AtomicLong requested = new AtomicLong()
+        Flux<Book> books = Flux.range(0, 1000)
+                .map { new Book(title: "Book $it") }
+                .doOnRequest { requested.addAndGet(it) }
+        List<String> chunks = []
+        BaseSubscriber<HttpContent> subscriber = new BaseSubscriber<HttpContent>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+            }
+
+            @Override
+            protected void hookOnNext(HttpContent content) {
+                chunks << read(content)
+            }
+        }
+
+        when:
+        JsonStreamWriter.lift(books, jsonMapper, Argument.of(Book), JsonStreamWriter.Format.ARRAY, ByteBufAllocator.DEFAULT, eventLoop, 100, 0, 8)
+                .subscribe(subscriber)
+
+        then:
+        chunks.isEmpty()
+        requested.get() <= 16
+
+        when:
+        subscriber.request(1)
+
+        then:
+        chunks.size() == 1
+        requested.get() <= 32
+
+        cleanup:
+        subscriber.dispose()
+    }
+
+    void "test chunks are emitted and elements requested without holding the monitor"() {
+        given:
+        List<Boolean> locked = new CopyOnWriteArrayList<>()
+        Flux<Book> books = Flux.range(0, 100).map { new Book(title: "Book $it") }
+        BaseSubscriber<HttpContent> subscriber = new BaseSubscriber<HttpContent>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE)
+            }
+
+            @Override
+            protected void hookOnNext(HttpContent content) {
+                locked << Thread.holdsLock(upstream())
+                content.release()
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                locked << Thread.holdsLock(upstream())
+            }
+        }
+
+        when:
+        JsonStreamWriter.lift(books.doOnRequest { locked << Thread.holdsLock(subscriber.upstream()) }, jsonMapper, Argument.of(Book),
+                JsonStreamWriter.Format.ARRAY, ByteBufAllocator.DEFAULT, eventLoop, 100, 0, 8)
+                .subscribe(subscriber)
+
+        then:
+        locked.size() > 2
+        !locked.contains(true)
+    }
+
+    void "test elements are serialized without holding the monitor"() {
+        given:
+        List<Boolean> locked = new CopyOnWriteArrayList<>()
+        BaseSubscriber<HttpContent> subscriber = new BaseSubscriber<HttpContent>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE)
+            }
+
+            @Override
+            protected void hookOnNext(HttpContent content) {
+                content.release()
+            }
+        }
+        Flux<LockProbe> probes = Flux.range(0, 10).map { new LockProbe({ locked << Thread.holdsLock(subscriber.upstream()) }) }
+
+        when:
+        JsonStreamWriter.lift(probes, jsonMapper, Argument.of(LockProbe), JsonStreamWriter.Format.ARRAY,
+                ByteBufAllocator.DEFAULT, eventLoop, 100, 0, 8)
+                .subscribe(subscriber)
+
+        then:
+        locked.size() == 10
+        !locked.contains(true)
+    }
+
+    void "test an error is propagated"() {
+        when:
+        collect(Flux.concat(Flux.just(new Book(title: 'One')), Flux.error(new IllegalStateException('Bad things'))), JsonStreamWriter.Format.ARRAY, 8192)
+
+        then:
+        IllegalStateException e = thrown()
+        e.message == 'Bad things'
+    }
+
+    void "test publisher responses are streamed as a JSON array, a JSON stream and newline delimited JSON"() {
+        given:
+        EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, [
+                'spec.name': 'JsonStreamWriterSpec',
+                'micronaut.server.netty.json-streaming.enabled': true,
+                'micronaut.server.netty.json-streaming.max-chunk-size': '64B'
+        ])
+        HttpClient client = embeddedServer.applicationContext.createBean(HttpClient, embeddedServer.getURL())
+
+        expect:
+        client.toBlocking().retrieve(HttpRequest.GET('/json-streaming/array'), Argument.listOf(Book))*.title == (0..<20).collect { "Book $it".toString() }
+        client.toBlocking().retrieve(HttpRequest.GET('/json-streaming/array/empty')) == '[]'
+        client.toBlocking().retrieve(HttpRequest.GET('/json-streaming/ndjson')) == (0..<3).collect { '{"title":"Book ' + it + '"}\n' }.join('')
+        client.toBlocking().retrieve(HttpRequest.GET('/json-streaming/stream')) == (0..<3).collect { '{"title":"Book ' + it + '"}' }.join('')
+
+        cleanup:
+        client.close()
+        embeddedServer.close()
+    }
+
+    private List<String> collect(Flux<?> body, JsonStreamWriter.Format format, int maxChunkSize) {
+        return JsonStreamWriter.lift(body, jsonMapper, Argument.of(Book), format, ByteBufAllocator.DEFAULT, eventLoop, maxChunkSize, TimeUnit.SECONDS.toNanos(10), 256)
+                .map { HttpContent content -> read(content) }
+                .collectList()
+                .block()
+    }
+
+    private static String read(HttpContent content) {
+        try {
+            return content.content().toString(StandardCharsets.UTF_8)
+        } finally {
+            content.release()
+        }
+    }
+
+    @Controller('/json-streaming')
+    @Requires(property = 'spec.name', value = 'JsonStreamWriterSpec')
+    static class JsonStreamingController {
+
+        @Get('/array')
+        Flux<Book> array() {
+            return Flux.range(0, 20).map { new Book(title: "Book $it") }
+        }
+
+        @Get('/array/empty')
+        Flux<Book> empty() {
+            return Flux.empty()
+        }
+
+        @Get(uri = '/ndjson', produces = MediaType.APPLICATION_NDJSON)
+        Flux<Book> ndjson() {
+            return Flux.range(0, 3).map { new Book(title: "Book $it") }
+        }
+
+        @Get(uri = '/stream', produces = MediaType.APPLICATION_JSON_STREAM)
+        Flux<Book> stream() {
+            return Flux.range(0, 3).map { new Book(title: "Book $it") }
+        }
+    }
+
+    static class Book {
+        String title
+    }
+
+    static class LockProbe {
+        private final Closure<?> probe
+
+        LockProbe(Closure<?> probe) {
+            this.probe = probe
+        }
+
+        String getTitle() {
+            probe.call()
+            return 'probe'
+        }
+    }
+}
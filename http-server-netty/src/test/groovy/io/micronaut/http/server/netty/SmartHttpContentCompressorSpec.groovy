@@ -1,9 +1,17 @@
 package io.micronaut.http.server.netty
 
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.Unpooled
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.handler.codec.compression.ZlibCodecFactory
+import io.netty.handler.codec.compression.ZlibWrapper
 import io.netty.handler.codec.http.*
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.nio.charset.StandardCharsets
+
 class SmartHttpContentCompressorSpec extends Specification {
 
     private static String compressible = "text/html"
@@ -34,4 +42,125 @@ class SmartHttpContentCompressorSpec extends Specification {
         inCompressible | 0      | true      // incompressible, always skip
         null           | null   | true      // if the content type is unknown, skip
     }
+
+    @Unroll
+    void "test encoding #expected is selected for Accept-Encoding #acceptEncoding"() {
+        given:
+        List<CompressionEncoding> encodings = [StandardCompressionEncoding.BROTLI, StandardCompressionEncoding.GZIP, StandardCompressionEncoding.DEFLATE]
+
+        expect:
+        SmartHttpContentCompressor.selectEncoding(encodings, acceptEncoding)?.name == expected
+
+        where:
+        acceptEncoding                | expected
+        null                          | null
+        'identity'                    | null
+        'gzip'                        | 'gzip'
+        'deflate, gzip'               | 'gzip'
+        'gzip, deflate, br'           | 'br'
+        'br;q=0, gzip;q=0.5'          | 'gzip'
+        'GZIP'                        | 'gzip'
+        '*'                           | 'br'
+        '*;q=0.1, br;q=0'             | 'gzip'
+        'gzip;q=0, deflate;q=0, *;q=0'| null
+        'deflate;q=invalid, deflate'  | 'deflate'
+    }
+
+    void "test levels are resolved by media type"() {
+        given:
+        NettyHttpServerConfiguration.Compression compression = new NettyHttpServerConfiguration.Compression()
+        compression.encodings = ['gzip', 'unknown', 'deflate']
+        compression.levels = [deflate: 3]
+        NettyHttpServerConfiguration.Compression.MediaTypeCompression json = new NettyHttpServerConfiguration.Compression.MediaTypeCompression()
+        json.types = ['application/json', 'text/*']
+        json.levels = [gzip: 9]
+        compression.mediaTypes = [json]
+        DefaultHttpCompressionStrategy strategy = new DefaultHttpCompressionStrategy(1024, 5, compression, [])
+
+        expect:
+        strategy.encodings == [StandardCompressionEncoding.GZIP, StandardCompressionEncoding.DEFLATE]
+        strategy.getCompressionLevel(response('application/json'), StandardCompressionEncoding.GZIP) == 9
+        strategy.getCompressionLevel(response('text/plain;charset=UTF-8'), StandardCompressionEncoding.GZIP) == 9
+        strategy.getCompressionLevel(response('application/json'), StandardCompressionEncoding.DEFLATE) == 3
+        strategy.getCompressionLevel(response('application/xml'), StandardCompressionEncoding.GZIP) == 5
+        strategy.getCompressionLevel(response('application/xml'), StandardCompressionEncoding.DEFLATE) == 3
+    }
+
+    void "test a custom encoding takes precedence over the standard encoding of the same name"() {
+        given:
+        CompressionEncoding custom = Stub(CompressionEncoding) {
+            getName() >> 'gzip'
+            isAvailable() >> true
+        }
+        NettyHttpServerConfiguration.Compression compression = new NettyHttpServerConfiguration.Compression()
+        compression.encodings = ['gzip']
+
+        expect:
+        new DefaultHttpCompressionStrategy(1024, 6, compression, [custom]).encodings == [custom]
+    }
+
+    void "test the response is compressed with the negotiated encoding"() {
+        given:
+        NettyHttpServerConfiguration.Compression compression = new NettyHttpServerConfiguration.Compression()
+        compression.encodings = ['deflate', 'gzip']
+        EmbeddedChannel channel = new EmbeddedChannel(new SmartHttpContentCompressor(new DefaultHttpCompressionStrategy(1, 6, compression, [])))
+        byte[] body = ('{"title":"The Stand"}' * 100).bytes
+
+        when:
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, '/')
+        request.headers().add(HttpHeaderNames.ACCEPT_ENCODING, 'gzip, deflate;q=0.5')
+        channel.writeInbound(request)
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(body))
+        response.headers().add(HttpHeaderNames.CONTENT_TYPE, 'application/json')
+        response.headers().add(HttpHeaderNames.CONTENT_LENGTH, body.length)
+        channel.writeOutbound(response)
+        HttpResponse encodedResponse = channel.readOutbound()
+        EmbeddedChannel decoder = new EmbeddedChannel(ZlibCodecFactory.newZlibDecoder(ZlibWrapper.ZLIB))
+        HttpContent content
+        while ((content = channel.readOutbound()) != null) {
+            decoder.writeInbound(content.content())
+        }
+        ByteBuf decoded = Unpooled.buffer()
+        ByteBuf chunk
+        while ((chunk = decoder.readInbound()) != null) {
+            decoded.writeBytes(chunk)
+            chunk.release()
+        }
+
+        then:
+        encodedResponse.headers().get(HttpHeaderNames.CONTENT_ENCODING) == 'deflate'
+        decoded.toString(StandardCharsets.UTF_8) == new String(body)
+
+        cleanup:
+        decoded.release()
+        channel.finishAndReleaseAll()
+        decoder.finishAndReleaseAll()
+    }
+
+    void "test responses that are already encoded are not compressed again"() {
+        given:
+        EmbeddedChannel channel = new EmbeddedChannel(new SmartHttpContentCompressor(new DefaultHttpCompressionStrategy(1, 6)))
+
+        when:
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, '/app.js')
+        request.headers().add(HttpHeaderNames.ACCEPT_ENCODING, 'gzip')
+        channel.writeInbound(request)
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(new byte[100]))
+        response.headers().add(HttpHeaderNames.CONTENT_TYPE, 'application/javascript')
+        response.headers().add(HttpHeaderNames.CONTENT_ENCODING, 'br')
+        channel.writeOutbound(response)
+        HttpResponse written = channel.readOutbound()
+
+        then:
+        written.headers().get(HttpHeaderNames.CONTENT_ENCODING) == 'br'
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    private static HttpResponse response(String contentType) {
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK)
+        response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType)
+        return response
+    }
 }
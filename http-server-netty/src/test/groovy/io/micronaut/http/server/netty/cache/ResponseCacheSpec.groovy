@@ -0,0 +1,238 @@
+package io.micronaut.http.server.netty.cache
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Filter
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Header
+import io.micronaut.http.annotation.Produces
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.http.server.cache.CachedResponse
+import io.micronaut.runtime.server.EmbeddedServer
+import org.reactivestreams.Publisher
+import reactor.core.publisher.Flux
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class ResponseCacheSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer server = ApplicationContext.run(EmbeddedServer, [
+            'spec.name': 'ResponseCacheSpec',
+            'micronaut.server.netty.response-cache.max-size': '64KB'
+    ])
+
+    @Shared
+    @AutoCleanup
+    HttpClient client = server.applicationContext.createBean(HttpClient, server.URL)
+
+    CacheController controller = server.applicationContext.getBean(CacheController)
+
+    void setup() {
+        server.responseCache.invalidateAll()
+        controller.invocations.set(0)
+    }
+
+    void "test a cached response is served without executing the route"() {
+        when:
+        HttpResponse<String> first = client.toBlocking().exchange('/cache/books/1', String)
+        HttpResponse<String> second = client.toBlocking().exchange('/cache/books/1', String)
+
+        then:
+        first.body() == 'Book 1'
+        second.body() == 'Book 1'
+        second.contentType.get() == MediaType.TEXT_PLAIN_TYPE
+        first.header(HttpHeaders.ETAG).startsWith('W/"')
+        second.header(HttpHeaders.ETAG) == first.header(HttpHeaders.ETAG)
+        second.header(HttpHeaders.VARY) == 'Accept, Accept-Encoding'
+        controller.invocations.get() == 1
+        server.responseCache.hitCount == 1
+    }
+
+    void "test URI variables and vary headers are part of the key"() {
+        when:
+        client.toBlocking().exchange('/cache/books/1', String)
+        client.toBlocking().exchange('/cache/books/2', String)
+        client.toBlocking().exchange('/cache/books/2?format=short', String)
+        client.toBlocking().exchange(HttpRequest.GET('/cache/books/2').header(HttpHeaders.ACCEPT_ENCODING, 'identity'), String)
+
+        then:
+        controller.invocations.get() == 4
+    }
+
+    void "test a matching If-None-Match header is answered with 304"() {
+        given:
+        String etag = client.toBlocking().exchange('/cache/books/1', String).header(HttpHeaders.ETAG)
+
+        when:
+        HttpResponse<String> response = client.toBlocking().exchange(HttpRequest.GET('/cache/books/1').header(HttpHeaders.IF_NONE_MATCH, etag), String)
+
+        then:
+        response.status() == HttpStatus.NOT_MODIFIED
+        response.header(HttpHeaders.ETAG) == etag
+        !response.body()
+        controller.invocations.get() == 1
+
+        when:
+        response = client.toBlocking().exchange(HttpRequest.GET('/cache/books/1').header(HttpHeaders.IF_NONE_MATCH, '"other", ' + etag.substring(2)), String)
+
+        then:
+        response.status() == HttpStatus.NOT_MODIFIED
+
+        when:
+        response = client.toBlocking().exchange(HttpRequest.GET('/cache/books/1').header(HttpHeaders.IF_NONE_MATCH, '"other"'), String)
+
+        then:
+        response.status() == HttpStatus.OK
+        response.body() == 'Book 1'
+        controller.invocations.get() == 1
+    }
+
+    void "test filters are applied to cached responses"() {
+        when:
+        client.toBlocking().exchange('/cache/books/1', String)
+        client.toBlocking().exchange(HttpRequest.GET('/cache/books/1').header('X-Reject', 'true'), String)
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.FORBIDDEN
+        controller.invocations.get() == 1
+
+        when:
+        HttpResponse<String> response = client.toBlocking().exchange('/cache/books/1', String)
+
+        then:
+        response.header('X-Filtered') == 'true'
+    }
+
+    void "test routes without the annotation and error responses are not cached"() {
+        when:
+        client.toBlocking().exchange('/cache/uncached', String)
+        client.toBlocking().exchange('/cache/uncached', String)
+
+        then:
+        controller.invocations.get() == 2
+
+        when:
+        client.toBlocking().exchange('/cache/missing', String)
+
+        then:
+        thrown(HttpClientResponseException)
+
+        when:
+        client.toBlocking().exchange('/cache/missing', String)
+
+        then:
+        thrown(HttpClientResponseException)
+        controller.invocations.get() == 4
+    }
+
+    void "test requests with credentials bypass the cache unless the header is varied on"() {
+        given:
+        long hits = server.responseCache.hitCount
+
+        when:
+        client.toBlocking().exchange(HttpRequest.GET('/cache/books/1').header(HttpHeaders.AUTHORIZATION, 'Bearer alice'), String)
+        client.toBlocking().exchange(HttpRequest.GET('/cache/books/1').header(HttpHeaders.AUTHORIZATION, 'Bearer bob'), String)
+        client.toBlocking().exchange(HttpRequest.GET('/cache/books/1').header(HttpHeaders.COOKIE, 'SESSION=alice'), String)
+        client.toBlocking().exchange('/cache/books/1', String)
+        client.toBlocking().exchange(HttpRequest.GET('/cache/books/1').header(HttpHeaders.COOKIE, 'SESSION=alice'), String)
+
+        then:
+        controller.invocations.get() == 5
+        server.responseCache.hitCount == hits
+
+        when:
+        client.toBlocking().exchange(HttpRequest.GET('/cache/private').header(HttpHeaders.AUTHORIZATION, 'Bearer alice'), String)
+        client.toBlocking().exchange(HttpRequest.GET('/cache/private').header(HttpHeaders.AUTHORIZATION, 'Bearer alice'), String)
+        client.toBlocking().exchange(HttpRequest.GET('/cache/private').header(HttpHeaders.AUTHORIZATION, 'Bearer bob'), String)
+
+        then:
+        controller.invocations.get() == 7
+        server.responseCache.hitCount == hits + 1
+    }
+
+    void "test the least recently used responses are evicted when the cache is full"() {
+        when:
+        for (int i = 0; i < 10; i++) {
+            client.toBlocking().exchange("/cache/large/$i", String)
+        }
+
+        then:
+        server.responseCache.size <= 64 * 1024
+
+        when:
+        client.toBlocking().exchange('/cache/large/9', String)
+        client.toBlocking().exchange('/cache/large/0', String)
+
+        then:
+        controller.invocations.get() == 11
+    }
+
+    @Requires(property = 'spec.name', value = 'ResponseCacheSpec')
+    @Controller('/cache')
+    @Produces(MediaType.TEXT_PLAIN)
+    static class CacheController {
+        final AtomicInteger invocations = new AtomicInteger()
+
+        @CachedResponse
+        @Get('/books/{id}')
+        String book(String id) {
+            invocations.incrementAndGet()
+            return "Book $id"
+        }
+
+        @CachedResponse
+        @Get('/large/{id}')
+        String large(String id) {
+            invocations.incrementAndGet()
+            return id * (16 * 1024)
+        }
+
+        @CachedResponse
+        @Get('/missing')
+        HttpResponse<String> missing() {
+            invocations.incrementAndGet()
+            return HttpResponse.notFound('missing')
+        }
+
+        @CachedResponse(vary = [HttpHeaders.AUTHORIZATION])
+        @Get('/private')
+        String privateBook(@Header(HttpHeaders.AUTHORIZATION) String authorization) {
+            invocations.incrementAndGet()
+            return authorization
+        }
+
+        @Get('/uncached')
+        String uncached() {
+            invocations.incrementAndGet()
+            return 'uncached'
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'ResponseCacheSpec')
+    @Filter('/cache/**')
+    static class RejectingFilter implements HttpServerFilter {
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            if (request.headers.contains('X-Reject')) {
+                return Flux.just(HttpResponse.status(HttpStatus.FORBIDDEN))
+            }
+            return Flux.from(chain.proceed(request)).doOnNext { it.header('X-Filtered', 'true') }
+        }
+    }
+}
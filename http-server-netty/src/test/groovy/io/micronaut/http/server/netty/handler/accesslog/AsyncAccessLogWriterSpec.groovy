@@ -0,0 +1,143 @@
+package io.micronaut.http.server.netty.handler.accesslog
+
+import io.micronaut.http.server.netty.handler.accesslog.element.AccessLog
+import io.micronaut.http.server.netty.handler.accesslog.element.AccessLogFormatParser
+import io.netty.handler.codec.http.DefaultHttpHeaders
+import org.slf4j.Logger
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+
+class AsyncAccessLogWriterSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    AccessLogFormatParser parser = new AccessLogFormatParser('%m %x')
+
+    void "test entries are written to the file in order"() {
+        given:
+        Path file = tempDir.resolve('access.log')
+        AsyncAccessLogWriter writer = new AsyncAccessLogWriter(file, 16, AsyncAccessLogWriter.OverflowPolicy.BLOCK)
+
+        when:
+        for (int i = 0; i < 100; i++) {
+            assert writer.append(accessLog('GET', "/books/$i"))
+        }
+        writer.close()
+
+        then:
+        Files.readAllLines(file) == (0..<100).collect { "GET /books/$it".toString() }
+        writer.writtenCount == 100
+        writer.droppedCount == 0
+    }
+
+    void "test entries are written to the logger"() {
+        given:
+        List<String> lines = new CopyOnWriteArrayList<>()
+        Logger logger = Stub(Logger) {
+            isInfoEnabled() >> true
+            info(_ as String) >> { String line -> lines << line }
+        }
+        AsyncAccessLogWriter writer = new AsyncAccessLogWriter(logger, 16, AsyncAccessLogWriter.OverflowPolicy.DROP)
+
+        when:
+        writer.append(accessLog('POST', '/books'))
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            lines == ['POST /books']
+        }
+
+        cleanup:
+        writer.close()
+    }
+
+    void "test entries are dropped when the buffer is full"() {
+        given:
+        CountDownLatch latch = new CountDownLatch(1)
+        List<String> lines = new CopyOnWriteArrayList<>()
+        Logger logger = Stub(Logger) {
+            isInfoEnabled() >> true
+            info(_ as String) >> { String line ->
+                latch.await()
+                lines << line
+            }
+        }
+        AsyncAccessLogWriter writer = new AsyncAccessLogWriter(logger, 1, AsyncAccessLogWriter.OverflowPolicy.DROP)
+
+        expect:
+        writer.append(accessLog('GET', '/one'))
+        !writer.append(accessLog('GET', '/two'))
+        writer.droppedCount == 1
+
+        when:
+        latch.countDown()
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            writer.writtenCount == 1
+        }
+        lines == ['GET /one']
+
+        cleanup:
+        writer.close()
+    }
+
+    void "test the writer keeps running when the logger throws"() {
+        given:
+        List<String> lines = new CopyOnWriteArrayList<>()
+        Logger logger = Stub(Logger) {
+            isInfoEnabled() >> true
+            info(_ as String) >> { String line ->
+                if (line.endsWith('/bad')) {
+                    throw new IllegalStateException('Bad appender')
+                }
+                lines << line
+            }
+        }
+        AsyncAccessLogWriter writer = new AsyncAccessLogWriter(logger, 2, AsyncAccessLogWriter.OverflowPolicy.BLOCK)
+
+        when:
+        writer.append(accessLog('GET', '/bad'))
+        for (int i = 0; i < 10; i++) {
+            writer.append(accessLog('GET', "/good/$i"))
+        }
+        writer.close()
+
+        then:
+        lines == (0..<10).collect { "GET /good/$it".toString() }
+        writer.writtenCount == 10
+        writer.droppedCount == 1
+        writer.pendingCount == 0
+    }
+
+    void "test the values are captured when the entry is appended"() {
+        given:
+        Path file = tempDir.resolve('reuse.log')
+        AsyncAccessLogWriter writer = new AsyncAccessLogWriter(file, 16, AsyncAccessLogWriter.OverflowPolicy.BLOCK)
+        AccessLog accessLog = parser.newAccessLogger()
+
+        when:
+        accessLog.onRequestHeaders(null, 'GET', new DefaultHttpHeaders(), '/first', 'HTTP/1.1')
+        writer.append(accessLog)
+        accessLog.reset()
+        accessLog.onRequestHeaders(null, 'GET', new DefaultHttpHeaders(), '/second', 'HTTP/1.1')
+        writer.append(accessLog)
+        writer.close()
+
+        then:
+        Files.readAllLines(file) == ['GET /first', 'GET /second']
+    }
+
+    private AccessLog accessLog(String method, String uri) {
+        AccessLog accessLog = parser.newAccessLogger()
+        accessLog.onRequestHeaders(null, method, new DefaultHttpHeaders(), uri, 'HTTP/1.1')
+        return accessLog
+    }
+}
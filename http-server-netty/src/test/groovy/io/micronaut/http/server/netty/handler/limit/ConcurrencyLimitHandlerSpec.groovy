@@ -0,0 +1,125 @@
+package io.micronaut.http.server.netty.handler.limit
+
+import io.micronaut.http.server.netty.NettyHttpServer
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration
+import io.netty.buffer.Unpooled
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.handler.codec.http.DefaultFullHttpRequest
+import io.netty.handler.codec.http.DefaultFullHttpResponse
+import io.netty.handler.codec.http.DefaultHttpContent
+import io.netty.handler.codec.http.DefaultHttpRequest
+import io.netty.handler.codec.http.DefaultLastHttpContent
+import io.netty.handler.codec.http.FullHttpResponse
+import io.netty.handler.codec.http.HttpContent
+import io.netty.handler.codec.http.HttpHeaderNames
+import io.netty.handler.codec.http.HttpMethod
+import io.netty.handler.codec.http.HttpRequest
+import io.netty.handler.codec.http.HttpResponseStatus
+import io.netty.handler.codec.http.HttpVersion
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.function.Function
+
+class ConcurrencyLimitHandlerSpec extends Specification {
+
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimiter.Algorithm.AIMD, 1, 1, 1, Duration.ofSeconds(1))
+
+    void "test excess requests are rejected with a retry after header and their body is discarded"() {
+        given:
+        EmbeddedChannel first = channel()
+        EmbeddedChannel second = channel()
+
+        when:
+        first.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, '/one'))
+        HttpContent content = new DefaultHttpContent(Unpooled.wrappedBuffer(new byte[16]))
+        second.writeInbound(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, '/two'), content, new DefaultLastHttpContent())
+
+        then:
+        first.readInbound() instanceof HttpRequest
+        second.readInbound() == null
+        content.refCnt() == 0
+        FullHttpResponse rejection = second.readOutbound()
+        rejection.status() == HttpResponseStatus.SERVICE_UNAVAILABLE
+        rejection.headers().get(HttpHeaderNames.RETRY_AFTER) == '2'
+        limiter.rejectedCount == 1
+
+        when:
+        first.writeOutbound(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK))
+        second.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, '/three'))
+
+        then:
+        limiter.inFlight == 1
+        second.readInbound() instanceof HttpRequest
+
+        cleanup:
+        first.finishAndReleaseAll()
+        second.finishAndReleaseAll()
+    }
+
+    void "test rejections of pipelined requests wait for the preceding responses"() {
+        given:
+        EmbeddedChannel channel = channel()
+
+        when:
+        channel.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, '/one'))
+        channel.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, '/two'))
+
+        then:
+        channel.readInbound() instanceof HttpRequest
+        channel.readInbound() == null
+        channel.readOutbound() == null
+
+        when:
+        channel.writeOutbound(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK))
+
+        then:
+        ((FullHttpResponse) channel.readOutbound()).status() == HttpResponseStatus.OK
+        ((FullHttpResponse) channel.readOutbound()).status() == HttpResponseStatus.SERVICE_UNAVAILABLE
+        limiter.inFlight == 0
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    void "test permits are released when the connection closes"() {
+        given:
+        EmbeddedChannel channel = channel()
+
+        when:
+        channel.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, '/one'))
+
+        then:
+        limiter.inFlight == 1
+
+        when:
+        channel.finishAndReleaseAll()
+
+        then:
+        limiter.inFlight == 0
+    }
+
+    void "test priorities are resolved from the decoded path"() {
+        given:
+        NettyHttpServerConfiguration.ConcurrencyLimit config = new NettyHttpServerConfiguration.ConcurrencyLimit()
+        config.criticalPaths = ['/health']
+        config.sheddablePaths = ['/reports/.*']
+        Function<String, ConcurrencyLimiter.Priority> resolver = NettyHttpServer.priorityResolver(config)
+
+        expect:
+        resolver.apply(uri) == priority
+
+        where:
+        uri                         | priority
+        '/health'                   | ConcurrencyLimiter.Priority.CRITICAL
+        '/health?verbose=true'      | ConcurrencyLimiter.Priority.CRITICAL
+        '/%68ealth'                 | ConcurrencyLimiter.Priority.CRITICAL
+        '/books?next=/health'       | ConcurrencyLimiter.Priority.NORMAL
+        '/reports/daily?format=csv' | ConcurrencyLimiter.Priority.SHEDDABLE
+        '/books?q=/reports/x'       | ConcurrencyLimiter.Priority.NORMAL
+    }
+
+    private EmbeddedChannel channel() {
+        new EmbeddedChannel(new ConcurrencyLimitHandler(limiter, { ConcurrencyLimiter.Priority.CRITICAL }, 2))
+    }
+}
@@ -0,0 +1,81 @@
+package io.micronaut.http.server.netty.handler.limit
+
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class ConcurrencyLimiterSpec extends Specification {
+
+    void "test requests are rejected above the share of their priority"() {
+        given:
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimiter.Algorithm.AIMD, 10, 1, 100, Duration.ofSeconds(1))
+
+        expect:
+        (0..<5).every { limiter.tryAcquire(ConcurrencyLimiter.Priority.SHEDDABLE) }
+        !limiter.tryAcquire(ConcurrencyLimiter.Priority.SHEDDABLE)
+        (0..<4).every { limiter.tryAcquire(ConcurrencyLimiter.Priority.NORMAL) }
+        !limiter.tryAcquire(ConcurrencyLimiter.Priority.NORMAL)
+        limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL)
+        !limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL)
+        limiter.inFlight == 10
+        limiter.rejectedCount == 3
+        limiter.getRejectedCount(ConcurrencyLimiter.Priority.SHEDDABLE) == 1
+
+        when:
+        limiter.release()
+
+        then:
+        limiter.inFlight == 9
+        limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL)
+    }
+
+    void "test the AIMD limit grows while used and backs off on slow requests"() {
+        given:
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimiter.Algorithm.AIMD, 10, 5, 20, Duration.ofMillis(100))
+
+        when:
+        10.times { limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL) }
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10))
+
+        then:
+        limiter.limit == 11
+
+        when:
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500))
+
+        then:
+        limiter.limit == 9
+
+        when:
+        20.times { limiter.release(TimeUnit.MILLISECONDS.toNanos(500)) }
+
+        then:
+        limiter.limit == 5
+    }
+
+    void "test the gradient limit shrinks when latency grows"() {
+        given:
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimiter.Algorithm.GRADIENT, 100, 10, 1000, Duration.ofSeconds(1))
+
+        when: 'the server is saturated with fast requests'
+        100.times { limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL) }
+        50.times {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10))
+            limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL)
+        }
+        int fastLimit = limiter.limit
+
+        then:
+        fastLimit >= 100
+
+        when: 'the latency climbs'
+        50.times {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(100))
+            limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL)
+        }
+
+        then:
+        limiter.limit < fastLimit
+    }
+}
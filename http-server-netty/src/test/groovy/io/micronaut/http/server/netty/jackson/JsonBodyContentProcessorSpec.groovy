@@ -0,0 +1,133 @@
+package io.micronaut.http.server.netty.jackson
+
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Introspected
+import io.micronaut.core.type.Argument
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.server.netty.AbstractMicronautSpec
+import io.micronaut.http.server.netty.HttpContentProcessorResolver
+import io.micronaut.http.server.netty.NettyHttpRequest
+import io.micronaut.json.tree.JsonNode
+import org.reactivestreams.Publisher
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.Unroll
+
+class JsonBodyContentProcessorSpec extends AbstractMicronautSpec {
+
+    void "test a POJO body is bound without building a JSON tree"() {
+        when:
+        String response = rxClient.toBlocking().retrieve(HttpRequest.POST('/json-direct/book', '{"title":"The Stand","pages":1153}'))
+
+        then:
+        response == 'The Stand 1153 Book'
+    }
+
+    void "test a large POJO body that arrives in many chunks"() {
+        given:
+        String title = 'x' * (256 * 1024)
+
+        when:
+        String response = rxClient.toBlocking().retrieve(HttpRequest.POST('/json-direct/book', """{"title":"$title","pages":1}"""))
+
+        then:
+        response == "$title 1 Book"
+    }
+
+    void "test JSON trees and publishers are still parsed into trees"() {
+        expect:
+        rxClient.toBlocking().retrieve(HttpRequest.POST('/json-direct/tree', '{"title":"The Stand"}')) == 'The Stand'
+        rxClient.toBlocking().retrieve(HttpRequest.POST('/json-direct/publisher', '[{"title":"The Stand"},{"title":"Dune"}]')) == 'The Stand, Dune'
+    }
+
+    void "test arguments bound from parts of the body still use the tree"() {
+        expect:
+        rxClient.toBlocking().retrieve(HttpRequest.POST('/json-direct/mixed', '{"title":"The Stand","pages":1153,"extra":"x"}')) == 'The Stand x'
+    }
+
+    void "test invalid JSON results in a bad request"() {
+        when:
+        rxClient.toBlocking().retrieve(HttpRequest.POST('/json-direct/book', '{"title":"The Stand"'))
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.BAD_REQUEST
+        e.message.startsWith('Invalid JSON')
+    }
+
+    @Unroll
+    void "test the direct processor is only used for #type"() {
+        given:
+        NettyHttpRequest request = Stub(NettyHttpRequest) {
+            getContentType() >> Optional.of(MediaType.APPLICATION_JSON_TYPE)
+            getContentLength() >> -1L
+        }
+        JsonHttpContentSubscriberFactory factory = applicationContext.getBean(JsonHttpContentSubscriberFactory)
+
+        expect:
+        factory.build(request, argument).getClass() == processor
+
+        where:
+        argument                                   | processor
+        Argument.of(Book)                          | JsonBodyContentProcessor
+        Argument.OBJECT_ARGUMENT                   | JsonContentProcessor
+        Argument.of(JsonNode)                      | JsonContentProcessor
+        Argument.of(Map)                           | JsonContentProcessor
+        Argument.listOf(Book)                      | JsonContentProcessor
+        Argument.of(Publisher, Book)               | JsonContentProcessor
+        Argument.of(Optional, Book)                | JsonContentProcessor
+        Argument.of(HttpRequest, Book)             | JsonContentProcessor
+        Argument.of(Integer)                       | JsonContentProcessor
+        type = argument.toString()
+    }
+
+    void "test the body of an HttpRequest argument is not bound directly to its type variable"() {
+        given:
+        NettyHttpRequest request = Stub(NettyHttpRequest) {
+            getContentType() >> Optional.of(MediaType.APPLICATION_JSON_TYPE)
+            getContentLength() >> -1L
+        }
+        HttpContentProcessorResolver resolver = applicationContext.getBean(HttpContentProcessorResolver)
+
+        expect:
+        resolver.resolve(request, Argument.of(HttpRequest, Book)).getClass() == JsonContentProcessor
+        resolver.resolve(request, Argument.of(Book)).getClass() == JsonBodyContentProcessor
+    }
+
+    @Requires(property = 'spec.name', value = 'JsonBodyContentProcessorSpec')
+    @Controller('/json-direct')
+    static class BookController {
+
+        @Post('/book')
+        String book(@Body Book book, HttpRequest<?> request) {
+            "$book.title $book.pages ${request.body.get().getClass().simpleName}"
+        }
+
+        @Post('/tree')
+        String tree(@Body JsonNode tree) {
+            tree.get('title').stringValue
+        }
+
+        @Post('/publisher')
+        Mono<String> publisher(@Body Publisher<Book> books) {
+            Flux.from(books).map { it.title }.collectList().map { it.join(', ') }
+        }
+
+        @Post('/mixed')
+        String mixed(@Body Book book, String extra) {
+            "$book.title $extra"
+        }
+    }
+
+    @Introspected
+    static class Book {
+        String title
+        int pages
+    }
+}
@@ -0,0 +1,109 @@
+package io.micronaut.http.server.netty.multipart
+
+import io.micronaut.core.util.functional.ThrowingSupplier
+import io.micronaut.http.multipart.MultipartException
+import io.micronaut.http.multipart.PartData
+import io.micronaut.http.server.HttpServerConfiguration
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.CompositeByteBuf
+import io.netty.buffer.Unpooled
+import io.netty.handler.codec.http.multipart.MemoryFileUpload
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.function.Supplier
+
+class NettyStreamingFileUploadSpec extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    @AutoCleanup('shutdown')
+    ExecutorService ioExecutor = Executors.newSingleThreadExecutor()
+
+    void "test chunks are written to the file and released"() {
+        given:
+        CompositeByteBuf composite = Unpooled.compositeBuffer()
+        composite.addComponent(true, Unpooled.directBuffer().writeBytes('bar'.getBytes(StandardCharsets.UTF_8)))
+        composite.addComponent(true, Unpooled.copiedBuffer('baz', StandardCharsets.UTF_8))
+        List<ByteBuf> buffers = [
+                Unpooled.copiedBuffer('foo', StandardCharsets.UTF_8),
+                composite,
+                Unpooled.directBuffer().writeBytes('qux'.getBytes(StandardCharsets.UTF_8))
+        ]
+        File destination = tempDir.resolve('upload.txt').toFile()
+        Files.write(destination.toPath(), 'previous content that is longer'.getBytes(StandardCharsets.UTF_8))
+
+        when:
+        Boolean result = Mono.from(upload(Flux.fromIterable(buffers).map { partData(it) }).transferTo(destination)).block()
+
+        then:
+        result
+        destination.text == 'foobarbazqux'
+        buffers.every { it.refCnt() == 0 }
+    }
+
+    void "test the next chunk is only requested after the previous one was written"() {
+        given:
+        List<Long> requests = new CopyOnWriteArrayList<>()
+        Flux<PartData> chunks = Flux.range(0, 10)
+                .map { partData(Unpooled.copiedBuffer("$it,", StandardCharsets.UTF_8)) }
+                .doOnRequest { requests << it }
+        File destination = tempDir.resolve('upload.txt').toFile()
+
+        when:
+        Mono.from(upload(chunks).transferTo(destination)).block()
+
+        then:
+        destination.text == (0..<10).collect { "$it," }.join('')
+        requests.every { it == 1L }
+    }
+
+    void "test chunks are written to an output stream"() {
+        given:
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream()
+        ByteBuf direct = Unpooled.directBuffer().writeBytes('bar'.getBytes(StandardCharsets.UTF_8))
+        Flux<PartData> chunks = Flux.just(partData(Unpooled.copiedBuffer('foo', StandardCharsets.UTF_8)), partData(direct))
+
+        when:
+        Boolean result = Mono.from(upload(chunks).transferTo(outputStream)).block()
+
+        then:
+        result
+        outputStream.toString('UTF-8') == 'foobar'
+        direct.refCnt() == 0
+    }
+
+    void "test a destination that cannot be opened fails the transfer"() {
+        given:
+        File destination = tempDir.resolve('missing').resolve('upload.txt').toFile()
+
+        when:
+        Mono.from(upload(Flux.just(partData(Unpooled.copiedBuffer('foo', StandardCharsets.UTF_8)))).transferTo(destination)).block()
+
+        then:
+        MultipartException e = thrown()
+        e.message == 'Error transferring file: file'
+    }
+
+    private NettyStreamingFileUpload upload(Flux<PartData> chunks) {
+        new NettyStreamingFileUpload(
+                new MemoryFileUpload('file', 'upload.txt', 'text/plain', null, StandardCharsets.UTF_8, -1),
+                new HttpServerConfiguration.MultipartConfiguration(),
+                ioExecutor,
+                chunks)
+    }
+
+    private static PartData partData(ByteBuf byteBuf) {
+        new NettyPartData({ -> Optional.empty() } as Supplier, { -> byteBuf } as ThrowingSupplier)
+    }
+}
@@ -0,0 +1,151 @@
+package io.micronaut.http.server.netty.resources
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.MediaType
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration
+import io.micronaut.http.server.netty.types.files.PrecompressedResourceGenerator
+import io.micronaut.runtime.server.EmbeddedServer
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+class PrecompressedStaticResourceSpec extends Specification {
+
+    @Shared
+    File dir = File.createTempDir()
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer server
+
+    void setupSpec() {
+        new File(dir, 'app.js').text = 'console.log("original")'
+        gzip(new File(dir, 'app.js.gz'), 'console.log("gzip")')
+        new File(dir, 'app.js.br').bytes = 'brotli'.bytes
+        new File(dir, 'style.css').text = 'body {}'
+        server = ApplicationContext.run(EmbeddedServer, [
+                'micronaut.router.static-resources.default.paths': ['file:' + dir.absolutePath],
+                'micronaut.server.netty.responses.file.precompressed.enabled': true,
+                'micronaut.server.netty.responses.file.cache.enabled': true
+        ])
+    }
+
+    void cleanupSpec() {
+        dir.deleteDir()
+    }
+
+    void "test the preferred precompressed variant accepted by the client is served"() {
+        when:
+        HttpURLConnection connection = open('/app.js', acceptEncoding)
+
+        then:
+        connection.responseCode == 200
+        connection.getHeaderField(HttpHeaders.CONTENT_ENCODING) == encoding
+        connection.getHeaderField(HttpHeaders.CONTENT_TYPE) == MediaType.forFilename('app.js').toString()
+        connection.getHeaderField(HttpHeaders.VARY) == HttpHeaders.ACCEPT_ENCODING
+        read(connection, encoding) == body
+
+        where:
+        acceptEncoding            | encoding | body
+        'gzip, deflate, br'       | 'br'     | 'brotli'
+        'gzip'                    | 'gzip'   | 'console.log("gzip")'
+        'br;q=0, gzip;q=0.5'      | 'gzip'   | 'console.log("gzip")'
+        '*'                       | 'br'     | 'brotli'
+        'identity'                | null     | 'console.log("original")'
+    }
+
+    void "test an outdated variant is not served"() {
+        given:
+        File original = new File(dir, 'outdated.js')
+        File variant = new File(dir, 'outdated.js.gz')
+        gzip(variant, 'outdated')
+        original.text = 'current'
+        variant.lastModified = original.lastModified() - 10000
+
+        when:
+        HttpURLConnection connection = open('/outdated.js', 'gzip')
+
+        then:
+        connection.getHeaderField(HttpHeaders.CONTENT_ENCODING) == null
+        connection.inputStream.text == 'current'
+    }
+
+    void "test cached files are revalidated with ETags and re-read when modified"() {
+        given:
+        File file = new File(dir, 'cached.txt')
+        file.text = 'first'
+
+        when:
+        HttpURLConnection connection = open('/cached.txt', null)
+        String etag = connection.getHeaderField(HttpHeaders.ETAG)
+
+        then:
+        connection.inputStream.text == 'first'
+        etag != null
+
+        when:
+        connection = open('/cached.txt', null)
+        connection.setRequestProperty(HttpHeaders.IF_NONE_MATCH, etag)
+
+        then:
+        connection.responseCode == 304
+
+        when:
+        file.text = 'second version'
+        file.lastModified = file.lastModified() + 2000
+        connection = open('/cached.txt', null)
+
+        then:
+        connection.inputStream.text == 'second version'
+        connection.getHeaderField(HttpHeaders.ETAG) != etag
+    }
+
+    void "test gzip variants are generated for text based files"() {
+        given:
+        File generated = File.createTempDir()
+        new File(generated, 'large.json').text = '{"value":"' + ('x' * 4096) + '"}'
+        new File(generated, 'small.json').text = '{}'
+        new File(generated, 'image.png').bytes = new byte[4096]
+        PrecompressedResourceGenerator generator = new PrecompressedResourceGenerator([], server.applicationContext.getBean(NettyHttpServerConfiguration))
+
+        when:
+        int count = generator.generate(generated.toPath())
+
+        then:
+        count == 1
+        new File(generated, 'large.json.gz').exists()
+        !new File(generated, 'small.json.gz').exists()
+        !new File(generated, 'image.png.gz').exists()
+        new GZIPInputStream(new File(generated, 'large.json.gz').newInputStream()).text == new File(generated, 'large.json').text
+
+        when:
+        count = generator.generate(generated.toPath())
+
+        then:
+        count == 0
+
+        cleanup:
+        generated.deleteDir()
+    }
+
+    private HttpURLConnection open(String path, String acceptEncoding) {
+        HttpURLConnection connection = (HttpURLConnection) new URL(server.URL, path).openConnection()
+        if (acceptEncoding != null) {
+            connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+        }
+        return connection
+    }
+
+    private static String read(HttpURLConnection connection, String encoding) {
+        InputStream input = connection.inputStream
+        return (encoding == 'gzip' ? new GZIPInputStream(input) : input).text
+    }
+
+    private static void gzip(File file, String text) {
+        new GZIPOutputStream(file.newOutputStream()).withCloseable { it.write(text.bytes) }
+    }
+}
@@ -36,6 +36,7 @@ class ThreadSelectionSpec extends Specification {
 
     static final String IO = "io-executor-thread-"
     static final String LOOP = "default-nioEventLoopGroup"
+    static final String VIRTUAL = "virtual-executor-thread-"
 
     @Unroll
     void "test thread selection strategy #strategy"() {
@@ -57,6 +58,7 @@ class ThreadSelectionSpec extends Specification {
         ThreadSelection.AUTO   | IO       | LOOP        | IO
         ThreadSelection.IO     | IO       | IO          | IO
         ThreadSelection.MANUAL | LOOP     | LOOP        | IO
+        ThreadSelection.VIRTUAL | VIRTUAL  | LOOP        | IO
     }
 
     @Unroll
@@ -80,6 +82,7 @@ class ThreadSelectionSpec extends Specification {
         ThreadSelection.AUTO   |  LOOP     | IO               | IO          | IO
         ThreadSelection.IO     |  IO       | IO               | IO          | IO
         ThreadSelection.MANUAL |  LOOP     | LOOP             | IO          | IO
+        ThreadSelection.VIRTUAL |  LOOP     | VIRTUAL          | IO          | IO
     }
 
     void "test thread selection for exception handlers"() {
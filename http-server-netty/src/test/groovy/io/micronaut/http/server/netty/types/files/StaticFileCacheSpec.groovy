@@ -0,0 +1,63 @@
+package io.micronaut.http.server.netty.types.files
+
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.nio.file.Path
+import java.util.concurrent.Executor
+
+class StaticFileCacheSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    void "test a cache miss does not read the file and loads it on the executor"() {
+        given:
+        StaticFileCache cache = new StaticFileCache(new NettyHttpServerConfiguration.FileTypeHandlerConfiguration.CacheConfiguration())
+        File file = dir.resolve('cached.txt').toFile()
+        file.text = 'content'
+        List<Runnable> tasks = []
+        Executor executor = { Runnable task -> tasks << task } as Executor
+
+        expect:"a miss returns nothing"
+        cache.get(file, file.length(), file.lastModified()) == null
+
+        when:
+        cache.load(file, file.length(), file.lastModified(), executor)
+        cache.load(file, file.length(), file.lastModified(), executor)
+
+        then:"the file is read once, on the executor"
+        tasks.size() == 1
+        cache.get(file, file.length(), file.lastModified()) == null
+
+        when:
+        tasks[0].run()
+        ByteBuffer content = cache.get(file, file.length(), file.lastModified())
+
+        then:
+        StandardCharsets.UTF_8.decode(content).toString() == 'content'
+        cache.size == 7
+
+        and:"a modified file is not served from the cache"
+        cache.get(file, file.length(), file.lastModified() + 1000) == null
+    }
+
+    void "test files larger than the maximum file size are not loaded"() {
+        given:
+        NettyHttpServerConfiguration.FileTypeHandlerConfiguration.CacheConfiguration configuration = new NettyHttpServerConfiguration.FileTypeHandlerConfiguration.CacheConfiguration()
+        configuration.maxFileSize = 4
+        StaticFileCache cache = new StaticFileCache(configuration)
+        File file = dir.resolve('large.txt').toFile()
+        file.text = 'too large'
+        List<Runnable> tasks = []
+
+        when:
+        cache.load(file, file.length(), file.lastModified(), { Runnable task -> tasks << task } as Executor)
+
+        then:
+        tasks.isEmpty()
+    }
+}
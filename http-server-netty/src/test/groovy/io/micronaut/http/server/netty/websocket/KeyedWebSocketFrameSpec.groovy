@@ -0,0 +1,93 @@
+package io.micronaut.http.server.netty.websocket
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.netty.websocket.KeyedWebSocketFrame
+import io.micronaut.http.netty.websocket.WebSocketOutboundHandler
+import io.micronaut.http.server.netty.EmbeddedTestUtil
+import io.micronaut.http.server.netty.NettyHttpServer
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.websocket.WebSocketSession
+import io.micronaut.websocket.annotation.OnMessage
+import io.micronaut.websocket.annotation.ServerWebSocket
+import io.netty.channel.ChannelHandlerContext
+import io.netty.channel.SimpleChannelInboundHandler
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.handler.codec.http.DefaultHttpHeaders
+import io.netty.handler.codec.http.FullHttpResponse
+import io.netty.handler.codec.http.HttpClientCodec
+import io.netty.handler.codec.http.HttpObjectAggregator
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory
+import io.netty.handler.codec.http.websocketx.WebSocketVersion
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+class KeyedWebSocketFrameSpec extends Specification {
+
+    void 'test keyed frames are sent with the default configuration'() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run([
+                'spec.name': 'KeyedWebSocketFrameSpec',
+        ])
+        def embeddedServer = (NettyHttpServer) ctx.getBean(EmbeddedServer)
+
+        def serverEmbeddedChannel = embeddedServer.buildEmbeddedChannel(false)
+        def clientEmbeddedChannel = new EmbeddedChannel()
+
+        EmbeddedTestUtil.connect(serverEmbeddedChannel, clientEmbeddedChannel)
+
+        def handshaker = WebSocketClientHandshakerFactory.newHandshaker(
+                URI.create('http://localhost/KeyedWebSocketFrameSpec'),
+                WebSocketVersion.V13,
+                null,
+                false,
+                new DefaultHttpHeaders()
+        )
+        List<String> replies = []
+        clientEmbeddedChannel.pipeline()
+                .addLast(new HttpClientCodec())
+                .addLast(new HttpObjectAggregator(4096))
+                .addLast(new SimpleChannelInboundHandler<Object>() {
+                    @Override
+                    protected void channelRead0(ChannelHandlerContext ctx_, Object msg) throws Exception {
+                        if (!handshaker.isHandshakeComplete()) {
+                            handshaker.finishHandshake(ctx_.channel(), (FullHttpResponse) msg)
+                        } else if (msg instanceof TextWebSocketFrame) {
+                            replies << ((TextWebSocketFrame) msg).text()
+                        }
+                    }
+                })
+
+        when:
+        handshaker.handshake(clientEmbeddedChannel)
+        EmbeddedTestUtil.advance(serverEmbeddedChannel, clientEmbeddedChannel)
+
+        then:
+        handshaker.isHandshakeComplete()
+        serverEmbeddedChannel.pipeline().get(WebSocketOutboundHandler) == null
+
+        when:
+        clientEmbeddedChannel.writeAndFlush(new TextWebSocketFrame('hello'))
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            EmbeddedTestUtil.advance(serverEmbeddedChannel, clientEmbeddedChannel)
+            assert replies == ['reply: hello']
+        }
+
+        cleanup:
+        clientEmbeddedChannel.close()
+        serverEmbeddedChannel.close()
+        ctx.close()
+    }
+
+    @ServerWebSocket('/KeyedWebSocketFrameSpec')
+    @Requires(property = 'spec.name', value = 'KeyedWebSocketFrameSpec')
+    static class Socket {
+        @OnMessage
+        def onMessage(String message, WebSocketSession session) {
+            return session.send(new KeyedWebSocketFrame('reply', new TextWebSocketFrame('reply: ' + message)))
+        }
+    }
+}
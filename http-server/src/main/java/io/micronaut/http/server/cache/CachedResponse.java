@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.cache;
+
+import io.micronaut.http.HttpHeaders;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>Caches the encoded response of a {@code GET} route so that later requests for the same URI are answered without
+ * executing the route.</p>
+ *
+ * <p>Responses are cached per request URI, including the query, and per value of the headers returned by
+ * {@link #vary()}. Only {@code 200 OK} responses with a fully encoded body are cached. Every cached response carries a
+ * weak {@code ETag} and a request with a matching {@code If-None-Match} header is answered with
+ * {@code 304 Not Modified}. Server filters are executed for cached responses as well.</p>
+ *
+ * <p>Requests with an {@code Authorization} or a {@code Cookie} header bypass the cache, unless the header is listed in
+ * {@link #vary()} and responses are therefore cached per credential.</p>
+ *
+ * <p>When applied to a controller the annotation applies to all of its {@code GET} routes.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Inherited
+public @interface CachedResponse {
+
+    /**
+     * The request headers whose values are part of the cache key. Requests with an {@code Authorization} or a
+     * {@code Cookie} header are only cached if that header is listed.
+     *
+     * @return The request headers whose values are part of the cache key
+     */
+    String[] vary() default {HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING};
+
+    /**
+     * The time a response is cached for, for example {@code 10s} or {@code 5m}. When not specified the configured
+     * default of the server is used.
+     *
+     * @return The time to live
+     */
+    String ttl() default "";
+}
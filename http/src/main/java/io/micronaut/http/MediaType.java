@@ -293,6 +293,20 @@ public class MediaType implements CharSequence {
      */
     public static final MediaType APPLICATION_JSON_STREAM_TYPE = new MediaType(APPLICATION_JSON_STREAM);
 
+    /**
+     * Newline delimited JSON: application/x-ndjson.
+     *
+     * @since 4.0.0
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * Newline delimited JSON: application/x-ndjson.
+     *
+     * @since 4.0.0
+     */
+    public static final MediaType APPLICATION_NDJSON_TYPE = new MediaType(APPLICATION_NDJSON);
+
     /**
      * BINARY: application/octet-stream.
      */
@@ -554,6 +568,8 @@ public class MediaType implements CharSequence {
                 return TEXT_EVENT_STREAM_TYPE;
             case APPLICATION_JSON_STREAM:
                 return APPLICATION_JSON_STREAM_TYPE;
+            case APPLICATION_NDJSON:
+                return APPLICATION_NDJSON_TYPE;
             case APPLICATION_OCTET_STREAM:
                 return APPLICATION_OCTET_STREAM_TYPE;
             case APPLICATION_GRAPHQL:
@@ -0,0 +1,99 @@
+package io.micronaut.inject.context
+
+import io.micronaut.annotation.processing.test.AbstractTypeElementSpec
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.ApplicationContextBuilder
+import io.micronaut.context.StartupTimeline
+import io.micronaut.context.exceptions.BeanInstantiationException
+
+class EagerInitParallelismSpec extends AbstractTypeElementSpec {
+
+    void "test independent eager beans are initialized in parallel and dependent beans afterwards"() {
+        given:
+        ApplicationContext context = buildContext('''
+package parallelinit;
+
+import io.micronaut.context.annotation.Context;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@Context
+class First {
+    static final CountDownLatch LATCH = new CountDownLatch(2);
+
+    First() throws InterruptedException {
+        LATCH.countDown();
+        LATCH.await(2, TimeUnit.SECONDS);
+    }
+}
+
+@Context
+class Second {
+    Second() throws InterruptedException {
+        First.LATCH.countDown();
+        First.LATCH.await(2, TimeUnit.SECONDS);
+    }
+}
+
+@Context
+class Third {
+    Third(First first) {
+    }
+}
+''')
+        StartupTimeline timeline = context.getBean(StartupTimeline)
+        Map<String, StartupTimeline.Entry> entries = timeline.entries.collectEntries { [(it.beanDefinition.beanType.simpleName): it] }
+        StartupTimeline.Entry first = entries.First
+        StartupTimeline.Entry second = entries.Second
+        StartupTimeline.Entry third = entries.Third
+
+        expect:
+        timeline.parallelism > 1
+        entries.values()*.status.every { it == StartupTimeline.Status.INITIALIZED }
+        first.threadName != second.threadName
+        first.start < second.start + second.duration
+        second.start < first.start + first.duration
+        third.start >= first.start + first.duration
+        timeline.toString().contains('parallelinit.Third')
+
+        cleanup:
+        context.close()
+    }
+
+    void "test the failure of the first bean in order is reported"() {
+        when:
+        buildContext('''
+package parallelfail;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.core.annotation.Order;
+
+@Context
+@Order(1)
+class FailingA {
+    FailingA() throws InterruptedException {
+        Thread.sleep(100);
+        throw new IllegalStateException("a");
+    }
+}
+
+@Context
+@Order(2)
+class FailingB {
+    FailingB() {
+        throw new IllegalStateException("b");
+    }
+}
+''')
+
+        then:
+        BeanInstantiationException e = thrown()
+        e.message.contains('parallelfail.FailingA')
+        e.suppressed.size() == 1
+    }
+
+    @Override
+    protected void configureContext(ApplicationContextBuilder contextBuilder) {
+        contextBuilder.eagerInitParallelism(4)
+    }
+}
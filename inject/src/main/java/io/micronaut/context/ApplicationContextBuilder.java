@@ -60,6 +60,20 @@ public interface ApplicationContextBuilder {
         return this;
     }
 
+    /**
+     * Initialize eager beans on a pool with the given number of threads. A bean is only initialized once the eager
+     * beans it injects are initialized, so that independent beans are initialized in parallel. The time each bean
+     * took is recorded in a {@link StartupTimeline} bean. The default is {@code 0}, which initializes eager beans
+     * one at a time on the thread that starts the context.
+     *
+     * @param parallelism The number of threads, or {@code 0} to disable parallel initialization
+     * @return The context builder
+     * @since 4.0.0
+     */
+    default @NonNull ApplicationContextBuilder eagerInitParallelism(int parallelism) {
+        return this;
+    }
+
     /**
      * Specify whether the default set of property sources should be enabled (default is {@code true}).
      * @param areEnabled Whether the default property sources are enabled
@@ -71,6 +71,15 @@ public interface BeanContextConfiguration {
         return getEagerInitAnnotated().contains(ConfigurationReader.class);
     }
 
+    /**
+     * The number of threads used to initialize eager beans in parallel.
+     * @return The number of threads, {@code 0} if eager beans are initialized one at a time
+     * @since 4.0.0
+     */
+    default int getEagerInitParallelism() {
+        return 0;
+    }
+
     /**
      * @return A set of annotated classes that should be eagerly initialized
      */
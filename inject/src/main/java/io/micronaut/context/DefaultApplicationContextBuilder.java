@@ -67,6 +67,7 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
     private boolean allowEmptyProviders = false;
     private Boolean bootstrapEnvironment = null;
     private boolean enableDefaultPropertySources = true;
+    private int eagerInitParallelism = 0;
 
     /**
      * Default constructor.
@@ -109,6 +110,21 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
         return this;
     }
 
+    @NonNull
+    @Override
+    public ApplicationContextBuilder eagerInitParallelism(int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Eager init parallelism must not be negative");
+        }
+        this.eagerInitParallelism = parallelism;
+        return this;
+    }
+
+    @Override
+    public int getEagerInitParallelism() {
+        return eagerInitParallelism;
+    }
+
     @NonNull
     @Override
     public ApplicationContextBuilder overrideConfigLocations(String... configLocations) {
@@ -229,6 +229,7 @@ public class DefaultBeanContext implements InitializableBeanContext {
     private final String[] eagerInitStereotypes;
     private final boolean eagerInitStereotypesPresent;
     private final boolean eagerInitSingletons;
+    private final int eagerInitParallelism;
 
     private BeanDefinitionValidator beanValidator;
     private List<BeanDefinitionReference> beanDefinitionReferences;
@@ -296,6 +297,7 @@ public class DefaultBeanContext implements InitializableBeanContext {
         this.eagerInitStereotypes = eagerInitStereotypes.toArray(new String[0]);
         this.eagerInitStereotypesPresent = !eagerInitStereotypes.isEmpty();
         this.eagerInitSingletons = eagerInitStereotypesPresent && (eagerInitStereotypes.contains(AnnotationUtil.SINGLETON) || eagerInitStereotypes.contains(Singleton.class.getName()));
+        this.eagerInitParallelism = contextConfiguration.getEagerInitParallelism();
         this.beanContextConfiguration = contextConfiguration;
     }
 
@@ -1910,15 +1912,24 @@ public class DefaultBeanContext implements InitializableBeanContext {
             filterProxiedTypes((Collection) contextBeans, true, false, null);
             filterReplacedBeans(null, (Collection) contextBeans);
             OrderUtil.sort(contextBeans);
-            for (BeanDefinition contextScopeDefinition : contextBeans) {
-                try {
-                    loadContextScopeBean(contextScopeDefinition);
-                } catch (DisabledBeanException e) {
-                    if (AbstractBeanContextConditional.LOG.isDebugEnabled()) {
-                        AbstractBeanContextConditional.LOG.debug("Bean of type [{}] disabled for reason: {}", contextScopeDefinition.getBeanType().getSimpleName(), e.getMessage());
+            if (eagerInitParallelism > 0) {
+                StartupTimeline timeline = new ParallelBeanInitializer(eagerInitParallelism, this::loadContextScopeBean)
+                        .initialize((List) contextBeans);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Eager bean initialization timeline: {}", timeline);
+                }
+                registerSingleton(StartupTimeline.class, timeline, null, false);
+            } else {
+                for (BeanDefinition contextScopeDefinition : contextBeans) {
+                    try {
+                        loadContextScopeBean(contextScopeDefinition);
+                    } catch (DisabledBeanException e) {
+                        if (AbstractBeanContextConditional.LOG.isDebugEnabled()) {
+                            AbstractBeanContextConditional.LOG.debug("Bean of type [{}] disabled for reason: {}", contextScopeDefinition.getBeanType().getSimpleName(), e.getMessage());
+                        }
+                    } catch (Throwable e) {
+                        throw new BeanInstantiationException("Bean definition [" + contextScopeDefinition.getName() + "] could not be loaded: " + e.getMessage(), e);
                     }
-                } catch (Throwable e) {
-                    throw new BeanInstantiationException("Bean definition [" + contextScopeDefinition.getName() + "] could not be loaded: " + e.getMessage(), e);
                 }
             }
         }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context;
+
+import io.micronaut.context.exceptions.BeanContextException;
+import io.micronaut.context.exceptions.BeanInstantiationException;
+import io.micronaut.context.exceptions.DisabledBeanException;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.inject.BeanDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Initializes eager beans on a bounded pool of threads. A bean is only initialized once the eager beans it
+ * injects have been initialized, so independent parts of the dependency graph are initialized in parallel while
+ * dependent beans keep the order they would have when initialized one at a time.
+ *
+ * <p>Once a bean fails no further beans are started. The failure of the bean that comes first in the
+ * {@link io.micronaut.core.order.OrderUtil order} of the beans is reported, so the outcome does not depend on
+ * which thread failed first.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Internal
+final class ParallelBeanInitializer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelBeanInitializer.class);
+
+    private final int parallelism;
+    private final Consumer<BeanDefinition<?>> beanInitializer;
+
+    /**
+     * @param parallelism     The maximum number of beans initialized at the same time
+     * @param beanInitializer Initializes a single bean
+     */
+    ParallelBeanInitializer(int parallelism, Consumer<BeanDefinition<?>> beanInitializer) {
+        this.parallelism = parallelism;
+        this.beanInitializer = beanInitializer;
+    }
+
+    /**
+     * Initializes the given beans and waits until all of them are initialized or one of them failed.
+     *
+     * @param beanDefinitions The bean definitions, in the order they are initialized when run sequentially
+     * @return The timeline of the initialization
+     * @throws BeanInstantiationException if the initialization of a bean failed
+     */
+    StartupTimeline initialize(List<BeanDefinition<?>> beanDefinitions) {
+        int count = beanDefinitions.size();
+        List<List<Integer>> dependents = new ArrayList<>(count);
+        int[] remainingDependencies = new int[count];
+        for (int i = 0; i < count; i++) {
+            dependents.add(new ArrayList<>(2));
+        }
+        for (int i = 0; i < count; i++) {
+            Collection<Class<?>> requiredComponents = beanDefinitions.get(i).getRequiredComponents();
+            if (requiredComponents.isEmpty()) {
+                continue;
+            }
+            for (int j = 0; j < count; j++) {
+                if (i != j && requires(requiredComponents, beanDefinitions.get(j).getBeanType())) {
+                    dependents.get(j).add(i);
+                    remainingDependencies[i]++;
+                }
+            }
+        }
+
+        int threads = Math.max(1, Math.min(parallelism, count));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bean-init-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        StartupTimeline.Entry[] entries = new StartupTimeline.Entry[count];
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        boolean[] started = new boolean[count];
+        long start = System.nanoTime();
+        int startedCount = 0;
+        int inFlight = 0;
+        boolean failed = false;
+        try {
+            for (int i = 0; i < count; i++) {
+                if (remainingDependencies[i] == 0) {
+                    submit(executor, beanDefinitions.get(i), i, start, entries, completed);
+                    started[i] = true;
+                    startedCount++;
+                    inFlight++;
+                }
+            }
+            while (inFlight > 0 || (!failed && startedCount < count)) {
+                if (inFlight == 0) {
+                    // the remaining beans depend on each other, e.g. through a provider: start the first one
+                    int next = 0;
+                    while (started[next]) {
+                        next++;
+                    }
+                    submit(executor, beanDefinitions.get(next), next, start, entries, completed);
+                    started[next] = true;
+                    startedCount++;
+                    inFlight++;
+                }
+                int index = completed.take();
+                inFlight--;
+                if (entries[index].getStatus() == StartupTimeline.Status.FAILED) {
+                    failed = true;
+                } else if (!failed) {
+                    for (int dependent : dependents.get(index)) {
+                        if (--remainingDependencies[dependent] == 0 && !started[dependent]) {
+                            submit(executor, beanDefinitions.get(dependent), dependent, start, entries, completed);
+                            started[dependent] = true;
+                            startedCount++;
+                            inFlight++;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeanContextException("Interrupted while initializing eager beans", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<StartupTimeline.Entry> recorded = new ArrayList<>(count);
+        BeanInstantiationException failure = null;
+        for (int i = 0; i < count; i++) {
+            StartupTimeline.Entry entry = entries[i];
+            if (entry == null) {
+                continue;
+            }
+            recorded.add(entry);
+            if (entry.getStatus() == StartupTimeline.Status.FAILED) {
+                Throwable cause = entry.getFailure();
+                if (failure == null) {
+                    failure = new BeanInstantiationException("Bean definition [" + entry.getBeanDefinition().getName() + "] could not be loaded: " + cause.getMessage(), cause);
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return new StartupTimeline(threads, System.nanoTime() - start, recorded);
+    }
+
+    private void submit(ExecutorService executor,
+                        BeanDefinition<?> beanDefinition,
+                        int index,
+                        long timelineStart,
+                        StartupTimeline.Entry[] entries,
+                        BlockingQueue<Integer> completed) {
+        executor.execute(() -> {
+            long beanStart = System.nanoTime();
+            StartupTimeline.Status status = StartupTimeline.Status.INITIALIZED;
+            Throwable failure = null;
+            try {
+                beanInitializer.accept(beanDefinition);
+            } catch (DisabledBeanException e) {
+                status = StartupTimeline.Status.DISABLED;
+                if (AbstractBeanContextConditional.LOG.isDebugEnabled()) {
+                    AbstractBeanContextConditional.LOG.debug("Bean of type [{}] disabled for reason: {}", beanDefinition.getBeanType().getSimpleName(), e.getMessage());
+                }
+            } catch (Throwable e) {
+                status = StartupTimeline.Status.FAILED;
+                failure = e;
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Bean definition [" + beanDefinition.getName() + "] could not be loaded: " + e.getMessage(), e);
+                }
+            }
+            long end = System.nanoTime();
+            // the entry is published to the waiting thread through the queue
+            entries[index] = new StartupTimeline.Entry(
+                    beanDefinition,
+                    Thread.currentThread().getName(),
+                    beanStart - timelineStart,
+                    end - beanStart,
+                    status,
+                    failure
+            );
+            completed.add(index);
+        });
+    }
+
+    private static boolean requires(Collection<Class<?>> requiredComponents, Class<?> beanType) {
+        for (Class<?> requiredComponent : requiredComponents) {
+            if (requiredComponent != Object.class && requiredComponent.isAssignableFrom(beanType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context;
+
+import io.micronaut.core.annotation.Experimental;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.inject.BeanDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records when and how long each eager bean took to initialize while the {@link BeanContext} started. A timeline is
+ * registered as a bean when parallel eager initialization is enabled with
+ * {@link ApplicationContextBuilder#eagerInitParallelism(int)}.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Experimental
+public final class StartupTimeline {
+
+    private final int parallelism;
+    private final long durationNanos;
+    private final List<Entry> entries;
+
+    /**
+     * @param parallelism   The number of threads used to initialize the beans
+     * @param durationNanos The total duration in nanoseconds
+     * @param entries       The entries
+     */
+    StartupTimeline(int parallelism, long durationNanos, List<Entry> entries) {
+        this.parallelism = parallelism;
+        this.durationNanos = durationNanos;
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(entry -> entry.startNanos));
+        this.entries = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * @return The number of threads used to initialize the beans
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return The time it took to initialize all eager beans
+     */
+    @NonNull
+    public Duration getDuration() {
+        return Duration.ofNanos(durationNanos);
+    }
+
+    /**
+     * @return The entries of the beans that were initialized, ordered by start time
+     */
+    @NonNull
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * The sum of the durations of every bean divided by the total duration. A value close to the parallelism
+     * means the beans were initialized fully in parallel, a value close to 1 means they were initialized one
+     * after the other.
+     *
+     * @return The effective parallelism
+     */
+    public double getEffectiveParallelism() {
+        if (durationNanos == 0) {
+            return 1;
+        }
+        long sum = 0;
+        for (Entry entry : entries) {
+            sum += entry.durationNanos;
+        }
+        return (double) sum / durationNanos;
+    }
+
+    /**
+     * @return A report with one line per bean, ordered by start time
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("Initialized ").append(entries.size()).append(" eager beans in ")
+                .append(TimeUnit.NANOSECONDS.toMillis(durationNanos)).append("ms using ")
+                .append(parallelism).append(parallelism == 1 ? " thread" : " threads")
+                .append(String.format(" (effective parallelism %.2f)", getEffectiveParallelism()));
+        for (Entry entry : entries) {
+            report.append(System.lineSeparator())
+                    .append(String.format("  +%6dms %6dms %-8s [%s] %s",
+                            TimeUnit.NANOSECONDS.toMillis(entry.startNanos),
+                            TimeUnit.NANOSECONDS.toMillis(entry.durationNanos),
+                            entry.status,
+                            entry.threadName,
+                            entry.beanDefinition.getBeanType().getName()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * The outcome of the initialization of a bean.
+     */
+    public enum Status {
+        /**
+         * The bean was initialized.
+         */
+        INITIALIZED,
+        /**
+         * The bean turned out to be disabled.
+         */
+        DISABLED,
+        /**
+         * The initialization of the bean failed.
+         */
+        FAILED
+    }
+
+    /**
+     * The initialization of a single bean.
+     */
+    public static final class Entry {
+        private final BeanDefinition<?> beanDefinition;
+        private final String threadName;
+        private final long startNanos;
+        private final long durationNanos;
+        private final Status status;
+        private final Throwable failure;
+
+        /**
+         * @param beanDefinition The bean definition
+         * @param threadName     The name of the thread that initialized the bean
+         * @param startNanos     The start, in nanoseconds since the initialization of the eager beans started
+         * @param durationNanos  The duration in nanoseconds
+         * @param status         The outcome
+         * @param failure        The failure, if any
+         */
+        Entry(BeanDefinition<?> beanDefinition, String threadName, long startNanos, long durationNanos, Status status, @Nullable Throwable failure) {
+            this.beanDefinition = beanDefinition;
+            this.threadName = threadName;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.status = status;
+            this.failure = failure;
+        }
+
+        /**
+         * @return The bean definition
+         */
+        @NonNull
+        public BeanDefinition<?> getBeanDefinition() {
+            return beanDefinition;
+        }
+
+        /**
+         * @return The name of the thread that initialized the bean
+         */
+        @NonNull
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * @return The time between the start of the eager initialization and the start of this bean
+         */
+        @NonNull
+        public Duration getStart() {
+            return Duration.ofNanos(startNanos);
+        }
+
+        /**
+         * @return How long the bean took to initialize
+         */
+        @NonNull
+        public Duration getDuration() {
+            return Duration.ofNanos(durationNanos);
+        }
+
+        /**
+         * @return The outcome
+         */
+        @NonNull
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return The failure if the status is {@link Status#FAILED}
+         */
+        @Nullable
+        public Throwable getFailure() {
+            return failure;
+        }
+    }
+}
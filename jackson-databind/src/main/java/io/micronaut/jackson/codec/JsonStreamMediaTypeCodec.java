@@ -34,7 +34,7 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * A codec for {@link MediaType#APPLICATION_JSON_STREAM}.
+ * A codec for {@link MediaType#APPLICATION_JSON_STREAM} and {@link MediaType#APPLICATION_NDJSON}.
  *
  * Note: will be replaced by {@link io.micronaut.json.codec.JsonStreamMediaTypeCodec} in the future, but that class is
  * currently experimental.
@@ -89,6 +89,7 @@ public class JsonStreamMediaTypeCodec extends JsonMediaTypeCodec {
     public Collection<MediaType> getMediaTypes() {
         List<MediaType> mediaTypes = new ArrayList<>();
         mediaTypes.add(MediaType.APPLICATION_JSON_STREAM_TYPE);
+        mediaTypes.add(MediaType.APPLICATION_NDJSON_TYPE);
         mediaTypes.addAll(additionalTypes);
         return mediaTypes;
     }
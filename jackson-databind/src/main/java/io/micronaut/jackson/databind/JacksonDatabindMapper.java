@@ -16,6 +16,8 @@
 package io.micronaut.jackson.databind;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
@@ -26,6 +28,7 @@ import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.io.buffer.ByteBuffer;
 import io.micronaut.core.reflect.InstantiationUtils;
 import io.micronaut.core.type.Argument;
 import io.micronaut.jackson.JacksonConfiguration;
@@ -119,6 +122,29 @@ public final class JacksonDatabindMapper implements JsonMapper {
         return objectMapper.readValue(byteArray, JacksonConfiguration.constructType(type, objectMapper.getTypeFactory()));
     }
 
+    @Override
+    public <T> T readValue(@NonNull ByteBuffer<?> byteBuffer, @NonNull Argument<T> type) throws IOException {
+        ByteBuffer<?> readable = byteBuffer.slice(byteBuffer.readerIndex(), byteBuffer.readableBytes());
+        // the parser reads the buffer in chunks into an input buffer that Jackson recycles per thread
+        try (JsonParser parser = objectMapper.createParser(readable.toInputStream())) {
+            return objectMapper.readValue(parser, JacksonConfiguration.constructType(type, objectMapper.getTypeFactory()));
+        }
+    }
+
+    @Override
+    public void writeValue(@NonNull ByteBuffer<?> byteBuffer, @Nullable Object object) throws IOException {
+        // the generator encodes into a chunk that Jackson recycles per thread and flushes each full chunk into the
+        // buffer, so the document is never held in a heap array of its own
+        try (JsonGenerator generator = objectMapper.createGenerator(byteBuffer.toOutputStream(), JsonEncoding.UTF8)) {
+            objectMapper.writeValue(generator, object);
+        }
+    }
+
+    @Override
+    public <T> void writeValue(@NonNull ByteBuffer<?> byteBuffer, @NonNull Argument<T> type, T object) throws IOException {
+        writeValue(byteBuffer, object);
+    }
+
     @Override
     public void writeValue(@NonNull OutputStream outputStream, @Nullable Object object) throws IOException {
         objectMapper.writeValue(outputStream, object);
@@ -5,13 +5,22 @@ import com.fasterxml.jackson.core.JsonProcessingException
 import com.fasterxml.jackson.databind.DeserializationContext
 import com.fasterxml.jackson.databind.JsonDeserializer
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
 import com.fasterxml.jackson.databind.module.SimpleModule
+import io.micronaut.buffer.netty.NettyByteBufferFactory
 import io.micronaut.context.ApplicationContext
+import io.micronaut.core.io.buffer.ByteBuffer
 import io.micronaut.core.type.Argument
 import io.micronaut.json.JsonMapper
 import io.micronaut.json.tree.JsonNode
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.CompositeByteBuf
+import io.netty.buffer.Unpooled
+import io.netty.buffer.UnpooledByteBufAllocator
 import spock.lang.Specification
 
+import java.nio.charset.StandardCharsets
+
 class JacksonDatabindMapperSpec extends Specification {
     def 'parsing to JsonNode'() {
         given:
@@ -45,6 +54,51 @@ class JacksonDatabindMapperSpec extends Specification {
         testBean.value == BigInteger.valueOf(42)
     }
 
+    def 'reading from and writing to a buffer'() {
+        given:
+        def jsonMapper = new JacksonDatabindMapper()
+        def factory = new NettyByteBufferFactory(UnpooledByteBufAllocator.DEFAULT)
+        CompositeByteBuf composite = Unpooled.compositeBuffer()
+        composite.addComponent(true, Unpooled.directBuffer().writeBytes('{"title":"The '.getBytes(StandardCharsets.UTF_8)))
+        composite.addComponent(true, Unpooled.directBuffer().writeBytes('Stand"}'.getBytes(StandardCharsets.UTF_8)))
+        ByteBuffer<ByteBuf> input = factory.wrap(composite)
+        int readable = input.readableBytes()
+
+        expect:
+        jsonMapper.readValue(input, Argument.mapOf(String, String)) == [title: 'The Stand']
+        input.readableBytes() == readable
+
+        when:
+        ByteBuffer<ByteBuf> output = factory.wrap(Unpooled.directBuffer(2))
+        jsonMapper.writeValue(output, [title: 'The Stand'])
+
+        then:
+        output.toString(StandardCharsets.UTF_8) == '{"title":"The Stand"}'
+
+        cleanup:
+        composite.release()
+        output?.asNativeBuffer()?.release()
+    }
+
+    def 'writing a document larger than the generator chunk to a buffer'() {
+        given:
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+        def jsonMapper = new JacksonDatabindMapper(objectMapper)
+        def factory = new NettyByteBufferFactory(UnpooledByteBufAllocator.DEFAULT)
+        String title = 'x' * 20000
+        ByteBuffer<ByteBuf> output = factory.wrap(Unpooled.directBuffer(16))
+
+        when:
+        jsonMapper.writeValue(output, Argument.mapOf(String, String), [title: title])
+
+        then:
+        output.toString(StandardCharsets.UTF_8) == objectMapper.writeValueAsString([title: title])
+        jsonMapper.readValue(output, Argument.mapOf(String, String)) == [title: title]
+
+        cleanup:
+        output?.asNativeBuffer()?.release()
+    }
+
     private static class TestBean {
         BigInteger value
     }
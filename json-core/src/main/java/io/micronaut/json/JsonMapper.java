@@ -19,6 +19,7 @@ import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.Experimental;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.io.buffer.ByteBuffer;
 import io.micronaut.core.type.Argument;
 import io.micronaut.json.tree.JsonNode;
 import org.reactivestreams.Processor;
@@ -97,6 +98,24 @@ public interface JsonMapper {
         return readValue(string.getBytes(StandardCharsets.UTF_8), type);
     }
 
+    /**
+     * Parse and map json from the readable bytes of the given buffer. The bytes are read in place, without copying
+     * them to an array first, and the reader index of the buffer is left unchanged.
+     *
+     * @param byteBuffer The input data.
+     * @param type       The type to deserialize to.
+     * @param <T>        Type variable of the return type.
+     * @return The deserialized object.
+     * @throws IOException IOException
+     * @since 4.0.0
+     */
+    default <T> T readValue(@NonNull ByteBuffer<?> byteBuffer, @NonNull Argument<T> type) throws IOException {
+        ByteBuffer<?> readable = byteBuffer.slice(byteBuffer.readerIndex(), byteBuffer.readableBytes());
+        try (InputStream inputStream = readable.toInputStream()) {
+            return readValue(inputStream, type);
+        }
+    }
+
     /**
      * Create a reactive {@link Processor} that accepts json bytes and parses them as {@link JsonNode}s.
      *
@@ -149,6 +168,36 @@ public interface JsonMapper {
      */
     <T> void writeValue(@NonNull OutputStream outputStream, @NonNull Argument<T> type, @Nullable T object) throws IOException;
 
+    /**
+     * Write an object as json to the given buffer, growing it as needed. The json is written to the buffer as it is
+     * generated, so the document is never held in a heap array of its own. Implementations may still encode through
+     * a small reused chunk that is copied into the buffer, as Jackson does.
+     *
+     * @param byteBuffer The buffer to write to.
+     * @param object     The object to serialize.
+     * @throws IOException IOException
+     * @since 4.0.0
+     */
+    default void writeValue(@NonNull ByteBuffer<?> byteBuffer, @Nullable Object object) throws IOException {
+        writeValue(byteBuffer.toOutputStream(), object);
+    }
+
+    /**
+     * Write an object as json to the given buffer, growing it as needed. The json is written to the buffer as it is
+     * generated, so the document is never held in a heap array of its own. Implementations may still encode through
+     * a small reused chunk that is copied into the buffer, as Jackson does.
+     *
+     * @param byteBuffer The buffer to write to.
+     * @param type       The object type
+     * @param object     The object to serialize.
+     * @param <T>        The generic type
+     * @throws IOException IOException
+     * @since 4.0.0
+     */
+    default <T> void writeValue(@NonNull ByteBuffer<?> byteBuffer, @NonNull Argument<T> type, @Nullable T object) throws IOException {
+        writeValue(byteBuffer.toOutputStream(), type, object);
+    }
+
     /**
      * Write an object as json.
      *
@@ -33,7 +33,7 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * A codec for {@link MediaType#APPLICATION_JSON_STREAM}.
+ * A codec for {@link MediaType#APPLICATION_JSON_STREAM} and {@link MediaType#APPLICATION_NDJSON}.
  *
  * @author Graeme Rocher
  * @since 1.0
@@ -84,6 +84,7 @@ public class JsonStreamMediaTypeCodec extends JsonMediaTypeCodec {
     public Collection<MediaType> getMediaTypes() {
         List<MediaType> mediaTypes = new ArrayList<>();
         mediaTypes.add(MediaType.APPLICATION_JSON_STREAM_TYPE);
+        mediaTypes.add(MediaType.APPLICATION_NDJSON_TYPE);
         mediaTypes.addAll(streamAdditionalTypes);
         return mediaTypes;
     }
@@ -174,7 +174,7 @@ public abstract class MapperMediaTypeCodec implements MediaTypeCodec {
             if (CharSequence.class.isAssignableFrom(type.getType())) {
                 return (T) buffer.toString(applicationConfiguration.getDefaultCharset());
             } else {
-                return getJsonMapper().readValue(buffer.toByteArray(), type);
+                return getJsonMapper().readValue(buffer, type);
             }
         } catch (IOException e) {
             throw new CodecException("Error decoding stream for type [" + type.getType() + "]: " + e.getMessage(), e);
@@ -254,9 +254,16 @@ public abstract class MapperMediaTypeCodec implements MediaTypeCodec {
             return allocator.copiedBuffer((byte[]) object);
         }
         ByteBuffer<B> buffer = allocator.buffer();
-        OutputStream outputStream = buffer.toOutputStream();
-        encode(object, outputStream);
-        return buffer;
+        try {
+            getJsonMapper().writeValue(buffer, object);
+            return buffer;
+        } catch (IOException e) {
+            release(buffer);
+            throw new CodecException("Error encoding object [" + object + "] to JSON: " + e.getMessage(), e);
+        } catch (Throwable t) {
+            release(buffer);
+            throw t;
+        }
     }
 
     @Override
@@ -266,14 +273,20 @@ public abstract class MapperMediaTypeCodec implements MediaTypeCodec {
         }
         ByteBuffer<B> buffer = allocator.buffer();
         try {
-            OutputStream outputStream = buffer.toOutputStream();
-            encode(type, object, outputStream);
+            getJsonMapper().writeValue(buffer, type, object);
             return buffer;
+        } catch (IOException e) {
+            release(buffer);
+            throw new CodecException("Error encoding object [" + object + "] to JSON: " + e.getMessage(), e);
         } catch (Throwable t) {
-            if (buffer instanceof ReferenceCounted) {
-                ((ReferenceCounted) buffer).release();
-            }
+            release(buffer);
             throw t;
         }
     }
+
+    private static void release(ByteBuffer<?> buffer) {
+        if (buffer instanceof ReferenceCounted) {
+            ((ReferenceCounted) buffer).release();
+        }
+    }
 }
@@ -45,7 +45,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -58,13 +57,18 @@ import java.util.stream.Stream;
  * <p>The default {@link Router} implementation. This implementation does not perform any additional caching of
  * route discovery.</p>
  *
+ * <p>The URI routes of each HTTP method are indexed by the leading segments of their templates (see
+ * {@code UriRouteIndex}) so only the routes that can possibly match a request path are evaluated.</p>
+ *
  * @author Graeme Rocher
  * @since 1.0
  */
 @Singleton
 public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatch<?>> {
 
-    private final Map<String, List<UriRoute>> routesByMethod = new HashMap<>();
+    // replaced as a whole, never modified after publication, so that concurrent lookups see a complete index
+    private volatile Map<String, List<UriRoute>> routesByMethod = new HashMap<>();
+    private volatile Map<String, UriRouteIndex> indexByMethod = Collections.emptyMap();
     private final List<StatusRoute> statusRoutes = new ArrayList<>();
     private final List<ErrorRoute> errorRoutes = new ArrayList<>();
     private final Set<Integer> exposedPorts;
@@ -132,6 +136,7 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         }
 
         routesByMethod.values().forEach(this::finalizeRoutes);
+        buildIndexes();
         for (FilterRoute filterRoute : filterRoutes) {
             if (isMatchesAll(filterRoute)) {
                 alwaysMatchesFilterRoutes.add(filterRoute);
@@ -166,14 +171,16 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
     @Override
     public void applyDefaultPorts(List<Integer> ports) {
         Predicate<HttpRequest<?>> portMatches = (httpRequest -> ports.contains(httpRequest.getServerAddress().getPort()));
-        for (List<UriRoute> routes : routesByMethod.values()) {
-            for (int i = 0; i < routes.size(); i++) {
-                UriRoute route = routes.get(i);
-                if (route.getPort() == null) {
-                    routes.set(i, route.where(portMatches));
-                }
+        Map<String, List<UriRoute>> newRoutesByMethod = new HashMap<>(routesByMethod.size());
+        routesByMethod.forEach((method, routes) -> {
+            List<UriRoute> newRoutes = new ArrayList<>(routes.size());
+            for (UriRoute route : routes) {
+                newRoutes.add(route.getPort() == null ? route.where(portMatches) : route);
             }
-        }
+            newRoutesByMethod.put(method, newRoutes);
+        });
+        routesByMethod = newRoutesByMethod;
+        buildIndexes();
     }
 
     @NonNull
@@ -284,14 +291,11 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
     @NonNull
     @Override
     public <T, R> Optional<UriRouteMatch<T, R>> route(@NonNull HttpMethod httpMethod, @NonNull CharSequence uri) {
-        List<UriRoute> routes = routesByMethod.getOrDefault(httpMethod.name(), Collections.emptyList());
-        for (UriRoute uriRoute : routes) {
-            Optional<UriRouteMatch> match = uriRoute.match(uri.toString());
-            if (match.isPresent()) {
-                return (Optional) match;
-            }
+        UriRouteIndex index = indexByMethod.get(httpMethod.name());
+        if (index == null) {
+            return Optional.empty();
         }
-        return Optional.empty();
+        return (Optional) index.first(uri.toString());
     }
 
     @Override
@@ -473,30 +477,16 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
     public <T, R> Stream<UriRouteMatch<T, R>> findAny(@NonNull CharSequence uri, @Nullable HttpRequest<?> context) {
         List matchedRoutes = new ArrayList<>(5);
         final String uriStr = uri.toString();
-        for (List<UriRoute> routes : routesByMethod.values()) {
-            for (UriRoute route : routes) {
-                final UriRouteMatch match = route.match(uriStr).orElse(null);
-                if (match != null && match.test(context)) {
-                    matchedRoutes.add(match);
-                }
-            }
+        for (UriRouteIndex index : indexByMethod.values()) {
+            matchedRoutes.addAll(index.find(uriStr, match -> match.test(context)));
         }
         return matchedRoutes.stream();
     }
 
     private <T, R> List<UriRouteMatch<T, R>> find(String httpMethodName, CharSequence uri, @Nullable Predicate<UriRouteMatch> predicate) {
-        List<UriRoute> routes = routesByMethod.getOrDefault(httpMethodName, Collections.emptyList());
-        if (CollectionUtils.isNotEmpty(routes)) {
-            final String uriStr = uri.toString();
-            List<UriRouteMatch<T, R>> routeMatches = new LinkedList<>();
-            for (UriRoute route : routes) {
-                Optional<UriRouteMatch> match = route.match(uriStr);
-                if (predicate != null) {
-                    match = match.filter(predicate);
-                }
-                match.ifPresent(routeMatches::add);
-            }
-            return routeMatches;
+        UriRouteIndex index = indexByMethod.get(httpMethodName);
+        if (index != null) {
+            return index.find(uri.toString(), predicate);
         } else {
             //noinspection unchecked
             return Collections.emptyList();
@@ -508,6 +498,12 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         return routes.toArray(new UriRoute[0]);
     }
 
+    private void buildIndexes() {
+        Map<String, UriRouteIndex> newIndexByMethod = new HashMap<>(routesByMethod.size());
+        routesByMethod.forEach((method, routes) -> newIndexByMethod.put(method, new UriRouteIndex(routes)));
+        indexByMethod = newIndexByMethod;
+    }
+
     private <T> Optional<RouteMatch<T>> findRouteMatch(Map<ErrorRoute, RouteMatch<T>> matchedRoutes, Throwable error) {
         if (matchedRoutes.size() == 1) {
             return matchedRoutes.values().stream().findFirst();
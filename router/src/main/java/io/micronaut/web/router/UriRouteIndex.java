@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * <p>A segment based tree index over the {@link io.micronaut.http.uri.UriMatchTemplate} of a list of
+ * {@link UriRoute} instances that share the same HTTP method.</p>
+ *
+ * <p>Each template is decomposed into its leading path segments. Literal segments become keyed children and
+ * single segment variables without a modifier (for example {@code {id}}) become a wildcard child. Decomposition
+ * stops at the first segment that cannot be represented this way (regular expression constraints, reserved or
+ * multi segment expansions, partial literals etc.) and the route is attached to the last node reached. Routes
+ * that cannot be decomposed at all are attached to the root and are therefore always candidates.</p>
+ *
+ * <p>A lookup walks the request path through the tree and only the routes attached to the visited nodes are
+ * matched against the full template, so the matching semantics remain exactly those of
+ * {@link UriRoute#match(String)} while the number of regular expression evaluations no longer grows with the
+ * total number of routes.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+final class UriRouteIndex {
+
+    private static final char SLASH = '/';
+    private static final int INITIAL_CANDIDATES = 8;
+
+    private final UriRoute[] routes;
+    private final Node root = new Node();
+
+    /**
+     * @param routes The routes, in the order in which they should be matched
+     */
+    UriRouteIndex(@NonNull List<UriRoute> routes) {
+        this.routes = routes.toArray(new UriRoute[0]);
+        Map<Node, List<Integer>> attached = new HashMap<>();
+        for (int i = 0; i < this.routes.length; i++) {
+            Node node = insert(this.routes[i].getUriMatchTemplate().toString());
+            attached.computeIfAbsent(node, n -> new ArrayList<>(2)).add(i);
+        }
+        attached.forEach((node, positions) -> {
+            int[] p = new int[positions.size()];
+            for (int i = 0; i < p.length; i++) {
+                p[i] = positions.get(i);
+            }
+            node.routes = p;
+        });
+    }
+
+    /**
+     * Finds all the routes that match the given URI.
+     *
+     * @param uri       The URI
+     * @param predicate An optional predicate to filter the matches with
+     * @param <T>       The target type
+     * @param <R>       The return type
+     * @return The matching routes, in route order
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    <T, R> List<UriRouteMatch<T, R>> find(@NonNull String uri, @Nullable Predicate<UriRouteMatch> predicate) {
+        Candidates candidates = collect(uri);
+        if (candidates.size == 0) {
+            return Collections.emptyList();
+        }
+        List<UriRouteMatch<T, R>> routeMatches = new ArrayList<>(Math.min(candidates.size, INITIAL_CANDIDATES));
+        for (int i = 0; i < candidates.size; i++) {
+            Optional<UriRouteMatch> match = routes[candidates.positions[i]].match(uri);
+            if (match.isPresent()) {
+                UriRouteMatch routeMatch = match.get();
+                if (predicate == null || predicate.test(routeMatch)) {
+                    routeMatches.add(routeMatch);
+                }
+            }
+        }
+        return routeMatches;
+    }
+
+    /**
+     * Finds the first route that matches the given URI.
+     *
+     * @param uri The URI
+     * @return The first matching route
+     */
+    @NonNull
+    Optional<UriRouteMatch> first(@NonNull String uri) {
+        Candidates candidates = collect(uri);
+        for (int i = 0; i < candidates.size; i++) {
+            Optional<UriRouteMatch> match = routes[candidates.positions[i]].match(uri);
+            if (match.isPresent()) {
+                return match;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Candidates collect(String uri) {
+        int end = uri.indexOf('?');
+        if (end == -1) {
+            end = uri.length();
+        }
+        Candidates candidates = new Candidates();
+        if (end > 0 && uri.charAt(0) == SLASH) {
+            collect(root, uri, 1, end, candidates);
+        } else {
+            candidates.add(root.routes);
+        }
+        if (candidates.unordered) {
+            Arrays.sort(candidates.positions, 0, candidates.size);
+        }
+        return candidates;
+    }
+
+    private void collect(Node node, String uri, int start, int end, Candidates candidates) {
+        candidates.add(node.routes);
+        if (start > end) {
+            return;
+        }
+        int next = uri.indexOf(SLASH, start);
+        if (next == -1 || next > end) {
+            next = end;
+        }
+        if (node.literals != null) {
+            Node child = node.literals.get(uri.substring(start, next));
+            if (child != null) {
+                collect(child, uri, next + 1, end, candidates);
+            }
+        }
+        if (node.variable != null && next > start) {
+            collect(node.variable, uri, next + 1, end, candidates);
+        }
+    }
+
+    private Node insert(String template) {
+        int len = template.length();
+        if (len == 0 || template.charAt(0) != SLASH) {
+            return root;
+        }
+        Node node = root;
+        int start = 1;
+        while (start < len) {
+            int i = start;
+            char c = 0;
+            while (i < len) {
+                c = template.charAt(i);
+                if (c == SLASH || c == '{' || c == '?' || c == '#') {
+                    break;
+                }
+                i++;
+            }
+            if (i == len) {
+                // trailing literal segment
+                return node.literal(template.substring(start, len));
+            }
+            if (c == SLASH) {
+                node = node.literal(template.substring(start, i));
+                start = i + 1;
+            } else if (c == '{') {
+                if (i > start) {
+                    // a literal directly followed by an optional path variable ({/var}) is still a complete segment
+                    if (i + 1 < len && template.charAt(i + 1) == SLASH) {
+                        return node.literal(template.substring(start, i));
+                    }
+                    return node;
+                }
+                int close = variableEnd(template, i + 1);
+                if (close == -1 || close + 1 >= len || template.charAt(close + 1) != SLASH) {
+                    return node;
+                }
+                node = node.variable();
+                start = close + 2;
+            } else {
+                return node;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Returns the index of the closing brace of a simple variable expression, i.e. one without an operator,
+     * modifier or multiple variables, or -1 if the expression is not simple.
+     */
+    private static int variableEnd(String template, int start) {
+        int len = template.length();
+        for (int i = start; i < len; i++) {
+            char c = template.charAt(i);
+            if (c == '}') {
+                return i > start ? i : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A node of the tree.
+     */
+    private static final class Node {
+        private static final int[] EMPTY = new int[0];
+
+        Map<String, Node> literals;
+        Node variable;
+        int[] routes = EMPTY;
+
+        Node literal(String segment) {
+            if (literals == null) {
+                literals = new HashMap<>(4);
+            }
+            return literals.computeIfAbsent(segment, s -> new Node());
+        }
+
+        Node variable() {
+            if (variable == null) {
+                variable = new Node();
+            }
+            return variable;
+        }
+    }
+
+    /**
+     * The positions of the candidate routes collected during a lookup.
+     */
+    private static final class Candidates {
+        int[] positions;
+        int size;
+        boolean unordered;
+
+        void add(int[] routes) {
+            int count = routes.length;
+            if (count == 0) {
+                return;
+            }
+            if (positions == null) {
+                positions = new int[Math.max(INITIAL_CANDIDATES, count)];
+            } else if (size + count > positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(positions.length * 2, size + count));
+            }
+            if (size > 0) {
+                unordered = true;
+            }
+            System.arraycopy(routes, 0, positions, size, count);
+            size += count;
+        }
+    }
+}
@@ -103,6 +103,14 @@ public class StaticResourceConfiguration implements Toggleable {
         return Collections.emptyList();
     }
 
+    /**
+     * @return The configured paths, each starting with either {@code classpath:} or {@code file:}
+     * @since 4.0.0
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
     /**
      * The static resource mapping.
      * @return The mapping
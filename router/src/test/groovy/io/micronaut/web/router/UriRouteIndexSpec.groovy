@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router
+
+import io.micronaut.http.uri.UriMatchTemplate
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class UriRouteIndexSpec extends Specification {
+
+    static final List<String> TEMPLATES = [
+            '/',
+            '/{?max}',
+            '/books',
+            '/books{/id}',
+            '/books/{id}',
+            '/books/{id}/authors',
+            '/books/{id}/authors/{authorId}',
+            '/books/{id:[0-9]+}/reviews',
+            '/books/{+path}',
+            '/book{id}',
+            '/books/{id}.json',
+            '/authors/{name}/books{?max,offset}',
+            '/authors/{name}/{book}/edit',
+            '/static/{path:.*}',
+            '/{controller}/{action}',
+            'relative/{id}'
+    ]
+
+    @Unroll
+    void "test index returns the same matches as a linear scan for #uri"() {
+        given:
+        List<UriRoute> routes = TEMPLATES.collect { route(it) }
+        UriRouteIndex index = new UriRouteIndex(routes)
+
+        expect:
+        index.find(uri, null)*.toString() == routes.findResults { it.match(uri).orElse(null) }*.toString()
+        index.first(uri).orElse(null)?.toString() == routes.findResult { it.match(uri).orElse(null) }?.toString()
+
+        where:
+        uri << [
+                '',
+                '/',
+                '/?max=10',
+                '/books',
+                '/books/',
+                '/books/1',
+                '/books/1/',
+                '/books/1/authors',
+                '/books/1/authors/2',
+                '/books/1/reviews',
+                '/books/abc/reviews',
+                '/books/1.json',
+                '/books/a/b/c',
+                '/book1',
+                '/books//1',
+                '/authors/fred/books',
+                '/authors/fred/books?max=10',
+                '/authors/fred/dune/edit',
+                '/static/js/app.js',
+                '/foo/bar',
+                '/foo/bar/baz',
+                'relative/1',
+                '/unknown'
+        ]
+    }
+
+    void "test routes are only evaluated when their leading segments match"() {
+        given:
+        Set<String> evaluated = []
+        List<UriRoute> routes = ['/books/{id}', '/authors/{id}', '/{controller}/list', '/static/{path:.*}'].collect { template ->
+            UriMatchTemplate uriMatchTemplate = UriMatchTemplate.of(template)
+            Stub(UriRoute) {
+                getUriMatchTemplate() >> uriMatchTemplate
+                match(_ as String) >> { String uri ->
+                    evaluated << template
+                    uriMatchTemplate.match(uri).map { info -> Stub(UriRouteMatch) { toString() >> template } }
+                }
+            }
+        }
+        UriRouteIndex index = new UriRouteIndex(routes)
+
+        when:
+        def matches = index.find('/books/1', null)
+
+        then:
+        matches.size() == 1
+        evaluated == ['/books/{id}'] as Set
+
+        when:
+        evaluated.clear()
+        matches = index.find('/authors/list', null)
+
+        then:
+        matches*.toString() == ['/authors/{id}', '/{controller}/list']
+        evaluated == ['/authors/{id}', '/{controller}/list'] as Set
+    }
+
+    private UriRoute route(String template) {
+        UriMatchTemplate uriMatchTemplate = UriMatchTemplate.of(template)
+        Stub(UriRoute) {
+            getUriMatchTemplate() >> uriMatchTemplate
+            match(_ as String) >> { String uri ->
+                uriMatchTemplate.match(uri).map { info -> Stub(UriRouteMatch) { toString() >> template + ' ' + info.variableValues } }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.annotation;
+
+import io.micronaut.aop.Around;
+import io.micronaut.context.annotation.Type;
+import io.micronaut.retry.intercept.BulkheadInterceptor;
+
+import javax.validation.constraints.Digits;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * AOP Advice that limits the number of concurrent executions of a method, so that a slow downstream service
+ * cannot exhaust the threads or connections shared with the rest of the application. Calls over the limit wait in
+ * a bounded queue or are rejected with a {@link io.micronaut.retry.exception.BulkheadFullException}.
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+@Around
+@Type(BulkheadInterceptor.class)
+public @interface Bulkhead {
+
+    /**
+     * @return The name of the bulkhead. Methods with the same name share the bulkhead, by default every method has its
+     * own.
+     */
+    String name() default "";
+
+    /**
+     * @return The maximum number of concurrent executions
+     */
+    @Digits(integer = 6, fraction = 0)
+    String maxConcurrentCalls() default "10";
+
+    /**
+     * @return The maximum number of calls waiting for an execution slot, or for a thread in {@link Mode#THREAD_POOL}
+     * mode
+     */
+    @Digits(integer = 6, fraction = 0)
+    String queueSize() default "0";
+
+    /**
+     * @return The maximum time a call waits in the queue, ignored in {@link Mode#THREAD_POOL} mode. A zero duration
+     * rejects calls straight away when all slots are taken.
+     */
+    String maxWaitDuration() default "0s";
+
+    /**
+     * @return How the number of concurrent executions is limited
+     */
+    Mode mode() default Mode.SEMAPHORE;
+
+    /**
+     * How a bulkhead limits the number of concurrent executions.
+     */
+    enum Mode {
+        /**
+         * Calls execute on the calling thread once they acquire a permit. Calls returning a
+         * {@link java.util.concurrent.CompletionStage} or a {@link org.reactivestreams.Publisher} never block while
+         * waiting for a permit.
+         */
+        SEMAPHORE,
+        /**
+         * Calls execute on a thread pool dedicated to the bulkhead, with {@link #maxConcurrentCalls()} threads and a
+         * queue of {@link #queueSize()} tasks. Only methods returning a {@link java.util.concurrent.CompletionStage} or
+         * a {@link org.reactivestreams.Publisher} are supported, calls to other methods fail with a
+         * {@link io.micronaut.context.exceptions.ConfigurationException}. A call holds one of
+         * {@link #maxConcurrentCalls()} slots until it completes, and is rejected when all slots are taken.
+         */
+        THREAD_POOL
+    }
+}
@@ -89,10 +89,91 @@ public @interface CircuitBreaker {
      */
     String reset() default "20s";
 
+    /**
+     * The failure rate in percent, among the calls recorded by the sliding window, at or above which the circuit opens.
+     * Setting this or the {@link #slowCallRateThreshold()} enables the sliding window circuit breaker, which opens
+     * based on the outcome of many concurrent calls instead of the retries of a single call.
+     *
+     * @return The failure rate threshold
+     * @since 4.0.0
+     */
+    @Digits(integer = 3, fraction = 2)
+    String failureRateThreshold() default "";
+
+    /**
+     * The rate in percent of calls that take at least {@link #slowCallDuration()}, at or above which the circuit
+     * opens.
+     *
+     * @return The slow call rate threshold
+     * @since 4.0.0
+     */
+    @Digits(integer = 3, fraction = 2)
+    String slowCallRateThreshold() default "";
+
+    /**
+     * @return The duration from which a call is considered slow
+     * @since 4.0.0
+     */
+    String slowCallDuration() default "5s";
+
+    /**
+     * @return Whether the sliding window records a number of calls or the calls of a period of time
+     * @since 4.0.0
+     */
+    WindowType windowType() default WindowType.COUNT_BASED;
+
+    /**
+     * @return The number of calls of a count based window or the number of seconds of a time based window
+     * @since 4.0.0
+     */
+    @Digits(integer = 6, fraction = 0)
+    String windowSize() default "100";
+
+    /**
+     * @return The minimum number of calls the sliding window must have recorded before the rates are evaluated
+     * @since 4.0.0
+     */
+    @Digits(integer = 6, fraction = 0)
+    String minimumCalls() default "10";
+
+    /**
+     * The number of calls let through concurrently when the circuit is
+     * {@link io.micronaut.retry.CircuitState#HALF_OPEN}. Other calls are rejected until the probes complete. The circuit
+     * closes when all probes succeed and opens again when one fails.
+     *
+     * @return The number of probe calls
+     * @since 4.0.0
+     */
+    @Digits(integer = 4, fraction = 0)
+    String halfOpenProbes() default "1";
+
+    /**
+     * @return The randomization to apply to the delay between retries
+     * @since 4.0.0
+     */
+    @AliasFor(annotation = Retryable.class, member = "jitter")
+    Jitter jitter() default Jitter.NONE;
+
     /**
      * @return The retry predicate class to use instead of {@link Retryable#includes} and {@link Retryable#excludes}
      * (defaults to none)
      */
     @AliasFor(annotation = Retryable.class, member = "predicate")
     Class<? extends RetryPredicate> predicate() default DefaultRetryPredicate.class;
+
+    /**
+     * The type of sliding window of a circuit breaker.
+     *
+     * @since 4.0.0
+     */
+    enum WindowType {
+        /**
+         * Records the outcome of the last {@link #windowSize()} calls.
+         */
+        COUNT_BASED,
+        /**
+         * Records the outcome of the calls of the last {@link #windowSize()} seconds.
+         */
+        TIME_BASED
+    }
 }
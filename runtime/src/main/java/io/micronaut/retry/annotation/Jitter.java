@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.annotation;
+
+/**
+ * The randomization applied to the delay between retry attempts. Randomizing the delay prevents clients that failed
+ * at the same time, for example because of an outage of a shared service, from retrying in lock step.
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+public enum Jitter {
+
+    /**
+     * No randomization, the delay is calculated from the {@link Retryable#delay()} and {@link Retryable#multiplier()}.
+     */
+    NONE,
+
+    /**
+     * A random delay between zero and the delay calculated from the {@link Retryable#delay()} and
+     * {@link Retryable#multiplier()}.
+     */
+    FULL,
+
+    /**
+     * A random delay between the {@link Retryable#delay()} and the previous delay times three times the
+     * {@link Retryable#multiplier()}. As with the other strategies, no further attempt is made once the overall delay
+     * reaches the {@link Retryable#maxDelay()}.
+     */
+    DECORRELATED
+}
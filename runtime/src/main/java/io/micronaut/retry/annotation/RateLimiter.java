@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.annotation;
+
+import io.micronaut.aop.Around;
+import io.micronaut.context.annotation.Type;
+import io.micronaut.retry.intercept.RateLimiterInterceptor;
+
+import javax.validation.constraints.Digits;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * AOP Advice that limits the rate at which a method is executed using a token bucket of {@link #limitForPeriod()}
+ * tokens that refills continuously over the {@link #limitRefreshPeriod()}. Calls without a token wait up to the
+ * {@link #timeout()} or are rejected with a {@link io.micronaut.retry.exception.RateLimitExceededException}.
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+@Around
+@Type(RateLimiterInterceptor.class)
+public @interface RateLimiter {
+
+    /**
+     * @return The name of the rate limiter. Methods with the same name share the limit, by default every method has its
+     * own.
+     */
+    String name() default "";
+
+    /**
+     * @return The number of calls permitted per period, which is also the maximum burst
+     */
+    @Digits(integer = 9, fraction = 0)
+    String limitForPeriod() default "50";
+
+    /**
+     * @return The period over which {@link #limitForPeriod()} calls are permitted
+     */
+    String limitRefreshPeriod() default "1s";
+
+    /**
+     * @return The maximum time a call waits for a token. A zero duration rejects calls straight away.
+     */
+    String timeout() default "0s";
+}
@@ -81,6 +81,12 @@ public @interface Retryable {
     @Digits(integer = 2, fraction = 2)
     String multiplier() default "1.0";
 
+    /**
+     * @return The randomization to apply to the delay between retries
+     * @since 4.0.0
+     */
+    Jitter jitter() default Jitter.NONE;
+
     /**
      * @return The retry predicate class to use instead of {@link Retryable#includes} and {@link Retryable#excludes}
      * (defaults to none)
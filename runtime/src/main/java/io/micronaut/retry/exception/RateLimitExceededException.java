@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.exception;
+
+/**
+ * Exception thrown when a {@link io.micronaut.retry.annotation.RateLimiter} has no token available within its timeout.
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+public class RateLimitExceededException extends RetryException {
+
+    /**
+     * @param message The detail message
+     */
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
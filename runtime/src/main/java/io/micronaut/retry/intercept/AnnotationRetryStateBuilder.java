@@ -21,6 +21,7 @@ import io.micronaut.core.reflect.InstantiationUtils;
 import io.micronaut.retry.RetryState;
 import io.micronaut.retry.RetryStateBuilder;
 import io.micronaut.retry.annotation.DefaultRetryPredicate;
+import io.micronaut.retry.annotation.Jitter;
 import io.micronaut.retry.annotation.RetryPredicate;
 import io.micronaut.retry.annotation.Retryable;
 
@@ -45,6 +46,7 @@ class AnnotationRetryStateBuilder implements RetryStateBuilder {
     private static final String EXCLUDES = "excludes";
     private static final String PREDICATE = "predicate";
     private static final String CAPTUREDEXCEPTION = "capturedException";
+    private static final String JITTER = "jitter";
     private static final int DEFAULT_RETRY_ATTEMPTS = 3;
 
     private final AnnotationMetadata annotationMetadata;
@@ -76,7 +78,8 @@ class AnnotationRetryStateBuilder implements RetryStateBuilder {
             delay,
             retry.get(MAX_DELAY, Duration.class).orElse(null),
             predicate,
-            capturedException
+            capturedException,
+            retry.enumValue(JITTER, Jitter.class).orElse(Jitter.NONE)
         );
     }
 
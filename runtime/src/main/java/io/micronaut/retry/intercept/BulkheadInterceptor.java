@@ -0,0 +1,383 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept;
+
+import io.micronaut.aop.InterceptPhase;
+import io.micronaut.aop.InterceptedMethod;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.retry.annotation.Bulkhead;
+import io.micronaut.retry.exception.BulkheadFullException;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.instrument.InstrumentedExecutorService;
+import io.micronaut.scheduling.instrument.InvocationInstrumenter;
+import io.micronaut.scheduling.instrument.InvocationInstrumenterFactory;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link MethodInterceptor} that limits the number of concurrent executions of a method according to the
+ * {@link Bulkhead} annotation.
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+@Singleton
+public class BulkheadInterceptor implements MethodInterceptor<Object, Object> {
+
+    /**
+     * Positioned after the {@link io.micronaut.retry.annotation.Retryable} and
+     * {@link io.micronaut.retry.annotation.RateLimiter} interceptors, so that every attempt takes a slot.
+     */
+    public static final int POSITION = InterceptPhase.RETRY.getPosition() + 20;
+
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final List<InvocationInstrumenterFactory> invocationInstrumenterFactories;
+    private final Map<Object, SemaphoreBulkhead> semaphores = new ConcurrentHashMap<>();
+    private final Map<Object, ExecutorService> threadPools = new ConcurrentHashMap<>();
+    private final Map<Object, SemaphoreBulkhead> threadPoolSlots = new ConcurrentHashMap<>();
+
+    /**
+     * @param executorService The executor service used to time out waiting calls
+     * @param invocationInstrumenterFactories The factories that propagate the context of a call onto the threads of the
+     *                                        bulkhead thread pools
+     */
+    public BulkheadInterceptor(@Named(TaskExecutors.SCHEDULED) ExecutorService executorService,
+                               List<InvocationInstrumenterFactory> invocationInstrumenterFactories) {
+        this.scheduledExecutorService = (ScheduledExecutorService) executorService;
+        this.invocationInstrumenterFactories = invocationInstrumenterFactories;
+    }
+
+    @Override
+    public int getOrder() {
+        return POSITION;
+    }
+
+    @Nullable
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        if (!context.hasStereotype(Bulkhead.class)) {
+            return context.proceed();
+        }
+        Bulkhead.Mode mode = context.enumValue(Bulkhead.class, "mode", Bulkhead.Mode.class).orElse(Bulkhead.Mode.SEMAPHORE);
+        Object key = context.stringValue(Bulkhead.class, "name")
+                .filter(StringUtils::isNotEmpty)
+                .map(Object.class::cast)
+                .orElse(context.getExecutableMethod());
+        InterceptedMethod interceptedMethod = InterceptedMethod.of(context);
+        try {
+            if (mode == Bulkhead.Mode.THREAD_POOL) {
+                if (interceptedMethod.resultType() == InterceptedMethod.ResultType.SYNCHRONOUS) {
+                    // the caller would block on the pool thread, which isolates nothing and costs a thread
+                    throw new ConfigurationException("Bulkhead [" + key + "] uses mode THREAD_POOL, which requires method ["
+                            + context.getMethodName() + "] to return a CompletionStage or a Publisher");
+                }
+                ExecutorService executor = threadPools.computeIfAbsent(key, k -> newThreadPool(context, k));
+                // asynchronous calls outlive the task that starts them, a slot limits them until they complete
+                SemaphoreBulkhead slots = threadPoolSlots.computeIfAbsent(key, k -> new SemaphoreBulkhead(
+                        k,
+                        context.getValue(Bulkhead.class, "maxConcurrentCalls", Integer.class).orElse(10),
+                        0,
+                        Duration.ZERO
+                ));
+                return interceptAsyncOnThreadPool(interceptedMethod, executor, slots, key);
+            }
+            SemaphoreBulkhead bulkhead = semaphores.computeIfAbsent(key, k -> new SemaphoreBulkhead(
+                    k,
+                    context.getValue(Bulkhead.class, "maxConcurrentCalls", Integer.class).orElse(10),
+                    context.getValue(Bulkhead.class, "queueSize", Integer.class).orElse(0),
+                    context.getValue(Bulkhead.class, "maxWaitDuration", Duration.class).orElse(Duration.ZERO)
+            ));
+            return interceptWithSemaphore(interceptedMethod, bulkhead);
+        } catch (Exception e) {
+            return interceptedMethod.handleException(e);
+        }
+    }
+
+    /**
+     * Shuts down the thread pools of the bulkheads.
+     */
+    @PreDestroy
+    void shutdown() {
+        threadPools.values().forEach(ExecutorService::shutdown);
+        threadPools.clear();
+    }
+
+    private Object interceptWithSemaphore(InterceptedMethod interceptedMethod, SemaphoreBulkhead bulkhead) {
+        switch (interceptedMethod.resultType()) {
+            case PUBLISHER:
+                return interceptedMethod.handleResult(Flux.defer(() -> {
+                    CompletableFuture<Void> permit = bulkhead.acquireAsync();
+                    return Mono.fromCompletionStage(permit)
+                            .thenMany(Flux.defer(() -> Flux.from(interceptedMethod.interceptResultAsPublisher())))
+                            .doFinally(signal -> bulkhead.releaseOrCancel(permit));
+                }));
+            case COMPLETION_STAGE:
+                CompletableFuture<Void> permit = bulkhead.acquireAsync();
+                CompletableFuture<Object> result = new CompletableFuture<>();
+                permit.whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                        return;
+                    }
+                    try {
+                        interceptedMethod.interceptResultAsCompletionStage().whenComplete((value, throwable) -> {
+                            bulkhead.release();
+                            if (throwable != null) {
+                                result.completeExceptionally(throwable);
+                            } else {
+                                result.complete(value);
+                            }
+                        });
+                    } catch (Throwable e) {
+                        bulkhead.release();
+                        result.completeExceptionally(e);
+                    }
+                });
+                return interceptedMethod.handleResult(result);
+            case SYNCHRONOUS:
+                bulkhead.acquire();
+                try {
+                    return interceptedMethod.interceptResult();
+                } finally {
+                    bulkhead.release();
+                }
+            default:
+                return interceptedMethod.unsupported();
+        }
+    }
+
+    private Object interceptAsyncOnThreadPool(InterceptedMethod interceptedMethod,
+                                              ExecutorService executor,
+                                              SemaphoreBulkhead slots,
+                                              Object key) {
+        switch (interceptedMethod.resultType()) {
+            case PUBLISHER:
+                return interceptedMethod.handleResult(Flux.defer(() -> {
+                    CompletableFuture<Void> permit = slots.acquireAsync();
+                    return Mono.fromCompletionStage(permit)
+                            .thenMany(Flux.defer(() -> Flux.from(interceptedMethod.interceptResultAsPublisher()))
+                                    .subscribeOn(Schedulers.fromExecutorService(executor)))
+                            .onErrorMap(RejectedExecutionException.class, e -> full(key))
+                            .doFinally(signal -> slots.releaseOrCancel(permit));
+                }));
+            case COMPLETION_STAGE:
+                CompletableFuture<Void> permit = slots.acquireAsync();
+                CompletableFuture<Object> result = new CompletableFuture<>();
+                permit.whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                        return;
+                    }
+                    try {
+                        executor.execute(() -> {
+                            try {
+                                interceptedMethod.interceptResultAsCompletionStage().whenComplete((value, throwable) -> {
+                                    slots.release();
+                                    if (throwable != null) {
+                                        result.completeExceptionally(throwable);
+                                    } else {
+                                        result.complete(value);
+                                    }
+                                });
+                            } catch (Throwable e) {
+                                slots.release();
+                                result.completeExceptionally(e);
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        slots.release();
+                        result.completeExceptionally(full(key));
+                    }
+                });
+                return interceptedMethod.handleResult(result);
+            default:
+                return interceptedMethod.unsupported();
+        }
+    }
+
+    private ExecutorService newThreadPool(MethodInvocationContext<Object, Object> context, Object key) {
+        int threads = Math.max(1, context.getValue(Bulkhead.class, "maxConcurrentCalls", Integer.class).orElse(10));
+        int queueSize = context.getValue(Bulkhead.class, "queueSize", Integer.class).orElse(0);
+        BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+        String prefix = "bulkhead-" + (key instanceof String ? key : context.getMethodName()) + "-";
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue, threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        if (invocationInstrumenterFactories.isEmpty()) {
+            return executor;
+        }
+        // like the executors of the context, propagate the context of the submitting thread onto the pool threads
+        return new InstrumentedExecutorService() {
+            @Override
+            public ExecutorService getTarget() {
+                return executor;
+            }
+
+            @Override
+            public <T> Callable<T> instrument(Callable<T> task) {
+                return InvocationInstrumenter.instrument(task, newInvocationInstrumenters());
+            }
+
+            @Override
+            public Runnable instrument(Runnable command) {
+                return InvocationInstrumenter.instrument(command, newInvocationInstrumenters());
+            }
+        };
+    }
+
+    private List<InvocationInstrumenter> newInvocationInstrumenters() {
+        List<InvocationInstrumenter> instrumenters = new ArrayList<>(invocationInstrumenterFactories.size());
+        for (InvocationInstrumenterFactory instrumenterFactory : invocationInstrumenterFactories) {
+            InvocationInstrumenter instrumenter = instrumenterFactory.newInvocationInstrumenter();
+            if (instrumenter != null) {
+                instrumenters.add(instrumenter);
+            }
+        }
+        return instrumenters;
+    }
+
+    private static BulkheadFullException full(Object key) {
+        return new BulkheadFullException("Bulkhead [" + key + "] is full");
+    }
+
+    /**
+     * Limits concurrent executions with a semaphore. Synchronous callers wait on the semaphore, asynchronous callers
+     * wait in a queue of pending calls which is drained whenever a permit is released.
+     */
+    private final class SemaphoreBulkhead {
+        private final Object key;
+        private final Semaphore semaphore;
+        private final int queueSize;
+        private final Duration maxWait;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final ConcurrentLinkedQueue<CompletableFuture<Void>> pending = new ConcurrentLinkedQueue<>();
+
+        SemaphoreBulkhead(Object key, int maxConcurrentCalls, int queueSize, Duration maxWait) {
+            this.key = key;
+            this.semaphore = new Semaphore(Math.max(1, maxConcurrentCalls));
+            this.queueSize = queueSize;
+            this.maxWait = maxWait;
+        }
+
+        void acquire() {
+            if (semaphore.tryAcquire()) {
+                return;
+            }
+            if (!canWait()) {
+                throw full(key);
+            }
+            try {
+                if (!semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw full(key);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw full(key);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        CompletableFuture<Void> acquireAsync() {
+            CompletableFuture<Void> permit = new CompletableFuture<>();
+            if (semaphore.tryAcquire()) {
+                permit.complete(null);
+                return permit;
+            }
+            if (!canWait()) {
+                permit.completeExceptionally(full(key));
+                return permit;
+            }
+            permit.whenComplete((ignored, error) -> waiting.decrementAndGet());
+            pending.add(permit);
+            scheduledExecutorService.schedule(() -> {
+                if (permit.completeExceptionally(full(key))) {
+                    pending.remove(permit);
+                }
+            }, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            // a permit may have been released before the call was queued
+            drain();
+            return permit;
+        }
+
+        void release() {
+            semaphore.release();
+            drain();
+        }
+
+        void releaseOrCancel(CompletableFuture<Void> permit) {
+            // cancelling fails if the permit was granted, in which case it has to be released
+            if (!permit.cancel(false) && !permit.isCompletedExceptionally()) {
+                release();
+            }
+        }
+
+        private boolean canWait() {
+            if (queueSize <= 0 || maxWait.isZero() || maxWait.isNegative()) {
+                return false;
+            }
+            if (waiting.incrementAndGet() > queueSize) {
+                waiting.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        private void drain() {
+            while (!pending.isEmpty() && semaphore.tryAcquire()) {
+                CompletableFuture<Void> next = pending.poll();
+                // hand over the permit unless the call timed out or was cancelled in the meantime
+                if (next == null || !next.complete(null)) {
+                    semaphore.release();
+                }
+            }
+        }
+    }
+}
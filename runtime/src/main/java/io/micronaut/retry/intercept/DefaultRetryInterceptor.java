@@ -35,6 +35,9 @@ import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
@@ -46,6 +49,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -54,6 +59,11 @@ import java.util.function.Supplier;
  * A {@link MethodInterceptor} that retries an operation according to the specified
  * {@link Retryable} annotation.
  *
+ * <p>The delay between attempts of methods that return a {@link Publisher} or a {@link CompletionStage} is always
+ * scheduled on the {@link TaskExecutors#SCHEDULED scheduled executor}, even if the method fails before returning
+ * its result, so that no thread is blocked while waiting. Synchronous methods wait on the calling thread, which
+ * only parks the thread when it is a virtual thread.</p>
+ *
  * @author graemerocher
  * @since 1.0
  */
@@ -65,7 +75,9 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
 
     private final ApplicationEventPublisher eventPublisher;
     private final ScheduledExecutorService executorService;
+    private final Scheduler scheduler;
     private final Map<ExecutableMethod, CircuitBreakerRetry> circuitContexts = new ConcurrentHashMap<>();
+    private final Map<ExecutableMethod, Optional<SlidingWindowCircuitBreaker>> slidingWindowCircuits = new ConcurrentHashMap<>();
 
     /**
      * Construct a default retry method interceptor with the event publisher.
@@ -76,6 +88,7 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
     public DefaultRetryInterceptor(ApplicationEventPublisher eventPublisher, @Named(TaskExecutors.SCHEDULED) ExecutorService executorService) {
         this.eventPublisher = eventPublisher;
         this.executorService = (ScheduledExecutorService) executorService;
+        this.scheduler = Schedulers.fromExecutorService(executorService);
     }
 
     @Override
@@ -93,44 +106,49 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
 
         AnnotationValue<Retryable> retry = opt.get();
         boolean isCircuitBreaker = context.hasStereotype(CircuitBreaker.class);
-        MutableRetryState retryState;
         AnnotationRetryStateBuilder retryStateBuilder = new AnnotationRetryStateBuilder(
                 context
         );
 
-        if (isCircuitBreaker) {
-            long timeout = context
-                    .getValue(CircuitBreaker.class, "reset", Duration.class)
-                    .map(Duration::toMillis).orElse(Duration.ofSeconds(DEFAULT_CIRCUIT_BREAKER_TIMEOUT_IN_MILLIS).toMillis());
-            retryState = circuitContexts.computeIfAbsent(
-                    context.getExecutableMethod(),
-                    method -> new CircuitBreakerRetry(timeout, retryStateBuilder, context, eventPublisher)
-            );
-        } else {
-            retryState = (MutableRetryState) retryStateBuilder.build();
-        }
-
         MutableConvertibleValues<Object> attrs = context.getAttributes();
         attrs.put(RetryState.class.getName(), retry);
 
         InterceptedMethod interceptedMethod = InterceptedMethod.of(context);
         try {
+            if (interceptedMethod.resultType() == InterceptedMethod.ResultType.PUBLISHER) {
+                // the circuit is opened, and the method invoked, once per subscription. Opening the circuit eagerly would
+                // leak a half open probe permit whenever the publisher is never subscribed to, so the method is not
+                // invoked until then either, and an exception it throws is emitted by the returned publisher
+                AtomicBoolean subscribed = new AtomicBoolean();
+                return interceptedMethod.handleResult(Flux.defer(() -> {
+                    MutableRetryState retryState = newRetryState(context, retryStateBuilder, isCircuitBreaker);
+                    retryState.open();
+                    return retryPublisher(context, retryState, interceptedMethod, !subscribed.getAndSet(true));
+                }));
+            }
+            MutableRetryState retryState = newRetryState(context, retryStateBuilder, isCircuitBreaker);
             retryState.open();
-            // Retry method call before we have actual Publisher/CompletionStage result
-            Object result = retrySync(context, retryState, interceptedMethod);
             switch (interceptedMethod.resultType()) {
-                case PUBLISHER:
-                    Flux<Object> reactiveSequence = Flux.from((Publisher<?>) result);
-                    return interceptedMethod.handleResult(
-                            reactiveSequence.onErrorResume(retryFlowable(context, retryState, reactiveSequence))
-                                    .doOnNext(o -> retryState.close(null))
-                    );
                 case COMPLETION_STAGE:
                     CompletableFuture<Object> newFuture = new CompletableFuture<>();
-                    Supplier<CompletionStage<?>> retrySupplier = () -> interceptedMethod.interceptResultAsCompletionStage(this);
-                    ((CompletionStage<?>) result).whenComplete(retryCompletable(context, retryState, newFuture, retrySupplier));
+                    Supplier<CompletionStage<?>> retrySupplier = () -> {
+                        try {
+                            return interceptedMethod.interceptResultAsCompletionStage(this);
+                        } catch (Exception e) {
+                            return failedFuture(e);
+                        }
+                    };
+                    firstCompletionStage(retryState, interceptedMethod)
+                            .whenComplete(retryCompletable(context, retryState, newFuture, retrySupplier));
                     return interceptedMethod.handleResult(newFuture);
                 case SYNCHRONOUS:
+                    Object result;
+                    try {
+                        result = retrySync(context, retryState, interceptedMethod);
+                    } catch (Throwable e) {
+                        retryState.close(e);
+                        throw e;
+                    }
                     retryState.close(null);
                     return result;
                 default:
@@ -141,6 +159,57 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
         }
     }
 
+    private MutableRetryState newRetryState(MethodInvocationContext<Object, Object> context,
+                                            AnnotationRetryStateBuilder retryStateBuilder,
+                                            boolean isCircuitBreaker) {
+        if (!isCircuitBreaker) {
+            return (MutableRetryState) retryStateBuilder.build();
+        }
+        long timeout = context
+                .getValue(CircuitBreaker.class, "reset", Duration.class)
+                .map(Duration::toMillis).orElse(Duration.ofSeconds(DEFAULT_CIRCUIT_BREAKER_TIMEOUT_IN_MILLIS).toMillis());
+        Optional<SlidingWindowCircuitBreaker> slidingWindowCircuit = slidingWindowCircuits.computeIfAbsent(
+                context.getExecutableMethod(),
+                method -> Optional.ofNullable(SlidingWindowCircuitBreaker.of(context, Duration.ofMillis(timeout), eventPublisher))
+        );
+        if (slidingWindowCircuit.isPresent()) {
+            return slidingWindowCircuit.get().newRetryState((MutableRetryState) retryStateBuilder.build());
+        }
+        return circuitContexts.computeIfAbsent(
+                context.getExecutableMethod(),
+                method -> new CircuitBreakerRetry(timeout, retryStateBuilder, context, eventPublisher)
+        );
+    }
+
+    /**
+     * Retries the publisher returned by the method. Exactly one outcome is recorded per subscription once the
+     * publisher terminates: the error, a success, or a cancellation, which counts as a success if an item was emitted.
+     */
+    private Flux<Object> retryPublisher(MethodInvocationContext<Object, Object> context,
+                                        MutableRetryState retryState,
+                                        InterceptedMethod interceptedMethod,
+                                        boolean firstSubscription) {
+        Flux<Object> reactiveSequence;
+        try {
+            reactiveSequence = firstPublisher(retryState, interceptedMethod, firstSubscription);
+        } catch (Throwable e) {
+            retryState.close(e);
+            throw e;
+        }
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicBoolean emitted = new AtomicBoolean();
+        return reactiveSequence.onErrorResume(retryFlowable(context, retryState, reactiveSequence))
+                .doOnNext(o -> emitted.lazySet(true))
+                .doOnError(error::set)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL && !emitted.get()) {
+                        retryState.cancel();
+                    } else {
+                        retryState.close(error.get());
+                    }
+                });
+    }
+
     private BiConsumer<Object, ? super Throwable> retryCompletable(MethodInvocationContext<Object, Object> context,
                                                                    MutableRetryState retryState,
                                                                    CompletableFuture<Object> newFuture,
@@ -193,17 +262,61 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Retrying execution for method [{}] after delay of {}ms for exception: {}", context, delay, exception.getMessage(), exception);
                 }
-                return retryObservable.delaySubscription(Duration.of(delay, ChronoUnit.MILLIS));
+                return retryObservable.delaySubscription(Duration.of(delay, ChronoUnit.MILLIS), scheduler);
             } else {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Cannot retry anymore. Rethrowing original exception for method: {}", context);
                 }
-                retryState.close(exception);
                 return Flux.error(exception);
             }
         };
     }
 
+    /**
+     * Invokes the method for the first time. If it fails before returning a publisher, the failure is emitted by
+     * the returned publisher so that the retry is scheduled instead of blocking the calling thread.
+     */
+    private Flux<Object> firstPublisher(MutableRetryState retryState, InterceptedMethod interceptedMethod, boolean firstSubscription) {
+        try {
+            return Flux.from((Publisher<?>) (firstSubscription ? interceptedMethod.interceptResult() : interceptedMethod.interceptResult(this)));
+        } catch (Throwable e) {
+            if (!retryState.getCapturedException().isAssignableFrom(e.getClass())) {
+                throw e;
+            }
+            // the first subscription receives the error, every resubscription invokes the method again
+            AtomicReference<Throwable> firstError = new AtomicReference<>(e);
+            return Flux.defer(() -> {
+                Throwable error = firstError.getAndSet(null);
+                if (error != null) {
+                    return Flux.error(error);
+                }
+                return Flux.from((Publisher<?>) interceptedMethod.interceptResult(this));
+            });
+        }
+    }
+
+    /**
+     * Invokes the method for the first time. If it fails before returning a completion stage, the failure completes
+     * the returned stage so that the retry is scheduled instead of blocking the calling thread.
+     */
+    private CompletionStage<?> firstCompletionStage(MutableRetryState retryState, InterceptedMethod interceptedMethod) {
+        try {
+            return (CompletionStage<?>) interceptedMethod.interceptResult();
+        } catch (Throwable e) {
+            if (!retryState.getCapturedException().isAssignableFrom(e.getClass())) {
+                retryState.close(e);
+                throw e;
+            }
+            return failedFuture(e);
+        }
+    }
+
+    private static CompletableFuture<Object> failedFuture(Throwable e) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
     private Object retrySync(MethodInvocationContext<Object, Object> context, MutableRetryState retryState, InterceptedMethod interceptedMethod) {
         boolean firstCall = true;
         while (true) {
@@ -222,7 +335,6 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("Cannot retry anymore. Rethrowing original exception for method: {}", context);
                     }
-                    retryState.close(e);
                     throw e;
                 } else {
                     long delayMillis = retryState.nextDelay();
@@ -237,8 +349,10 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
                         if (LOG.isDebugEnabled()) {
                             LOG.debug("Retrying execution for method [{}] after delay of {}ms for exception: {}", context, delayMillis, e.getMessage());
                         }
+                        // on a virtual thread this unmounts the thread instead of blocking its carrier
                         Thread.sleep(delayMillis);
                     } catch (InterruptedException e1) {
+                        Thread.currentThread().interrupt();
                         throw e;
                     }
                 }
@@ -29,4 +29,11 @@ interface MutableRetryState extends RetryState {
      * @return Return the milli second value for the next delay
      */
     long nextDelay();
+
+    /**
+     * Called instead of {@link #close(Throwable)} when the operation is cancelled before producing a result.
+     */
+    default void cancel() {
+        // no outcome to record
+    }
 }
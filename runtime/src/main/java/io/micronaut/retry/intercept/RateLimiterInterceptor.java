@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept;
+
+import io.micronaut.aop.InterceptPhase;
+import io.micronaut.aop.InterceptedMethod;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.retry.annotation.RateLimiter;
+import io.micronaut.retry.exception.RateLimitExceededException;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link MethodInterceptor} that limits the rate at which a method is executed according to the
+ * {@link RateLimiter} annotation. Calls returning a {@link java.util.concurrent.CompletionStage} or a
+ * {@link org.reactivestreams.Publisher} that have to wait for a token are delayed on the scheduled executor instead
+ * of blocking the calling thread.
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+@Singleton
+public class RateLimiterInterceptor implements MethodInterceptor<Object, Object> {
+
+    /**
+     * Positioned after the {@link io.micronaut.retry.annotation.Retryable} interceptor, so that every attempt takes
+     * a token, and before the {@link io.micronaut.retry.annotation.Bulkhead} interceptor.
+     */
+    public static final int POSITION = InterceptPhase.RETRY.getPosition() + 10;
+
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final Scheduler scheduler;
+    private final Map<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param executorService The executor service used to delay calls waiting for a token
+     */
+    public RateLimiterInterceptor(@Named(TaskExecutors.SCHEDULED) ExecutorService executorService) {
+        this.scheduledExecutorService = (ScheduledExecutorService) executorService;
+        this.scheduler = Schedulers.fromExecutorService(executorService);
+    }
+
+    @Override
+    public int getOrder() {
+        return POSITION;
+    }
+
+    @Nullable
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        if (!context.hasStereotype(RateLimiter.class)) {
+            return context.proceed();
+        }
+        Object key = context.stringValue(RateLimiter.class, "name")
+                .filter(StringUtils::isNotEmpty)
+                .map(Object.class::cast)
+                .orElse(context.getExecutableMethod());
+        TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(
+                context.getValue(RateLimiter.class, "limitForPeriod", Integer.class).orElse(50),
+                context.getValue(RateLimiter.class, "limitRefreshPeriod", Duration.class).orElse(Duration.ofSeconds(1)),
+                System::nanoTime
+        ));
+        long timeoutNanos = context.getValue(RateLimiter.class, "timeout", Duration.class).orElse(Duration.ZERO).toNanos();
+        InterceptedMethod interceptedMethod = InterceptedMethod.of(context);
+        try {
+            switch (interceptedMethod.resultType()) {
+                case PUBLISHER:
+                    return interceptedMethod.handleResult(Flux.defer(() -> {
+                        long wait = bucket.reserve(timeoutNanos);
+                        if (wait < 0) {
+                            return Flux.error(exceeded(key));
+                        }
+                        Flux<Object> result = Flux.defer(() -> Flux.from(interceptedMethod.interceptResultAsPublisher()));
+                        return wait == 0 ? result : result.delaySubscription(Duration.ofNanos(wait), scheduler);
+                    }));
+                case COMPLETION_STAGE:
+                    long wait = bucket.reserve(timeoutNanos);
+                    if (wait < 0) {
+                        throw exceeded(key);
+                    }
+                    if (wait == 0) {
+                        return interceptedMethod.handleResult(interceptedMethod.interceptResultAsCompletionStage());
+                    }
+                    CompletableFuture<Object> result = new CompletableFuture<>();
+                    scheduledExecutorService.schedule(() -> {
+                        try {
+                            interceptedMethod.interceptResultAsCompletionStage().whenComplete((value, throwable) -> {
+                                if (throwable != null) {
+                                    result.completeExceptionally(throwable);
+                                } else {
+                                    result.complete(value);
+                                }
+                            });
+                        } catch (Throwable e) {
+                            result.completeExceptionally(e);
+                        }
+                    }, wait, TimeUnit.NANOSECONDS);
+                    return interceptedMethod.handleResult(result);
+                case SYNCHRONOUS:
+                    long delay = bucket.reserve(timeoutNanos);
+                    if (delay < 0) {
+                        throw exceeded(key);
+                    }
+                    // parks only the virtual thread when called from one
+                    long deadline = System.nanoTime() + delay;
+                    while (delay > 0) {
+                        LockSupport.parkNanos(this, delay);
+                        delay = deadline - System.nanoTime();
+                    }
+                    return interceptedMethod.interceptResult();
+                default:
+                    return interceptedMethod.unsupported();
+            }
+        } catch (Exception e) {
+            return interceptedMethod.handleException(e);
+        }
+    }
+
+    private static RateLimitExceededException exceeded(Object key) {
+        return new RateLimitExceededException("Rate limit of [" + key + "] exceeded");
+    }
+
+    /**
+     * A token bucket implemented with the generic cell rate algorithm: a single atomic time stamp, the theoretical
+     * arrival time of the next call, replaces the token count and its refill, so that taking a token is one
+     * compare-and-set without locking or a refill thread.
+     */
+    static final class TokenBucket {
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final LongSupplier nanoClock;
+        private final AtomicLong theoreticalArrival;
+
+        /**
+         * @param limitForPeriod The number of calls per period
+         * @param period         The period
+         * @param nanoClock      The source of {@link System#nanoTime()}
+         */
+        TokenBucket(int limitForPeriod, Duration period, LongSupplier nanoClock) {
+            if (limitForPeriod < 1) {
+                throw new IllegalArgumentException("Rate limit must be greater than zero");
+            }
+            this.intervalNanos = Math.max(1, period.toNanos() / limitForPeriod);
+            this.burstNanos = intervalNanos * limitForPeriod;
+            this.nanoClock = nanoClock;
+            this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+        }
+
+        /**
+         * Takes a token, waiting at most the given time for one.
+         *
+         * @param timeoutNanos The maximum time to wait
+         * @return The time to wait before the call may proceed, or {@code -1} if no token is available in time
+         */
+        long reserve(long timeoutNanos) {
+            while (true) {
+                long now = nanoClock.getAsLong();
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long wait = next - now - burstNanos;
+                if (wait > timeoutNanos) {
+                    return -1;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return Math.max(0, wait);
+                }
+            }
+        }
+    }
+}
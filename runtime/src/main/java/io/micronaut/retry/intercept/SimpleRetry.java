@@ -18,11 +18,13 @@ package io.micronaut.retry.intercept;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.retry.RetryState;
 import io.micronaut.retry.annotation.DefaultRetryPredicate;
+import io.micronaut.retry.annotation.Jitter;
 import io.micronaut.retry.annotation.RetryPredicate;
 
 import java.time.Duration;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -42,6 +44,8 @@ class SimpleRetry implements RetryState, MutableRetryState {
     private final AtomicLong overallDelay = new AtomicLong(0);
     private final RetryPredicate predicate;
     private final Class<? extends Throwable> capturedException;
+    private final Jitter jitter;
+    private final AtomicLong previousDelay = new AtomicLong(0);
 
     /**
      * @param maxAttempts The maximum number of attemps
@@ -50,6 +54,7 @@ class SimpleRetry implements RetryState, MutableRetryState {
      * @param maxDelay The maximum overall delay
      * @param predicate Predicate to check retry necessity
      * @param capturedException The capture exception types
+     * @param jitter The randomization to apply to the delays
      */
     SimpleRetry(
         int maxAttempts,
@@ -57,7 +62,8 @@ class SimpleRetry implements RetryState, MutableRetryState {
         Duration delay,
         Duration maxDelay,
         RetryPredicate predicate,
-        Class<? extends Throwable> capturedException) {
+        Class<? extends Throwable> capturedException,
+        Jitter jitter) {
 
         this.maxAttempts = maxAttempts;
         this.multiplier = multiplier;
@@ -65,6 +71,25 @@ class SimpleRetry implements RetryState, MutableRetryState {
         this.maxDelay = maxDelay;
         this.predicate = predicate;
         this.capturedException = capturedException;
+        this.jitter = jitter;
+    }
+
+    /**
+     * @param maxAttempts The maximum number of attemps
+     * @param multiplier The multiplier to use between delays
+     * @param delay The overall delay so far
+     * @param maxDelay The maximum overall delay
+     * @param predicate Predicate to check retry necessity
+     * @param capturedException The capture exception types
+     */
+    SimpleRetry(
+        int maxAttempts,
+        double multiplier,
+        Duration delay,
+        Duration maxDelay,
+        RetryPredicate predicate,
+        Class<? extends Throwable> capturedException) {
+        this(maxAttempts, multiplier, delay, maxDelay, predicate, capturedException, Jitter.NONE);
     }
 
     /**
@@ -172,7 +197,38 @@ class SimpleRetry implements RetryState, MutableRetryState {
         double multiplier = getMultiplier().orElse(1.0);
         int current = attemptNumber.get() + 1;
         long delay = (long) (getDelay().toMillis() * multiplier) * current;
+        switch (jitter) {
+            case FULL:
+                delay = delay > 0 ? ThreadLocalRandom.current().nextLong(delay + 1) : 0;
+                break;
+            case DECORRELATED:
+                delay = decorrelatedDelay();
+                break;
+            default:
+                break;
+        }
         overallDelay.addAndGet(delay);
         return delay;
     }
+
+    /**
+     * @return The randomization applied to the delays
+     */
+    Jitter getJitter() {
+        return jitter;
+    }
+
+    /**
+     * A random delay between the base delay and the previous delay times three times the multiplier. Like the other
+     * strategies the {@link #maxDelay} limits the overall delay, which {@link #canRetry(Throwable)} enforces.
+     */
+    private long decorrelatedDelay() {
+        long base = getDelay().toMillis();
+        double growth = 3 * getMultiplier().orElse(1.0);
+        double previous = previousDelay.get() * growth;
+        long upper = previous >= Long.MAX_VALUE - 1 ? Long.MAX_VALUE - 1 : Math.max(base, (long) previous);
+        long delay = upper > base ? ThreadLocalRandom.current().nextLong(base, upper + 1) : base;
+        previousDelay.set(delay);
+        return delay;
+    }
 }
@@ -0,0 +1,523 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept;
+
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.retry.CircuitState;
+import io.micronaut.retry.annotation.CircuitBreaker;
+import io.micronaut.retry.annotation.RetryPredicate;
+import io.micronaut.retry.event.CircuitClosedEvent;
+import io.micronaut.retry.event.CircuitHalfOpenEvent;
+import io.micronaut.retry.event.CircuitOpenEvent;
+import io.micronaut.retry.exception.CircuitOpenException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A circuit breaker that opens when the failure rate or the slow call rate of the calls recorded by a sliding window
+ * exceeds a threshold. Unlike {@link CircuitBreakerRetry}, every invocation gets its own retry state and only the
+ * final outcome of an invocation, after its retries, is recorded.
+ *
+ * <p>The window is a ring of atomic slots, either one per call or one per second, so recording an outcome never
+ * locks. When the circuit is {@link CircuitState#HALF_OPEN} only a limited number of probe calls are let through.</p>
+ *
+ * @author graemerocher
+ * @since 4.0.0
+ */
+class SlidingWindowCircuitBreaker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultRetryInterceptor.class);
+
+    private final ExecutableMethod<?, ?> method;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Window window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int halfOpenProbes;
+    private final long resetNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<CircuitState> state = new AtomicReference<>(CircuitState.CLOSED);
+    private final AtomicInteger probePermits = new AtomicInteger();
+    private final AtomicInteger probeSuccesses = new AtomicInteger();
+    private volatile long openedAt;
+    private volatile Throwable lastError;
+
+    /**
+     * @param method                The method that represents the circuit
+     * @param eventPublisher        To publish circuit events
+     * @param windowType            The type of window
+     * @param windowSize            The number of calls or seconds of the window
+     * @param minimumCalls          The minimum number of calls before the rates are evaluated
+     * @param failureRateThreshold  The failure rate in percent that opens the circuit, or a negative value to disable
+     * @param slowCallRateThreshold The slow call rate in percent that opens the circuit, or a negative value to disable
+     * @param slowCallDuration      The duration from which a call is slow
+     * @param halfOpenProbes        The number of concurrent calls let through when half open
+     * @param reset                 The time the circuit stays open before it is half open
+     * @param nanoClock             The source of {@link System#nanoTime()}
+     */
+    SlidingWindowCircuitBreaker(ExecutableMethod<?, ?> method,
+                                @Nullable ApplicationEventPublisher eventPublisher,
+                                CircuitBreaker.WindowType windowType,
+                                int windowSize,
+                                int minimumCalls,
+                                double failureRateThreshold,
+                                double slowCallRateThreshold,
+                                Duration slowCallDuration,
+                                int halfOpenProbes,
+                                Duration reset,
+                                LongSupplier nanoClock) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Circuit breaker window size must be greater than zero");
+        }
+        this.method = method;
+        this.eventPublisher = eventPublisher;
+        this.window = windowType == CircuitBreaker.WindowType.TIME_BASED ? new TimeWindow(windowSize) : new CountWindow(windowSize);
+        this.minimumCalls = Math.max(1, minimumCalls);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.resetNanos = reset.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Creates a circuit breaker for the given method if its {@link CircuitBreaker} annotation configures a failure
+     * rate or slow call rate threshold.
+     *
+     * @param context        The invocation context
+     * @param reset          The time the circuit stays open before it is half open
+     * @param eventPublisher To publish circuit events
+     * @return The circuit breaker or {@code null} if no threshold is configured
+     */
+    @Nullable
+    static SlidingWindowCircuitBreaker of(MethodInvocationContext<Object, Object> context,
+                                          Duration reset,
+                                          @Nullable ApplicationEventPublisher eventPublisher) {
+        double failureRate = context.getValue(CircuitBreaker.class, "failureRateThreshold", Double.class).orElse(-1d);
+        double slowCallRate = context.getValue(CircuitBreaker.class, "slowCallRateThreshold", Double.class).orElse(-1d);
+        if (failureRate < 0 && slowCallRate < 0) {
+            return null;
+        }
+        return new SlidingWindowCircuitBreaker(
+            context.getExecutableMethod(),
+            eventPublisher,
+            context.enumValue(CircuitBreaker.class, "windowType", CircuitBreaker.WindowType.class).orElse(CircuitBreaker.WindowType.COUNT_BASED),
+            context.getValue(CircuitBreaker.class, "windowSize", Integer.class).orElse(100),
+            context.getValue(CircuitBreaker.class, "minimumCalls", Integer.class).orElse(10),
+            failureRate,
+            slowCallRate,
+            context.getValue(CircuitBreaker.class, "slowCallDuration", Duration.class).orElse(Duration.ofSeconds(5)),
+            context.getValue(CircuitBreaker.class, "halfOpenProbes", Integer.class).orElse(1),
+            reset,
+            System::nanoTime
+        );
+    }
+
+    /**
+     * @param childState The retry state of a single invocation
+     * @return The state of the invocation, which records its outcome in the window when closed
+     */
+    MutableRetryState newRetryState(MutableRetryState childState) {
+        return new Invocation(childState);
+    }
+
+    /**
+     * @return The current state, which moves from {@link CircuitState#OPEN} to {@link CircuitState#HALF_OPEN} once
+     * the reset time has elapsed
+     */
+    CircuitState currentState() {
+        CircuitState current = state.get();
+        if (current == CircuitState.OPEN && nanoClock.getAsLong() - openedAt >= resetNanos
+                && state.compareAndSet(CircuitState.OPEN, CircuitState.HALF_OPEN)) {
+            probeSuccesses.set(0);
+            probePermits.set(halfOpenProbes);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Half Opening Circuit Breaker [{}]", method);
+            }
+            publish(new CircuitHalfOpenEvent(method));
+            return CircuitState.HALF_OPEN;
+        }
+        return current;
+    }
+
+    private boolean acquireProbe() {
+        while (true) {
+            int permits = probePermits.get();
+            if (permits <= 0) {
+                return false;
+            }
+            if (probePermits.compareAndSet(permits, permits - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private CircuitOpenException rejection() {
+        Throwable cause = lastError;
+        String message = cause != null ? "Circuit Open: " + cause.getMessage() : "Circuit Open";
+        return new CircuitOpenException(message, cause);
+    }
+
+    private void onResult(Invocation invocation, boolean failure, boolean slow, @Nullable Throwable exception) {
+        if (failure) {
+            lastError = exception;
+        }
+        if (invocation.probe) {
+            if (failure || slow) {
+                openCircuit(CircuitState.HALF_OPEN, invocation, exception);
+            } else if (probeSuccesses.incrementAndGet() >= halfOpenProbes
+                    && state.compareAndSet(CircuitState.HALF_OPEN, CircuitState.CLOSED)) {
+                window.reset();
+                lastError = null;
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Closing Circuit Breaker [{}]", method);
+                }
+                publish(new CircuitClosedEvent(method));
+            }
+            return;
+        }
+        window.record(failure, slow, nanoClock.getAsLong());
+        if (state.get() != CircuitState.CLOSED) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        int total = window.total(now);
+        if (total < minimumCalls) {
+            return;
+        }
+        if (failureRateThreshold >= 0 && window.failures(now) * 100d / total >= failureRateThreshold) {
+            openCircuit(CircuitState.CLOSED, invocation, exception != null ? exception : lastError);
+        } else if (slowCallRateThreshold >= 0 && window.slowCalls(now) * 100d / total >= slowCallRateThreshold) {
+            openCircuit(CircuitState.CLOSED, invocation, new CircuitOpenException("Slow call rate exceeded " + slowCallRateThreshold + "%"));
+        }
+    }
+
+    private void openCircuit(CircuitState expected, Invocation invocation, @Nullable Throwable cause) {
+        long previousOpenedAt = openedAt;
+        openedAt = nanoClock.getAsLong();
+        if (!state.compareAndSet(expected, CircuitState.OPEN)) {
+            openedAt = previousOpenedAt;
+            return;
+        }
+        Throwable reason = cause != null ? cause : new CircuitOpenException("Half open probe failed");
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Opening Circuit Breaker [{}] due to error: {}", method, reason.getMessage());
+        }
+        publish(new CircuitOpenEvent(method, invocation, reason));
+    }
+
+    private void publish(Object event) {
+        if (eventPublisher != null) {
+            try {
+                eventPublisher.publishEvent(event);
+            } catch (Exception e) {
+                if (LOG.isErrorEnabled()) {
+                    LOG.error("Error publishing circuit breaker event: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The retry state of a single invocation.
+     */
+    private final class Invocation implements MutableRetryState {
+        private final MutableRetryState childState;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private boolean probe;
+        private long start;
+
+        Invocation(MutableRetryState childState) {
+            this.childState = childState;
+        }
+
+        @Override
+        public void open() {
+            CircuitState current = currentState();
+            if (current == CircuitState.OPEN) {
+                throw rejection();
+            }
+            if (current == CircuitState.HALF_OPEN) {
+                if (!acquireProbe()) {
+                    throw rejection();
+                }
+                probe = true;
+            }
+            start = nanoClock.getAsLong();
+        }
+
+        @Override
+        public void close(@Nullable Throwable exception) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            boolean failure = exception != null && childState.getRetryPredicate().test(exception);
+            boolean slow = slowCallRateThreshold >= 0 && nanoClock.getAsLong() - start >= slowCallNanos;
+            onResult(this, failure, slow, exception);
+        }
+
+        @Override
+        public void cancel() {
+            // a cancelled call tells nothing about the service, a probe only gives back its permit
+            if (finished.compareAndSet(false, true) && probe && state.get() == CircuitState.HALF_OPEN) {
+                probePermits.incrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean canRetry(Throwable exception) {
+            // a failed probe reopens the circuit straight away
+            return !probe && state.get() != CircuitState.OPEN && childState.canRetry(exception);
+        }
+
+        @Override
+        public long nextDelay() {
+            return childState.nextDelay();
+        }
+
+        @Override
+        public int getMaxAttempts() {
+            return childState.getMaxAttempts();
+        }
+
+        @Override
+        public int currentAttempt() {
+            return childState.currentAttempt();
+        }
+
+        @Override
+        public OptionalDouble getMultiplier() {
+            return childState.getMultiplier();
+        }
+
+        @Override
+        public Duration getDelay() {
+            return childState.getDelay();
+        }
+
+        @Override
+        public Duration getOverallDelay() {
+            return childState.getOverallDelay();
+        }
+
+        @Override
+        public Optional<Duration> getMaxDelay() {
+            return childState.getMaxDelay();
+        }
+
+        @Override
+        public RetryPredicate getRetryPredicate() {
+            return childState.getRetryPredicate();
+        }
+
+        @Override
+        public Class<? extends Throwable> getCapturedException() {
+            return childState.getCapturedException();
+        }
+    }
+
+    /**
+     * The recorded outcomes of calls.
+     */
+    private abstract static class Window {
+        abstract void record(boolean failure, boolean slow, long now);
+
+        abstract int total(long now);
+
+        abstract int failures(long now);
+
+        abstract int slowCalls(long now);
+
+        abstract void reset();
+    }
+
+    /**
+     * Records the outcome of the last calls in a ring with one slot per call. The counts are striped so that
+     * concurrent calls do not contend on them, and are approximate while a slot is being replaced.
+     */
+    private static final class CountWindow extends Window {
+        private static final int RECORDED = 1;
+        private static final int FAILED = 2;
+        private static final int SLOW = 4;
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLong cursor = new AtomicLong();
+        private final LongAdder total = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+
+        CountWindow(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        @Override
+        void record(boolean failure, boolean slow, long now) {
+            int outcome = RECORDED | (failure ? FAILED : 0) | (slow ? SLOW : 0);
+            int index = (int) (cursor.getAndIncrement() % outcomes.length());
+            replace(index, outcome);
+        }
+
+        @Override
+        int total(long now) {
+            return sum(total);
+        }
+
+        @Override
+        int failures(long now) {
+            return sum(failures);
+        }
+
+        @Override
+        int slowCalls(long now) {
+            return sum(slowCalls);
+        }
+
+        @Override
+        void reset() {
+            for (int i = 0; i < outcomes.length(); i++) {
+                replace(i, 0);
+            }
+        }
+
+        private void replace(int index, int outcome) {
+            int previous = outcomes.getAndSet(index, outcome);
+            count(previous, -1);
+            count(outcome, 1);
+        }
+
+        private void count(int outcome, int delta) {
+            if ((outcome & RECORDED) != 0) {
+                total.add(delta);
+                if ((outcome & FAILED) != 0) {
+                    failures.add(delta);
+                }
+                if ((outcome & SLOW) != 0) {
+                    slowCalls.add(delta);
+                }
+            }
+        }
+
+        private int sum(LongAdder counter) {
+            // a replaced outcome is removed before the new one is added
+            return (int) Math.max(0, Math.min(counter.sum(), outcomes.length()));
+        }
+    }
+
+    /**
+     * Records the outcome of the calls of the last seconds in a ring with one bucket per second. A bucket is reused
+     * once its second has left the window, so the counts are approximate while a bucket is being reset.
+     */
+    private static final class TimeWindow extends Window {
+        private final Bucket[] buckets;
+
+        TimeWindow(int seconds) {
+            this.buckets = new Bucket[seconds];
+            for (int i = 0; i < seconds; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        @Override
+        void record(boolean failure, boolean slow, long now) {
+            long second = TimeUnit.NANOSECONDS.toSeconds(now);
+            Bucket bucket = buckets[(int) Math.floorMod(second, (long) buckets.length)];
+            long bucketSecond = bucket.second.get();
+            if (bucketSecond != second && bucket.second.compareAndSet(bucketSecond, second)) {
+                bucket.total.set(0);
+                bucket.failures.set(0);
+                bucket.slowCalls.set(0);
+            }
+            bucket.total.incrementAndGet();
+            if (failure) {
+                bucket.failures.incrementAndGet();
+            }
+            if (slow) {
+                bucket.slowCalls.incrementAndGet();
+            }
+        }
+
+        @Override
+        int total(long now) {
+            long oldest = TimeUnit.NANOSECONDS.toSeconds(now) - buckets.length;
+            int sum = 0;
+            for (Bucket bucket : buckets) {
+                if (bucket.second.get() > oldest) {
+                    sum += bucket.total.get();
+                }
+            }
+            return sum;
+        }
+
+        @Override
+        int failures(long now) {
+            long oldest = TimeUnit.NANOSECONDS.toSeconds(now) - buckets.length;
+            int sum = 0;
+            for (Bucket bucket : buckets) {
+                if (bucket.second.get() > oldest) {
+                    sum += bucket.failures.get();
+                }
+            }
+            return sum;
+        }
+
+        @Override
+        int slowCalls(long now) {
+            long oldest = TimeUnit.NANOSECONDS.toSeconds(now) - buckets.length;
+            int sum = 0;
+            for (Bucket bucket : buckets) {
+                if (bucket.second.get() > oldest) {
+                    sum += bucket.slowCalls.get();
+                }
+            }
+            return sum;
+        }
+
+        @Override
+        void reset() {
+            for (Bucket bucket : buckets) {
+                bucket.second.set(Long.MIN_VALUE);
+            }
+        }
+
+        /**
+         * The counts of one second.
+         */
+        private static final class Bucket {
+            final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+            final AtomicInteger total = new AtomicInteger();
+            final AtomicInteger failures = new AtomicInteger();
+            final AtomicInteger slowCalls = new AtomicInteger();
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package io.micronaut.retry.intercept
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.context.exceptions.ConfigurationException
+import io.micronaut.retry.annotation.Bulkhead
+import io.micronaut.retry.exception.BulkheadFullException
+import io.micronaut.scheduling.instrument.Instrumentation
+import io.micronaut.scheduling.instrument.InvocationInstrumenter
+import io.micronaut.scheduling.instrument.InvocationInstrumenterFactory
+import jakarta.inject.Singleton
+import org.reactivestreams.Publisher
+import reactor.core.Disposable
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.core.publisher.Sinks
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class BulkheadSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run(['spec.name': 'BulkheadSpec'])
+
+    void "test synchronous calls over the limit are rejected"() {
+        given:
+        BulkheadService service = context.getBean(BulkheadService)
+        service.reset()
+        CountDownLatch release = new CountDownLatch(1)
+
+        when:
+        Thread first = Thread.start { service.blocking(release) }
+        waitFor { service.running.get() == 1 }
+        service.blocking(new CountDownLatch(0))
+
+        then:
+        thrown(BulkheadFullException)
+
+        when:
+        release.countDown()
+        first.join()
+        service.blocking(new CountDownLatch(0))
+
+        then:"the slot is free again"
+        noExceptionThrown()
+    }
+
+    void "test synchronous calls wait in the queue"() {
+        given:
+        BulkheadService service = context.getBean(BulkheadService)
+        service.reset()
+        CountDownLatch release = new CountDownLatch(1)
+
+        when:
+        Thread first = Thread.start { service.queued(release) }
+        waitFor { service.running.get() == 1 }
+        Thread second = Thread.start { service.queued(new CountDownLatch(0)) }
+        Thread.sleep(50)
+        service.queued(new CountDownLatch(0))
+
+        then:"the queue holds a single call"
+        thrown(BulkheadFullException)
+
+        when:
+        release.countDown()
+        first.join()
+        second.join()
+
+        then:
+        service.completed.get() == 2
+    }
+
+    void "test completion stages are queued without blocking and run when a slot is released"() {
+        given:
+        BulkheadService service = context.getBean(BulkheadService)
+        service.reset()
+        CompletableFuture<String> first = new CompletableFuture<>()
+
+        when:
+        CompletionStage<String> stage1 = service.async(first)
+        CompletionStage<String> stage2 = service.async(CompletableFuture.completedFuture("two"))
+        CompletionStage<String> stage3 = service.async(CompletableFuture.completedFuture("three"))
+
+        then:"the second call waits and the third is rejected"
+        service.running.get() == 1
+        !stage2.toCompletableFuture().isDone()
+
+        when:
+        stage3.toCompletableFuture().get()
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof BulkheadFullException
+
+        when:
+        first.complete("one")
+
+        then:
+        stage1.toCompletableFuture().get(5, TimeUnit.SECONDS) == "one"
+        stage2.toCompletableFuture().get(5, TimeUnit.SECONDS) == "two"
+    }
+
+    void "test publishers take a slot when subscribed"() {
+        given:
+        BulkheadService service = context.getBean(BulkheadService)
+        service.reset()
+
+        when:
+        Publisher<String> publisher = service.reactive()
+
+        then:"nothing runs before subscription"
+        service.running.get() == 0
+
+        when:
+        List<String> results = Flux.merge(publisher, service.reactive()).collectList().block()
+
+        then:"the calls ran one after the other"
+        results == ["done", "done"]
+        service.maxRunning.get() == 1
+    }
+
+    void "test calls on a dedicated thread pool"() {
+        given:
+        BulkheadService service = context.getBean(BulkheadService)
+
+        expect:
+        service.threadPool().toCompletableFuture().get().startsWith("bulkhead-pool-")
+    }
+
+    void "test synchronous methods are rejected in thread pool mode"() {
+        given:
+        BulkheadService service = context.getBean(BulkheadService)
+
+        when:
+        service.synchronousPool()
+
+        then:
+        ConfigurationException e = thrown()
+        e.message.contains("THREAD_POOL")
+    }
+
+    void "test the context of the caller is propagated onto the thread pool"() {
+        given:
+        BulkheadService service = context.getBean(BulkheadService)
+
+        when:
+        ContextInstrumenterFactory.CURRENT.set("caller")
+        CompletionStage<String> stage = service.contextPool()
+        Mono<String> mono = Mono.from(service.contextReactivePool())
+
+        then:
+        stage.toCompletableFuture().get() == "caller"
+        mono.block() == "caller"
+
+        cleanup:
+        ContextInstrumenterFactory.CURRENT.remove()
+    }
+
+    void "test asynchronous calls on a thread pool hold a slot until they complete"() {
+        given:
+        BulkheadService service = context.getBean(BulkheadService)
+        service.reset()
+        CompletableFuture<String> first = new CompletableFuture<>()
+        Sinks.One<String> sink = Sinks.one()
+
+        when:
+        CompletionStage<String> stage1 = service.asyncPool(first)
+        waitFor { service.running.get() == 1 }
+        service.asyncPool(CompletableFuture.completedFuture("two")).toCompletableFuture().get()
+
+        then:"the thread returned but the stage is still running"
+        ExecutionException e = thrown()
+        e.cause instanceof BulkheadFullException
+
+        when:
+        Mono.from(service.reactivePool(Mono.just("three"))).block()
+
+        then:
+        thrown(BulkheadFullException)
+
+        when:
+        first.complete("one")
+        Disposable subscription = Mono.from(service.reactivePool(sink.asMono())).subscribe()
+        waitFor { service.running.get() == 1 }
+        service.asyncPool(CompletableFuture.completedFuture("four")).toCompletableFuture().get()
+
+        then:"the subscribed publisher holds the slot"
+        stage1.toCompletableFuture().get() == "one"
+        e = thrown()
+        e.cause instanceof BulkheadFullException
+
+        when:
+        subscription.dispose()
+        waitFor { service.running.get() == 0 }
+
+        then:"cancelling the publisher frees the slot"
+        service.asyncPool(CompletableFuture.completedFuture("five")).toCompletableFuture().get() == "five"
+    }
+
+    void "test errors thrown on the thread pool are rethrown"() {
+        given:
+        BulkheadService service = context.getBean(BulkheadService)
+
+        when:
+        service.threadPoolError().toCompletableFuture().get()
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof AssertionError
+        e.cause.message == "bad"
+    }
+
+    private static void waitFor(Closure<Boolean> condition) {
+        long deadline = System.currentTimeMillis() + 5000
+        while (!condition.call()) {
+            assert System.currentTimeMillis() < deadline
+            Thread.sleep(5)
+        }
+    }
+
+    @Singleton
+    static class BulkheadService {
+        AtomicInteger running = new AtomicInteger()
+        AtomicInteger maxRunning = new AtomicInteger()
+        AtomicInteger completed = new AtomicInteger()
+
+        void reset() {
+            running.set(0)
+            maxRunning.set(0)
+            completed.set(0)
+        }
+
+        @Bulkhead(maxConcurrentCalls = "1")
+        void blocking(CountDownLatch latch) {
+            running.incrementAndGet()
+            try {
+                latch.await()
+            } finally {
+                running.decrementAndGet()
+            }
+        }
+
+        @Bulkhead(maxConcurrentCalls = "1", queueSize = "1", maxWaitDuration = "5s")
+        void queued(CountDownLatch latch) {
+            running.incrementAndGet()
+            try {
+                latch.await()
+                completed.incrementAndGet()
+            } finally {
+                running.decrementAndGet()
+            }
+        }
+
+        @Bulkhead(maxConcurrentCalls = "1", queueSize = "1", maxWaitDuration = "5s")
+        CompletionStage<String> async(CompletableFuture<String> result) {
+            running.incrementAndGet()
+            return result.whenComplete { value, error -> running.decrementAndGet() }
+        }
+
+        @Bulkhead(maxConcurrentCalls = "1", queueSize = "5", maxWaitDuration = "5s")
+        Publisher<String> reactive() {
+            Mono.fromCallable {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max)
+                Thread.sleep(20)
+                running.decrementAndGet()
+                "done"
+            }
+        }
+
+        @Bulkhead(name = "pool", mode = Bulkhead.Mode.THREAD_POOL, maxConcurrentCalls = "2")
+        CompletionStage<String> threadPool() {
+            CompletableFuture.completedFuture(Thread.currentThread().name)
+        }
+
+        @Bulkhead(name = "pool", mode = Bulkhead.Mode.THREAD_POOL, maxConcurrentCalls = "2")
+        CompletionStage<String> threadPoolError() {
+            throw new AssertionError("bad")
+        }
+
+        @Bulkhead(name = "pool", mode = Bulkhead.Mode.THREAD_POOL, maxConcurrentCalls = "2")
+        String synchronousPool() {
+            Thread.currentThread().name
+        }
+
+        @Bulkhead(name = "pool", mode = Bulkhead.Mode.THREAD_POOL, maxConcurrentCalls = "2")
+        CompletionStage<String> contextPool() {
+            CompletableFuture.completedFuture(ContextInstrumenterFactory.CURRENT.get())
+        }
+
+        @Bulkhead(name = "pool", mode = Bulkhead.Mode.THREAD_POOL, maxConcurrentCalls = "2")
+        Publisher<String> contextReactivePool() {
+            Mono.fromCallable { ContextInstrumenterFactory.CURRENT.get() }
+        }
+
+        @Bulkhead(name = "asyncPool", mode = Bulkhead.Mode.THREAD_POOL, maxConcurrentCalls = "1")
+        CompletionStage<String> asyncPool(CompletableFuture<String> result) {
+            running.incrementAndGet()
+            return result.whenComplete { value, error -> running.decrementAndGet() }
+        }
+
+        @Bulkhead(name = "asyncPool", mode = Bulkhead.Mode.THREAD_POOL, maxConcurrentCalls = "1")
+        Publisher<String> reactivePool(Mono<String> result) {
+            result.doOnSubscribe { running.incrementAndGet() }
+                    .doFinally { running.decrementAndGet() }
+        }
+    }
+
+    @Singleton
+    @Requires(property = 'spec.name', value = 'BulkheadSpec')
+    static class ContextInstrumenterFactory implements InvocationInstrumenterFactory {
+        static final ThreadLocal<String> CURRENT = new ThreadLocal<>()
+
+        @Override
+        InvocationInstrumenter newInvocationInstrumenter() {
+            String value = CURRENT.get()
+            if (value == null) {
+                return null
+            }
+            return {
+                String previous = CURRENT.get()
+                CURRENT.set(value)
+                return { boolean cleanup -> CURRENT.set(previous) } as Instrumentation
+            } as InvocationInstrumenter
+        }
+    }
+}
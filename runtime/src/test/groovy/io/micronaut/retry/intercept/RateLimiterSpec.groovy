@@ -0,0 +1,128 @@
+package io.micronaut.retry.intercept
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.retry.annotation.RateLimiter
+import io.micronaut.retry.exception.RateLimitExceededException
+import jakarta.inject.Singleton
+import org.reactivestreams.Publisher
+import reactor.core.publisher.Mono
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+class RateLimiterSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run()
+
+    void "test the token bucket permits a burst and refills continuously"() {
+        given:
+        AtomicLong clock = new AtomicLong(0)
+        RateLimiterInterceptor.TokenBucket bucket = new RateLimiterInterceptor.TokenBucket(5, Duration.ofSeconds(1), { -> clock.get() })
+
+        expect:"the full burst is available"
+        (1..5).every { bucket.reserve(0) == 0 }
+        bucket.reserve(0) == -1
+
+        when:"a fifth of the period elapsed"
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200))
+
+        then:"one token was refilled"
+        bucket.reserve(0) == 0
+        bucket.reserve(0) == -1
+
+        and:"a caller willing to wait gets the next token"
+        bucket.reserve(TimeUnit.SECONDS.toNanos(1)) == TimeUnit.MILLISECONDS.toNanos(200)
+
+        when:"a long time elapsed"
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10))
+
+        then:"the bucket holds no more than the burst"
+        (1..5).every { bucket.reserve(0) == 0 }
+        bucket.reserve(0) == -1
+    }
+
+    void "test synchronous calls over the limit are rejected"() {
+        given:
+        LimitedService service = context.getBean(LimitedService)
+
+        when:
+        3.times { service.sync() }
+
+        then:
+        noExceptionThrown()
+
+        when:
+        service.sync()
+
+        then:
+        thrown(RateLimitExceededException)
+    }
+
+    void "test completion stages wait for a token without blocking"() {
+        given:
+        LimitedService service = context.getBean(LimitedService)
+
+        when:
+        long start = System.nanoTime()
+        CompletionStage<String> first = service.async()
+        CompletionStage<String> second = service.async()
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+
+        then:
+        elapsed < 200
+        first.toCompletableFuture().get(5, TimeUnit.SECONDS) == "ok"
+        second.toCompletableFuture().get(5, TimeUnit.SECONDS) == "ok"
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 250
+
+        when:"the next call would wait longer than the timeout"
+        service.async()
+        service.async()
+        service.async().toCompletableFuture().get()
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof RateLimitExceededException
+    }
+
+    void "test publishers take a token when subscribed"() {
+        given:
+        LimitedService service = context.getBean(LimitedService)
+        Publisher<String> publisher = service.reactive()
+
+        expect:
+        Mono.from(publisher).block() == "ok"
+
+        when:
+        Mono.from(publisher).block()
+
+        then:
+        thrown(RateLimitExceededException)
+    }
+
+    @Singleton
+    static class LimitedService {
+
+        @RateLimiter(limitForPeriod = "3", limitRefreshPeriod = "1h")
+        void sync() {
+        }
+
+        @RateLimiter(limitForPeriod = "1", limitRefreshPeriod = "300ms", timeout = "500ms")
+        CompletionStage<String> async() {
+            CompletableFuture.completedFuture("ok")
+        }
+
+        @RateLimiter(limitForPeriod = "1", limitRefreshPeriod = "1h")
+        Publisher<String> reactive() {
+            Mono.just("ok")
+        }
+    }
+}
@@ -18,6 +18,7 @@ package io.micronaut.retry.intercept
 import io.micronaut.discovery.exceptions.DiscoveryException
 import io.micronaut.discovery.registration.RegistrationException
 import io.micronaut.retry.annotation.DefaultRetryPredicate
+import io.micronaut.retry.annotation.Jitter
 import spock.lang.Specification
 
 import java.time.Duration
@@ -131,4 +132,63 @@ class SimpleRetryInstanceSpec extends Specification {
         retryContext.nextDelay() == 4000
 
     }
+
+    void "test full jitter delays are between zero and the exponential delay"() {
+        given:
+        SimpleRetry retryContext = new SimpleRetry(
+                100,
+                2,
+                Duration.ofMillis(100),
+                null,
+                new DefaultRetryPredicate(),
+                RuntimeException.class,
+                Jitter.FULL
+        )
+        RuntimeException r = new RuntimeException("bad")
+
+        when:
+        List<Long> delays = (1..50).collect {
+            retryContext.canRetry(r)
+            retryContext.nextDelay()
+        }
+
+        then:
+        delays.withIndex().every { long delay, int i -> delay >= 0 && delay <= 200 * (i + 2) }
+        delays.toSet().size() > 1
+        retryContext.overallDelay.toMillis() == delays.sum()
+    }
+
+    void "test decorrelated jitter delays grow from the base delay until the overall delay reaches the maximum"() {
+        given:
+        SimpleRetry retryContext = new SimpleRetry(
+                1000,
+                multiplier,
+                Duration.ofMillis(100),
+                Duration.ofSeconds(20),
+                new DefaultRetryPredicate(),
+                RuntimeException.class,
+                Jitter.DECORRELATED
+        )
+        RuntimeException r = new RuntimeException("bad")
+
+        when:
+        long previous = 0
+        List<Long> delays = []
+        while (retryContext.canRetry(r)) {
+            long delay = retryContext.nextDelay()
+            assert delay >= 100
+            assert delay <= Math.max(100, (long) (previous * 3 * multiplier))
+            delays << delay
+            previous = delay
+        }
+
+        then:
+        delays.first() == 100
+        delays.size() < 1000
+        delays.sum() >= 20000
+        delays.sum() - delays.last() < 20000
+
+        where:
+        multiplier << [1, 2]
+    }
 }
@@ -25,6 +25,7 @@ import org.reactivestreams.Publisher
 import reactor.core.publisher.Mono
 import spock.lang.Specification
 
+import java.time.Duration
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CompletionStage
 import java.util.concurrent.ExecutionException
@@ -226,6 +227,82 @@ class SimpleRetrySpec extends Specification {
     }
 
 
+    void "test retries of failures before the completion stage is returned do not block the caller"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        CounterService counterService = context.getBean(CounterService)
+
+        when:
+        long start = System.nanoTime()
+        CompletionStage<Integer> stage = counterService.getCountCompletionStageSlowPreErrors()
+        long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis()
+
+        then:"The caller is not blocked by the delay"
+        elapsed < 300
+        stage.toCompletableFuture().get() == 3
+        counterService.countSlowPreCompletionStage == 3
+
+        cleanup:
+        context.stop()
+    }
+
+    void "test retries of failures before the publisher is returned do not block the caller"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        CounterService counterService = context.getBean(CounterService)
+
+        when:
+        long start = System.nanoTime()
+        Publisher<Integer> publisher = counterService.getCountSingleSlowPreErrors()
+        long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis()
+
+        then:"The caller is not blocked by the delay"
+        elapsed < 300
+        Mono.from(publisher).block() == 3
+        counterService.countSlowPreRx == 3
+
+        cleanup:
+        context.stop()
+    }
+
+    void "test methods returning a publisher are invoked on subscription"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        CounterService counterService = context.getBean(CounterService)
+
+        when:"The method throws before returning the publisher"
+        Publisher<Integer> publisher = counterService.getCountSingleRxPreErrors()
+
+        then:"Nothing is invoked or thrown until the publisher is subscribed"
+        noExceptionThrown()
+        counterService.countPreRx == 0
+
+        when:
+        int result = Mono.from(publisher).block()
+
+        then:"The exception thrown before the publisher was returned is retried like an error of the publisher"
+        result == 3
+        counterService.countPreRx == 5
+        counterService.countRx == 3
+
+        when:"The method throws an exception that is not retried before returning the publisher"
+        publisher = counterService.getCountSingleRxExcluded()
+
+        then:"It is not thrown to the caller"
+        noExceptionThrown()
+        counterService.countExcludedRx == 0
+
+        when:
+        Mono.from(publisher).block()
+
+        then:"The publisher emits it when subscribed"
+        thrown(MyCustomException)
+        counterService.countExcludedRx == 1
+
+        cleanup:
+        context.stop()
+    }
+
     void "test retry with includes"() {
         given:
         ApplicationContext context = ApplicationContext.run()
@@ -363,8 +440,11 @@ class SimpleRetrySpec extends Specification {
         int countPredicate = 0
         int countThreshold = 3
         int countPreThreshold = 3
+        int countSlowPreCompletionStage = 0
+        int countSlowPreRx = 0
         int countThrowable = 0;
         int countThrowableUncaptured = 0;
+        int countExcludedRx = 0
 
         @Retryable(attempts = '5', delay = '5ms')
         int getCountSync() {
@@ -403,6 +483,32 @@ class SimpleRetrySpec extends Specification {
             })
         }
 
+        @Retryable(attempts = '5', delay = '5ms', excludes = MyCustomException.class)
+        @SingleResult
+        Publisher<Integer> getCountSingleRxExcluded() {
+            countExcludedRx++
+            throw new MyCustomException()
+        }
+
+        @Retryable(attempts = '5', delay = '200ms')
+        CompletionStage<Integer> getCountCompletionStageSlowPreErrors() {
+            countSlowPreCompletionStage++
+            if(countSlowPreCompletionStage < countPreThreshold) {
+                throw new IllegalStateException("Bad pre count")
+            }
+            CompletableFuture.completedFuture(countSlowPreCompletionStage)
+        }
+
+        @Retryable(attempts = '5', delay = '200ms')
+        @SingleResult
+        Publisher<Integer> getCountSingleSlowPreErrors() {
+            countSlowPreRx++
+            if(countSlowPreRx < countPreThreshold) {
+                throw new IllegalStateException("Bad pre count")
+            }
+            Mono.just(countSlowPreRx)
+        }
+
         @Retryable(attempts = '5', delay = '5ms', includes = MyCustomException.class)
         Integer getCountIncludes(boolean illegalState) {
             countIncludes++
@@ -0,0 +1,293 @@
+package io.micronaut.retry.intercept
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.event.ApplicationEventPublisher
+import io.micronaut.inject.ExecutableMethod
+import io.micronaut.retry.CircuitState
+import io.micronaut.retry.annotation.CircuitBreaker
+import io.micronaut.retry.event.CircuitClosedEvent
+import io.micronaut.retry.event.CircuitHalfOpenEvent
+import io.micronaut.retry.event.CircuitOpenEvent
+import io.micronaut.retry.exception.CircuitOpenException
+import jakarta.inject.Singleton
+import reactor.core.publisher.Flux
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+class SlidingWindowCircuitBreakerSpec extends Specification {
+
+    AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000))
+    List<Object> events = []
+    ApplicationEventPublisher publisher = { Object event -> events << event } as ApplicationEventPublisher
+
+    void "test the circuit opens when the failure rate exceeds the threshold"() {
+        given:
+        SlidingWindowCircuitBreaker circuit = circuit(CircuitBreaker.WindowType.COUNT_BASED, 10, 4, 50, -1)
+
+        when:"fewer calls than the minimum fail"
+        3.times { call(circuit, new RuntimeException("bad")) }
+
+        then:
+        circuit.currentState() == CircuitState.CLOSED
+
+        when:"the minimum is reached"
+        call(circuit, null)
+
+        then:"75% of the calls failed"
+        circuit.currentState() == CircuitState.OPEN
+        events.size() == 1
+        events[0] instanceof CircuitOpenEvent
+        ((CircuitOpenEvent) events[0]).throwable.message == "bad"
+
+        when:
+        call(circuit, null)
+
+        then:
+        CircuitOpenException e = thrown()
+        e.message == "Circuit Open: bad"
+    }
+
+    void "test old outcomes leave a count based window"() {
+        given:
+        SlidingWindowCircuitBreaker circuit = circuit(CircuitBreaker.WindowType.COUNT_BASED, 4, 4, 50, -1)
+
+        when:
+        call(circuit, new RuntimeException("bad"))
+        10.times { call(circuit, null) }
+        call(circuit, new RuntimeException("bad"))
+
+        then:"only one of the last four calls failed"
+        circuit.currentState() == CircuitState.CLOSED
+    }
+
+    void "test a count based window keeps exact counts under concurrent calls"() {
+        given:
+        SlidingWindowCircuitBreaker circuit = circuit(CircuitBreaker.WindowType.COUNT_BASED, 8, 4, 50, -1)
+        List<Thread> threads = (0..<8).collect {
+            new Thread({ 1000.times { call(circuit, null) } })
+        }
+
+        when:
+        threads*.start()
+        threads*.join()
+        3.times { call(circuit, new RuntimeException("bad")) }
+
+        then:"three of the last eight calls failed"
+        circuit.currentState() == CircuitState.CLOSED
+
+        when:
+        call(circuit, new RuntimeException("bad"))
+
+        then:
+        circuit.currentState() == CircuitState.OPEN
+    }
+
+    void "test old outcomes leave a time based window"() {
+        given:
+        SlidingWindowCircuitBreaker circuit = circuit(CircuitBreaker.WindowType.TIME_BASED, 10, 4, 50, -1)
+
+        when:
+        3.times { call(circuit, new RuntimeException("bad")) }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(11))
+        call(circuit, new RuntimeException("bad"))
+
+        then:"the earlier failures are outside of the window"
+        circuit.currentState() == CircuitState.CLOSED
+
+        when:
+        3.times { call(circuit, new RuntimeException("bad")) }
+
+        then:
+        circuit.currentState() == CircuitState.OPEN
+    }
+
+    void "test the circuit opens when the slow call rate exceeds the threshold"() {
+        given:
+        SlidingWindowCircuitBreaker circuit = circuit(CircuitBreaker.WindowType.COUNT_BASED, 10, 2, -1, 50)
+
+        when:
+        call(circuit, null, Duration.ofMillis(10))
+        call(circuit, null, Duration.ofSeconds(2))
+
+        then:
+        circuit.currentState() == CircuitState.OPEN
+        ((CircuitOpenEvent) events[0]).throwable instanceof CircuitOpenException
+    }
+
+    void "test half open lets a limited number of probes through"() {
+        given:
+        SlidingWindowCircuitBreaker circuit = circuit(CircuitBreaker.WindowType.COUNT_BASED, 10, 2, 50, -1, 2)
+        2.times { call(circuit, new RuntimeException("bad")) }
+
+        when:
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(21))
+        MutableRetryState probe1 = circuit.newRetryState(new SimpleRetry(3, 1, Duration.ofMillis(1)))
+        MutableRetryState probe2 = circuit.newRetryState(new SimpleRetry(3, 1, Duration.ofMillis(1)))
+        probe1.open()
+        probe2.open()
+
+        then:
+        circuit.currentState() == CircuitState.HALF_OPEN
+        events[1] instanceof CircuitHalfOpenEvent
+        !probe1.canRetry(new RuntimeException("bad"))
+
+        when:"a third call is attempted while the probes run"
+        call(circuit, null)
+
+        then:
+        thrown(CircuitOpenException)
+
+        when:
+        probe1.close(null)
+        probe2.close(null)
+
+        then:
+        circuit.currentState() == CircuitState.CLOSED
+        events[2] instanceof CircuitClosedEvent
+
+        when:"the window was reset when closing"
+        call(circuit, new RuntimeException("bad"))
+
+        then:
+        circuit.currentState() == CircuitState.CLOSED
+    }
+
+    void "test a failed probe opens the circuit again"() {
+        given:
+        SlidingWindowCircuitBreaker circuit = circuit(CircuitBreaker.WindowType.COUNT_BASED, 10, 2, 50, -1)
+        2.times { call(circuit, new RuntimeException("bad")) }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(21))
+
+        when:
+        call(circuit, new RuntimeException("still bad"))
+
+        then:
+        circuit.currentState() == CircuitState.OPEN
+        events*.class == [CircuitOpenEvent, CircuitHalfOpenEvent, CircuitOpenEvent]
+
+        when:
+        call(circuit, null)
+
+        then:
+        CircuitOpenException e = thrown()
+        e.message == "Circuit Open: still bad"
+    }
+
+    void "test the sliding window circuit breaker is used for annotated methods"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        FlakyService service = context.getBean(FlakyService)
+
+        when:
+        4.times {
+            try {
+                service.call(it % 2 == 0)
+            } catch (IllegalStateException ignored) {
+            }
+        }
+        service.call(false)
+
+        then:
+        thrown(CircuitOpenException)
+        service.invocations == 4
+
+        cleanup:
+        context.close()
+    }
+
+    void "test reactive calls record one outcome when they complete empty, emit several items or are cancelled"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        ReactiveService service = context.getBean(ReactiveService)
+
+        when:"two calls emit several items and two fail"
+        2.times { service.items(3, false).collectList().block() }
+        2.times {
+            try {
+                service.items(0, true).blockLast()
+            } catch (IllegalStateException ignored) {
+            }
+        }
+        Flux<Integer> rejected = service.items(1, false)
+
+        then:"four outcomes were recorded and the circuit is opened on subscribe"
+        service.invocations.get() == 4
+
+        when:
+        rejected.blockLast()
+
+        then:
+        thrown(CircuitOpenException)
+        service.invocations.get() == 4
+
+        when:"a probe is cancelled before emitting"
+        Thread.sleep(300)
+        service.items(-1, false).subscribe().dispose()
+
+        and:"the next probe completes empty"
+        List<Integer> empty = service.items(0, false).collectList().block()
+
+        then:"the circuit is closed again"
+        empty.isEmpty()
+        service.items(1, false).collectList().block() == [0]
+        service.items(1, false).collectList().block() == [0]
+        service.invocations.get() == 8
+
+        cleanup:
+        context.close()
+    }
+
+    private SlidingWindowCircuitBreaker circuit(CircuitBreaker.WindowType type, int size, int minimumCalls, double failureRate, double slowCallRate, int probes = 1) {
+        new SlidingWindowCircuitBreaker(
+                Stub(ExecutableMethod),
+                publisher,
+                type,
+                size,
+                minimumCalls,
+                failureRate,
+                slowCallRate,
+                Duration.ofSeconds(1),
+                probes,
+                Duration.ofSeconds(20),
+                { -> clock.get() }
+        )
+    }
+
+    private void call(SlidingWindowCircuitBreaker circuit, Throwable error, Duration duration = Duration.ZERO) {
+        MutableRetryState state = circuit.newRetryState(new SimpleRetry(0, 1, Duration.ofMillis(1)))
+        state.open()
+        clock.addAndGet(duration.toNanos())
+        state.close(error)
+    }
+
+    @Singleton
+    static class ReactiveService {
+        final AtomicInteger invocations = new AtomicInteger()
+
+        @CircuitBreaker(attempts = "0", failureRateThreshold = "50", minimumCalls = "4", windowSize = "10", reset = "200ms")
+        Flux<Integer> items(int count, boolean fail) {
+            invocations.incrementAndGet()
+            if (fail) {
+                return Flux.error(new IllegalStateException("bad"))
+            }
+            return count < 0 ? Flux.never() : Flux.range(0, count)
+        }
+    }
+
+    @Singleton
+    static class FlakyService {
+        int invocations
+
+        @CircuitBreaker(attempts = "0", failureRateThreshold = "50", minimumCalls = "4", windowSize = "10")
+        void call(boolean fail) {
+            invocations++
+            if (fail) {
+                throw new IllegalStateException("bad")
+            }
+        }
+    }
+}
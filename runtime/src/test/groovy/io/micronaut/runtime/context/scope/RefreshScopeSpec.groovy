@@ -24,10 +24,19 @@ import io.micronaut.inject.qualifiers.Qualifiers
 import io.micronaut.runtime.context.scope.refresh.RefreshEvent
 import io.micronaut.runtime.context.scope.refresh.RefreshScope
 import io.micronaut.scheduling.TaskExecutors
+import jakarta.annotation.PreDestroy
 import spock.lang.Specification
 import spock.util.environment.RestoreSystemProperties
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
 
 /**
  * @author Graeme Rocher
@@ -90,7 +99,7 @@ class RefreshScopeSpec extends Specification {
         bean.testValue() == 'test'
         bean.testConfigProps() == 'test'
         refreshScope.refreshableBeans.size() == 1
-        refreshScope.locks.size() == 1
+        refreshScope.targets.size() == 1
 
         when:
         System.setProperty("foo.bar", "bar")
@@ -102,7 +111,7 @@ class RefreshScopeSpec extends Specification {
         bean.testValue() == 'bar'
         bean.testConfigProps() == 'bar'
         refreshScope.refreshableBeans.size() == 1
-        refreshScope.locks.size() == 1
+        refreshScope.targets.size() == 1
 
         cleanup:
         beanContext?.stop()
@@ -218,6 +227,88 @@ class RefreshScopeSpec extends Specification {
         file.delete()
     }
 
+    void "test refresh waits for calls in flight before destroying the bean"() {
+        given:
+        ApplicationContext beanContext = ApplicationContext.run()
+        BlockingRefreshBean bean = beanContext.getBean(BlockingRefreshBean)
+        RefreshScope refreshScope = beanContext.getBean(RefreshScope)
+        bean.ping()
+        CountDownLatch entered = new CountDownLatch(1)
+        CountDownLatch release = new CountDownLatch(1)
+        boolean destroyedDuringCall = true
+
+        when:
+        Thread caller = Thread.start {
+            destroyedDuringCall = bean.await(entered, release)
+        }
+        entered.await(5, TimeUnit.SECONDS)
+        Thread refresher = Thread.start {
+            refreshScope.onRefreshEvent(new RefreshEvent())
+        }
+        refresher.join(200)
+
+        then:
+        refresher.alive
+        BlockingRefreshBean.destroyed.get() == 0
+
+        when:
+        release.countDown()
+        caller.join(5000)
+        refresher.join(5000)
+
+        then:
+        !destroyedDuringCall
+        BlockingRefreshBean.destroyed.get() == 1
+        bean.ping() == 'pong'
+        refreshScope.targets.size() == 1
+
+        cleanup:
+        BlockingRefreshBean.destroyed.set(0)
+        beanContext.close()
+    }
+
+    void "test concurrent calls during refreshes never run on a destroyed bean"() {
+        given:
+        ApplicationContext beanContext = ApplicationContext.run()
+        GenerationRefreshBean bean = beanContext.getBean(GenerationRefreshBean)
+        RefreshScope refreshScope = beanContext.getBean(RefreshScope)
+        int threads = 8
+        ExecutorService executor = Executors.newFixedThreadPool(threads)
+        CountDownLatch started = new CountDownLatch(threads)
+        AtomicBoolean running = new AtomicBoolean(true)
+        AtomicLong calls = new AtomicLong()
+        Set<Integer> generations = ConcurrentHashMap.newKeySet()
+
+        when:
+        def futures = (1..threads).collect {
+            executor.submit {
+                started.countDown()
+                while (running.get()) {
+                    generations.add(bean.work())
+                    calls.incrementAndGet()
+                }
+            }
+        }
+        started.await(5, TimeUnit.SECONDS)
+        50.times {
+            refreshScope.onRefreshEvent(new RefreshEvent())
+        }
+        running.set(false)
+        futures*.get(5, TimeUnit.SECONDS)
+
+        then:
+        calls.get() > 0
+        generations.size() > 1
+        GenerationRefreshBean.destroyed.get() > 0
+        GenerationRefreshBean.callsOnDestroyed.get() == 0
+
+        cleanup:
+        executor.shutdownNow()
+        GenerationRefreshBean.destroyed.set(0)
+        GenerationRefreshBean.callsOnDestroyed.set(0)
+        beanContext.close()
+    }
+
     @Refreshable
     static class RefreshBean {
 
@@ -270,6 +361,52 @@ class RefreshScopeSpec extends Specification {
         }
     }
 
+    @Refreshable
+    static class BlockingRefreshBean {
+        static final AtomicInteger destroyed = new AtomicInteger()
+        volatile boolean closed
+
+        String ping() {
+            return 'pong'
+        }
+
+        boolean await(CountDownLatch entered, CountDownLatch release) {
+            entered.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            return closed
+        }
+
+        @PreDestroy
+        void close() {
+            closed = true
+            destroyed.incrementAndGet()
+        }
+    }
+
+    @Refreshable
+    static class GenerationRefreshBean {
+        static final AtomicInteger destroyed = new AtomicInteger()
+        static final AtomicInteger callsOnDestroyed = new AtomicInteger()
+        volatile boolean closed
+
+        int work() {
+            if (closed) {
+                callsOnDestroyed.incrementAndGet()
+            }
+            Thread.yield()
+            if (closed) {
+                callsOnDestroyed.incrementAndGet()
+            }
+            return System.identityHashCode(this)
+        }
+
+        @PreDestroy
+        void close() {
+            closed = true
+            destroyed.incrementAndGet()
+        }
+    }
+
     @ConfigurationProperties('foo')
     static class MyConfig {
         String bar
@@ -20,9 +20,11 @@ import io.micronaut.inject.qualifiers.Qualifiers
 import io.micronaut.scheduling.TaskExecutors
 import io.micronaut.scheduling.executor.ExecutorConfiguration
 import io.micronaut.scheduling.executor.UserExecutorConfiguration
+import io.micronaut.scheduling.executor.VirtualThreadSupport
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.util.concurrent.Callable
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.ForkJoinPool
 import java.util.concurrent.ScheduledExecutorService
@@ -47,13 +49,13 @@ class ExecutorServiceConfigSpec extends Specification {
         def configs = ctx.getBeansOfType(ExecutorConfiguration)
 
         then:
-        configs.size() == 4
+        configs.size() == 5
 
         when:
         Collection<ExecutorService> executorServices = ctx.getBeansOfType(ExecutorService.class)
 
         then:
-        executorServices.size() == 4
+        executorServices.size() == 5
 
         when:
         ThreadPoolExecutor poolExecutor = ctx.getBean(ThreadPoolExecutor, Qualifiers.byName("one"))
@@ -61,10 +63,11 @@ class ExecutorServiceConfigSpec extends Specification {
 
         then:
         forkJoinPool instanceof ForkJoinPool
-        executorServices.size() == 4
+        executorServices.size() == 5
         poolExecutor.corePoolSize == 5
         ctx.getBean(ExecutorService.class, Qualifiers.byName(TaskExecutors.IO)) // the default IO executor
         ctx.getBean(ExecutorService.class, Qualifiers.byName(TaskExecutors.SCHEDULED)) // the default IO executor
+        ctx.getBean(ExecutorService.class, Qualifiers.byName(TaskExecutors.VIRTUAL)) // the default virtual thread executor
         forkJoinPool == ctx.getBean(ExecutorService.class, Qualifiers.byName("two"))
         poolExecutor == ctx.getBean(ExecutorService.class, Qualifiers.byName("one"))
 
@@ -113,7 +116,7 @@ class ExecutorServiceConfigSpec extends Specification {
         ExecutorService forkJoinPool = ctx.getBean(ExecutorService, Qualifiers.byName("two"))
 
         then:
-        executorServices.size() == 4
+        executorServices.size() == 5
         poolExecutor.corePoolSize == 5
         ctx.getBean(ExecutorService.class, Qualifiers.byName(TaskExecutors.IO)) instanceof ThreadPoolExecutor
         ctx.getBean(ExecutorService.class, Qualifiers.byName(TaskExecutors.SCHEDULED)) instanceof ScheduledExecutorService
@@ -129,8 +132,8 @@ class ExecutorServiceConfigSpec extends Specification {
         executorServices = ctx.getBeansOfType(ExecutorService)
 
         then:
-        executorServices.size() == 4
-        moreConfigs.size() == 4
+        executorServices.size() == 5
+        moreConfigs.size() == 5
         configs.size() == 2
 
         when:
@@ -168,7 +171,7 @@ class ExecutorServiceConfigSpec extends Specification {
         Collection<ExecutorService> executorServices = ctx.getBeansOfType(ExecutorService.class)
 
         then:
-        executorServices.size() == 3
+        executorServices.size() == 4
         ctx.getBean(ExecutorService.class, Qualifiers.byName(TaskExecutors.IO)) instanceof ThreadPoolExecutor
 
         when:
@@ -180,8 +183,8 @@ class ExecutorServiceConfigSpec extends Specification {
         executorServices = ctx.getBeansOfType(ExecutorService)
 
         then:
-        executorServices.size() == 3
-        moreConfigs.size() == 3
+        executorServices.size() == 4
+        moreConfigs.size() == 4
         configs.size() == 2
 
         where:
@@ -189,4 +192,25 @@ class ExecutorServiceConfigSpec extends Specification {
         true            | "test"
         false           | "test"
     }
+
+    void "test configure a virtual thread executor"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run(
+                'micronaut.executors.one.type':'virtual'
+        )
+
+        when:
+        ExecutorService executorService = ctx.getBean(ExecutorService, Qualifiers.byName("one"))
+        Thread thread = executorService.submit({ -> Thread.currentThread() } as Callable<Thread>).get()
+
+        then:
+        thread.name.startsWith("one-executor-thread-")
+        !VirtualThreadSupport.isSupported() || thread.isVirtual()
+
+        when:
+        ctx.stop()
+
+        then:
+        executorService.isShutdown()
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.session;
+
+import io.micronaut.core.convert.ArgumentConversionContext;
+import io.micronaut.core.convert.value.MutableConvertibleValues;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A session of the {@link CompactSessionStore}. The attributes are only decoded when they are first accessed, so
+ * requests that merely touch the session never materialize them.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+final class CompactSession extends InMemorySession {
+
+    private byte[] encodedAttributes;
+    private boolean modified;
+
+    /**
+     * Creates a new session.
+     *
+     * @param id The session id
+     * @param maxInactiveInterval The max inactive interval
+     */
+    CompactSession(String id, Duration maxInactiveInterval) {
+        super(id, maxInactiveInterval);
+    }
+
+    /**
+     * Restores a stored session.
+     *
+     * @param id The session id
+     * @param creationTime The creation time
+     * @param lastAccessTime The last access time
+     * @param maxInactiveInterval The max inactive interval
+     * @param encodedAttributes The encoded attributes
+     */
+    CompactSession(String id, Instant creationTime, Instant lastAccessTime, Duration maxInactiveInterval, byte[] encodedAttributes) {
+        super(id, creationTime, maxInactiveInterval);
+        this.lastAccessTime = lastAccessTime;
+        this.encodedAttributes = encodedAttributes;
+        setNew(false);
+    }
+
+    @Override
+    public boolean isModified() {
+        return isNew() || modified;
+    }
+
+    @Override
+    public Session setMaxInactiveInterval(Duration duration) {
+        if (duration != null && !duration.equals(getMaxInactiveInterval())) {
+            modified = true;
+        }
+        return super.setMaxInactiveInterval(duration);
+    }
+
+    @Override
+    public MutableConvertibleValues<Object> put(CharSequence key, Object value) {
+        decodeAttributes();
+        modified = true;
+        return super.put(key, value);
+    }
+
+    @Override
+    public MutableConvertibleValues<Object> remove(CharSequence key) {
+        decodeAttributes();
+        modified = true;
+        return super.remove(key);
+    }
+
+    @Override
+    public MutableConvertibleValues<Object> clear() {
+        encodedAttributes = null;
+        modified = true;
+        return super.clear();
+    }
+
+    @Override
+    public Set<String> names() {
+        decodeAttributes();
+        return super.names();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        decodeAttributes();
+        return super.values();
+    }
+
+    @Override
+    public <T> Optional<T> get(CharSequence name, ArgumentConversionContext<T> conversionContext) {
+        decodeAttributes();
+        return super.get(name, conversionContext);
+    }
+
+    /**
+     * @return The encoded attributes, reusing the stored form if they were never decoded
+     */
+    byte[] encodeAttributes() {
+        if (encodedAttributes != null) {
+            return encodedAttributes;
+        }
+        return CompactSessionAttributes.encode(attributeMap);
+    }
+
+    /**
+     * Marks the session as saved.
+     */
+    void saved() {
+        modified = false;
+        setNew(false);
+    }
+
+    private void decodeAttributes() {
+        byte[] encoded = encodedAttributes;
+        if (encoded != null) {
+            encodedAttributes = null;
+            CompactSessionAttributes.decode(encoded, attributeMap);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.session;
+
+import io.micronaut.core.serialize.ObjectSerializer;
+import io.micronaut.core.serialize.exceptions.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Encodes session attributes to a compact byte array. Strings, numbers and booleans are written inline and any other
+ * value with JDK serialization.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+final class CompactSessionAttributes {
+
+    /**
+     * The encoded form of a session without attributes.
+     */
+    static final byte[] EMPTY = new byte[0];
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_BOOLEAN = 5;
+    private static final byte TYPE_SERIALIZED = 6;
+
+    private CompactSessionAttributes() {
+    }
+
+    /**
+     * @param attributes The attributes
+     * @return The encoded attributes
+     * @throws SerializationException If a value cannot be serialized
+     */
+    static byte[] encode(Map<CharSequence, Object> attributes) {
+        if (attributes.isEmpty()) {
+            return EMPTY;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(attributes.size());
+            for (Map.Entry<CharSequence, Object> entry : attributes.entrySet()) {
+                writeString(out, entry.getKey().toString());
+                writeValue(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new SerializationException("I/O error occurred encoding session attributes: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param encoded The encoded attributes
+     * @param attributes The map to add the attributes to
+     * @throws SerializationException If a value cannot be deserialized
+     */
+    static void decode(byte[] encoded, Map<CharSequence, Object> attributes) {
+        if (encoded.length == 0) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String name = readString(in);
+                attributes.put(name, readValue(in));
+            }
+        } catch (IOException e) {
+            throw new SerializationException("I/O error occurred decoding session attributes: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else {
+            byte[] serialized = ObjectSerializer.JDK.serialize(value).orElse(EMPTY);
+            out.writeByte(TYPE_SERIALIZED);
+            out.writeInt(serialized.length);
+            out.write(serialized);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_INTEGER:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_SERIALIZED:
+                byte[] serialized = new byte[in.readInt()];
+                in.readFully(serialized);
+                return ObjectSerializer.JDK.deserialize(serialized).orElse(null);
+            default:
+                throw new SerializationException("Unknown session attribute type: " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.session;
+
+import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.session.event.AbstractSessionEvent;
+import io.micronaut.session.event.SessionCreatedEvent;
+import io.micronaut.session.event.SessionDeletedEvent;
+import io.micronaut.session.event.SessionExpiredEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link SessionStore} for large numbers of sessions. Instead of keeping a graph of session objects, each session
+ * is stored as a single small entry whose attributes are encoded to a byte array, so that millions of sessions put
+ * little pressure on the garbage collector.
+ *
+ * <p>The sessions are spread over independently locked shards that each keep their sessions in access order. The
+ * total size of the stored sessions is bounded by {@link CompactSessionStoreConfiguration#getMaxMemory()}, evicting
+ * the least recently accessed sessions of each shard in turn when it is exceeded. Expired sessions are removed when they
+ * are looked up and by a periodic sweep on the scheduled executor.</p>
+ *
+ * <p>Sessions with the configured {@link SessionConfiguration#getMaxInactiveInterval()} expire in access order, so the
+ * sweep stops at the first session of a shard that has not expired. Sessions that never expire are kept apart and are
+ * not swept, while sessions with another max inactive interval are checked one by one.</p>
+ *
+ * <p>Sessions returned by {@link #findSession(String)} are snapshots. Changes are only stored when the session is
+ * saved, and values that are modified in place must be put again to mark the session as modified.</p>
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@Singleton
+@Primary
+@Replaces(InMemorySessionStore.class)
+@Requires(property = CompactSessionStoreConfiguration.PREFIX + ".enabled", value = StringUtils.TRUE)
+public class CompactSessionStore implements SessionStore<InMemorySession>, Closeable {
+
+    /**
+     * The estimated size of a stored session without its id and attributes: the entry, the hash map node and the id
+     * string.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+    private static final long NEVER_EXPIRES = -1;
+
+    private final SessionIdGenerator sessionIdGenerator;
+    private final SessionConfiguration sessionConfiguration;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Shard[] shards;
+    private final int mask;
+    private final long maxMemory;
+    private final int maxActiveSessions;
+    private final long defaultMaxInactiveInterval;
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final AtomicInteger evictionCursor = new AtomicInteger();
+    private final ScheduledFuture<?> sweeper;
+
+    /**
+     * Constructor.
+     *
+     * @param sessionIdGenerator The session id generator
+     * @param sessionConfiguration The sessions configuration
+     * @param configuration The compact store configuration
+     * @param eventPublisher The application event publisher
+     */
+    public CompactSessionStore(
+        SessionIdGenerator sessionIdGenerator,
+        SessionConfiguration sessionConfiguration,
+        CompactSessionStoreConfiguration configuration,
+        ApplicationEventPublisher eventPublisher) {
+
+        this.sessionIdGenerator = sessionIdGenerator;
+        this.sessionConfiguration = sessionConfiguration;
+        this.eventPublisher = eventPublisher;
+        int shardCount = Integer.highestOneBit(Math.max(1, configuration.getShards()));
+        if (shardCount < configuration.getShards()) {
+            shardCount <<= 1;
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        this.mask = shardCount - 1;
+        this.maxMemory = configuration.getMaxMemory();
+        this.maxActiveSessions = sessionConfiguration.getMaxActiveSessions().orElse(Integer.MAX_VALUE);
+        this.defaultMaxInactiveInterval = toMillis(sessionConfiguration.getMaxInactiveInterval());
+        long sweepMillis = configuration.getSweepInterval().toMillis();
+        this.sweeper = sessionConfiguration.getExecutorService()
+                .map(executor -> executor.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS))
+                .orElse(null);
+    }
+
+    @Override
+    public InMemorySession newSession() {
+        return new CompactSession(sessionIdGenerator.generateId(), sessionConfiguration.getMaxInactiveInterval());
+    }
+
+    @Override
+    public CompletableFuture<Optional<InMemorySession>> findSession(String id) {
+        Shard shard = shard(id);
+        long now = System.currentTimeMillis();
+        Entry entry;
+        Entry expired = null;
+        synchronized (shard) {
+            entry = shard.get(id);
+            if (entry != null) {
+                if (entry.isExpired(now)) {
+                    shard.remove(id);
+                    expired = entry;
+                    entry = null;
+                } else {
+                    entry.lastAccessTime = now;
+                }
+            }
+        }
+        if (expired != null) {
+            removed(expired);
+            eventPublisher.publishEvent(new SessionExpiredEvent(expired.toSession()));
+        }
+        return CompletableFuture.completedFuture(
+            Optional.ofNullable(entry != null ? entry.toSession() : null)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteSession(String id) {
+        Shard shard = shard(id);
+        Entry removed;
+        synchronized (shard) {
+            removed = shard.remove(id);
+        }
+        if (removed != null) {
+            removed(removed);
+            eventPublisher.publishEvent(new SessionDeletedEvent(removed.toSession()));
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<InMemorySession> save(InMemorySession session) {
+        if (session == null) {
+            throw new IllegalArgumentException("Session cannot be null");
+        }
+        byte[] attributes;
+        try {
+            attributes = session instanceof CompactSession ?
+                    ((CompactSession) session).encodeAttributes() :
+                    CompactSessionAttributes.encode(session.attributeMap);
+        } catch (RuntimeException e) {
+            CompletableFuture<InMemorySession> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        String id = session.getId();
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(
+                id,
+                session.getCreationTime().toEpochMilli(),
+                toMillis(session.getMaxInactiveInterval()),
+                now,
+                attributes);
+        Shard shard = shard(id);
+        Entry existing;
+        synchronized (shard) {
+            existing = shard.put(entry, defaultMaxInactiveInterval);
+        }
+        usedMemory.addAndGet(entry.size() - (existing != null ? existing.size() : 0));
+        if (existing == null) {
+            sessionCount.incrementAndGet();
+        }
+        session.setLastAccessedTime(Instant.ofEpochMilli(now));
+        if (session instanceof CompactSession) {
+            ((CompactSession) session).saved();
+        } else {
+            session.setNew(false);
+        }
+        if (existing == null) {
+            eventPublisher.publishEvent(new SessionCreatedEvent(session));
+        }
+        evictIfNecessary();
+        return CompletableFuture.completedFuture(session);
+    }
+
+    /**
+     * @return The number of stored sessions, including expired sessions that were not removed yet
+     */
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * @return The estimated number of bytes used by the stored sessions
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    /**
+     * Removes the expired sessions of every shard and publishes a {@link SessionExpiredEvent} for each.
+     */
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Shard shard : shards) {
+            List<Entry> expired = Collections.emptyList();
+            synchronized (shard) {
+                // in access order, the sessions after the first one that has not expired have not expired either
+                expired = removeExpired(shard.entries, now, true, expired);
+                expired = removeExpired(shard.custom, now, false, expired);
+            }
+            for (Entry entry : expired) {
+                removed(entry);
+                eventPublisher.publishEvent(new SessionExpiredEvent(entry.toSession()));
+            }
+        }
+    }
+
+    /**
+     * Stops the periodic sweep.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.cancel(false);
+        }
+    }
+
+    private static List<Entry> removeExpired(LinkedHashMap<String, Entry> entries, long now, boolean inExpiryOrder, List<Entry> expired) {
+        Iterator<Entry> i = entries.values().iterator();
+        while (i.hasNext()) {
+            Entry entry = i.next();
+            if (entry.isExpired(now)) {
+                i.remove();
+                if (expired.isEmpty()) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(entry);
+            } else if (inExpiryOrder) {
+                break;
+            }
+        }
+        return expired;
+    }
+
+    private static long toMillis(Duration maxInactiveInterval) {
+        return maxInactiveInterval == null || maxInactiveInterval.isNegative() ? NEVER_EXPIRES : maxInactiveInterval.toMillis();
+    }
+
+    private void evictIfNecessary() {
+        List<AbstractSessionEvent> events = null;
+        int emptyShards = 0;
+        while ((usedMemory.get() > maxMemory || sessionCount.get() > maxActiveSessions) && emptyShards < shards.length) {
+            Shard shard = shards[evictionCursor.getAndIncrement() & mask];
+            Entry evicted = null;
+            synchronized (shard) {
+                evicted = shard.removeLeastRecentlyAccessed();
+            }
+            if (evicted == null) {
+                emptyShards++;
+                continue;
+            }
+            emptyShards = 0;
+            removed(evicted);
+            if (events == null) {
+                events = new ArrayList<>();
+            }
+            events.add(new SessionExpiredEvent(evicted.toSession()));
+        }
+        if (events != null) {
+            events.forEach(eventPublisher::publishEvent);
+        }
+    }
+
+    private void removed(Entry entry) {
+        usedMemory.addAndGet(-entry.size());
+        sessionCount.decrementAndGet();
+    }
+
+    private Shard shard(String id) {
+        int h = id.hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    /**
+     * A shard of the store, its sessions are in access order.
+     */
+    private static final class Shard {
+        /**
+         * The sessions with the default max inactive interval, which are also in expiry order.
+         */
+        final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        /**
+         * The sessions with another max inactive interval.
+         */
+        final LinkedHashMap<String, Entry> custom = new LinkedHashMap<>(16, 0.75f, true);
+        /**
+         * The sessions that never expire.
+         */
+        final LinkedHashMap<String, Entry> persistent = new LinkedHashMap<>(16, 0.75f, true);
+
+        Entry get(String id) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                entry = custom.get(id);
+            }
+            if (entry == null) {
+                entry = persistent.get(id);
+            }
+            return entry;
+        }
+
+        Entry remove(String id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                entry = custom.remove(id);
+            }
+            if (entry == null) {
+                entry = persistent.remove(id);
+            }
+            return entry;
+        }
+
+        Entry put(Entry entry, long defaultMaxInactiveInterval) {
+            Entry existing = remove(entry.id);
+            if (entry.maxInactiveInterval == NEVER_EXPIRES) {
+                persistent.put(entry.id, entry);
+            } else if (entry.maxInactiveInterval == defaultMaxInactiveInterval) {
+                entries.put(entry.id, entry);
+            } else {
+                custom.put(entry.id, entry);
+            }
+            return existing;
+        }
+
+        Entry removeLeastRecentlyAccessed() {
+            LinkedHashMap<String, Entry> eldestOf = null;
+            Entry eldest = null;
+            for (LinkedHashMap<String, Entry> map : Arrays.asList(entries, custom, persistent)) {
+                Iterator<Entry> i = map.values().iterator();
+                if (i.hasNext()) {
+                    Entry entry = i.next();
+                    if (eldest == null || entry.lastAccessTime < eldest.lastAccessTime) {
+                        eldest = entry;
+                        eldestOf = map;
+                    }
+                }
+            }
+            if (eldestOf != null) {
+                eldestOf.remove(eldest.id);
+            }
+            return eldest;
+        }
+    }
+
+    /**
+     * A stored session.
+     */
+    private static final class Entry {
+        final String id;
+        final long creationTime;
+        final long maxInactiveInterval;
+        final byte[] attributes;
+        volatile long lastAccessTime;
+
+        Entry(String id, long creationTime, long maxInactiveInterval, long lastAccessTime, byte[] attributes) {
+            this.id = id;
+            this.creationTime = creationTime;
+            this.maxInactiveInterval = maxInactiveInterval;
+            this.lastAccessTime = lastAccessTime;
+            this.attributes = attributes;
+        }
+
+        boolean isExpired(long now) {
+            return maxInactiveInterval != NEVER_EXPIRES && now - maxInactiveInterval >= lastAccessTime;
+        }
+
+        long size() {
+            return ENTRY_OVERHEAD + id.length() + attributes.length;
+        }
+
+        CompactSession toSession() {
+            return new CompactSession(
+                    id,
+                    Instant.ofEpochMilli(creationTime),
+                    Instant.ofEpochMilli(lastAccessTime),
+                    maxInactiveInterval == NEVER_EXPIRES ? Duration.ofSeconds(-1) : Duration.ofMillis(maxInactiveInterval),
+                    attributes);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.session;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.convert.format.ReadableBytes;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link CompactSessionStore}.
+ *
+ * @author Graeme Rocher
+ * @since 4.0.0
+ */
+@ConfigurationProperties(CompactSessionStoreConfiguration.PREFIX)
+public class CompactSessionStoreConfiguration {
+
+    /**
+     * The prefix of the configuration.
+     */
+    public static final String PREFIX = SessionSettings.PREFIX + ".compact";
+
+    /**
+     * The default number of shards.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_SHARDS = 64;
+
+    /**
+     * The default memory budget of all sessions.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_MAX_MEMORY = 256L * 1024 * 1024; // 256MB
+
+    /**
+     * The default interval between sweeps for expired sessions.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final Duration DEFAULT_SWEEP_INTERVAL = Duration.ofMinutes(1);
+
+    private boolean enabled;
+    private int shards = DEFAULT_SHARDS;
+    private long maxMemory = DEFAULT_MAX_MEMORY;
+    private Duration sweepInterval = DEFAULT_SWEEP_INTERVAL;
+
+    /**
+     * @return Whether the compact store replaces the default in-memory session store
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the compact store replaces the default in-memory session store. Default value (false).
+     *
+     * @param enabled True if it is enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The number of independently locked shards
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Sets the number of independently locked shards, rounded up to a power of two. Default value
+     * ({@value #DEFAULT_SHARDS}).
+     *
+     * @param shards The number of shards
+     */
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * @return The approximate number of bytes all stored sessions may use
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Sets the approximate number of bytes all stored sessions may use. The least recently accessed sessions are
+     * evicted once it is exceeded. Default value (256MB).
+     *
+     * @param maxMemory The memory budget
+     */
+    public void setMaxMemory(@ReadableBytes long maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * @return The interval between sweeps for expired sessions
+     */
+    public @NonNull Duration getSweepInterval() {
+        return sweepInterval;
+    }
+
+    /**
+     * Sets the interval between sweeps for expired sessions. Expired sessions are also removed when they are looked
+     * up. Default value (1 minute).
+     *
+     * @param sweepInterval The sweep interval
+     */
+    public void setSweepInterval(@NonNull Duration sweepInterval) {
+        if (sweepInterval != null) {
+            this.sweepInterval = sweepInterval;
+        }
+    }
+}
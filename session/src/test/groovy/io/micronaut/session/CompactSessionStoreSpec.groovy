@@ -0,0 +1,227 @@
+package io.micronaut.session
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.event.ApplicationEventPublisher
+import io.micronaut.core.serialize.exceptions.SerializationException
+import io.micronaut.session.event.SessionCreatedEvent
+import io.micronaut.session.event.SessionDeletedEvent
+import io.micronaut.session.event.SessionExpiredEvent
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.ExecutionException
+
+class CompactSessionStoreSpec extends Specification {
+
+    List<Object> events = []
+    ApplicationEventPublisher<Object> eventPublisher = Stub(ApplicationEventPublisher) {
+        publishEvent(_) >> { Object event -> events << event }
+    }
+
+    void "test the compact store replaces the default store when enabled"() {
+        given:
+        ApplicationContext applicationContext = ApplicationContext.run(['micronaut.session.compact.enabled': true])
+
+        expect:
+        applicationContext.getBean(SessionStore) instanceof CompactSessionStore
+
+        cleanup:
+        applicationContext.close()
+    }
+
+    void "test attributes are stored and restored"() {
+        given:
+        CompactSessionStore store = newStore()
+        Session session = store.newSession()
+        session.put('string', 'bar')
+        session.put('int', 10)
+        session.put('long', 20L)
+        session.put('double', 1.5d)
+        session.put('boolean', true)
+        session.put('list', ['one', 'two'])
+        session.put('null', null)
+
+        when:
+        store.save(session).get()
+        Session found = store.findSession(session.id).get().get()
+
+        then:
+        events.size() == 1
+        events[0] instanceof SessionCreatedEvent
+        !found.is(session)
+        !found.new
+        !found.modified
+        found.creationTime.toEpochMilli() == session.creationTime.toEpochMilli()
+        found.get('string').get() == 'bar'
+        found.get('int').get() == 10
+        found.get('long').get() == 20L
+        found.get('double').get() == 1.5d
+        found.get('boolean').get() == true
+        found.get('list').get() == ['one', 'two']
+        !found.get('null').isPresent()
+        store.sessionCount == 1
+        store.usedMemory > 0
+    }
+
+    void "test changes are only stored when the session is saved"() {
+        given:
+        CompactSessionStore store = newStore()
+        Session session = store.newSession()
+        session.put('foo', 'bar')
+        store.save(session).get()
+
+        when:
+        Session found = store.findSession(session.id).get().get()
+        found.get('foo')
+
+        then:
+        !found.modified
+
+        when:
+        found.put('foo', 'baz')
+
+        then:
+        found.modified
+        store.findSession(session.id).get().get().get('foo').get() == 'bar'
+
+        when:
+        store.save(found).get()
+
+        then:
+        !found.modified
+        store.findSession(session.id).get().get().get('foo').get() == 'baz'
+        store.sessionCount == 1
+        events.count { it instanceof SessionCreatedEvent } == 1
+    }
+
+    void "test deleting a session"() {
+        given:
+        CompactSessionStore store = newStore()
+        Session session = store.newSession()
+        store.save(session).get()
+
+        when:
+        store.deleteSession(session.id).get()
+
+        then:
+        !store.findSession(session.id).get().isPresent()
+        events[-1] instanceof SessionDeletedEvent
+        store.sessionCount == 0
+        store.usedMemory == 0
+    }
+
+    void "test expired sessions are removed when looked up"() {
+        given:
+        CompactSessionStore store = newStore(sessionConfiguration(Duration.ofMillis(50)))
+        Session session = store.newSession()
+        store.save(session).get()
+
+        when:
+        Thread.sleep(100)
+
+        then:
+        !store.findSession(session.id).get().isPresent()
+        events[-1] instanceof SessionExpiredEvent
+        events[-1].source.id == session.id
+        store.sessionCount == 0
+    }
+
+    void "test expired sessions are removed by a sweep"() {
+        given:
+        CompactSessionStore store = newStore(sessionConfiguration(Duration.ofMillis(50)))
+        3.times { store.save(store.newSession()).get() }
+
+        when:
+        Thread.sleep(100)
+        store.sweep()
+
+        then:
+        store.sessionCount == 0
+        store.usedMemory == 0
+        events.count { it instanceof SessionExpiredEvent } == 3
+    }
+
+    void "test a sweep removes expired sessions with another max inactive interval"() {
+        given:
+        CompactSessionStore store = newStore(sessionConfiguration(Duration.ofHours(1)))
+        2.times { store.save(store.newSession()).get() }
+        Session shortLived = store.newSession()
+        shortLived.maxInactiveInterval = Duration.ofMillis(50)
+        store.save(shortLived).get()
+        Session persistent = store.newSession()
+        persistent.maxInactiveInterval = Duration.ofSeconds(-1)
+        store.save(persistent).get()
+
+        when:
+        Thread.sleep(100)
+        store.sweep()
+
+        then:
+        store.sessionCount == 3
+        events.findAll { it instanceof SessionExpiredEvent }*.source*.id == [shortLived.id]
+        store.findSession(persistent.id).get().isPresent()
+        !store.findSession(shortLived.id).get().isPresent()
+    }
+
+    void "test the least recently accessed sessions are evicted when the memory budget is exceeded"() {
+        given:
+        CompactSessionStoreConfiguration configuration = new CompactSessionStoreConfiguration(shards: 1)
+        CompactSessionStore store = newStore(new SessionConfiguration(), configuration)
+        List<Session> sessions = (0..<4).collect { store.newSession() }
+        sessions[0..2].each { store.save(it).get() }
+        configuration.maxMemory = store.usedMemory
+        store = new CompactSessionStore(new DefaultSessionIdGenerator(), new SessionConfiguration(), configuration, eventPublisher)
+        sessions[0..2].each { store.save(it).get() }
+
+        when:
+        store.findSession(sessions[0].id).get()
+        store.save(sessions[3]).get()
+
+        then:
+        store.sessionCount == 3
+        !store.findSession(sessions[1].id).get().isPresent()
+        store.findSession(sessions[0].id).get().isPresent()
+        store.findSession(sessions[2].id).get().isPresent()
+        store.findSession(sessions[3].id).get().isPresent()
+        events.find { it instanceof SessionExpiredEvent }.source.id == sessions[1].id
+    }
+
+    void "test the max active sessions are enforced"() {
+        given:
+        SessionConfiguration sessionConfiguration = new SessionConfiguration(maxActiveSessions: 2)
+        CompactSessionStore store = newStore(sessionConfiguration)
+
+        when:
+        3.times { store.save(store.newSession()).get() }
+
+        then:
+        store.sessionCount == 2
+    }
+
+    void "test saving a session with a value that cannot be serialized fails"() {
+        given:
+        CompactSessionStore store = newStore()
+        Session session = store.newSession()
+        session.put('foo', new Object())
+
+        when:
+        store.save(session).get()
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof SerializationException
+        store.sessionCount == 0
+    }
+
+    private CompactSessionStore newStore(
+            SessionConfiguration sessionConfiguration = new SessionConfiguration(),
+            CompactSessionStoreConfiguration configuration = new CompactSessionStoreConfiguration()) {
+        new CompactSessionStore(new DefaultSessionIdGenerator(), sessionConfiguration, configuration, eventPublisher)
+    }
+
+    private static SessionConfiguration sessionConfiguration(Duration maxInactiveInterval) {
+        SessionConfiguration configuration = new SessionConfiguration()
+        configuration.maxInactiveInterval = maxInactiveInterval
+        return configuration
+    }
+}
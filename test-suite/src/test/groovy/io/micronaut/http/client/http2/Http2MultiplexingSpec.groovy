@@ -0,0 +1,133 @@
+package io.micronaut.http.client.http2
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.netty.DefaultHttpClient
+import io.micronaut.http.client.netty.Http2ConnectionPoolMetrics
+import io.micronaut.runtime.server.EmbeddedServer
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+
+class Http2MultiplexingSpec extends Specification {
+
+    @Shared @AutoCleanup EmbeddedServer server = ApplicationContext.run(EmbeddedServer, [
+            'spec.name': 'Http2MultiplexingSpec',
+            'micronaut.server.ssl.enabled': true,
+            'micronaut.server.http-version': '2.0',
+            'micronaut.server.ssl.buildSelfSigned': true,
+            'micronaut.server.ssl.port': -1
+    ])
+
+    @AutoCleanup ApplicationContext clientContext
+
+    void "test concurrent requests are multiplexed over one connection"() {
+        given:
+        DefaultHttpClient client = createClient([:])
+
+        when:
+        List<String> results = Flux.range(0, 20)
+                .flatMap { client.retrieve(HttpRequest.GET("/http2-multiplex/slow/$it")) }
+                .collectList()
+                .block()
+
+        then:
+        results.size() == 20
+        results.every { it.startsWith('HTTP_2_0 ') }
+
+        and:
+        new PollingConditions(timeout: 5).eventually {
+            Http2ConnectionPoolMetrics metrics = client.http2ConnectionPoolMetrics[0]
+            assert metrics.connections == 1
+            assert metrics.activeStreams == 0
+            assert metrics.pendingAcquires == 0
+        }
+
+        cleanup:
+        client.close()
+    }
+
+    void "test a new connection is opened when the streams are exhausted"() {
+        given:
+        DefaultHttpClient client = createClient([
+                'micronaut.http.client.pool.max-connections': 2,
+                'micronaut.http.client.pool.max-concurrent-http2-streams': 2
+        ])
+
+        when:
+        List<String> results = Flux.range(0, 10)
+                .flatMap { client.retrieve(HttpRequest.GET("/http2-multiplex/slow/$it")) }
+                .collectList()
+                .block()
+
+        then:
+        results.size() == 10
+        client.http2ConnectionPoolMetrics.size() == 1
+        client.http2ConnectionPoolMetrics[0].connections == 2
+        client.http2ConnectionPoolMetrics[0].maxStreams == 4
+
+        cleanup:
+        client.close()
+    }
+
+    void "test requests fall back to HTTP/1.1 when the server does not support HTTP/2"() {
+        given:
+        EmbeddedServer http1Server = ApplicationContext.run(EmbeddedServer, [
+                'spec.name': 'Http2MultiplexingSpec',
+                'micronaut.server.ssl.enabled': true,
+                'micronaut.server.http-version': '1.1',
+                'micronaut.server.ssl.buildSelfSigned': true,
+                'micronaut.server.ssl.port': -1
+        ])
+        DefaultHttpClient client = createClient([:], http1Server.URL)
+
+        when:
+        List<String> results = Flux.range(0, 10)
+                .flatMap { client.retrieve(HttpRequest.GET("/http2-multiplex/slow/$it")) }
+                .collectList()
+                .block()
+
+        then:
+        results.size() == 10
+        results.every { it.startsWith('HTTP_1_1 ') }
+        client.http2ConnectionPoolMetrics[0].connections == 0
+
+        when:
+        String result = client.toBlocking().retrieve('/http2-multiplex/slow/10')
+
+        then:
+        result == 'HTTP_1_1 10'
+
+        cleanup:
+        client.close()
+        http1Server.close()
+    }
+
+    private DefaultHttpClient createClient(Map<String, Object> config, URL url = server.URL) {
+        clientContext = ApplicationContext.run([
+                'micronaut.http.client.http-version': '2.0',
+                'micronaut.http.client.ssl.insecure-trust-all-certificates': true
+        ] + config)
+        return (DefaultHttpClient) clientContext.createBean(HttpClient, url)
+    }
+
+    @Requires(property = 'spec.name', value = 'Http2MultiplexingSpec')
+    @Controller('/http2-multiplex')
+    static class MultiplexController {
+
+        @Get(value = '/slow/{index}', produces = MediaType.TEXT_PLAIN)
+        Mono<String> slow(HttpRequest<?> request, int index) {
+            return Mono.delay(Duration.ofMillis(100)).map { request.httpVersion.name() + ' ' + index }
+        }
+    }
+}
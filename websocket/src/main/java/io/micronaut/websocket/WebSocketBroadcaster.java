@@ -46,6 +46,38 @@ public interface WebSocketBroadcaster {
      */
     <T> Publisher<T> broadcast(T message, MediaType mediaType, Predicate<WebSocketSession> filter);
 
+    /**
+     * When used on the server this method will broadcast a message to the open WebSocket connections that are
+     * subscribed to the given topic with {@link WebSocketSession#subscribe(String)}. The message is only encoded once.
+     * The resulting {@link Publisher} does not start sending until subscribed to.
+     *
+     * @param topic The topic
+     * @param message The message
+     * @param mediaType The media type of the message. Used to lookup an appropriate codec via the {@link io.micronaut.http.codec.MediaTypeCodecRegistry}.
+     * @param <T> The message type
+     * @return A {@link Publisher} that either emits an error or emits the message once it has been published successfully.
+     * @since 4.0.0
+     */
+    default <T> Publisher<T> broadcastToTopic(String topic, T message, MediaType mediaType) {
+        Objects.requireNonNull(topic, "The topic cannot be null");
+        return broadcast(message, mediaType, s -> s.getSubscriptions().contains(topic));
+    }
+
+    /**
+     * When used on the server this method will broadcast a message to the open WebSocket connections that are
+     * subscribed to the given topic with {@link WebSocketSession#subscribe(String)}.
+     * The resulting {@link Publisher} does not start sending until subscribed to.
+     *
+     * @param topic The topic
+     * @param message The message
+     * @param <T> The message type
+     * @return A {@link Publisher} that either emits an error or emits the message once it has been published successfully.
+     * @since 4.0.0
+     */
+    default <T> Publisher<T> broadcastToTopic(String topic, T message) {
+        return broadcastToTopic(topic, message, MediaType.APPLICATION_JSON_TYPE);
+    }
+
     /**
      * When used on the server this method will broadcast a message to all open WebSocket connections.
      * The resulting {@link Publisher} does not start sending until subscribed to.
@@ -25,6 +25,7 @@ import org.reactivestreams.Publisher;
 
 import java.net.URI;
 import java.security.Principal;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -212,6 +213,37 @@ public interface WebSocketSession extends MutableConvertibleValues<Object>, Auto
         return Optional.empty();
     }
 
+    /**
+     * Subscribes this session to the given topic, so that it receives the messages broadcast with
+     * {@link WebSocketBroadcaster#broadcastToTopic(String, Object, MediaType)}. The subscription ends when the session
+     * is closed.
+     *
+     * @param topic The topic
+     * @since 4.0.0
+     */
+    default void subscribe(@NonNull String topic) {
+        throw new UnsupportedOperationException("Topics not supported by this implementation");
+    }
+
+    /**
+     * Unsubscribes this session from the given topic.
+     *
+     * @param topic The topic
+     * @since 4.0.0
+     */
+    default void unsubscribe(@NonNull String topic) {
+        throw new UnsupportedOperationException("Topics not supported by this implementation");
+    }
+
+    /**
+     * @return The topics this session is subscribed to
+     * @since 4.0.0
+     */
+    @NonNull
+    default Set<String> getSubscriptions() {
+        return Collections.emptySet();
+    }
+
     @Override
     void close();
 